@@ -0,0 +1,87 @@
+package com.example.data_collector_service.buffer;
+
+import com.example.data_collector_service.decoder.KoreanTick;
+import com.example.data_collector_service.service.StockMasterDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RealTimeDataBuffer 쓰기/순회 벤치마크
+ *
+ * - put: 소비자 스레드 1개가 onTick만 호출 (경합 없음)
+ * - contended: 소비자 스레드(onTick) 1개와 조회 스레드(forEachKoreanQuote) 2개가 동시에 실행
+ *   (LatestQuoteStore seqlock에서 읽기 재시도가 얼마나 생기는지 확인)
+ * - drain: DataFlushScheduler가 부르는 drainKoreanUpdates + commitKoreanDrain (변경 종목 엔티티 생성 포함)
+ *
+ * 실행: mvn -Pjmh test-compile exec:exec -Djmh.args="RealTimeDataBufferBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RealTimeDataBufferBenchmark {
+
+    // 구독 종목 수 (KIS 세션 5개 x 41종목 ~ 마스터 전체)
+    @Param({"200", "2000"})
+    int symbols;
+
+    RealTimeDataBuffer buffer;
+    KoreanTick[] ticks;
+
+    @Setup
+    public void setup() {
+        SymbolTable symbolTable = new SymbolTable();
+        // 저장소 없이 빈 사전으로 사용 (종목명 조회는 null -> "미매핑")
+        StockMasterDictionary stockMaster = new StockMasterDictionary(null, symbolTable);
+        buffer = new RealTimeDataBuffer(symbolTable, stockMaster, 4096);
+        ticks = new KoreanTick[symbols];
+        for (int i = 0; i < symbols; i++) {
+            String code = String.format("%06d", i * 10);
+            symbolTable.register(code);
+            ticks[i] = new KoreanTick();
+            ticks[i].set(code, 93000, 71_900_0000L + i, 14, 10, System.currentTimeMillis());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Group("put")
+    public void put(Cursor cursor) {
+        buffer.onTick(ticks[cursor.next++ % symbols], true);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void contendedWrite(Cursor cursor) {
+        buffer.onTick(ticks[cursor.next++ % symbols], true);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void contendedIterate(Blackhole bh) {
+        buffer.forEachKoreanQuote(view -> bh.consume(view.price));
+    }
+
+    @Benchmark
+    @Group("drain")
+    public void drain(Cursor cursor, Blackhole bh) {
+        // 한 번의 저장 주기 사이에 전 종목의 시세가 바뀐 상황
+        for (int i = 0; i < symbols; i++) {
+            buffer.onTick(ticks[i], i == symbols - 1);
+        }
+        RealTimeDataBuffer.KoreanDrain drain = buffer.drainKoreanUpdates();
+        // 저장 성공 후 확정까지 포함 (확정하지 않으면 다음 호출에서 같은 종목이 다시 나옴)
+        buffer.commitKoreanDrain(drain);
+        bh.consume(drain);
+    }
+}
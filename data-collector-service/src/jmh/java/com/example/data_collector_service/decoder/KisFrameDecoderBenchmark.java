@@ -0,0 +1,69 @@
+package com.example.data_collector_service.decoder;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KIS H0STCNT0 프레임 파싱 벤치마크
+ *
+ * - legacySplit: 기존 KoreanStockWebSocketService.onMessage 경로 (contains + split 2회 + BigDecimal 2개)
+ * - decoder: KisFrameDecoder 단일 순회 파싱 (재사용 KoreanTickBatch)
+ * - decoderMultiRecord: 레코드 3건이 담긴 프레임
+ *
+ * 실행: mvn -Pjmh test-compile exec:exec -Djmh.args="KisFrameDecoderBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KisFrameDecoderBenchmark {
+
+    // 실제 H0STCNT0 레코드와 같은 46개 필드 구성
+    static final String FRAME = "0|H0STCNT0|001|005930^093354^71900^5^-100^-0.14^72023.83^72100^72400^71700^71900^71800"
+            + "^1^3052507^219853241700^5105^6937^1832^84.90^1366828^1446593^5^0.39^20.42^090020^5^-200^090820^5^-500"
+            + "^092619^2^200^20230612^20^N^65945^216924^1118750^2199206^0.05^2618921^112.73^0^^72100";
+
+    static final String RECORD = FRAME.substring(FRAME.lastIndexOf('|') + 1);
+
+    // 장 시작/마감 동시호가처럼 한 프레임에 여러 레코드가 담긴 경우
+    static final String MULTI_FRAME = "0|H0STCNT0|003|" + RECORD + "^" + RECORD + "^" + RECORD;
+
+    private final KoreanTickBatch batch = new KoreanTickBatch();
+
+    @Benchmark
+    public void legacySplit(Blackhole bh) {
+        String text = FRAME;
+        if (text.contains("\"tr_id\":\"PINGPONG\"")) {
+            return;
+        }
+        String[] parts = text.split("\\|");
+        if (parts.length < 4) {
+            return;
+        }
+        String[] tokens = parts[3].split("\\^");
+        if (tokens.length < 6) {
+            return;
+        }
+        bh.consume(tokens[0]);
+        bh.consume(new BigDecimal(tokens[2]));
+        bh.consume(new BigDecimal(tokens[5]));
+    }
+
+    @Benchmark
+    public void decoder(Blackhole bh) {
+        bh.consume(KisFrameDecoder.decode(FRAME, batch));
+        bh.consume(batch.get(0).price());
+        bh.consume(batch.get(0).changeRate());
+    }
+
+    @Benchmark
+    public void decoderMultiRecord(Blackhole bh) {
+        bh.consume(KisFrameDecoder.decode(MULTI_FRAME, batch));
+        bh.consume(batch.size());
+    }
+}
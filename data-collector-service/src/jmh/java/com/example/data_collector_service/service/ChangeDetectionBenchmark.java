@@ -0,0 +1,69 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.entity.KoreanDailyStock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DailyStockService 가격 변동 판단 벤치마크
+ *
+ * saveKoreanDailyStocks의 1단계(LastPersistedPriceCache로 저장 대상 고르기)만 떼어 측정합니다.
+ * changedPercent로 한 저장 주기에서 실제로 가격이 바뀐 종목 비율을 바꿔 봅니다.
+ *
+ * 실행: mvn -Pjmh test-compile exec:exec -Djmh.args="ChangeDetectionBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChangeDetectionBenchmark {
+
+    @Param({"2000"})
+    int symbols;
+
+    @Param({"10", "100"})
+    int changedPercent;
+
+    LastPersistedPriceCache priceCache;
+    List<KoreanDailyStock> batch;
+
+    @Setup
+    public void setup() {
+        // 저장소 없이 생성하고 init()은 호출하지 않음 (캐시는 아래에서 직접 채움)
+        priceCache = new LastPersistedPriceCache(null);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 11, 10, 0);
+        batch = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            String code = String.format("%06d", i * 10);
+            BigDecimal persisted = BigDecimal.valueOf(71_900_0000L + i, 4);
+            priceCache.recordKorean(code, persisted, now.toLocalDate());
+
+            boolean changed = i % 100 < changedPercent;
+            KoreanDailyStock data = new KoreanDailyStock();
+            data.setStockCode(code);
+            data.setCurrentPrice(changed ? persisted.add(BigDecimal.ONE) : BigDecimal.valueOf(71_900_0000L + i, 4));
+            data.setTimestamp(now);
+            batch.add(data);
+        }
+    }
+
+    @Benchmark
+    public void selectChanged(Blackhole bh) {
+        List<KoreanDailyStock> changed = new ArrayList<>();
+        for (KoreanDailyStock newData : batch) {
+            if (!priceCache.isKoreanUnchanged(newData.getStockCode(), newData.getCurrentPrice(),
+                    newData.getTimestamp().toLocalDate())) {
+                changed.add(newData);
+            }
+        }
+        bh.consume(changed);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.data_collector_service.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MarketTimeChecker 호출 비용 벤치마크
+ *
+ * 장 운영 여부는 수신/저장 스케줄러와 재연결 감시가 주기마다 호출하므로
+ * 호출당 시간대 변환과 객체 생성 비용을 확인합니다.
+ *
+ * 실행: mvn -Pjmh test-compile exec:exec -Djmh.args="MarketTimeCheckerBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarketTimeCheckerBenchmark {
+
+    @Benchmark
+    public boolean korean() {
+        return MarketTimeChecker.isKoreanMarketOpen();
+    }
+
+    @Benchmark
+    public boolean us() {
+        return MarketTimeChecker.isUSMarketOpen();
+    }
+
+    @Benchmark
+    public boolean hongKong() {
+        return MarketTimeChecker.isHongKongMarketOpen();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.data_collector_service.visualizationService;
+
+import com.example.data_collector_service.archive.HistoryArchive;
+import com.example.data_collector_service.entity.DailyForex;
+import com.example.data_collector_service.entity.GlobalDailyStock;
+import com.example.data_collector_service.entity.GlobalHistoryStock;
+import com.example.data_collector_service.entity.HistoryForex;
+import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.entity.KoreanHistoryStock;
+import com.example.data_collector_service.tsdb.TickSeriesStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * visualizationService의 buildChartDataFor* 변환 벤치마크
+ *
+ * 저장소 조회 결과를 흉내 낸 목록(시간 순서가 섞인 상태)을 매번 복사해 넘기므로
+ * 정렬, 라벨 문자열 생성, Map 구성 비용이 모두 포함됩니다.
+ * - rows: 당일 데이터 건수 (장중 1분 간격 390건 ~ 1초 간격 23,400건)
+ * - 히스토리는 3개월치(약 90일)
+ *
+ * 실행: mvn -Pjmh test-compile exec:exec -Djmh.args="ChartDataBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChartDataBenchmark {
+
+    private static final int HISTORY_DAYS = 90;
+
+    @Param({"390", "23400"})
+    int rows;
+
+    // 저장소를 쓰지 않는 변환 메서드만 호출 (시계열 저장소/아카이브는 @Value가 주입되지 않아 비활성화 상태)
+    private final KoreanStockService koreanStockService =
+            new KoreanStockService(null, null, new TickSeriesStore(), new HistoryArchive());
+    private final GlobalStockService globalStockService =
+            new GlobalStockService(null, null, new TickSeriesStore(), new HistoryArchive());
+    private final ForexService forexService =
+            new ForexService(null, null, new TickSeriesStore(), new HistoryArchive());
+
+    List<KoreanDailyStock> koreanDaily;
+    List<KoreanHistoryStock> koreanHistory;
+    List<GlobalDailyStock> globalDaily;
+    List<GlobalHistoryStock> globalHistory;
+    List<DailyForex> forexDaily;
+    List<HistoryForex> forexHistory;
+
+    @Setup
+    public void setup() {
+        LocalDateTime open = LocalDateTime.of(2025, 3, 11, 9, 0);
+        LocalDate today = open.toLocalDate();
+        long stepSeconds = 23_400 / rows;
+
+        koreanDaily = new ArrayList<>(rows);
+        globalDaily = new ArrayList<>(rows);
+        forexDaily = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime at = open.plusSeconds(i * stepSeconds);
+            BigDecimal price = BigDecimal.valueOf(71_900_0000L + i, 4);
+
+            KoreanDailyStock korean = new KoreanDailyStock();
+            korean.setStockCode("005930");
+            korean.setCurrentPrice(price);
+            korean.setTimestamp(at);
+            koreanDaily.add(korean);
+
+            GlobalDailyStock global = new GlobalDailyStock();
+            global.setStockCode("TSLA");
+            global.setCurrentPrice(price);
+            global.setTimestamp(at);
+            globalDaily.add(global);
+
+            forexDaily.add(DailyForex.builder().currencyCode("USD").exchangeRate(price).timestamp(at).build());
+        }
+
+        koreanHistory = new ArrayList<>(HISTORY_DAYS);
+        globalHistory = new ArrayList<>(HISTORY_DAYS);
+        forexHistory = new ArrayList<>(HISTORY_DAYS);
+        for (int d = 0; d < HISTORY_DAYS; d++) {
+            LocalDate date = today.minusDays(d);
+            BigDecimal close = BigDecimal.valueOf(71_900_0000L + d, 4);
+            koreanHistory.add(KoreanHistoryStock.builder().stockCode("005930").closingPrice(close).timestamp(date).build());
+            globalHistory.add(GlobalHistoryStock.builder().stockCode("TSLA").closingPrice(close).timestamp(date).build());
+            forexHistory.add(HistoryForex.builder().currencyCode("USD").closingRate(close).date(date).build());
+        }
+
+        // 정렬 비용이 빠지지 않도록 순서를 섞어 둠
+        Random random = new Random(42);
+        Collections.shuffle(koreanDaily, random);
+        Collections.shuffle(globalDaily, random);
+        Collections.shuffle(forexDaily, random);
+        Collections.shuffle(koreanHistory, random);
+        Collections.shuffle(globalHistory, random);
+        Collections.shuffle(forexHistory, random);
+    }
+
+    @Benchmark
+    public Map<String, Object> koreanDaily() {
+        return koreanStockService.buildChartDataForTodayOrYesterday(new ArrayList<>(koreanDaily));
+    }
+
+    @Benchmark
+    public Map<String, Object> koreanHistory() {
+        return koreanStockService.buildChartDataForHistory(new ArrayList<>(koreanHistory));
+    }
+
+    @Benchmark
+    public Map<String, Object> globalDaily() {
+        return globalStockService.buildChartDataForDaily(new ArrayList<>(globalDaily));
+    }
+
+    @Benchmark
+    public Map<String, Object> globalHistory() {
+        return globalStockService.buildChartDataForHistory(new ArrayList<>(globalHistory));
+    }
+
+    @Benchmark
+    public Map<String, Object> forexDaily() {
+        return forexService.buildChartDataForDaily(new ArrayList<>(forexDaily));
+    }
+
+    @Benchmark
+    public Map<String, Object> forexHistory() {
+        return forexService.buildChartDataForHistory(new ArrayList<>(forexHistory));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.data_collector_service.archive;
+
+import com.example.data_collector_service.entity.GlobalHistoryStock;
+import com.example.data_collector_service.entity.HistoryForex;
+import com.example.data_collector_service.entity.KoreanHistoryStock;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 콜드 저장소(HistoryArchive)에 보관되는 일별 히스토리 한 행
+ * (KoreanHistoryStock, GlobalHistoryStock, HistoryForex 공용, 해당 테이블에 없는 값은 null)
+ *
+ * @param symbol       종목 코드 또는 통화 코드
+ * @param name         종목 이름 또는 통화 이름
+ * @param exchangeCode 거래소 코드 (해외 주식만)
+ * @param date         날짜
+ * @param closePrice   종가 (환율은 매매기준율)
+ */
+public record ArchivedHistory(String symbol,
+                              String name,
+                              String exchangeCode,
+                              LocalDate date,
+                              BigDecimal openPrice,
+                              BigDecimal highPrice,
+                              BigDecimal lowPrice,
+                              BigDecimal closePrice,
+                              BigDecimal changeRate,
+                              Integer tickCount) {
+
+    public static ArchivedHistory of(KoreanHistoryStock stock) {
+        return new ArchivedHistory(stock.getStockCode(), stock.getStockName(), null, stock.getTimestamp(),
+                stock.getOpenPrice(), stock.getHighPrice(), stock.getLowPrice(), stock.getClosingPrice(),
+                stock.getChangeRate(), stock.getTickCount());
+    }
+
+    public static ArchivedHistory of(GlobalHistoryStock stock) {
+        return new ArchivedHistory(stock.getStockCode(), stock.getStockName(), stock.getExchangeCode(), stock.getTimestamp(),
+                stock.getOpenPrice(), stock.getHighPrice(), stock.getLowPrice(), stock.getClosingPrice(),
+                stock.getChangeRate(), stock.getTickCount());
+    }
+
+    public static ArchivedHistory of(HistoryForex forex) {
+        return new ArchivedHistory(forex.getCurrencyCode(), forex.getCurrencyName(), null, forex.getDate(),
+                null, null, null, forex.getClosingRate(), null, null);
+    }
+
+    /**
+     * 조회 응답용 엔티티로 변환 (id 없음, 저장하지 않음)
+     */
+    public KoreanHistoryStock toKoreanHistoryStock() {
+        return KoreanHistoryStock.builder()
+                .stockCode(symbol)
+                .stockName(name)
+                .openPrice(openPrice)
+                .highPrice(highPrice)
+                .lowPrice(lowPrice)
+                .closingPrice(closePrice)
+                .changeRate(changeRate)
+                .tickCount(tickCount)
+                .timestamp(date)
+                .build();
+    }
+
+    public GlobalHistoryStock toGlobalHistoryStock() {
+        return GlobalHistoryStock.builder()
+                .stockCode(symbol)
+                .stockName(name)
+                .exchangeCode(exchangeCode)
+                .openPrice(openPrice)
+                .highPrice(highPrice)
+                .lowPrice(lowPrice)
+                .closingPrice(closePrice)
+                .changeRate(changeRate)
+                .tickCount(tickCount)
+                .timestamp(date)
+                .build();
+    }
+
+    public HistoryForex toHistoryForex() {
+        return HistoryForex.builder()
+                .currencyCode(symbol)
+                .currencyName(name)
+                .closingRate(closePrice)
+                .date(date)
+                .build();
+    }
+}
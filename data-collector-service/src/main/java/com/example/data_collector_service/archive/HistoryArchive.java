@@ -0,0 +1,178 @@
+package com.example.data_collector_service.archive;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * HistoryArchive
+ *
+ * warm 보관 기간(collector.archive.warm-months)이 지난 History 테이블 행을 월별 열 압축 파일(HistoryColumnarFile)로
+ * 옮겨 두는 콜드 저장소입니다. 히스토리 조회는 DB(warm) 결과에 이 저장소(cold) 결과를 합쳐 응답합니다.
+ *
+ * - 경로: {dir}/{table}/{yyyy-MM}.hcol (테이블별 한 달치 전체 종목)
+ * - 기록: 기존 월 파일과 합쳐 다시 씀 ((종목, 날짜)가 같으면 새로 옮기는 행 우선)
+ * - 비활성화 상태면 기록/조회 모두 하지 않음 (HistoryTieringService가 기존처럼 삭제만 수행)
+ */
+@Slf4j
+@Component
+public class HistoryArchive {
+
+    /**
+     * 보관 대상 History 테이블 (디렉터리 이름)
+     */
+    public enum Table {
+        KOREAN_HISTORY_STOCK("korean_history_stock"),
+        GLOBAL_HISTORY_STOCK("global_history_stock"),
+        HISTORY_FOREX("history_forex");
+
+        private final String directory;
+
+        Table(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    @Value("${collector.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${collector.archive.dir:./data/history-archive}")
+    private String directory;
+
+    private Path dir;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("[HistoryArchive] 비활성화 상태 (collector.archive.enabled=false)");
+            return;
+        }
+        try {
+            dir = Paths.get(directory);
+            for (Table table : Table.values()) {
+                Files.createDirectories(dir.resolve(table.directory));
+            }
+            log.info("[HistoryArchive] 시작 - 경로: {}", dir.toAbsolutePath());
+        } catch (IOException e) {
+            // 아카이브를 쓰지 못하면 History를 옮기지 않고 DB에 그대로 둠
+            log.error("[HistoryArchive] 초기화 실패, 비활성화합니다.", e);
+            enabled = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 한 달치 행을 해당 월 파일에 합쳐 씁니다. 실패하면 예외를 던지므로 호출자는 DB 행을 지우지 않아야 합니다.
+     */
+    public synchronized void merge(Table table, YearMonth month, List<ArchivedHistory> rows) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("History 아카이브가 비활성화 상태입니다.");
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        Path path = monthPath(table, month);
+        Map<String, ArchivedHistory> merged = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            for (ArchivedHistory row : HistoryColumnarFile.read(path)) {
+                merged.put(row.symbol() + '|' + row.date(), row);
+            }
+        }
+        for (ArchivedHistory row : rows) {
+            merged.put(row.symbol() + '|' + row.date(), row);
+        }
+        HistoryColumnarFile.write(path, new ArrayList<>(merged.values()));
+        log.info("[HistoryArchive] {} {} 기록 - 추가 {}건, 합계 {}건 ({}바이트)",
+                table.directory, month, rows.size(), merged.size(), Files.size(path));
+    }
+
+    /**
+     * 한 종목의 from ~ to(포함) 보관 행을 날짜순으로 조회합니다. (읽기 실패한 월은 건너뜀)
+     */
+    public List<ArchivedHistory> read(Table table, String symbol, LocalDate from, LocalDate to) {
+        return scan(table, symbol, from, to);
+    }
+
+    /**
+     * from ~ to(포함)의 전체 종목 보관 행을 조회합니다. (월별 종목, 날짜순, 집계 재계산용)
+     */
+    public List<ArchivedHistory> readAll(Table table, LocalDate from, LocalDate to) {
+        return scan(table, null, from, to);
+    }
+
+    /**
+     * 가장 오래된 보관 월 (보관된 파일이 없으면 empty)
+     */
+    public Optional<YearMonth> oldestMonth(Table table) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(dir.resolve(table.directory))) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(HistoryColumnarFile.SUFFIX))
+                    .map(name -> parseMonth(name.substring(0, name.length() - HistoryColumnarFile.SUFFIX.length())))
+                    .filter(Objects::nonNull)
+                    .min(Comparator.naturalOrder());
+        } catch (IOException e) {
+            log.error("[HistoryArchive] 보관 월 조회 실패 - {}", table.directory, e);
+            return Optional.empty();
+        }
+    }
+
+    // symbol이 null이면 전체 종목
+    private List<ArchivedHistory> scan(Table table, String symbol, LocalDate from, LocalDate to) {
+        List<ArchivedHistory> result = new ArrayList<>();
+        if (!enabled || from.isAfter(to)) {
+            return result;
+        }
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            Path path = monthPath(table, month);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            try {
+                for (ArchivedHistory row : HistoryColumnarFile.read(path)) {
+                    if ((symbol == null || row.symbol().equals(symbol))
+                            && !row.date().isBefore(from) && !row.date().isAfter(to)) {
+                        result.add(row);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("[HistoryArchive] 조회 실패 - {}", path, e);
+            }
+        }
+        return result;
+    }
+
+    private Path monthPath(Table table, YearMonth month) {
+        return dir.resolve(table.directory).resolve(month + HistoryColumnarFile.SUFFIX);
+    }
+
+    private static YearMonth parseMonth(String name) {
+        try {
+            return YearMonth.parse(name);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.data_collector_service.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HistoryColumnarFile
+ *
+ * 한 테이블의 한 달치 일별 히스토리를 열(column) 단위로 나눠 압축한 파일 형식입니다. (HistoryArchive 전용)
+ * 행은 (종목, 날짜) 순으로 정렬하며, 열마다 값 분포에 맞는 인코딩 후 Deflate로 압축합니다.
+ *
+ * [파일 형식]
+ *  int MAGIC, int 행 수, 이후 열 순서대로 (int 압축 길이, 압축 바이트)
+ *
+ * [열 인코딩] (정수는 모두 zigzag varint)
+ * - 종목/이름/거래소: 사전(distinct 문자열) + 행별 사전 번호 (0은 null)
+ * - 날짜: 직전 행과의 epoch day 차이
+ * - 시가/고가/저가/종가(소수점 4자리), 변동률(소수점 2자리), 체결 건수: 직전 값과의 차이 + 1 (0은 null)
+ */
+final class HistoryColumnarFile {
+
+    static final String SUFFIX = ".hcol";
+
+    private static final int MAGIC = 0x48434C31; // "HCL1"
+    private static final int PRICE_SCALE = 4;
+    private static final int RATE_SCALE = 2;
+
+    private HistoryColumnarFile() {
+    }
+
+    /**
+     * 행들을 정렬해 파일로 씁니다. (임시 파일에 쓴 뒤 교체하므로 중간에 실패해도 기존 파일은 유지)
+     * 호출자가 이어서 DB 행을 지우므로, 임시 파일 내용과 교체(rename)까지 디스크에 반영한 뒤 반환합니다.
+     */
+    static void write(Path path, List<ArchivedHistory> rows) throws IOException {
+        List<ArchivedHistory> sorted = new ArrayList<>(rows);
+        sorted.sort((a, b) -> {
+            int bySymbol = a.symbol().compareTo(b.symbol());
+            return bySymbol != 0 ? bySymbol : a.date().compareTo(b.date());
+        });
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(sorted.size());
+            writeColumn(out, dictionary(sorted, ArchivedHistory::symbol));
+            writeColumn(out, dictionary(sorted, ArchivedHistory::name));
+            writeColumn(out, dictionary(sorted, ArchivedHistory::exchangeCode));
+            writeColumn(out, dates(sorted));
+            writeColumn(out, decimals(sorted, ArchivedHistory::openPrice, PRICE_SCALE));
+            writeColumn(out, decimals(sorted, ArchivedHistory::highPrice, PRICE_SCALE));
+            writeColumn(out, decimals(sorted, ArchivedHistory::lowPrice, PRICE_SCALE));
+            writeColumn(out, decimals(sorted, ArchivedHistory::closePrice, PRICE_SCALE));
+            writeColumn(out, decimals(sorted, ArchivedHistory::changeRate, RATE_SCALE));
+            writeColumn(out, decimals(sorted, row -> row.tickCount() == null ? null : BigDecimal.valueOf(row.tickCount()), 0));
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * 파일 전체를 읽습니다. (정렬 순서: 종목, 날짜)
+     */
+    static List<ArchivedHistory> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("히스토리 아카이브 형식이 아닙니다: " + path);
+            }
+            int rows = in.readInt();
+            String[] symbols = readDictionary(readColumn(in), rows);
+            String[] names = readDictionary(readColumn(in), rows);
+            String[] exchanges = readDictionary(readColumn(in), rows);
+            LocalDate[] dates = readDates(readColumn(in), rows);
+            BigDecimal[] opens = readDecimals(readColumn(in), rows, PRICE_SCALE);
+            BigDecimal[] highs = readDecimals(readColumn(in), rows, PRICE_SCALE);
+            BigDecimal[] lows = readDecimals(readColumn(in), rows, PRICE_SCALE);
+            BigDecimal[] closes = readDecimals(readColumn(in), rows, PRICE_SCALE);
+            BigDecimal[] rates = readDecimals(readColumn(in), rows, RATE_SCALE);
+            BigDecimal[] ticks = readDecimals(readColumn(in), rows, 0);
+
+            List<ArchivedHistory> result = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                result.add(new ArchivedHistory(symbols[i], names[i], exchanges[i], dates[i],
+                        opens[i], highs[i], lows[i], closes[i], rates[i],
+                        ticks[i] == null ? null : ticks[i].intValue()));
+            }
+            return result;
+        }
+    }
+
+    private interface Column<T> {
+        T get(ArchivedHistory row);
+    }
+
+    private static byte[] dictionary(List<ArchivedHistory> rows, Column<String> column) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        ByteArrayOutputStream indexes = new ByteArrayOutputStream();
+        for (ArchivedHistory row : rows) {
+            String value = column.get(row);
+            if (value == null) {
+                writeVarLong(indexes, 0);
+                continue;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size() + 1;
+                ids.put(value, id);
+                values.add(value);
+            }
+            writeVarLong(indexes, id);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarLong(out, values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        out.writeBytes(indexes.toByteArray());
+        return out.toByteArray();
+    }
+
+    private static byte[] dates(List<ArchivedHistory> rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long previous = 0;
+        for (ArchivedHistory row : rows) {
+            long day = row.date().toEpochDay();
+            writeVarLong(out, zigzag(day - previous));
+            previous = day;
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decimals(List<ArchivedHistory> rows, Column<BigDecimal> column, int scale) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long previous = 0;
+        for (ArchivedHistory row : rows) {
+            BigDecimal value = column.get(row);
+            if (value == null) {
+                writeVarLong(out, 0);
+                continue;
+            }
+            long scaled = value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            writeVarLong(out, zigzag(scaled - previous) + 1);
+            previous = scaled;
+        }
+        return out.toByteArray();
+    }
+
+    private static String[] readDictionary(InputStream in, int rows) throws IOException {
+        int size = (int) readVarLong(in);
+        String[] values = new String[size + 1];
+        for (int i = 1; i <= size; i++) {
+            values[i] = new String(in.readNBytes((int) readVarLong(in)), StandardCharsets.UTF_8);
+        }
+        String[] result = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            result[i] = values[(int) readVarLong(in)];
+        }
+        return result;
+    }
+
+    private static LocalDate[] readDates(InputStream in, int rows) throws IOException {
+        LocalDate[] result = new LocalDate[rows];
+        long day = 0;
+        for (int i = 0; i < rows; i++) {
+            day += unzigzag(readVarLong(in));
+            result[i] = LocalDate.ofEpochDay(day);
+        }
+        return result;
+    }
+
+    private static BigDecimal[] readDecimals(InputStream in, int rows, int scale) throws IOException {
+        BigDecimal[] result = new BigDecimal[rows];
+        long value = 0;
+        for (int i = 0; i < rows; i++) {
+            long encoded = readVarLong(in);
+            if (encoded == 0) {
+                continue;
+            }
+            value += unzigzag(encoded - 1);
+            result[i] = BigDecimal.valueOf(value, scale);
+        }
+        return result;
+    }
+
+    // 교체(rename)가 디스크에 남도록 디렉터리를 동기화 (디렉터리를 열 수 없는 OS에서는 생략)
+    private static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private static void writeColumn(DataOutputStream out, byte[] raw) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed, new Deflater(Deflater.BEST_COMPRESSION))) {
+            deflater.write(raw);
+        }
+        out.writeInt(compressed.size());
+        compressed.writeTo(out);
+    }
+
+    private static InputStream readColumn(DataInputStream in) throws IOException {
+        byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+        return new InflaterInputStream(new ByteArrayInputStream(compressed));
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("히스토리 아카이브 열이 잘렸습니다.");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("잘못된 varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.data_collector_service.buffer;
+
+import com.example.data_collector_service.decoder.KoreanTick;
+
+import java.util.List;
+
+/**
+ * KoreanTickHandler
+ *
+ * 수집 파이프라인의 소비자 단계입니다. TickIngestPipeline의 소비자 스레드 하나에서
+ * @Order 순서대로 호출되므로, 구현체는 별도의 동기화 없이 단일 스레드로 동작한다고 가정할 수 있습니다.
+ *
+ * 전달되는 tick은 링 버퍼 슬롯이므로 호출이 끝난 뒤에는 참조를 보관하면 안 됩니다.
+ */
+public interface KoreanTickHandler {
+
+    /**
+     * @param tick       처리할 체결 데이터 (링 버퍼 슬롯)
+     * @param endOfBatch 이번에 가져온 묶음의 마지막 데이터인지 여부
+     */
+    void onTick(KoreanTick tick, boolean endOfBatch);
+
+    /**
+     * 파이프라인 시작 시 소비자 스레드가 뜨기 전에 한 번 호출됩니다.
+     * 이전 실행에서 처리하지 못한 데이터가 있으면 뒤 단계(downstream)로 다시 전달할 수 있습니다. (예: TickJournal)
+     *
+     * @param downstream 이 핸들러보다 @Order가 뒤인 핸들러들
+     */
+    default void recover(List<KoreanTickHandler> downstream) {
+    }
+}
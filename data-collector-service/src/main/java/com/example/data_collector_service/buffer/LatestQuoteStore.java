@@ -0,0 +1,103 @@
+package com.example.data_collector_service.buffer;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatestQuoteStore
+ *
+ * 종목 id(SymbolTable)별 최신 시세를 원시 타입 병렬 배열에 보관하는 저장소입니다.
+ * 엔티티/BigDecimal/LocalDateTime을 만들지 않으므로 tick마다 가비지가 생기지 않습니다.
+ *
+ * [seqlock 방식]
+ * - 쓰기(소비자 스레드 1개): version을 홀수로 올림 → 값 기록 → version을 짝수로 올림
+ * - 읽기(여러 스레드)       : version이 짝수이고 읽기 전후로 같을 때까지 재시도 (writer를 막지 않음)
+ */
+public final class LatestQuoteStore {
+
+    private final int capacity;
+
+    // seqlock 버전 (짝수: 안정, 홀수: 쓰는 중, 0: 아직 데이터 없음)
+    private final AtomicLongArray versions;
+
+    // 병렬 배열 (index = 종목 id)
+    private final long[] price;        // 현재가 * 10^KoreanTick.PRICE_SCALE
+    private final long[] changeRate;   // 전일 대비율 * 10^KoreanTick.RATE_SCALE
+    private final long[] volume;       // 마지막 체결 거래량
+    private final int[] tradeTime;     // 거래소 체결 시각 (HHmmss)
+    private final long[] receivedAt;   // 수신 시각 (epoch millis)
+
+    public LatestQuoteStore(int capacity) {
+        this.capacity = capacity;
+        this.versions = new AtomicLongArray(capacity);
+        this.price = new long[capacity];
+        this.changeRate = new long[capacity];
+        this.volume = new long[capacity];
+        this.tradeTime = new int[capacity];
+        this.receivedAt = new long[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 최신 시세를 기록합니다. (단일 writer 전용)
+     */
+    public void write(int id, long price, long changeRate, long volume, int tradeTime, long receivedAt) {
+        long version = versions.get(id);
+        versions.set(id, version + 1);
+        // 이후의 값 기록이 홀수 버전 기록보다 앞당겨지지 않도록 함
+        VarHandle.storeStoreFence();
+        this.price[id] = price;
+        this.changeRate[id] = changeRate;
+        this.volume[id] = volume;
+        this.tradeTime[id] = tradeTime;
+        this.receivedAt[id] = receivedAt;
+        versions.lazySet(id, version + 2);
+    }
+
+    /**
+     * 현재 버전을 반환합니다. 값이 바뀔 때마다 2씩 증가하므로 변경 여부 확인에 사용할 수 있습니다.
+     */
+    public long version(int id) {
+        return versions.get(id);
+    }
+
+    /**
+     * 일관된 시세를 읽어 view에 채웁니다. writer가 쓰는 중이면 다시 읽습니다.
+     *
+     * @return 읽은 버전 (0이면 아직 데이터가 없음)
+     */
+    public long read(int id, QuoteView view) {
+        while (true) {
+            long before = versions.get(id);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            view.price = price[id];
+            view.changeRate = changeRate[id];
+            view.volume = volume[id];
+            view.tradeTime = tradeTime[id];
+            view.receivedAt = receivedAt[id];
+            VarHandle.loadLoadFence();
+            if (versions.get(id) == before) {
+                view.id = id;
+                return before;
+            }
+        }
+    }
+
+    /**
+     * 읽기용 가변 뷰 (호출자가 재사용)
+     */
+    public static final class QuoteView {
+        public int id;
+        public long price;
+        public long changeRate;
+        public long volume;
+        public int tradeTime;
+        public long receivedAt;
+    }
+}
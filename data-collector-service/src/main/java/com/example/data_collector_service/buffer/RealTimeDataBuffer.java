@@ -1,46 +1,148 @@
 package com.example.data_collector_service.buffer;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import com.example.data_collector_service.decoder.KoreanTick;
 import com.example.data_collector_service.entity.GlobalDailyStock;
 import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.service.StockMasterDictionary;
 
 import lombok.extern.slf4j.Slf4j;
 
 // WebSocket으로 수신한 최신 데이터를 주식 종목별로 임시 저장하는 버퍼 클래스.
+// 국내 주식은 TickIngestPipeline의 소비자 단계(conflate)로 동작하여 종목별 최신 값만 남깁니다.
 @Slf4j
 @Component
-public class RealTimeDataBuffer {
-    
+@Order(100)
+public class RealTimeDataBuffer implements KoreanTickHandler {
+
     /**
      * 국내 주식 데이터를 저장하는 버퍼
-     * Key: 주식 종목 코드 (stockCode)
-     * Value: 해당 종목의 최신 주식 데이터 (KoreanDailyStock)
+     * 종목 코드는 SymbolTable의 id로 변환하고, 최신 시세는 LatestQuoteStore의 원시 배열에 보관합니다.
+     * (tick마다 엔티티를 만들지 않고, DB 저장 시점에만 변경된 종목의 엔티티를 생성)
      */
+    private final SymbolTable symbolTable;
+    private final LatestQuoteStore koreanQuotes;
+    // 종목명은 저장 시점에 종목 id로 메모리 사전에서 조회 (마스터 테이블 조회 없음)
+    private final StockMasterDictionary stockMaster;
+
+    // 종목별 마지막으로 DB 저장이 확정된 버전 (drainKoreanUpdates/commitKoreanDrain 전용)
+    private long[] drainedVersions = new long[0];
+    private final LatestQuoteStore.QuoteView drainView = new LatestQuoteStore.QuoteView();
 
-    // 국내 주식: stockCode -> 최신 데이터
-    private final ConcurrentHashMap<String, KoreanDailyStock> koreanBuffer = new ConcurrentHashMap<>();
     // 해외 주식: stockCode -> 최신 데이터
     private final ConcurrentHashMap<String, GlobalDailyStock> globalBuffer = new ConcurrentHashMap<>();
 
-    public void putKoreanData(String stockCode, KoreanDailyStock data) {
-        koreanBuffer.put(stockCode, data);
-        log.info("현재 저장된 버퍼 데이터: {}", koreanBuffer);
+    public RealTimeDataBuffer(SymbolTable symbolTable,
+                              StockMasterDictionary stockMaster,
+                              @Value("${collector.quote-store.capacity:4096}") int capacity) {
+        this.symbolTable = symbolTable;
+        this.stockMaster = stockMaster;
+        this.koreanQuotes = new LatestQuoteStore(capacity);
+    }
+
+    /**
+     * 파이프라인 소비자 스레드에서 호출: 종목별 최신 체결 데이터로 덮어씁니다.
+     */
+    @Override
+    public void onTick(KoreanTick tick, boolean endOfBatch) {
+        int id = symbolTable.lookup(tick.stockCodeChars(), tick.stockCodeLength());
+        if (id < 0) {
+            // 구독 시 등록되지 않은 종목 (최초 1회만 등록)
+            id = symbolTable.register(tick.stockCode());
+            log.warn("구독 목록에 없는 종목 수신, 심볼 테이블에 등록합니다. 종목코드: {}, id: {}", tick.stockCode(), id);
+        }
+        if (id >= koreanQuotes.capacity()) {
+            log.error("시세 저장소 용량 초과 - 종목코드: {}, id: {}, capacity: {}", tick.stockCode(), id, koreanQuotes.capacity());
+            return;
+        }
+        koreanQuotes.write(id, tick.price(), tick.changeRate(), tick.volume(), tick.tradeTime(), tick.receivedAt());
+    }
+
+    /**
+     * drainKoreanUpdates 결과: 저장할 엔티티와, 저장 성공 시 commitKoreanDrain으로 반영할 종목 id/버전
+     */
+    public record KoreanDrain(List<KoreanDailyStock> updates, int[] ids, long[] versions) {
+    }
+
+    /**
+     * 마지막으로 저장이 확정된 이후 시세가 바뀐 국내 종목들을 KoreanDailyStock 엔티티로 만들어 반환합니다.
+     * (DataFlushScheduler 전용, 저장소를 비우지 않고 버전 비교로 변경분만 골라냄)
+     * 저장에 성공한 뒤 commitKoreanDrain을 호출해야 다음 호출에서 빠지며, 호출하지 않으면 다음 호출에 다시 포함됩니다.
+     */
+    public synchronized KoreanDrain drainKoreanUpdates() {
+        int size = Math.min(symbolTable.size(), koreanQuotes.capacity());
+        if (drainedVersions.length < size) {
+            drainedVersions = Arrays.copyOf(drainedVersions, size);
+        }
+        List<KoreanDailyStock> updates = new ArrayList<>();
+        int[] ids = new int[size];
+        long[] versions = new long[size];
+        for (int id = 0; id < size; id++) {
+            if (koreanQuotes.version(id) == drainedVersions[id]) {
+                continue;
+            }
+            long version = koreanQuotes.read(id, drainView);
+            ids[updates.size()] = id;
+            versions[updates.size()] = version;
+            updates.add(toKoreanEntity(drainView));
+        }
+        log.debug("국내 주식 버퍼 변경 종목 {}건 추출", updates.size());
+        return new KoreanDrain(updates, Arrays.copyOf(ids, updates.size()), Arrays.copyOf(versions, updates.size()));
     }
 
-    public ConcurrentHashMap<String, KoreanDailyStock> getKoreanBuffer() {
-        return koreanBuffer;
+    /**
+     * 저장에 성공한 drain 결과를 확정합니다. (이후 drainKoreanUpdates는 그보다 새 시세만 반환)
+     */
+    public synchronized void commitKoreanDrain(KoreanDrain drain) {
+        for (int i = 0; i < drain.ids().length; i++) {
+            drainedVersions[drain.ids()[i]] = drain.versions()[i];
+        }
+    }
+
+    /**
+     * 전체 국내 종목의 최신 시세를 순회합니다. (view는 재사용되므로 콜백 밖에서 보관하면 안 됨)
+     */
+    public void forEachKoreanQuote(Consumer<LatestQuoteStore.QuoteView> consumer) {
+        LatestQuoteStore.QuoteView view = new LatestQuoteStore.QuoteView();
+        int size = Math.min(symbolTable.size(), koreanQuotes.capacity());
+        for (int id = 0; id < size; id++) {
+            if (koreanQuotes.read(id, view) != 0) {
+                consumer.accept(view);
+            }
+        }
     }
 
     public void putGlobalData(String stockCode, GlobalDailyStock data) {
         globalBuffer.put(stockCode, data);
-        log.info("현재 저장된 버퍼 데이터: {}", globalBuffer);
+        log.debug("해외 주식 버퍼 반영 - 종목코드: {}, 버퍼 종목 수: {}", stockCode, globalBuffer.size());
     }
 
     public ConcurrentHashMap<String, GlobalDailyStock> getGlobalBuffer() {
         return globalBuffer;
     }
 
+    private KoreanDailyStock toKoreanEntity(LatestQuoteStore.QuoteView view) {
+        KoreanDailyStock data = new KoreanDailyStock();
+        data.setStockCode(symbolTable.code(view.id));
+        String name = stockMaster.nameOf(view.id);
+        data.setStockName(name != null ? name : "미매핑");
+        data.setCurrentPrice(BigDecimal.valueOf(view.price, KoreanTick.PRICE_SCALE));
+        data.setChangeRate(BigDecimal.valueOf(view.changeRate, KoreanTick.RATE_SCALE));
+        data.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(view.receivedAt), ZoneId.systemDefault()));
+        return data;
+    }
+
 }
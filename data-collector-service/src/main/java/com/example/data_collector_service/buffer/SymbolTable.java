@@ -0,0 +1,155 @@
+package com.example.data_collector_service.buffer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * SymbolTable
+ *
+ * 종목 코드(String)를 0부터 시작하는 작은 정수 id로 변환(intern)하는 테이블입니다.
+ * 구독 시점에 한 번 등록하고, 수신 경로에서는 char[] 구간으로 바로 조회하므로 String을 만들지 않습니다.
+ *
+ * - 등록(register): 드물게 발생하므로 synchronized + copy-on-write
+ * - 조회(lookup) : 락 없이 volatile 배열 참조만 읽음
+ */
+@Component
+public class SymbolTable {
+
+    // 개방 주소법 해시 테이블 (슬롯 값은 id, 비어 있으면 -1)
+    private static final class Table {
+        final String[] codes;   // id -> 종목 코드
+        final int[] slots;      // 해시 슬롯 -> id
+        final int size;
+
+        Table(String[] codes, int[] slots, int size) {
+            this.codes = codes;
+            this.slots = slots;
+            this.size = size;
+        }
+    }
+
+    private volatile Table table = new Table(new String[0], emptySlots(16), 0);
+
+    /**
+     * 종목 코드를 등록하고 id를 반환합니다. 이미 등록된 코드면 기존 id를 반환합니다.
+     */
+    public synchronized int register(String stockCode) {
+        Table current = table;
+        int existing = lookup(current, stockCode, 0, stockCode.length());
+        if (existing >= 0) {
+            return existing;
+        }
+        int id = current.size;
+        String[] codes = Arrays.copyOf(current.codes, id + 1);
+        codes[id] = stockCode;
+
+        int[] slots = current.slots;
+        if ((id + 1) * 2 > slots.length) {
+            slots = emptySlots(slots.length * 2);
+            for (int i = 0; i < id; i++) {
+                insert(slots, codes[i], i);
+            }
+        } else {
+            slots = slots.clone();
+        }
+        insert(slots, stockCode, id);
+        table = new Table(codes, slots, id + 1);
+        return id;
+    }
+
+    /**
+     * 종목 코드(char[] 구간)에 해당하는 id를 반환합니다. 등록되지 않았으면 -1.
+     */
+    public int lookup(char[] chars, int length) {
+        Table t = table;
+        int mask = t.slots.length - 1;
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + chars[i];
+        }
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (true) {
+            int id = t.slots[slot];
+            if (id < 0) {
+                return -1;
+            }
+            String code = t.codes[id];
+            if (code.length() == length && equalsChars(code, chars)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int lookup(String stockCode) {
+        return lookup(table, stockCode, 0, stockCode.length());
+    }
+
+    public String code(int id) {
+        return table.codes[id];
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    private static int lookup(Table t, CharSequence s, int from, int to) {
+        int mask = t.slots.length - 1;
+        int slot = hash(s, from, to) & mask;
+        while (true) {
+            int id = t.slots[slot];
+            if (id < 0) {
+                return -1;
+            }
+            if (contentEquals(t.codes[id], s, from, to)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static void insert(int[] slots, String code, int id) {
+        int mask = slots.length - 1;
+        int slot = hash(code, 0, code.length()) & mask;
+        while (slots[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+    }
+
+    private static int hash(CharSequence s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean contentEquals(String code, CharSequence s, int from, int to) {
+        if (code.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) != s.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsChars(String code, char[] chars) {
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] emptySlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+}
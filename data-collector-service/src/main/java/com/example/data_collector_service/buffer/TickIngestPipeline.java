@@ -0,0 +1,135 @@
+package com.example.data_collector_service.buffer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * TickIngestPipeline
+ *
+ * WebSocket 수신 스레드와 후속 처리(버퍼 반영, 저장/발행)를 분리하는 수집 파이프라인입니다.
+ *
+ * [단계]
+ * 1. decode  : 수신 스레드에서 KisFrameDecoder로 파싱 후 TickRingBuffer에 발행
+ * 2. conflate: 소비자 스레드에서 KoreanTickHandler들을 @Order 순서대로 호출 (TickJournal -> RealTimeDataBuffer 등)
+ * 3. persist : DataFlushScheduler가 별도 스케줄러 스레드에서 버퍼를 읽어 DB에 저장
+ *
+ * DB 저장이 느려져도 소비자 스레드는 메모리 작업만 하므로 수신 스레드가 막히지 않습니다.
+ *
+ * 재생(FeedReplayService)처럼 실시간 데이터와 섞이면 안 되는 생산자는 newIsolatedProducer로
+ * 같은 소비자 스레드에서 별도 핸들러 체인으로만 처리되는 링을 받습니다.
+ */
+@Slf4j
+@Component
+public class TickIngestPipeline {
+
+    // 소비자가 한 링에서 한 번에 가져오는 최대 건수 (링 간 공정성 확보)
+    private static final int DRAIN_LIMIT = 256;
+
+    // 수신 세션(생산자)당 링 버퍼 크기 (2의 거듭제곱)
+    @Value("${collector.ingest.ring-size:8192}")
+    private int ringSize;
+
+    // 소비자 대기 전략 (busy-spin / yielding / sleeping / blocking)
+    @Value("${collector.ingest.wait-strategy:sleeping}")
+    private String waitStrategyName;
+
+    private final List<KoreanTickHandler> handlers;
+    private final List<Lane> lanes = new CopyOnWriteArrayList<>();
+
+    private WaitStrategy waitStrategy;
+    private Thread consumerThread;
+    private volatile boolean running;
+
+    public TickIngestPipeline(List<KoreanTickHandler> handlers) {
+        // Spring이 @Order 순서로 정렬하여 주입
+        this.handlers = List.copyOf(handlers);
+    }
+
+    @PostConstruct
+    public void start() {
+        waitStrategy = WaitStrategy.create(waitStrategyName);
+        // 이전 실행에서 남은 데이터 복구 (저널 재생 등), 각 핸들러는 자기보다 뒤 단계에만 전달
+        for (int i = 0; i < handlers.size(); i++) {
+            handlers.get(i).recover(handlers.subList(i + 1, handlers.size()));
+        }
+        running = true;
+        consumerThread = new Thread(this::runConsumer, "tick-ingest-consumer");
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+        log.info("[TickIngestPipeline] 시작 - ringSize={}, waitStrategy={}, handlers={}",
+                ringSize, waitStrategyName, handlers.stream().map(h -> h.getClass().getSimpleName()).toList());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        waitStrategy.signal();
+        consumerThread.join(1000);
+        log.info("[TickIngestPipeline] 종료");
+    }
+
+    /**
+     * 수신 세션 하나가 사용할 링 버퍼를 생성합니다.
+     * 반환된 링은 해당 세션의 수신 스레드에서만 publish 해야 합니다.
+     */
+    public TickRingBuffer newProducer() {
+        return newLane(handlers);
+    }
+
+    /**
+     * 실시간 핸들러 체인 대신 지정한 핸들러들로만 처리되는 링 버퍼를 생성합니다.
+     * (저널/버퍼/분봉 등 실시간 저장 경로에 반영되면 안 되는 재생용)
+     * 핸들러는 소비자 스레드에서 호출되며, 반환된 링은 한 스레드에서만 publish 해야 합니다.
+     */
+    public TickRingBuffer newIsolatedProducer(List<KoreanTickHandler> isolatedHandlers) {
+        return newLane(List.copyOf(isolatedHandlers));
+    }
+
+    /**
+     * 아직 소비되지 않은 전체 건수
+     */
+    public long backlog() {
+        long total = 0;
+        for (Lane lane : lanes) {
+            total += lane.ring().backlog();
+        }
+        return total;
+    }
+
+    private void runConsumer() {
+        int idleCount = 0;
+        while (running) {
+            int processed = 0;
+            for (Lane lane : lanes) {
+                processed += lane.ring().drain(lane.handlers(), DRAIN_LIMIT);
+            }
+            if (processed == 0) {
+                waitStrategy.idle(++idleCount);
+            } else {
+                idleCount = 0;
+            }
+        }
+        // 종료 전에 남은 데이터를 모두 처리
+        for (Lane lane : lanes) {
+            while (lane.ring().drain(lane.handlers(), DRAIN_LIMIT) > 0) {
+                // 계속 비움
+            }
+        }
+    }
+
+    private TickRingBuffer newLane(List<KoreanTickHandler> laneHandlers) {
+        TickRingBuffer ring = new TickRingBuffer(ringSize, waitStrategy);
+        lanes.add(new Lane(ring, laneHandlers));
+        return ring;
+    }
+
+    // 링 하나와 그 링의 데이터를 처리할 핸들러 체인
+    private record Lane(TickRingBuffer ring, List<KoreanTickHandler> handlers) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.data_collector_service.buffer;
+
+import com.example.data_collector_service.decoder.KoreanTick;
+import com.example.data_collector_service.decoder.KoreanTickBatch;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TickRingBuffer
+ *
+ * WebSocket 수신 스레드(생산자 1개)와 파이프라인 소비자 스레드(1개) 사이의 고정 크기 링 버퍼입니다.
+ * 슬롯(KoreanTick)은 생성 시 모두 할당해 두고 값만 복사하므로 발행 시 객체 생성이 없습니다.
+ *
+ * - 생산자: publish()로 한 프레임의 레코드를 복사한 뒤 커서를 한 번만 갱신합니다.
+ * - 소비자: drain()으로 발행된 구간을 읽고 처리한 만큼 소비 커서를 갱신합니다.
+ * - 버퍼가 가득 차면 생산자는 소비자가 자리를 비울 때까지 스핀합니다.
+ *   (소비자는 메모리 내 작업만 하므로 DB 저장 지연과는 무관합니다)
+ */
+@Slf4j
+public final class TickRingBuffer {
+
+    private final KoreanTick[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    // 생산자가 마지막으로 발행한 시퀀스 (소비자가 읽음)
+    private final AtomicLong published = new AtomicLong(-1);
+    // 소비자가 마지막으로 처리한 시퀀스 (생산자가 읽음)
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    // 생산자 스레드 전용 필드
+    private long nextSequence;
+    private long cachedConsumed = -1;
+
+    // 버퍼가 가득 차서 생산자가 대기한 횟수 (모니터링용)
+    private final AtomicLong fullWaits = new AtomicLong();
+
+    public TickRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("링 버퍼 크기는 2의 거듭제곱이어야 합니다: " + capacity);
+        }
+        this.slots = new KoreanTick[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new KoreanTick();
+        }
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 한 프레임에서 파싱한 레코드들을 발행합니다. (생산자 스레드 전용)
+     */
+    public void publish(KoreanTickBatch batch, long receivedAt) {
+        for (int i = 0; i < batch.size(); i++) {
+            long sequence = nextSequence;
+            awaitCapacity(sequence);
+            KoreanTick slot = slots[(int) (sequence & mask)];
+            slot.copyFrom(batch.get(i));
+            slot.setReceivedAt(receivedAt);
+            nextSequence = sequence + 1;
+        }
+        commit();
+    }
+
+    /**
+     * 발행된 데이터를 최대 limit건까지 handlers에 순서대로 전달합니다. (소비자 스레드 전용)
+     *
+     * @return 처리한 건수
+     */
+    int drain(List<KoreanTickHandler> handlers, int limit) {
+        long next = consumed.get() + 1;
+        long available = published.get();
+        if (available < next) {
+            return 0;
+        }
+        long end = Math.min(available, next + limit - 1);
+        for (long sequence = next; sequence <= end; sequence++) {
+            KoreanTick tick = slots[(int) (sequence & mask)];
+            boolean endOfBatch = sequence == end;
+            for (KoreanTickHandler handler : handlers) {
+                try {
+                    handler.onTick(tick, endOfBatch);
+                } catch (Exception e) {
+                    log.error("수집 파이프라인 처리 오류 - handler: {}, tick: {}", handler.getClass().getSimpleName(), tick, e);
+                }
+            }
+        }
+        consumed.lazySet(end);
+        return (int) (end - next + 1);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long backlog() {
+        return published.get() - consumed.get();
+    }
+
+    public long fullWaits() {
+        return fullWaits.get();
+    }
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        if (cachedConsumed >= wrapPoint) {
+            return;
+        }
+        cachedConsumed = consumed.get();
+        if (cachedConsumed >= wrapPoint) {
+            return;
+        }
+        // 이미 채운 슬롯은 먼저 발행해야 소비자가 자리를 비울 수 있음
+        commit();
+        fullWaits.incrementAndGet();
+        while ((cachedConsumed = consumed.get()) < wrapPoint) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void commit() {
+        if (published.get() != nextSequence - 1) {
+            published.lazySet(nextSequence - 1);
+            waitStrategy.signal();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.data_collector_service.buffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WaitStrategy
+ *
+ * 링 버퍼에 처리할 데이터가 없을 때 소비자 스레드가 대기하는 방식입니다.
+ * application.yml의 collector.ingest.wait-strategy 값으로 선택합니다.
+ *
+ * - busy-spin: 지연시간 최소, CPU 코어 하나를 계속 점유
+ * - yielding : 일정 횟수 스핀 후 Thread.yield()
+ * - sleeping : 스핀 → yield → parkNanos 순으로 단계적 대기 (기본값)
+ * - blocking : Lock/Condition 대기, 생산자가 발행 시 깨움 (CPU 사용 최소)
+ */
+public interface WaitStrategy {
+
+    /**
+     * 소비자가 처리할 데이터를 찾지 못했을 때 호출합니다.
+     *
+     * @param idleCount 연속으로 빈 손이었던 횟수 (1부터 증가)
+     */
+    void idle(int idleCount);
+
+    /**
+     * 생산자가 데이터를 발행한 뒤 호출합니다. (blocking 전략에서만 의미가 있음)
+     */
+    default void signal() {
+    }
+
+    static WaitStrategy create(String name) {
+        return switch (name.toLowerCase()) {
+            case "busy-spin" -> new BusySpin();
+            case "yielding" -> new Yielding();
+            case "sleeping" -> new Sleeping();
+            case "blocking" -> new Blocking();
+            default -> throw new IllegalArgumentException("지원하지 않는 wait-strategy: " + name);
+        };
+    }
+
+    final class BusySpin implements WaitStrategy {
+        @Override
+        public void idle(int idleCount) {
+            Thread.onSpinWait();
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    final class Sleeping implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        @Override
+        public void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCount < YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    final class Blocking implements WaitStrategy {
+        // 신호를 놓치더라도 주기적으로 깨어나도록 최대 대기 시간을 둠
+        private static final long MAX_WAIT_MILLIS = 10;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+
+        @Override
+        public void idle(int idleCount) {
+            lock.lock();
+            try {
+                available.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signal() {
+            lock.lock();
+            try {
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.data_collector_service.candle;
+
+/**
+ * 분봉을 만드는 시세 출처 (minute_candle.market)
+ */
+public enum CandleMarket {
+    // 국내 주식 (KIS WebSocket 체결)
+    KOREAN,
+    // 해외 주식 (KIS REST 현재가 조회)
+    GLOBAL,
+    // 환율 (TwelveData WebSocket/REST)
+    FOREX
+}
@@ -0,0 +1,350 @@
+package com.example.data_collector_service.candle;
+
+import com.example.data_collector_service.buffer.KoreanTickHandler;
+import com.example.data_collector_service.buffer.SymbolTable;
+import com.example.data_collector_service.decoder.KoreanTick;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.repository.DailyStockBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinuteCandleAggregator
+ *
+ * 수신한 시세를 종목별 1분봉(시가/고가/저가/종가/거래량/체결 건수)으로 바로 접어 넣는 집계기입니다.
+ * 원시 tick을 그대로 조회해 차트를 그리는 대신, 마감된 분봉만 minute_candle 테이블에 모아 저장합니다.
+ *
+ * - 국내 주식: TickIngestPipeline 소비자 단계(@Order(150), RealTimeDataBuffer 다음)로 동작,
+ *   SymbolTable id로 배열에 접근하고 체결 시각(HHmmss)으로 분을 정하므로 tick마다 객체를 만들지 않음
+ * - 해외 주식/환율: onQuote로 수신 시각 기준 분봉에 반영
+ * - 다음 분의 시세가 오거나, 분이 끝나고 close-grace-ms가 지나면(closeDue) 분봉을 마감해 저장 대기열에 넣음
+ * - 이미 다음 분봉이 열린 뒤 도착한 이전 분 시세는 버리고 collector.candles.late로 집계
+ * - 재시작 시 TickJournal이 재생하는 국내 시세 중 이미 저장된 분(종목별 마지막 저장 분봉 이하)의 시세는 건너뜀
+ *   (저널 체크포인트는 분봉 저장과 무관하게 움직이므로, 건너뛰지 않으면 저장된 분봉에 거래량/건수가 다시 더해짐)
+ *
+ * 가격은 KoreanTick과 같이 소수점 4자리 스케일 long으로 보관합니다.
+ * 모든 상태는 this 락으로 보호합니다. (소비자 스레드, 조회 스레드, 마감 스케줄러가 접근)
+ */
+@Slf4j
+@Component
+@Order(150)
+public class MinuteCandleAggregator implements KoreanTickHandler {
+
+    private static final int PRICE_SCALE = KoreanTick.PRICE_SCALE;
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    /**
+     * 열려 있는 분봉 하나 (분이 바뀌면 같은 인스턴스를 재사용)
+     */
+    private static final class Bar {
+        long minute = -1;   // epoch minute (분 시작, 열린 분봉이 없으면 -1)
+        long open;
+        long high;
+        long low;
+        long close;
+        long volume;
+        int ticks;
+
+        boolean isOpen() {
+            return minute >= 0;
+        }
+
+        void start(long minute, long price, long volume) {
+            this.minute = minute;
+            this.open = price;
+            this.high = price;
+            this.low = price;
+            this.close = price;
+            this.volume = volume;
+            this.ticks = 1;
+        }
+
+        void add(long price, long volume) {
+            if (price > high) {
+                high = price;
+            }
+            if (price < low) {
+                low = price;
+            }
+            close = price;
+            this.volume += volume;
+            ticks++;
+        }
+    }
+
+    private final SymbolTable symbolTable;
+    private final DailyStockBatchRepository batchRepo;
+    private final boolean enabled;
+    private final long closeGraceMillis;
+    private final int maxPending;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Counter lateTicks;
+
+    // 국내 주식: SymbolTable id -> 분봉
+    private Bar[] koreanBars = new Bar[0];
+    // 해외 주식/환율: market + ":" + symbol -> 분봉
+    private final Map<String, Bar> quoteBars = new HashMap<>();
+    // 마감되어 저장을 기다리는 분봉
+    private List<MinuteCandle> pending = new ArrayList<>();
+    // 국내 종목별 이미 저장된 마지막 분 (epoch minute, 그 이후 분의 시세가 들어오면 항목 제거)
+    private final Map<String, Long> persistedMinutes = new HashMap<>();
+    private long skippedTicks;
+
+    // 국내 체결 시각(HHmmss)을 epoch millis로 바꾸기 위한 오늘 0시 (소비자 스레드에서만 갱신)
+    private long dayStartMillis = Long.MIN_VALUE;
+    private long nextDayStartMillis = Long.MIN_VALUE;
+
+    public MinuteCandleAggregator(SymbolTable symbolTable,
+                                  DailyStockBatchRepository batchRepo,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${collector.candles.enabled:true}") boolean enabled,
+                                  @Value("${collector.candles.close-grace-ms:2000}") long closeGraceMillis,
+                                  @Value("${collector.candles.max-pending:200000}") int maxPending) {
+        this.symbolTable = symbolTable;
+        this.batchRepo = batchRepo;
+        this.enabled = enabled;
+        this.closeGraceMillis = closeGraceMillis;
+        this.maxPending = maxPending;
+        this.lateTicks = Counter.builder("collector.candles.late")
+                .description("다음 분봉이 열린 뒤 도착해 버린 시세 수")
+                .register(meterRegistry);
+        Gauge.builder("collector.candles.pending", this, aggregator -> aggregator.pendingCount())
+                .description("마감되어 저장을 기다리는 분봉 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 저장된 국내 분봉의 종목별 마지막 분을 읽어 둡니다.
+     * TickIngestPipeline이 저널을 재생하기 전(이 빈을 주입받기 전)에 실행됩니다.
+     */
+    @PostConstruct
+    public void loadPersistedMinutes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            skipPersisted(batchRepo.findLatestMinuteCandleBuckets(CandleMarket.KOREAN));
+        } catch (Exception e) {
+            // 조회하지 못해도 수집은 계속 (재생된 시세가 저장된 분봉에 다시 합쳐질 수 있음)
+            log.error("[MinuteCandleAggregator] 저장된 분봉 조회 실패 - 재생 시세를 건너뛰지 않습니다.", e);
+        }
+    }
+
+    /**
+     * 종목별로 lastBuckets 시각 이하 분의 국내 시세를 반영하지 않도록 합니다. (이미 저장된 분봉)
+     */
+    public synchronized void skipPersisted(Map<String, LocalDateTime> lastBuckets) {
+        for (Map.Entry<String, LocalDateTime> entry : lastBuckets.entrySet()) {
+            long minute = Math.floorDiv(entry.getValue().atZone(zone).toInstant().toEpochMilli(), MINUTE_MILLIS);
+            persistedMinutes.merge(entry.getKey(), minute, Math::max);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 파이프라인 소비자 스레드에서 호출: 국내 체결을 분봉에 반영합니다.
+     */
+    @Override
+    public void onTick(KoreanTick tick, boolean endOfBatch) {
+        if (!enabled) {
+            return;
+        }
+        // RealTimeDataBuffer(@Order(100))가 먼저 등록하므로 여기서는 조회만 함
+        int id = symbolTable.lookup(tick.stockCodeChars(), tick.stockCodeLength());
+        if (id < 0) {
+            return;
+        }
+        long minute = koreanTradeMinute(tick.tradeTime(), tick.receivedAt());
+        synchronized (this) {
+            if (id >= koreanBars.length) {
+                int from = koreanBars.length;
+                koreanBars = Arrays.copyOf(koreanBars, Math.max(id + 1, from * 2));
+                for (int i = from; i < koreanBars.length; i++) {
+                    koreanBars[i] = new Bar();
+                }
+            }
+            Bar bar = koreanBars[id];
+            String code = symbolTable.code(id);
+            // 새 분이 시작될 때만 확인 (열린 분봉에 더하는 시세는 이미 확인한 분)
+            if ((!bar.isOpen() || minute != bar.minute) && isPersisted(code, minute)) {
+                return;
+            }
+            fold(bar, CandleMarket.KOREAN, code, minute, tick.price(), tick.volume());
+        }
+    }
+
+    /**
+     * 해외 주식/환율 시세 1건을 수신 시각 기준 분봉에 반영합니다.
+     */
+    public void onQuote(CandleMarket market, String symbol, LocalDateTime timestamp, BigDecimal price, long volume) {
+        if (!enabled || price == null || timestamp == null) {
+            return;
+        }
+        long minute = Math.floorDiv(timestamp.atZone(zone).toInstant().toEpochMilli(), MINUTE_MILLIS);
+        long scaled = price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+        String key = market + ":" + symbol;
+        synchronized (this) {
+            Bar bar = quoteBars.computeIfAbsent(key, k -> new Bar());
+            fold(bar, market, symbol, minute, scaled, volume);
+        }
+    }
+
+    /**
+     * 분이 끝나고 close-grace-ms가 지난 분봉을 마감합니다. (시세가 끊긴 종목도 시간 경계에서 마감되도록)
+     */
+    public synchronized void closeDue(long nowMillis) {
+        long lastClosableMinute = Math.floorDiv(nowMillis - closeGraceMillis, MINUTE_MILLIS) - 1;
+        for (int id = 0; id < koreanBars.length; id++) {
+            Bar bar = koreanBars[id];
+            if (bar.isOpen() && bar.minute <= lastClosableMinute) {
+                close(bar, CandleMarket.KOREAN, symbolTable.code(id));
+            }
+        }
+        for (Map.Entry<String, Bar> entry : quoteBars.entrySet()) {
+            Bar bar = entry.getValue();
+            if (bar.isOpen() && bar.minute <= lastClosableMinute) {
+                String key = entry.getKey();
+                int separator = key.indexOf(':');
+                close(bar, CandleMarket.valueOf(key.substring(0, separator)), key.substring(separator + 1));
+            }
+        }
+    }
+
+    /**
+     * 저장 대기 중인 마감 분봉을 모두 꺼냅니다.
+     */
+    public synchronized List<MinuteCandle> drainClosed() {
+        List<MinuteCandle> drained = pending;
+        pending = new ArrayList<>();
+        return drained;
+    }
+
+    /**
+     * 저장에 실패한 분봉을 대기열 앞에 되돌립니다. (max-pending을 넘으면 오래된 것부터 버림)
+     */
+    public synchronized void requeue(List<MinuteCandle> candles) {
+        List<MinuteCandle> merged = new ArrayList<>(candles.size() + pending.size());
+        merged.addAll(candles);
+        merged.addAll(pending);
+        int overflow = merged.size() - maxPending;
+        if (overflow > 0) {
+            log.warn("[MinuteCandleAggregator] 저장 대기 분봉 {}건 초과 - 오래된 분봉을 버립니다.", overflow);
+            merged = new ArrayList<>(merged.subList(overflow, merged.size()));
+        }
+        pending = merged;
+    }
+
+    /**
+     * 아직 마감되지 않은 현재 분봉 (없으면 null, 조회 API에서 저장된 분봉 뒤에 붙임)
+     */
+    public synchronized MinuteCandle openCandle(CandleMarket market, String symbol) {
+        Bar bar;
+        if (market == CandleMarket.KOREAN) {
+            int id = symbolTable.lookup(symbol);
+            bar = id >= 0 && id < koreanBars.length ? koreanBars[id] : null;
+        } else {
+            bar = quoteBars.get(market + ":" + symbol);
+        }
+        return bar != null && bar.isOpen() ? toCandle(bar, market, symbol) : null;
+    }
+
+    // 이미 저장된 분의 시세인지 (그보다 뒤 분의 시세가 오면 더 볼 필요가 없으므로 항목 제거)
+    private boolean isPersisted(String code, long minute) {
+        if (persistedMinutes.isEmpty()) {
+            return false;
+        }
+        Long persisted = persistedMinutes.get(code);
+        if (persisted == null) {
+            return false;
+        }
+        if (minute <= persisted) {
+            skippedTicks++;
+            return true;
+        }
+        persistedMinutes.remove(code);
+        if (persistedMinutes.isEmpty()) {
+            log.info("[MinuteCandleAggregator] 이미 저장된 분의 재생 시세 {}건을 건너뛰었습니다.", skippedTicks);
+        }
+        return false;
+    }
+
+    private synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void fold(Bar bar, CandleMarket market, String symbol, long minute, long price, long volume) {
+        if (!bar.isOpen()) {
+            bar.start(minute, price, volume);
+        } else if (minute == bar.minute) {
+            bar.add(price, volume);
+        } else if (minute > bar.minute) {
+            close(bar, market, symbol);
+            bar.start(minute, price, volume);
+        } else {
+            lateTicks.increment();
+        }
+    }
+
+    private void close(Bar bar, CandleMarket market, String symbol) {
+        if (pending.size() >= maxPending) {
+            pending.remove(0);
+        }
+        pending.add(toCandle(bar, market, symbol));
+        bar.minute = -1;
+    }
+
+    private MinuteCandle toCandle(Bar bar, CandleMarket market, String symbol) {
+        return MinuteCandle.builder()
+                .market(market)
+                .symbol(symbol)
+                .bucketStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(bar.minute * MINUTE_MILLIS), zone))
+                .openPrice(BigDecimal.valueOf(bar.open, PRICE_SCALE))
+                .highPrice(BigDecimal.valueOf(bar.high, PRICE_SCALE))
+                .lowPrice(BigDecimal.valueOf(bar.low, PRICE_SCALE))
+                .closePrice(BigDecimal.valueOf(bar.close, PRICE_SCALE))
+                .volume(bar.volume)
+                .tickCount(bar.ticks)
+                .build();
+    }
+
+    // 체결 시각(HHmmss)과 수신일로 epoch minute 계산 (체결 시각이 없으면 수신 시각 사용)
+    private long koreanTradeMinute(int tradeTime, long receivedAt) {
+        if (tradeTime <= 0) {
+            return Math.floorDiv(receivedAt, MINUTE_MILLIS);
+        }
+        if (receivedAt < dayStartMillis || receivedAt >= nextDayStartMillis) {
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(receivedAt), zone);
+            dayStartMillis = day.atStartOfDay(zone).toInstant().toEpochMilli();
+            nextDayStartMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        int seconds = (tradeTime / 10000) * 3600 + (tradeTime / 100 % 100) * 60 + tradeTime % 100;
+        long tradedAt = dayStartMillis + seconds * 1000L;
+        // 자정 직후 수신한 전날 체결
+        if (tradedAt - receivedAt > DAY_MILLIS / 2) {
+            tradedAt -= DAY_MILLIS;
+        }
+        return Math.floorDiv(tradedAt, MINUTE_MILLIS);
+    }
+}
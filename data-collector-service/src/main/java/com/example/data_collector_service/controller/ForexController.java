@@ -1,11 +1,18 @@
 package com.example.data_collector_service.controller;
 
-import com.example.data_collector_service.entity.DailyForex;
+import com.example.data_collector_service.candle.CandleMarket;
 import com.example.data_collector_service.entity.HistoryForex;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.rollup.RollupInterval;
+import com.example.data_collector_service.visualizationService.CandleService;
+import com.example.data_collector_service.visualizationService.RangeQueryService;
 import com.example.data_collector_service.visualizationService.ForexService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +26,8 @@ import java.util.Map;
 public class ForexController {
 
     private final ForexService forexService;
+    private final CandleService candleService;
+    private final RangeQueryService rangeQueryService;
 
     /**
      * 오늘 00:00 ~ 현재까지 실시간 환율 데이터
@@ -28,8 +37,7 @@ public class ForexController {
      */
     @GetMapping("/today")
     public Map<String, Object> getTodayData(@RequestParam String currencyCode) {
-        List<DailyForex> forexList = forexService.getTodayData(currencyCode);
-        return forexService.buildChartDataForDaily(forexList);
+        return forexService.getTodayChartData(currencyCode);
     }
 
     /**
@@ -40,8 +48,7 @@ public class ForexController {
      */
     @GetMapping("/yesterday")
     public Map<String, Object> getYesterdayData(@RequestParam String currencyCode) {
-        List<DailyForex> forexList = forexService.getYesterdayData(currencyCode);
-        return forexService.buildChartDataForDaily(forexList);
+        return forexService.getYesterdayChartData(currencyCode);
     }
 
     /**
@@ -90,4 +97,39 @@ public class ForexController {
     public Map<String, Object> getForexSummary(@RequestParam String currencyCode) {
         return forexService.getForexSummary(currencyCode);
     }
+
+    /**
+     * 1분봉 (시가/고가/저가/종가/거래량/체결 건수)
+     *
+     * @param currencyCode 통화 코드 (예: USD/KRW)
+     * @param date 조회 날짜 (yyyy-MM-dd, 생략 시 오늘)
+     * @return 해당 날짜의 환율 1분봉 목록 (시간순, 마지막은 진행 중인 분봉일 수 있음)
+     */
+    @GetMapping("/candles")
+    public List<MinuteCandle> getMinuteCandles(@RequestParam String currencyCode,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return candleService.getMinuteCandles(CandleMarket.FOREX, currencyCode, date);
+    }
+
+    /**
+     * 기간/간격 범위 캔들 (시가/고가/저가/종가/거래량/체결 건수)
+     * interval을 생략하면 points개 이상을 채우는 가장 굵은 간격(MINUTE/HOUR/DAY/WEEK/MONTH)을 고릅니다.
+     *
+     * @param currencyCode 통화 코드 (예: USD/KRW)
+     * @param from 조회 시작 시각 (yyyy-MM-ddTHH:mm:ss)
+     * @param to 조회 끝 시각 (제외, 생략 시 현재)
+     * @param interval 간격 (생략 가능)
+     * @param points 원하는 최소 포인트 수 (생략 시 collector.rollups.default-points)
+     * @return 실제 사용한 간격과 환율 캔들 목록 (시간순, DAY 이상 간격의 거래량은 null)
+     */
+    @GetMapping("/range")
+    public Map<String, Object> getRange(@RequestParam String currencyCode,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) RollupInterval interval,
+                                        @RequestParam(required = false) Integer points) {
+        return rangeQueryService.getRange(CandleMarket.FOREX, currencyCode, from, to, interval, points);
+    }
 }
@@ -1,11 +1,19 @@
 package com.example.data_collector_service.controller;
 
-import com.example.data_collector_service.entity.GlobalDailyStock;
+import com.example.data_collector_service.candle.CandleMarket;
 import com.example.data_collector_service.entity.GlobalHistoryStock;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.rollup.RollupInterval;
+import com.example.data_collector_service.service.OverseasPollingPlanner;
+import com.example.data_collector_service.visualizationService.CandleService;
+import com.example.data_collector_service.visualizationService.RangeQueryService;
 import com.example.data_collector_service.visualizationService.GlobalStockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +26,10 @@ import java.util.Map;
 public class GlobalStockController {
 
     private final GlobalStockService globalStockService;
+    private final CandleService candleService;
+    private final RangeQueryService rangeQueryService;
+    // 실시간 화면에서 조회한 종목은 조회 주기를 앞당김
+    private final OverseasPollingPlanner pollingPlanner;
 
     /**
      * 오늘 데이터 (00:00 ~ 현재)
@@ -27,8 +39,8 @@ public class GlobalStockController {
      */
     @GetMapping("/today")
     public Map<String, Object> getTodayData(@RequestParam String stockCode) {
-        List<GlobalDailyStock> stockList = globalStockService.getTodayData(stockCode);
-        return globalStockService.buildChartDataForDaily(stockList);
+        pollingPlanner.recordInterest(stockCode, System.currentTimeMillis());
+        return globalStockService.getTodayChartData(stockCode);
     }
 
     /**
@@ -39,8 +51,7 @@ public class GlobalStockController {
      */
     @GetMapping("/yesterday")
     public Map<String, Object> getYesterdayData(@RequestParam String stockCode) {
-        List<GlobalDailyStock> stockList = globalStockService.getYesterdayData(stockCode);
-        return globalStockService.buildChartDataForDaily(stockList);
+        return globalStockService.getYesterdayChartData(stockCode);
     }
 
     /**
@@ -87,7 +98,51 @@ public class GlobalStockController {
     */
     @GetMapping("/summary")
     public Map<String, Object> getStockSummary(@RequestParam String stockCode) {
+        pollingPlanner.recordInterest(stockCode, System.currentTimeMillis());
         return globalStockService.getGlobalStockSummary(stockCode);
     }
 
+
+    /**
+     * 해외 종목별 현재 REST 조회 계획 (조회 간격, 변동성, 마지막 변경 경과 시간, 관심도)
+     */
+    @GetMapping("/polling-plan")
+    public List<OverseasPollingPlanner.PollingPlan> getPollingPlan() {
+        return pollingPlanner.snapshot(System.currentTimeMillis());
+    }
+
+    /**
+     * 1분봉 (시가/고가/저가/종가/거래량/체결 건수)
+     *
+     * @param stockCode 종목 코드
+     * @param date 조회 날짜 (yyyy-MM-dd, 생략 시 오늘)
+     * @return 해당 날짜의 해외 주식 1분봉 목록 (시간순, 마지막은 진행 중인 분봉일 수 있음)
+     */
+    @GetMapping("/candles")
+    public List<MinuteCandle> getMinuteCandles(@RequestParam String stockCode,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return candleService.getMinuteCandles(CandleMarket.GLOBAL, stockCode, date);
+    }
+
+    /**
+     * 기간/간격 범위 캔들 (시가/고가/저가/종가/거래량/체결 건수)
+     * interval을 생략하면 points개 이상을 채우는 가장 굵은 간격(MINUTE/HOUR/DAY/WEEK/MONTH)을 고릅니다.
+     *
+     * @param stockCode 종목 코드
+     * @param from 조회 시작 시각 (yyyy-MM-ddTHH:mm:ss)
+     * @param to 조회 끝 시각 (제외, 생략 시 현재)
+     * @param interval 간격 (생략 가능)
+     * @param points 원하는 최소 포인트 수 (생략 시 collector.rollups.default-points)
+     * @return 실제 사용한 간격과 해외 주식 캔들 목록 (시간순, DAY 이상 간격의 거래량은 null)
+     */
+    @GetMapping("/range")
+    public Map<String, Object> getRange(@RequestParam String stockCode,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) RollupInterval interval,
+                                        @RequestParam(required = false) Integer points) {
+        return rangeQueryService.getRange(CandleMarket.GLOBAL, stockCode, from, to, interval, points);
+    }
 }
@@ -1,11 +1,20 @@
 package com.example.data_collector_service.controller;
 
-import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.candle.CandleMarket;
 import com.example.data_collector_service.entity.KoreanHistoryStock;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.rollup.RollupInterval;
+import com.example.data_collector_service.service.KoreanStockWebSocketService;
+import com.example.data_collector_service.service.StockMasterDictionary;
+import com.example.data_collector_service.visualizationService.CandleService;
+import com.example.data_collector_service.visualizationService.RangeQueryService;
 import com.example.data_collector_service.visualizationService.KoreanStockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +27,10 @@ import java.util.Map;
 public class KoreanStockController {
 
     private final KoreanStockService koreanStockService;
+    private final CandleService candleService;
+    private final RangeQueryService rangeQueryService;
+    private final StockMasterDictionary stockMaster;
+    private final KoreanStockWebSocketService koreanStockWebSocketService;
 
     /**
      * 오늘 데이터 (00:00 ~ 현재)
@@ -27,8 +40,7 @@ public class KoreanStockController {
      */
     @GetMapping("/today")
     public Map<String, Object> getTodayData(@RequestParam String stockCode) {
-        List<KoreanDailyStock> stockList = koreanStockService.getTodayData(stockCode);
-        return koreanStockService.buildChartDataForTodayOrYesterday(stockList); // 수정된 부분
+        return koreanStockService.getTodayChartData(stockCode);
     }
 
     /**
@@ -39,8 +51,7 @@ public class KoreanStockController {
      */
     @GetMapping("/yesterday")
     public Map<String, Object> getYesterdayData(@RequestParam String stockCode) {
-        List<KoreanDailyStock> stockList = koreanStockService.getYesterdayData(stockCode);
-        return koreanStockService.buildChartDataForTodayOrYesterday(stockList); // 수정된 부분
+        return koreanStockService.getYesterdayChartData(stockCode);
     }
 
     /**
@@ -89,4 +100,59 @@ public class KoreanStockController {
     public Map<String, Object> getStockSummary(@RequestParam String stockCode) {
         return koreanStockService.getKoreanStockSummary(stockCode); // 최신 주식 요약 정보를 반환
     }
+
+    /**
+     * 종목 마스터 메모리 사전 즉시 갱신 (마스터 테이블 변경 후 호출)
+     *
+     * @return 적재된 종목 수
+     */
+    @PostMapping("/master/refresh")
+    public Map<String, Object> refreshStockMaster() {
+        return Map.of("count", stockMaster.refresh());
+    }
+
+    /**
+     * 국내 주식 WebSocket 세션별 구독 현황
+     *
+     * @return 세션별 연결 여부, 배정 종목 수, 구독 상태별 종목 수
+     */
+    @GetMapping("/sessions")
+    public List<Map<String, Object>> getSessionStatus() {
+        return koreanStockWebSocketService.sessionStatus();
+    }
+
+    /**
+     * 1분봉 (시가/고가/저가/종가/거래량/체결 건수)
+     *
+     * @param stockCode 종목 코드
+     * @param date 조회 날짜 (yyyy-MM-dd, 생략 시 오늘)
+     * @return 해당 날짜의 국내 주식 1분봉 목록 (시간순, 마지막은 진행 중인 분봉일 수 있음)
+     */
+    @GetMapping("/candles")
+    public List<MinuteCandle> getMinuteCandles(@RequestParam String stockCode,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return candleService.getMinuteCandles(CandleMarket.KOREAN, stockCode, date);
+    }
+
+    /**
+     * 기간/간격 범위 캔들 (시가/고가/저가/종가/거래량/체결 건수)
+     * interval을 생략하면 points개 이상을 채우는 가장 굵은 간격(MINUTE/HOUR/DAY/WEEK/MONTH)을 고릅니다.
+     *
+     * @param stockCode 종목 코드
+     * @param from 조회 시작 시각 (yyyy-MM-ddTHH:mm:ss)
+     * @param to 조회 끝 시각 (제외, 생략 시 현재)
+     * @param interval 간격 (생략 가능)
+     * @param points 원하는 최소 포인트 수 (생략 시 collector.rollups.default-points)
+     * @return 실제 사용한 간격과 국내 주식 캔들 목록 (시간순, DAY 이상 간격의 거래량은 null)
+     */
+    @GetMapping("/range")
+    public Map<String, Object> getRange(@RequestParam String stockCode,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) RollupInterval interval,
+                                        @RequestParam(required = false) Integer points) {
+        return rangeQueryService.getRange(CandleMarket.KOREAN, stockCode, from, to, interval, points);
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.data_collector_service.controller;
+
+import com.example.data_collector_service.replay.FeedReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 수집 경로 재생 API (오프라인 부하/회귀 테스트용)
+ */
+@RestController
+@RequestMapping("/api/replay")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    private final FeedReplayService feedReplayService;
+
+    /**
+     * 캡처 파일 재생 시작
+     *
+     * @param path  collector.capture.dir 기준 캡처 파일 경로 (FrameRecorder 형식, 디렉터리 밖은 400)
+     * @param speed 재생 배속 (1: 실시간, N: N배속, 0: 최대 속도)
+     */
+    @PostMapping("/capture")
+    public ResponseEntity<Map<String, Object>> replayCapture(@RequestParam String path,
+                                                             @RequestParam(defaultValue = "1") double speed) {
+        return accepted(feedReplayService.startCapture(path, speed));
+    }
+
+    /**
+     * 지정한 날짜의 korean_daily_stock 데이터 재생 시작
+     *
+     * @param date  재생할 날짜 (yyyy-MM-dd)
+     * @param speed 재생 배속 (1: 실시간, N: N배속, 0: 최대 속도)
+     */
+    @PostMapping("/korean-daily")
+    public ResponseEntity<Map<String, Object>> replayKoreanDaily(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") double speed) {
+        return accepted(feedReplayService.startKoreanDaily(date, speed));
+    }
+
+    /**
+     * 재생 진행 상태와 마지막 재생 리포트
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        return feedReplayService.status();
+    }
+
+    private ResponseEntity<Map<String, Object>> accepted(boolean started) {
+        if (!started) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("started", false, "reason", "이미 재생 중입니다."));
+        }
+        return ResponseEntity.accepted().body(Map.of("started", true));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.data_collector_service.decoder;
+
+/**
+ * KisFrameDecoder
+ *
+ * KIS 실시간 체결가(H0STCNT0) 프레임을 한 번의 순회로 파싱하는 디코더입니다.
+ * 프레임 형식: 암호화여부|TR_ID|데이터건수|레코드1^레코드2^...
+ * (레코드 1건은 46개 필드이며, 데이터건수만큼의 레코드가 '^'로 이어져 전달됩니다)
+ *
+ * - 정규식 split, String[] 배열, BigDecimal을 만들지 않고 인덱스로 직접 구간을 찾습니다.
+ * - 가격/등락률은 스케일된 long으로 변환하여 재사용 KoreanTickBatch에 채웁니다.
+ * - JSON 제어 메시지(PINGPONG, 구독 응답)는 첫 글자 '{'로만 구분합니다.
+ */
+public final class KisFrameDecoder {
+
+    // H0STCNT0 레코드 1건의 필드 수
+    static final int FIELDS_PER_RECORD = 46;
+
+    // H0STCNT0 레코드 내 필드 위치 (KIS 문서 기준)
+    static final int FIELD_STOCK_CODE = 0;   // MKSC_SHRN_ISCD
+    static final int FIELD_TRADE_TIME = 1;   // STCK_CNTG_HOUR
+    static final int FIELD_PRICE = 2;        // STCK_PRPR
+    static final int FIELD_CHANGE_RATE = 5;  // PRDY_CTRT
+    static final int FIELD_VOLUME = 12;      // CNTG_VOL
+
+    private static final String PINGPONG_TR_ID = "\"tr_id\":\"PINGPONG\"";
+
+    public enum Result {
+        TICK,       // 체결 레코드를 1건 이상 정상적으로 파싱함
+        PINGPONG,   // PINGPONG 제어 메시지 (PONG 응답 필요)
+        CONTROL,    // 그 외 JSON 제어 메시지 (구독 응답 등)
+        MALFORMED   // 형식이 맞지 않는 프레임
+    }
+
+    private KisFrameDecoder() {
+    }
+
+    /**
+     * 프레임에 담긴 모든 레코드를 파싱하여 batch에 채웁니다.
+     * batch는 호출 시 비워지며, 형식이 잘못된 레코드가 나오면 그 앞까지의 레코드만 남습니다.
+     *
+     * @param frame WebSocket으로 수신한 원문
+     * @param batch 결과를 채울 재사용 배치
+     * @return 파싱 결과 종류
+     */
+    public static Result decode(CharSequence frame, KoreanTickBatch batch) {
+        batch.clear();
+        int length = frame.length();
+        if (length == 0) {
+            return Result.MALFORMED;
+        }
+        if (frame.charAt(0) == '{') {
+            return isPingPong(frame) ? Result.PINGPONG : Result.CONTROL;
+        }
+
+        // 헤더 3개('|' 구분): 암호화여부 | TR_ID | 데이터건수
+        int trIdStart = indexOf(frame, '|', 0, length) + 1;
+        if (trIdStart <= 0) {
+            return Result.MALFORMED;
+        }
+        int countStart = indexOf(frame, '|', trIdStart, length) + 1;
+        if (countStart <= 0) {
+            return Result.MALFORMED;
+        }
+        int dataStart = indexOf(frame, '|', countStart, length) + 1;
+        if (dataStart <= 0) {
+            return Result.MALFORMED;
+        }
+
+        try {
+            int recordCount = (int) parseScaled(frame, countStart, dataStart - 1, 0);
+            int cursor = dataStart;
+            for (int r = 0; r < recordCount && cursor < length; r++) {
+                cursor = decodeRecord(frame, cursor, length, batch.claim());
+                if (cursor < 0) {
+                    break;
+                }
+                batch.commit();
+            }
+        } catch (NumberFormatException e) {
+            // 앞서 파싱된 레코드는 유지
+        }
+        return batch.isEmpty() ? Result.MALFORMED : Result.TICK;
+    }
+
+    /**
+     * '^'로 구분된 레코드 1건을 파싱합니다. 필요한 필드만 읽고 나머지 필드는 건너뜁니다.
+     *
+     * @return 다음 레코드의 시작 위치 (프레임 끝이면 end), 형식 오류 시 -1
+     */
+    static int decodeRecord(CharSequence frame, int from, int end, KoreanTick tick) {
+        int fieldStart = from;
+        tick.setVolume(0);
+        for (int field = 0; field < FIELDS_PER_RECORD; field++) {
+            int fieldEnd = indexOf(frame, '^', fieldStart, end);
+            if (fieldEnd < 0) {
+                fieldEnd = end;
+            }
+            switch (field) {
+                case FIELD_STOCK_CODE -> tick.setStockCode(frame, fieldStart, fieldEnd);
+                case FIELD_TRADE_TIME -> tick.setTradeTime((int) parseScaled(frame, fieldStart, fieldEnd, 0));
+                case FIELD_PRICE -> tick.setPrice(parseScaled(frame, fieldStart, fieldEnd, KoreanTick.PRICE_SCALE));
+                case FIELD_CHANGE_RATE -> tick.setChangeRate(parseScaled(frame, fieldStart, fieldEnd, KoreanTick.RATE_SCALE));
+                case FIELD_VOLUME -> tick.setVolume(parseScaled(frame, fieldStart, fieldEnd, 0));
+                default -> {
+                    // 사용하지 않는 필드
+                }
+            }
+            if (fieldEnd == end) {
+                // 프레임 끝: 필수 필드(등락률)까지는 있어야 함, 거래량은 없으면 0으로 둠
+                return field >= FIELD_CHANGE_RATE ? end : -1;
+            }
+            fieldStart = fieldEnd + 1;
+        }
+        return fieldStart;
+    }
+
+    /**
+     * "-0.14", "71900" 같은 10진수 문자열을 10^scale 배 된 long으로 변환합니다.
+     * scale보다 긴 소수부는 버립니다.
+     */
+    static long parseScaled(CharSequence s, int from, int to, int scale) {
+        int i = from;
+        boolean negative = false;
+        if (i < to) {
+            char c = s.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        if (i >= to) {
+            throw new NumberFormatException("숫자 필드가 비어 있습니다.");
+        }
+        long value = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (fractionDigits >= 0) {
+                    throw new NumberFormatException("소수점이 두 번 이상 포함되어 있습니다.");
+                }
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("숫자가 아닌 문자: " + c);
+            }
+            if (fractionDigits >= 0) {
+                if (fractionDigits == scale) {
+                    continue;
+                }
+                fractionDigits++;
+            }
+            value = value * 10 + (c - '0');
+        }
+        for (int f = Math.max(fractionDigits, 0); f < scale; f++) {
+            value *= 10;
+        }
+        return negative ? -value : value;
+    }
+
+    static int indexOf(CharSequence s, char ch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPingPong(CharSequence frame) {
+        return frame.toString().contains(PINGPONG_TR_ID);
+    }
+}
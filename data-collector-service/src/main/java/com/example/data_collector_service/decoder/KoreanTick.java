@@ -0,0 +1,132 @@
+package com.example.data_collector_service.decoder;
+
+import java.math.BigDecimal;
+
+/**
+ * KoreanTick
+ *
+ * H0STCNT0 체결 레코드 1건을 담는 재사용 가능한 가변 객체입니다.
+ * 디코더가 매 프레임마다 같은 인스턴스를 덮어쓰므로, 수신 스레드에서는 객체 생성이 발생하지 않습니다.
+ * 가격/등락률은 BigDecimal 대신 스케일된 long 값으로 보관합니다.
+ */
+public final class KoreanTick {
+
+    // 현재가 스케일 (소수점 4자리, DECIMAL(10,4)와 동일)
+    public static final int PRICE_SCALE = 4;
+    // 등락률 스케일 (소수점 2자리, DECIMAL(5,2)와 동일)
+    public static final int RATE_SCALE = 2;
+
+    // 국내 종목 코드는 6자리이지만 여유를 둡니다.
+    private static final int MAX_CODE_LENGTH = 12;
+
+    private final char[] stockCode = new char[MAX_CODE_LENGTH];
+    private int stockCodeLength;
+
+    // 체결 시각 (HHmmss 정수, 예: 093354)
+    private int tradeTime;
+    // 현재가 * 10^PRICE_SCALE
+    private long price;
+    // 전일 대비율 * 10^RATE_SCALE
+    private long changeRate;
+    // 체결 거래량
+    private long volume;
+    // 수신 시각 (epoch millis, 수신 스레드에서 설정)
+    private long receivedAt;
+
+    void setStockCode(CharSequence src, int from, int to) {
+        int len = Math.min(to - from, MAX_CODE_LENGTH);
+        for (int i = 0; i < len; i++) {
+            stockCode[i] = src.charAt(from + i);
+        }
+        stockCodeLength = len;
+    }
+
+    void setTradeTime(int tradeTime) {
+        this.tradeTime = tradeTime;
+    }
+
+    void setPrice(long price) {
+        this.price = price;
+    }
+
+    void setChangeRate(long changeRate) {
+        this.changeRate = changeRate;
+    }
+
+    void setVolume(long volume) {
+        this.volume = volume;
+    }
+
+    public void setReceivedAt(long receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    /**
+     * 모든 값을 한 번에 설정합니다. (저널 복구 등 디코더 밖에서 tick을 다시 만들 때 사용)
+     */
+    public void set(CharSequence stockCode, int tradeTime, long price, long changeRate, long volume, long receivedAt) {
+        setStockCode(stockCode, 0, stockCode.length());
+        this.tradeTime = tradeTime;
+        this.price = price;
+        this.changeRate = changeRate;
+        this.volume = volume;
+        this.receivedAt = receivedAt;
+    }
+
+    /**
+     * 다른 tick의 값을 그대로 복사합니다. (링 버퍼 슬롯에 발행할 때 사용)
+     */
+    public void copyFrom(KoreanTick other) {
+        System.arraycopy(other.stockCode, 0, stockCode, 0, other.stockCodeLength);
+        stockCodeLength = other.stockCodeLength;
+        tradeTime = other.tradeTime;
+        price = other.price;
+        changeRate = other.changeRate;
+        volume = other.volume;
+        receivedAt = other.receivedAt;
+    }
+
+    public char[] stockCodeChars() {
+        return stockCode;
+    }
+
+    public int stockCodeLength() {
+        return stockCodeLength;
+    }
+
+    /**
+     * 종목 코드를 문자열로 반환합니다. (호출 시 String이 생성되므로 수신 경로에서는 사용을 피합니다)
+     */
+    public String stockCode() {
+        return new String(stockCode, 0, stockCodeLength);
+    }
+
+    public int tradeTime() {
+        return tradeTime;
+    }
+
+    public long price() {
+        return price;
+    }
+
+    public long changeRate() {
+        return changeRate;
+    }
+
+    public long volume() {
+        return volume;
+    }
+
+    public long receivedAt() {
+        return receivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "KoreanTick{stockCode=" + stockCode()
+                + ", tradeTime=" + tradeTime
+                + ", price=" + BigDecimal.valueOf(price, PRICE_SCALE)
+                + ", changeRate=" + BigDecimal.valueOf(changeRate, RATE_SCALE)
+                + ", volume=" + volume + "}";
+    }
+}
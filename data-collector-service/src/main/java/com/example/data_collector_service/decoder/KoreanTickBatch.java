@@ -0,0 +1,62 @@
+package com.example.data_collector_service.decoder;
+
+/**
+ * KoreanTickBatch
+ *
+ * 한 프레임에 담긴 여러 체결 레코드를 담는 재사용 배치입니다.
+ * 슬롯(KoreanTick)은 미리 생성해 두고 매 프레임마다 덮어쓰며, 부족할 때만 늘립니다.
+ */
+public final class KoreanTickBatch {
+
+    private KoreanTick[] ticks;
+    private int size;
+
+    public KoreanTickBatch() {
+        this(8);
+    }
+
+    public KoreanTickBatch(int initialCapacity) {
+        ticks = new KoreanTick[Math.max(1, initialCapacity)];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = new KoreanTick();
+        }
+    }
+
+    /**
+     * 다음 슬롯을 반환합니다. (디코더가 값을 채운 뒤 commit()으로 확정)
+     */
+    KoreanTick claim() {
+        if (size == ticks.length) {
+            KoreanTick[] grown = new KoreanTick[ticks.length * 2];
+            System.arraycopy(ticks, 0, grown, 0, ticks.length);
+            for (int i = ticks.length; i < grown.length; i++) {
+                grown[i] = new KoreanTick();
+            }
+            ticks = grown;
+        }
+        return ticks[size];
+    }
+
+    void commit() {
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public KoreanTick get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+        return ticks[index];
+    }
+}
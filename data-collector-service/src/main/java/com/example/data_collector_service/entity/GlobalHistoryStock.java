@@ -30,6 +30,18 @@ public class GlobalHistoryStock {
     @Column(name = "exchange_code", length = 10)
     private String exchangeCode;
 
+    // 시가 (당일 첫 체결가, 이관 시 집계)
+    @Column(name = "open_price", precision = 10, scale = 4)
+    private BigDecimal openPrice;
+
+    // 고가
+    @Column(name = "high_price", precision = 10, scale = 4)
+    private BigDecimal highPrice;
+
+    // 저가
+    @Column(name = "low_price", precision = 10, scale = 4)
+    private BigDecimal lowPrice;
+
     // 종가
     @Column(name = "closing_price", precision = 10, scale = 4, nullable = false)
     private BigDecimal closingPrice;
@@ -38,6 +50,10 @@ public class GlobalHistoryStock {
     @Column(name = "change_rate", precision = 5, scale = 2)
     private BigDecimal changeRate;
 
+    // 당일 체결(틱) 건수 (1분봉 합계, 분봉이 없으면 Daily 테이블에 저장된 행 수)
+    @Column(name = "tick_count")
+    private Integer tickCount;
+
     // 데이터 수집 날짜 (Unix Timestamp → DATE 변환 필요)
     @Column(name = "timestamp", nullable = false)
     private LocalDate timestamp;
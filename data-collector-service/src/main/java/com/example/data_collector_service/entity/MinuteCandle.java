@@ -0,0 +1,60 @@
+package com.example.data_collector_service.entity;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "minute_candle", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_minute_candle", columnNames = {"market", "symbol", "bucket_start"})
+})
+public class MinuteCandle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 시세 출처 (KOREAN, GLOBAL, FOREX)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "market", length = 10, nullable = false)
+    private CandleMarket market;
+
+    // 종목 코드 또는 통화 코드
+    @Column(name = "symbol", length = 10, nullable = false)
+    private String symbol;
+
+    // 분봉 시작 시각 (해당 분의 0초)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // 시가
+    @Column(name = "open_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal openPrice;
+
+    // 고가
+    @Column(name = "high_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal highPrice;
+
+    // 저가
+    @Column(name = "low_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal lowPrice;
+
+    // 종가
+    @Column(name = "close_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal closePrice;
+
+    // 거래량 (국내 주식 체결 거래량 합계, 거래량이 없는 시세는 0)
+    @Column(name = "volume", nullable = false)
+    private long volume;
+
+    // 분봉에 반영된 체결(시세) 건수
+    @Column(name = "tick_count", nullable = false)
+    private int tickCount;
+}
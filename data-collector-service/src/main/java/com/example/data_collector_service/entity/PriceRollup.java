@@ -0,0 +1,66 @@
+package com.example.data_collector_service.entity;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.rollup.RollupInterval;
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "price_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_price_rollup", columnNames = {"market", "symbol", "resolution", "bucket_start"})
+})
+public class PriceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 시세 출처 (KOREAN, GLOBAL, FOREX)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "market", length = 10, nullable = false)
+    private CandleMarket market;
+
+    // 종목 코드 또는 통화 코드
+    @Column(name = "symbol", length = 10, nullable = false)
+    private String symbol;
+
+    // 집계 간격 (HOUR, DAY, WEEK, MONTH)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", length = 6, nullable = false)
+    private RollupInterval resolution;
+
+    // 구간 시작 시각 (WEEK는 월요일 0시, MONTH는 1일 0시)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // 시가
+    @Column(name = "open_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal openPrice;
+
+    // 고가
+    @Column(name = "high_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal highPrice;
+
+    // 저가
+    @Column(name = "low_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal lowPrice;
+
+    // 종가
+    @Column(name = "close_price", precision = 10, scale = 4, nullable = false)
+    private BigDecimal closePrice;
+
+    // 거래량 합계 (분봉에서 집계한 HOUR만, 일별 History에는 거래량이 없으므로 DAY/WEEK/MONTH는 null)
+    @Column(name = "volume")
+    private Long volume;
+
+    // 구간에 반영된 체결(시세) 건수 합계
+    @Column(name = "tick_count", nullable = false)
+    private int tickCount;
+}
@@ -0,0 +1,151 @@
+package com.example.data_collector_service.journal;
+
+import com.example.data_collector_service.decoder.KoreanTick;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * JournalSegment
+ *
+ * 저널 세그먼트 파일 하나 (고정 크기, 메모리 매핑).
+ * 파일 이름은 첫 레코드의 시퀀스 번호이며, 레코드는 64바이트 고정 길이입니다.
+ *
+ * [레코드 형식]
+ *  0  int   MAGIC (0이면 아직 기록되지 않은 영역)
+ *  4  byte  종목 코드 길이
+ *  5  12B   종목 코드 (ASCII)
+ * 17  3B    (여백)
+ * 20  long  현재가 (스케일 long)
+ * 28  long  등락률 (스케일 long)
+ * 36  long  거래량
+ * 44  int   체결 시각 (HHmmss)
+ * 48  long  수신 시각 (epoch millis)
+ * 56  long  시퀀스 번호
+ */
+final class JournalSegment {
+
+    static final int RECORD_SIZE = 64;
+    static final String SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x544B4A31; // "TKJ1"
+    private static final int MAX_CODE_LENGTH = 12;
+
+    private final Path path;
+    private final long firstSequence;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    // 다음에 기록할 레코드 위치 (writer 전용)
+    private int count;
+
+    private JournalSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = buffer.capacity() / RECORD_SIZE;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 새 세그먼트 파일을 만들고 매핑합니다. (파일은 0으로 채워진 상태로 미리 할당됨)
+     */
+    static JournalSegment create(Path dir, long firstSequence, int records) throws IOException {
+        Path path = dir.resolve(fileName(firstSequence));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 채널을 닫아도 매핑은 유지됨
+            return new JournalSegment(path, firstSequence,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE));
+        }
+    }
+
+    /**
+     * 기존 세그먼트 파일을 읽기 전용으로 매핑합니다. (복구용)
+     */
+    static JournalSegment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long firstSequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new JournalSegment(path, firstSequence,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    /**
+     * tick 한 건을 기록합니다. MAGIC은 마지막에 써서, 중간에 종료되면 레코드 전체가 무시되도록 합니다.
+     */
+    void append(KoreanTick tick, long sequence) {
+        int base = count * RECORD_SIZE;
+        int length = Math.min(tick.stockCodeLength(), MAX_CODE_LENGTH);
+        char[] code = tick.stockCodeChars();
+        buffer.put(base + 4, (byte) length);
+        for (int i = 0; i < length; i++) {
+            buffer.put(base + 5 + i, (byte) code[i]);
+        }
+        buffer.putLong(base + 20, tick.price());
+        buffer.putLong(base + 28, tick.changeRate());
+        buffer.putLong(base + 36, tick.volume());
+        buffer.putInt(base + 44, tick.tradeTime());
+        buffer.putLong(base + 48, tick.receivedAt());
+        buffer.putLong(base + 56, sequence);
+        buffer.putInt(base, MAGIC);
+        count++;
+    }
+
+    /**
+     * 기록된 레코드를 순서대로 읽어 tick에 채운 뒤 visitor를 호출합니다.
+     *
+     * @return 마지막으로 읽은 시퀀스 번호 (레코드가 없으면 firstSequence - 1)
+     */
+    long forEach(KoreanTick tick, CharBuffer codeBuffer, RecordVisitor visitor) {
+        long lastSequence = firstSequence - 1;
+        for (int i = 0; i < capacity; i++) {
+            int base = i * RECORD_SIZE;
+            if (buffer.getInt(base) != MAGIC) {
+                break;
+            }
+            int length = Math.min(buffer.get(base + 4), MAX_CODE_LENGTH);
+            codeBuffer.clear();
+            for (int c = 0; c < length; c++) {
+                codeBuffer.put((char) buffer.get(base + 5 + c));
+            }
+            codeBuffer.flip();
+            tick.set(codeBuffer, buffer.getInt(base + 44), buffer.getLong(base + 20),
+                    buffer.getLong(base + 28), buffer.getLong(base + 36), buffer.getLong(base + 48));
+            lastSequence = buffer.getLong(base + 56);
+            visitor.visit(tick, lastSequence);
+        }
+        return lastSequence;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(KoreanTick tick, long sequence);
+    }
+}
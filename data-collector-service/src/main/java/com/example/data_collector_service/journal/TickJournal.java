@@ -0,0 +1,203 @@
+package com.example.data_collector_service.journal;
+
+import com.example.data_collector_service.buffer.KoreanTickHandler;
+import com.example.data_collector_service.decoder.KoreanTick;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * TickJournal
+ *
+ * 파싱된 국내 주식 tick을 버퍼(RealTimeDataBuffer)에 반영하기 전에 메모리 매핑 파일에 먼저 기록하는 append-only 저널입니다.
+ * 버퍼의 데이터는 최대 20초 뒤에야 DB에 저장되므로, 그 사이 프로세스가 죽어도 재시작 시 저널을 재생해 복구합니다.
+ *
+ * - 기록: 소비자 스레드에서 64바이트 고정 레코드를 매핑 버퍼에 쓰기만 함 (시스템 콜/객체 생성 없음)
+ * - 롤링: 세그먼트가 가득 차면 다음 시퀀스 번호로 새 세그먼트 파일 생성
+ * - 정리: DataFlushScheduler가 저장에 성공하면 markFlushed()로 체크포인트를 남기고, 그 이전 세그먼트를 삭제
+ * - 복구: 파이프라인 시작 시 체크포인트 이후 레코드를 뒤 단계 핸들러로 재생
+ *
+ * 매핑된 페이지는 프로세스가 죽어도 OS가 파일에 반영하므로 프로세스 장애에는 안전합니다.
+ * (OS/전원 장애까지 대비하려면 force()가 필요하지만, 수신 경로 지연을 위해 호출하지 않습니다)
+ */
+@Slf4j
+@Component
+@Order(50)
+public class TickJournal implements KoreanTickHandler {
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    @Value("${collector.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${collector.journal.dir:./data/tick-journal}")
+    private String directory;
+
+    // 세그먼트당 레코드 수 (레코드 64바이트, 기본 1,048,576건 = 64MB)
+    @Value("${collector.journal.segment-records:1048576}")
+    private int segmentRecords;
+
+    private Path dir;
+    // 삭제되지 않은 세그먼트 (마지막이 현재 기록 중인 세그먼트)
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private JournalSegment active;
+    // 복구가 끝나 기록 중인지 여부 (DataFlushScheduler 스레드에서 확인)
+    private volatile boolean opened;
+
+    // 마지막으로 기록한 시퀀스 번호 (소비자 스레드에서만 갱신)
+    private volatile long writtenSequence;
+    // 마지막으로 DB 저장이 확인된 시퀀스 번호
+    private volatile long flushedSequence;
+
+    @Override
+    public void onTick(KoreanTick tick, boolean endOfBatch) {
+        if (active == null) {
+            return;
+        }
+        if (active.isFull() && !roll()) {
+            return;
+        }
+        long sequence = writtenSequence + 1;
+        active.append(tick, sequence);
+        writtenSequence = sequence;
+    }
+
+    /**
+     * 체크포인트 이후의 레코드를 downstream 핸들러로 재생하고, 새 세그먼트를 열어 기록을 시작합니다.
+     */
+    @Override
+    public void recover(List<KoreanTickHandler> downstream) {
+        if (!enabled) {
+            log.info("[TickJournal] 비활성화 상태 (collector.journal.enabled=false)");
+            return;
+        }
+        try {
+            dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            flushedSequence = readCheckpoint();
+
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(dir)) {
+                files = stream.filter(p -> p.getFileName().toString().endsWith(JournalSegment.SUFFIX)).sorted().toList();
+            }
+            KoreanTick tick = new KoreanTick();
+            CharBuffer codeBuffer = CharBuffer.allocate(16);
+            long lastSequence = flushedSequence;
+            long[] replayed = {0};
+            for (Path file : files) {
+                JournalSegment segment = JournalSegment.open(file);
+                long last = segment.forEach(tick, codeBuffer, (t, sequence) -> {
+                    if (sequence <= flushedSequence) {
+                        return;
+                    }
+                    for (KoreanTickHandler handler : downstream) {
+                        handler.onTick(t, false);
+                    }
+                    replayed[0]++;
+                });
+                lastSequence = Math.max(lastSequence, last);
+                if (last < segment.firstSequence()) {
+                    // 기록 없이 끝난 세그먼트 (새 세그먼트와 이름이 겹칠 수 있으므로 삭제)
+                    segment.delete();
+                } else {
+                    segments.add(segment);
+                }
+            }
+            writtenSequence = lastSequence;
+            active = JournalSegment.create(dir, lastSequence + 1, segmentRecords);
+            segments.add(active);
+            opened = true;
+            log.info("[TickJournal] 복구 완료 - 세그먼트 {}개, 재생 {}건, 다음 시퀀스 {}",
+                    files.size(), replayed[0], lastSequence + 1);
+        } catch (IOException e) {
+            // 저널을 쓸 수 없어도 수집은 계속 (장애 시 미저장 데이터 복구만 불가)
+            active = null;
+            log.error("[TickJournal] 저널 초기화 실패 - 저널 없이 수집합니다. dir={}", directory, e);
+        }
+    }
+
+    /**
+     * DB 저장이 끝난 지점을 반환합니다. DataFlushScheduler가 버퍼를 비우기 직전에 호출해야 합니다.
+     * 소비자 스레드는 tick 하나를 저널 -> 버퍼 순서로 처리하므로, 마지막으로 기록한 tick은 아직 버퍼에 없을 수 있어 제외합니다.
+     */
+    public long flushableSequence() {
+        return writtenSequence - 1;
+    }
+
+    /**
+     * 마지막으로 기록한 체크포인트 (재시작 시 이 시퀀스 다음부터 재생)
+     */
+    public long flushedSequence() {
+        return flushedSequence;
+    }
+
+    /**
+     * 지정한 시퀀스까지 DB에 저장되었음을 기록하고, 더 이상 필요 없는 세그먼트를 삭제합니다.
+     * (국내 저장과 압축 보류 시세 저장 스케줄러가 함께 호출하므로 동기화)
+     */
+    public synchronized void markFlushed(long sequence) {
+        if (!opened || sequence <= flushedSequence) {
+            return;
+        }
+        try {
+            writeCheckpoint(sequence);
+            flushedSequence = sequence;
+        } catch (IOException e) {
+            log.error("[TickJournal] 체크포인트 기록 실패 - sequence={}", sequence, e);
+            return;
+        }
+        synchronized (segments) {
+            // 다음 세그먼트의 첫 시퀀스가 체크포인트 이하이면 그 앞 세그먼트의 레코드는 모두 저장된 것
+            while (segments.size() > 1 && segments.get(1).firstSequence() <= sequence + 1) {
+                JournalSegment segment = segments.remove(0);
+                try {
+                    segment.delete();
+                    log.debug("[TickJournal] 세그먼트 삭제 - {}", segment.path().getFileName());
+                } catch (IOException e) {
+                    log.warn("[TickJournal] 세그먼트 삭제 실패 - {}", segment.path(), e);
+                }
+            }
+        }
+    }
+
+    private boolean roll() {
+        try {
+            JournalSegment next = JournalSegment.create(dir, writtenSequence + 1, segmentRecords);
+            synchronized (segments) {
+                segments.add(next);
+            }
+            active = next;
+            log.info("[TickJournal] 새 세그먼트 - {}", next.path().getFileName());
+            return true;
+        } catch (IOException e) {
+            log.error("[TickJournal] 세그먼트 생성 실패 - 저널 기록을 건너뜁니다.", e);
+            return false;
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(tmp, Long.toString(sequence), StandardCharsets.US_ASCII);
+        Files.move(tmp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.data_collector_service.replay;
+
+import com.example.data_collector_service.buffer.KoreanTickHandler;
+import com.example.data_collector_service.buffer.TickIngestPipeline;
+import com.example.data_collector_service.decoder.KoreanTick;
+import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.repository.KoreanDailyStockRepository;
+import com.example.data_collector_service.service.ForexWebSocketService;
+import com.example.data_collector_service.service.KisFrameHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * FeedReplayService
+ *
+ * 기록된 원본 프레임을 실시간 수신과 같은 코드(KisFrameHandler, ForexWebSocketService.parseEurUsdPrice)로 다시 흘려보내
+ * 장 시간이 아니어도 수신 경로(파싱 -> 링 버퍼 -> 소비자 스레드)를 실행할 수 있게 합니다.
+ *
+ * [격리]
+ * - 국내: 재생 전용 링(TickIngestPipeline.newIsolatedProducer)에 기록된 수신 시각 그대로 발행하고,
+ *   소비자 스레드에서는 ReplaySink만 호출합니다. (저널/버퍼/분봉/시계열 저장소/DB에 반영하지 않음)
+ * - 해외 환율: 파싱만 하고 실시간 최신 환율/분봉은 덮어쓰지 않음
+ *
+ * [입력]
+ * - 캡처 파일: FrameRecorder가 남긴 "수신시각 TAB 피드 TAB 프레임" 형식 (API 요청은 collector.capture.dir 안의 파일만 허용)
+ * - DB: 지정한 날짜의 korean_daily_stock 행을 H0STCNT0 프레임으로 바꿔 재생
+ *
+ * [속도]
+ * - speed = 1: 기록된 시간 간격 그대로, speed = N: N배속, speed <= 0: 대기 없이 최대 속도
+ *
+ * 재생이 끝나면 처리량(프레임/tick per sec), 프레임당 파싱+발행 지연(p50/p99/max),
+ * 마지막 발행 후 파이프라인이 비워질 때까지 걸린 시간을 리포트로 남깁니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedReplayService {
+
+    private static final DateTimeFormatter TRADE_TIME = DateTimeFormatter.ofPattern("HHmmss");
+    // 파이프라인이 비워지기를 기다리는 최대 시간
+    private static final long DRAIN_TIMEOUT_MILLIS = 30_000;
+
+    private final TickIngestPipeline ingestPipeline;
+    private final ForexWebSocketService forexWebSocketService;
+    private final KoreanDailyStockRepository koreanRepo;
+
+    // API로 재생할 수 있는 캡처 파일 디렉터리 (FrameRecorder와 같은 설정)
+    @Value("${collector.capture.dir:./data/capture}")
+    private String captureDir;
+
+    // 애플리케이션 시작 시 자동 재생할 캡처 파일 (비어 있으면 자동 재생하지 않음)
+    @Value("${collector.replay.file:}")
+    private String startupFile;
+
+    @Value("${collector.replay.speed:1}")
+    private double startupSpeed;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "feed-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong replayedFrames = new AtomicLong();
+
+    // 재생 전용 링 (재생 스레드 하나에서만 발행, ReplaySink로만 소비), 처음 재생할 때 생성
+    private KisFrameHandler kisHandler;
+    private final ReplaySink replaySink = new ReplaySink();
+    private volatile ReplayReport lastReport;
+
+    public record ReplayFrame(long timestamp, String feed, String frame) {
+    }
+
+    public record ReplayReport(String source, double speed, long frames, long ticks, long consumedTicks,
+                               long elapsedMillis, long framesPerSecond, long ticksPerSecond,
+                               long p50Micros, long p99Micros, long maxMicros, long drainMillis) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (!startupFile.isBlank()) {
+            startCapture(Paths.get(startupFile), startupSpeed);
+        }
+    }
+
+    /**
+     * collector.capture.dir 안의 캡처 파일 재생을 시작합니다. (이미 재생 중이면 false)
+     *
+     * @param name 캡처 디렉터리 기준 상대 경로
+     * @throws IllegalArgumentException 캡처 디렉터리 밖을 가리키거나 파일이 없는 경우
+     */
+    public boolean startCapture(String name, double speed) {
+        return startCapture(resolveCapture(name), speed);
+    }
+
+    /**
+     * 캡처 파일 재생을 시작합니다. (이미 재생 중이면 false)
+     */
+    public boolean startCapture(Path file, double speed) {
+        return start("capture:" + file, speed, () -> readCapture(file));
+    }
+
+    /**
+     * 지정한 날짜의 korean_daily_stock 행 재생을 시작합니다. (이미 재생 중이면 false)
+     */
+    public boolean startKoreanDaily(LocalDate date, double speed) {
+        return start("korean_daily_stock:" + date, speed, () -> readKoreanDaily(date));
+    }
+
+    public Map<String, Object> status() {
+        return Map.of(
+                "running", running.get(),
+                "replayedFrames", replayedFrames.get(),
+                "lastReport", lastReport != null ? lastReport : Map.of());
+    }
+
+    private boolean start(String source, double speed, FrameSource frames) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("[FeedReplay] 이미 재생 중입니다. 요청 무시: {}", source);
+            return false;
+        }
+        executor.submit(() -> {
+            try {
+                try (Stream<ReplayFrame> stream = frames.open()) {
+                    lastReport = play(source, speed, stream.iterator());
+                }
+                log.info("[FeedReplay] 재생 완료 - {}", lastReport);
+            } catch (Exception e) {
+                log.error("[FeedReplay] 재생 실패 - {}", source, e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private ReplayReport play(String source, double speed, Iterator<ReplayFrame> frames) {
+        if (kisHandler == null) {
+            kisHandler = new KisFrameHandler(ingestPipeline.newIsolatedProducer(List.of(replaySink)));
+        }
+        replayedFrames.set(0);
+        long consumedBefore = replaySink.ticks.get();
+        long[] latencies = new long[1024];
+        long frameCount = 0;
+        long tickCount = 0;
+        long firstTimestamp = -1;
+        long startNanos = System.nanoTime();
+
+        while (frames.hasNext()) {
+            ReplayFrame frame = frames.next();
+            if (firstTimestamp < 0) {
+                firstTimestamp = frame.timestamp();
+            }
+            if (speed > 0) {
+                // 기록된 간격 / speed 만큼 기다림
+                long targetNanos = startNanos + (long) ((frame.timestamp() - firstTimestamp) * 1_000_000 / speed);
+                long waitNanos;
+                while ((waitNanos = targetNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+            }
+
+            long before = System.nanoTime();
+            if (FrameRecorder.FEED_FOREX.equals(frame.feed())) {
+                forexWebSocketService.parseEurUsdPrice(frame.frame());
+            } else {
+                // 재생 시각이 아닌 기록된 수신 시각으로 발행
+                kisHandler.onFrame(frame.frame(), frame.timestamp());
+                tickCount += kisHandler.lastTickCount();
+            }
+            long latency = System.nanoTime() - before;
+
+            if (frameCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[(int) frameCount++] = latency;
+            replayedFrames.incrementAndGet();
+        }
+
+        long publishedNanos = System.nanoTime();
+        long drainDeadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        while (ingestPipeline.backlog() > 0 && System.currentTimeMillis() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        long endNanos = System.nanoTime();
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos));
+        Arrays.sort(latencies, 0, (int) frameCount);
+        return new ReplayReport(source, speed, frameCount, tickCount, replaySink.ticks.get() - consumedBefore, elapsedMillis,
+                frameCount * 1000 / elapsedMillis, tickCount * 1000 / elapsedMillis,
+                percentileMicros(latencies, frameCount, 0.50),
+                percentileMicros(latencies, frameCount, 0.99),
+                frameCount > 0 ? latencies[(int) frameCount - 1] / 1000 : 0,
+                TimeUnit.NANOSECONDS.toMillis(endNanos - publishedNanos));
+    }
+
+    private static long percentileMicros(long[] sorted, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(count - 1, (long) Math.ceil(count * percentile) - 1)] / 1000;
+    }
+
+    private Path resolveCapture(String name) {
+        Path base = Paths.get(captureDir).toAbsolutePath().normalize();
+        Path file = base.resolve(name).normalize();
+        if (!file.startsWith(base) || file.equals(base)) {
+            throw new IllegalArgumentException("캡처 디렉터리 밖의 경로는 재생할 수 없습니다: " + name);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("캡처 파일을 찾을 수 없습니다: " + name);
+        }
+        return file;
+    }
+
+    private Stream<ReplayFrame> readCapture(Path file) {
+        try {
+            // 스트림을 닫을 때 파일도 닫힘
+            return Files.lines(file, StandardCharsets.UTF_8)
+                    .map(line -> line.split("\t", 3))
+                    .filter(parts -> parts.length == 3)
+                    .map(parts -> new ReplayFrame(Long.parseLong(parts[0]), parts[1], parts[2]));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Stream<ReplayFrame> readKoreanDaily(LocalDate date) {
+        List<KoreanDailyStock> rows = koreanRepo.findByTimestampBetweenOrderByTimestampAsc(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        log.info("[FeedReplay] {} korean_daily_stock {}건 재생", date, rows.size());
+        return rows.stream()
+                .map(row -> new ReplayFrame(
+                        row.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                        FrameRecorder.FEED_KIS,
+                        toKisFrame(row)));
+    }
+
+    /**
+     * 저장된 행을 H0STCNT0 단건 프레임으로 바꿉니다. (KisFrameDecoder가 읽는 필드만 채우고 나머지는 0)
+     */
+    static String toKisFrame(KoreanDailyStock row) {
+        String[] fields = new String[46];
+        Arrays.fill(fields, "0");
+        fields[0] = row.getStockCode();
+        fields[1] = row.getTimestamp().format(TRADE_TIME);
+        fields[2] = row.getCurrentPrice().stripTrailingZeros().toPlainString();
+        fields[5] = row.getChangeRate().toPlainString();
+        return "0|H0STCNT0|001|" + String.join("^", fields);
+    }
+
+    /**
+     * 재생 전용 링의 소비자 단계 (건수만 세고 아무 곳에도 저장하지 않음)
+     */
+    private static final class ReplaySink implements KoreanTickHandler {
+
+        private final AtomicLong ticks = new AtomicLong();
+
+        @Override
+        public void onTick(KoreanTick tick, boolean endOfBatch) {
+            ticks.incrementAndGet();
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrameSource {
+        Stream<ReplayFrame> open();
+    }
+}
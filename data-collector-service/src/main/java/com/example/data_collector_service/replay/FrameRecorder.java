@@ -0,0 +1,100 @@
+package com.example.data_collector_service.replay;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * FrameRecorder
+ *
+ * 실시간 피드에서 받은 원본 프레임을 캡처 파일에 그대로 기록합니다. (FeedReplayService 재생용)
+ * collector.capture.enabled=true일 때만 동작하며, 날짜별 파일(frames-yyyy-MM-dd.log)에 한 줄씩 남깁니다.
+ *
+ * [형식] 수신시각(epoch millis) TAB 피드(kis/forex) TAB 원본 프레임
+ */
+@Slf4j
+@Component
+public class FrameRecorder {
+
+    public static final String FEED_KIS = "kis";
+    public static final String FEED_FOREX = "forex";
+
+    @Value("${collector.capture.enabled:false}")
+    private boolean enabled;
+
+    @Value("${collector.capture.dir:./data/capture}")
+    private String directory;
+
+    private BufferedWriter writer;
+    private LocalDate writerDate;
+
+    /**
+     * 프레임 한 건을 기록합니다. (여러 수신 스레드에서 호출되므로 동기화)
+     */
+    public void record(String feed, String frame) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            try {
+                BufferedWriter out = writerFor(LocalDate.now());
+                out.write(Long.toString(now));
+                out.write('\t');
+                out.write(feed);
+                out.write('\t');
+                out.write(frame);
+                out.newLine();
+            } catch (IOException e) {
+                log.error("[FrameRecorder] 캡처 기록 실패 - 캡처를 중단합니다.", e);
+                enabled = false;
+            }
+        }
+    }
+
+    // 버퍼에 쌓인 내용을 주기적으로 파일에 반영
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("[FrameRecorder] 캡처 파일 flush 실패", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private BufferedWriter writerFor(LocalDate date) throws IOException {
+        if (writer != null && date.equals(writerDate)) {
+            return writer;
+        }
+        close();
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("frames-" + date + ".log");
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        writerDate = date;
+        log.info("[FrameRecorder] 캡처 파일 - {}", file);
+        return writer;
+    }
+}
@@ -5,8 +5,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.data_collector_service.entity.DailyForex;
 
@@ -34,4 +36,14 @@ public interface DailyForexRepository extends JpaRepository<DailyForex, Long>{
 List<DailyForex> findByCurrencyCodeAndTimestampBetween(@Param("currencyCode") String currencyCode,
                                                     @Param("startOfDay") LocalDateTime startOfDay,
                                                     @Param("endOfDay") LocalDateTime endOfDay);
+
+    // 특정 통화의 기간 데이터를 엔티티 조회 없이 한 문장으로 삭제 (날짜 범위이므로 일 단위 파티션 하나만 접근)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DailyForex d " +
+           "WHERE d.currencyCode = :currencyCode " +
+           "AND d.timestamp >= :start AND d.timestamp < :end")
+    int deleteByCurrencyCodeAndTimestampRange(@Param("currencyCode") String currencyCode,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end);
 }
@@ -0,0 +1,174 @@
+package com.example.data_collector_service.repository;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.entity.GlobalDailyStock;
+import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.entity.MinuteCandle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DailyStockBatchRepository
+ *
+ * Daily 테이블(및 분봉 테이블) 일괄 저장용 JDBC 저장소입니다.
+ * 엔티티 id가 IDENTITY 전략이라 Hibernate 배치 insert가 동작하지 않으므로,
+ * 여러 행을 한 번에 넣는 multi-row INSERT 문을 직접 실행합니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailyStockBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // INSERT 한 문장에 담을 최대 행 수
+    @Value("${collector.flush.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 국내 주식 데이터를 multi-row INSERT로 저장합니다.
+     *
+     * @return 저장된 행 수
+     */
+    public int insertKoreanDailyStocks(List<KoreanDailyStock> rows) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<KoreanDailyStock> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO korean_daily_stock (stock_code, stock_name, current_price, change_rate, timestamp) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 5);
+            for (int i = 0; i < chunk.size(); i++) {
+                KoreanDailyStock row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+                args.add(row.getStockCode());
+                args.add(row.getStockName());
+                args.add(row.getCurrentPrice());
+                args.add(row.getChangeRate());
+                args.add(Timestamp.valueOf(row.getTimestamp()));
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    /**
+     * 해외 주식 데이터를 multi-row INSERT로 저장합니다.
+     *
+     * @return 저장된 행 수
+     */
+    public int insertGlobalDailyStocks(List<GlobalDailyStock> rows) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<GlobalDailyStock> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO global_daily_stock (stock_code, stock_name, exchange_code, current_price, change_rate, timestamp) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (int i = 0; i < chunk.size(); i++) {
+                GlobalDailyStock row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+                args.add(row.getStockCode());
+                args.add(row.getStockName());
+                args.add(row.getExchangeCode());
+                args.add(row.getCurrentPrice());
+                args.add(row.getChangeRate());
+                args.add(Timestamp.valueOf(row.getTimestamp()));
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    /**
+     * 마감된 분봉을 multi-row INSERT로 저장합니다.
+     * 같은 분봉이 이미 있으면(늦게 도착한 시세로 다시 열렸던 분봉 등) 고가/저가/종가/거래량/건수를 합칩니다.
+     * (저널 재생으로 같은 시세가 다시 합쳐지지 않도록 MinuteCandleAggregator가 이미 저장된 분의 재생 시세를 건너뜀)
+     *
+     * @return 영향받은 행 수 (MariaDB는 갱신된 행을 2로 셈)
+     */
+    public int upsertMinuteCandles(List<MinuteCandle> rows) {
+        int affected = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<MinuteCandle> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO minute_candle (market, symbol, bucket_start, open_price, high_price, low_price, close_price, volume, tick_count) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 9);
+            for (int i = 0; i < chunk.size(); i++) {
+                MinuteCandle row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                args.add(row.getMarket().name());
+                args.add(row.getSymbol());
+                args.add(Timestamp.valueOf(row.getBucketStart()));
+                args.add(row.getOpenPrice());
+                args.add(row.getHighPrice());
+                args.add(row.getLowPrice());
+                args.add(row.getClosePrice());
+                args.add(row.getVolume());
+                args.add(row.getTickCount());
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE "
+                    + "high_price = GREATEST(high_price, VALUES(high_price)), "
+                    + "low_price = LEAST(low_price, VALUES(low_price)), "
+                    + "close_price = VALUES(close_price), "
+                    + "volume = volume + VALUES(volume), "
+                    + "tick_count = tick_count + VALUES(tick_count)");
+            affected += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return affected;
+    }
+
+    /**
+     * 종목별로 가장 최근에 저장된 분봉의 시작 시각을 조회합니다. (저널 재생 시 이미 저장된 분을 건너뛰는 기준)
+     *
+     * @return 종목 코드 -> 마지막 분봉 시작 시각
+     */
+    public Map<String, LocalDateTime> findLatestMinuteCandleBuckets(CandleMarket market) {
+        String sql = "SELECT symbol, MAX(bucket_start) AS last_bucket FROM minute_candle WHERE market = ? GROUP BY symbol";
+        Map<String, LocalDateTime> result = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            result.put(rs.getString("symbol"), rs.getTimestamp("last_bucket").toLocalDateTime());
+        }, market.name());
+        return result;
+    }
+
+    /**
+     * 종목별 가장 최근 국내 주식 레코드(가격, 시각)를 한 번의 쿼리로 조회합니다.
+     *
+     * @return 종목 코드 -> 최신 레코드 (코드/가격/시각만 채워짐)
+     */
+    public List<KoreanDailyStock> findLatestKoreanPerStock() {
+        String sql = "SELECT k.stock_code, k.current_price, k.timestamp FROM korean_daily_stock k "
+                + "JOIN (SELECT stock_code, MAX(timestamp) AS max_ts FROM korean_daily_stock GROUP BY stock_code) m "
+                + "ON k.stock_code = m.stock_code AND k.timestamp = m.max_ts";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            KoreanDailyStock row = new KoreanDailyStock();
+            row.setStockCode(rs.getString("stock_code"));
+            row.setCurrentPrice(rs.getBigDecimal("current_price"));
+            row.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+            return row;
+        });
+    }
+
+    /**
+     * 종목별 가장 최근 해외 주식 레코드(가격, 시각)를 한 번의 쿼리로 조회합니다.
+     */
+    public List<GlobalDailyStock> findLatestGlobalPerStock() {
+        String sql = "SELECT g.stock_code, g.current_price, g.timestamp FROM global_daily_stock g "
+                + "JOIN (SELECT stock_code, MAX(timestamp) AS max_ts FROM global_daily_stock GROUP BY stock_code) m "
+                + "ON g.stock_code = m.stock_code AND g.timestamp = m.max_ts";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            GlobalDailyStock row = new GlobalDailyStock();
+            row.setStockCode(rs.getString("stock_code"));
+            row.setCurrentPrice(rs.getBigDecimal("current_price"));
+            row.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+            return row;
+        });
+    }
+}
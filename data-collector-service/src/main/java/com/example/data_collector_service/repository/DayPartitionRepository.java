@@ -0,0 +1,97 @@
+package com.example.data_collector_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DayPartitionRepository
+ *
+ * MariaDB 일 단위 RANGE 파티션 DDL을 실행하는 JDBC 저장소입니다. (DayPartitionService에서 사용)
+ *
+ * - 파티션 키: TO_DAYS(timestamp), 파티션 이름: p + yyyyMMdd (그날 0시 ~ 다음날 0시)
+ * - 마지막 파티션 pmax(MAXVALUE)를 나눠 새 날짜 파티션을 만듦 (pmax가 비어 있으면 데이터 이동 없음)
+ * - 파티션 삭제는 행 단위 DELETE가 아닌 메타데이터 작업 (undo 로그가 쌓이지 않음)
+ *
+ * MariaDB는 파티션 키가 모든 유니크 키에 포함되어야 하므로, 변환 시 PK를 (id, timestamp)로 바꿉니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DayPartitionRepository {
+
+    public static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 테이블의 파티션 이름 목록 (정의 순서, 파티션되지 않은 테이블이면 빈 목록)
+     */
+    public List<String> findPartitionNames(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, table);
+    }
+
+    /**
+     * 파티션되지 않은 테이블을 일 단위 RANGE 파티션 테이블로 변환합니다.
+     * firstDay 이전 데이터는 모두 첫 파티션(firstDay 전날 이름)에 들어가며, 이후 보관 기간이 지나면 함께 삭제됩니다.
+     * (기존 데이터를 복사하는 ALTER이므로 기동 시 한 번만 실행)
+     */
+    public void convertToDayPartitions(String table, LocalDate firstDay, LocalDate lastDay) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp)");
+
+        StringBuilder sql = new StringBuilder("ALTER TABLE " + table + " PARTITION BY RANGE (TO_DAYS(timestamp)) (");
+        sql.append(partitionDefinition(firstDay.minusDays(1)));
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            sql.append(", ").append(partitionDefinition(day));
+        }
+        sql.append(", PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+        jdbcTemplate.execute(sql.toString());
+    }
+
+    /**
+     * pmax를 나눠 주어진 날짜들의 파티션을 만듭니다. (days는 기존 마지막 날짜 파티션 이후, 오름차순)
+     */
+    public void addDayPartitions(String table, List<LocalDate> days) {
+        String definitions = days.stream()
+                .map(DayPartitionRepository::partitionDefinition)
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                + definitions + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    /**
+     * 파티션을 통째로 삭제합니다. (DDL이므로 진행 중인 트랜잭션은 암묵적으로 커밋됨)
+     */
+    public void dropPartitions(String table, Collection<String> partitionNames) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", partitionNames));
+    }
+
+    public static String partitionName(LocalDate day) {
+        return day.format(NAME_FORMAT);
+    }
+
+    /**
+     * 파티션 이름에서 날짜를 읽습니다. (pmax 등 날짜 형식이 아니면 null)
+     */
+    public static LocalDate dayOf(String partitionName) {
+        try {
+            return LocalDate.parse(partitionName, NAME_FORMAT);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String partitionDefinition(LocalDate day) {
+        return "PARTITION " + partitionName(day) + " VALUES LESS THAN (TO_DAYS('" + day.plusDays(1) + "'))";
+    }
+}
@@ -2,6 +2,7 @@ package com.example.data_collector_service.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -12,9 +13,15 @@ public interface GlobalHistoryStockRepository extends JpaRepository<GlobalHistor
     // 체크: 해당 종목에 대해 해당 날짜(하루) 데이터가 이미 있는지
     boolean existsByStockCodeAndTimestamp(String stockCode, LocalDate timestamp);
 
-    // 삭제: 지정 날짜보다 이전의 레코드 삭제 (3달 이상)
+    // 삭제: 지정 날짜보다 이전의 레코드 삭제 (warm 보관 기간이 지난 레코드, 아카이브 이관 후)
     void deleteByTimestampBefore(LocalDate cutoffDate);
 
     // 특정 주식에 대해 특정 날짜 범위에 해당하는 히스토리 데이터를 조회
     List<GlobalHistoryStock> findByStockCodeAndTimestampBetween(String stockCode, LocalDate startDate, LocalDate endDate);
+
+    // 아카이브 이관: 날짜 범위의 전체 종목 데이터 조회
+    List<GlobalHistoryStock> findByTimestampBetween(LocalDate startDate, LocalDate endDate);
+
+    // 아카이브 이관: 가장 오래된 레코드 (이관 시작 월 계산용)
+    Optional<GlobalHistoryStock> findFirstByOrderByTimestampAsc();
 }
@@ -2,8 +2,11 @@ package com.example.data_collector_service.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.example.data_collector_service.entity.HistoryForex;
 
 public interface HistoryForexRepository extends JpaRepository<HistoryForex, Long>{
@@ -17,4 +20,17 @@ public interface HistoryForexRepository extends JpaRepository<HistoryForex, Long
 
     // 환율 데이터를 특정 기간(날짜 범위)에 대해 조회
     List<HistoryForex> findByCurrencyCodeAndDateBetween(String currencyCode, LocalDate startDate, LocalDate endDate);
+
+    // 아카이브 이관: 날짜 범위의 전체 통화 기록 조회
+    List<HistoryForex> findByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // 아카이브 이관: 가장 오래된 기록 (이관 시작 월 계산용)
+    Optional<HistoryForex> findFirstByOrderByDateAsc();
+
+    // 특정 통화의 기간 내 기록이 있는 날짜만 조회 (History 누락 날짜 계산용, 한 번의 쿼리)
+    @Query("SELECT DISTINCT h.date FROM HistoryForex h " +
+           "WHERE h.currencyCode = :currencyCode AND h.date BETWEEN :startDate AND :endDate")
+    List<LocalDate> findDatesByCurrencyCodeAndDateBetween(@Param("currencyCode") String currencyCode,
+                                                          @Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate);
 }
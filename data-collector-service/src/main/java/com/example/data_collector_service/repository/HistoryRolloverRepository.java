@@ -0,0 +1,156 @@
+package com.example.data_collector_service.repository;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HistoryRolloverRepository
+ *
+ * Daily -> History 이관을 종목 수와 무관하게 고정된 문장 수로 처리하는 JDBC 저장소입니다.
+ *
+ * - 하루치 Daily 데이터를 종목별로 집계해 INSERT ... SELECT 한 문장으로 History에 저장 (이미 History가 있는 종목은 제외)
+ * - 시가/고가/저가/종가/틱 수는 같은 날의 1분봉(minute_candle)에서 가져옴
+ *   (Daily는 압축기를 통과한 시세만 저장되므로 행 수가 체결 건수가 아니고, 고가/저가도 저장된 점 기준이라 실제보다 좁을 수 있음)
+ *   고가/저가는 분봉과 Daily 중 더 넓은 값, 분봉이 없는 종목은 Daily 행(timestamp, id 순서의 첫/마지막 행, 저장 행 수)으로 대체
+ * - 종목명/거래소/변동률은 Daily의 마지막 행
+ * - 하루치 Daily 데이터는 엔티티를 읽지 않고 DELETE 한 문장으로 삭제
+ */
+@Repository
+@RequiredArgsConstructor
+public class HistoryRolloverRepository {
+
+    // 종목별 첫/마지막 행 번호를 매긴 하루치 Daily 데이터 (첫 번째 %s: 추가 컬럼, 두 번째 %s: Daily 테이블)
+    private static final String RANKED_DAILY =
+            "SELECT d.stock_code, d.stock_name, %s d.current_price, d.change_rate, "
+            + "ROW_NUMBER() OVER (PARTITION BY d.stock_code ORDER BY d.timestamp, d.id) AS rn_first, "
+            + "ROW_NUMBER() OVER (PARTITION BY d.stock_code ORDER BY d.timestamp DESC, d.id DESC) AS rn_last "
+            + "FROM %s d WHERE d.timestamp >= ? AND d.timestamp < ?";
+
+    // Daily 데이터의 종목별 OHLC와 저장 행 수 (RANKED_DAILY 결과 r 기준)
+    private static final String DAILY_OHLC =
+            "MAX(CASE WHEN r.rn_first = 1 THEN r.current_price END) AS open_price, "
+            + "MAX(r.current_price) AS high_price, MIN(r.current_price) AS low_price, "
+            + "MAX(CASE WHEN r.rn_last = 1 THEN r.current_price END) AS close_price, "
+            + "MAX(CASE WHEN r.rn_last = 1 THEN r.change_rate END) AS change_rate, "
+            + "COUNT(*) AS row_count";
+
+    // 종목별 하루치 1분봉 집계 (시가/종가는 첫/마지막 분봉, 틱 수는 압축 전 전체 체결 건수)
+    private static final String CANDLE_DAY =
+            "SELECT c.symbol, "
+            + "MAX(CASE WHEN c.rn_first = 1 THEN c.open_price END) AS open_price, "
+            + "MAX(c.high_price) AS high_price, MIN(c.low_price) AS low_price, "
+            + "MAX(CASE WHEN c.rn_last = 1 THEN c.close_price END) AS close_price, "
+            + "SUM(c.tick_count) AS tick_count "
+            + "FROM (SELECT m.symbol, m.open_price, m.high_price, m.low_price, m.close_price, m.tick_count, "
+            + "ROW_NUMBER() OVER (PARTITION BY m.symbol ORDER BY m.bucket_start) AS rn_first, "
+            + "ROW_NUMBER() OVER (PARTITION BY m.symbol ORDER BY m.bucket_start DESC) AS rn_last "
+            + "FROM minute_candle m WHERE m.market = ? AND m.bucket_start >= ? AND m.bucket_start < ?) c "
+            + "GROUP BY c.symbol";
+
+    // 분봉(c) 값을 우선하고 없으면 Daily(d) 값 사용, 고가/저가는 둘 중 더 넓은 값
+    private static final String MERGED_OHLC_TICKS =
+            "COALESCE(c.open_price, d.open_price), "
+            + "COALESCE(GREATEST(c.high_price, d.high_price), d.high_price), "
+            + "COALESCE(LEAST(c.low_price, d.low_price), d.low_price), "
+            + "COALESCE(c.close_price, d.close_price), "
+            + "d.change_rate, "
+            + "COALESCE(c.tick_count, d.row_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 국내 주식 하루치 Daily 데이터를 OHLC로 집계해 korean_history_stock에 저장합니다.
+     *
+     * @return 저장된 History 행 수
+     */
+    public int insertKoreanHistoryFromDaily(LocalDate day) {
+        String sql = "INSERT INTO korean_history_stock "
+                + "(stock_code, stock_name, open_price, high_price, low_price, closing_price, change_rate, tick_count, timestamp) "
+                + "SELECT d.stock_code, d.stock_name, " + MERGED_OHLC_TICKS + ", ? "
+                + "FROM (SELECT r.stock_code, "
+                + "MAX(CASE WHEN r.rn_last = 1 THEN r.stock_name END) AS stock_name, "
+                + DAILY_OHLC + " "
+                + "FROM (" + String.format(RANKED_DAILY, "", "korean_daily_stock") + ") r "
+                + "WHERE NOT EXISTS (SELECT 1 FROM korean_history_stock h "
+                + "WHERE h.stock_code = r.stock_code AND h.timestamp = ?) "
+                + "GROUP BY r.stock_code) d "
+                + "LEFT JOIN (" + CANDLE_DAY + ") c ON c.symbol = d.stock_code";
+        return jdbcTemplate.update(sql, Date.valueOf(day), startOf(day), startOf(day.plusDays(1)), Date.valueOf(day),
+                CandleMarket.KOREAN.name(), startOf(day), startOf(day.plusDays(1)));
+    }
+
+    /**
+     * 해외 주식 하루치 Daily 데이터를 OHLC로 집계해 global_history_stock에 저장합니다.
+     *
+     * @param excludedStockCodes 이관하지 않을 종목 (현지 기준 휴장일 등)
+     * @return 저장된 History 행 수
+     */
+    public int insertGlobalHistoryFromDaily(LocalDate day, Collection<String> excludedStockCodes) {
+        String sql = "INSERT INTO global_history_stock "
+                + "(stock_code, stock_name, exchange_code, open_price, high_price, low_price, closing_price, change_rate, tick_count, timestamp) "
+                + "SELECT d.stock_code, d.stock_name, d.exchange_code, " + MERGED_OHLC_TICKS + ", ? "
+                + "FROM (SELECT r.stock_code, "
+                + "MAX(CASE WHEN r.rn_last = 1 THEN r.stock_name END) AS stock_name, "
+                + "MAX(CASE WHEN r.rn_last = 1 THEN r.exchange_code END) AS exchange_code, "
+                + DAILY_OHLC + " "
+                + "FROM (" + String.format(RANKED_DAILY, "d.exchange_code,", "global_daily_stock") + ") r "
+                + "WHERE NOT EXISTS (SELECT 1 FROM global_history_stock h "
+                + "WHERE h.stock_code = r.stock_code AND h.timestamp = ?)"
+                + notInClause("r.stock_code", excludedStockCodes)
+                + " GROUP BY r.stock_code) d "
+                + "LEFT JOIN (" + CANDLE_DAY + ") c ON c.symbol = d.stock_code";
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(day), startOf(day), startOf(day.plusDays(1)), Date.valueOf(day)));
+        args.addAll(excludedStockCodes);
+        args.addAll(List.of(CandleMarket.GLOBAL.name(), startOf(day), startOf(day.plusDays(1))));
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /**
+     * 국내 주식 하루치 Daily 데이터를 한 문장으로 삭제합니다.
+     *
+     * @return 삭제된 행 수
+     */
+    public int deleteKoreanDaily(LocalDate day) {
+        return jdbcTemplate.update("DELETE FROM korean_daily_stock WHERE timestamp >= ? AND timestamp < ?",
+                startOf(day), startOf(day.plusDays(1)));
+    }
+
+    /**
+     * 해외 주식 하루치 Daily 데이터를 한 문장으로 삭제합니다.
+     *
+     * @param excludedStockCodes 삭제하지 않을 종목 (이관하지 않은 종목)
+     * @return 삭제된 행 수
+     */
+    public int deleteGlobalDaily(LocalDate day, Collection<String> excludedStockCodes) {
+        String sql = "DELETE FROM global_daily_stock WHERE timestamp >= ? AND timestamp < ?"
+                + notInClause("stock_code", excludedStockCodes);
+        return jdbcTemplate.update(sql, args(excludedStockCodes, startOf(day), startOf(day.plusDays(1))));
+    }
+
+    private static Timestamp startOf(LocalDate day) {
+        return Timestamp.valueOf(day.atStartOfDay());
+    }
+
+    private static String notInClause(String column, Collection<String> values) {
+        if (values.isEmpty()) {
+            return "";
+        }
+        return " AND " + column + " NOT IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")";
+    }
+
+    private static Object[] args(Collection<String> excluded, Object... leading) {
+        List<Object> args = new ArrayList<>(List.of(leading));
+        args.addAll(excluded);
+        return args.toArray();
+    }
+}
@@ -25,4 +25,7 @@ public interface KoreanDailyStockRepository extends JpaRepository<KoreanDailySto
     List<KoreanDailyStock> findByStockCodeAndTimestampBetween(String stockCode, LocalDateTime start, LocalDateTime end);
 
     Optional<KoreanDailyStock> findTopByStockCodeOrderByTimestamp(String stockCode);
+
+    // 지정 기간의 전체 종목 데이터를 시간순으로 조회 (FeedReplayService 재생용)
+    List<KoreanDailyStock> findByTimestampBetweenOrderByTimestampAsc(LocalDateTime start, LocalDateTime end);
 }
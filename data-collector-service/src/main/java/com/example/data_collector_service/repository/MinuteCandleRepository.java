@@ -0,0 +1,20 @@
+package com.example.data_collector_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.entity.MinuteCandle;
+
+public interface MinuteCandleRepository extends JpaRepository<MinuteCandle, Long> {
+
+    // 특정 종목의 기간 내 분봉을 시간순으로 조회 (start 포함, end 제외)
+    List<MinuteCandle> findByMarketAndSymbolAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            CandleMarket market, String symbol, LocalDateTime start, LocalDateTime end);
+
+    // 가장 오래된 분봉 (시간 단위 집계를 처음 만들 때의 시작점)
+    Optional<MinuteCandle> findFirstByOrderByBucketStartAsc();
+}
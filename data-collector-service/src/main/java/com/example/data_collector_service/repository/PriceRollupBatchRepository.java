@@ -0,0 +1,98 @@
+package com.example.data_collector_service.repository;
+
+import com.example.data_collector_service.entity.PriceRollup;
+import com.example.data_collector_service.rollup.RollupInterval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PriceRollupBatchRepository
+ *
+ * price_rollup 집계 저장용 JDBC 저장소입니다.
+ * - 시간 단위: minute_candle을 INSERT ... SELECT 한 문장으로 시간별 OHLC로 집계 (시가/종가는 시간 내 첫/마지막 분봉)
+ * - 일/주/월 단위: 서비스에서 집계한 행을 multi-row INSERT로 저장
+ * 같은 구간이 이미 있으면 새로 집계한 값으로 덮어씁니다. (구간 전체를 다시 집계하므로 누적하지 않음)
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceRollupBatchRepository {
+
+    // 분봉이 속한 시간의 시작 시각
+    private static final String HOUR_START = "TIMESTAMP(DATE(c.bucket_start), MAKETIME(HOUR(c.bucket_start), 0, 0))";
+
+    private static final String ON_DUPLICATE_REPLACE = " ON DUPLICATE KEY UPDATE "
+            + "open_price = VALUES(open_price), "
+            + "high_price = VALUES(high_price), "
+            + "low_price = VALUES(low_price), "
+            + "close_price = VALUES(close_price), "
+            + "volume = VALUES(volume), "
+            + "tick_count = VALUES(tick_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // INSERT 한 문장에 담을 최대 행 수
+    @Value("${collector.flush.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * from(포함) ~ to(제외) 범위의 분봉을 시간 단위로 집계해 저장합니다. (from은 정각이어야 함)
+     *
+     * @return 영향받은 행 수
+     */
+    public int upsertHourlyFromMinuteCandles(LocalDateTime from, LocalDateTime to) {
+        String sql = "INSERT INTO price_rollup "
+                + "(market, symbol, resolution, bucket_start, open_price, high_price, low_price, close_price, volume, tick_count) "
+                + "SELECT r.market, r.symbol, ?, r.hour_start, "
+                + "MAX(CASE WHEN r.rn_first = 1 THEN r.open_price END), "
+                + "MAX(r.high_price), MIN(r.low_price), "
+                + "MAX(CASE WHEN r.rn_last = 1 THEN r.close_price END), "
+                + "SUM(r.volume), SUM(r.tick_count) "
+                + "FROM (SELECT c.market, c.symbol, c.open_price, c.high_price, c.low_price, c.close_price, c.volume, c.tick_count, "
+                + HOUR_START + " AS hour_start, "
+                + "ROW_NUMBER() OVER (PARTITION BY c.market, c.symbol, " + HOUR_START + " ORDER BY c.bucket_start) AS rn_first, "
+                + "ROW_NUMBER() OVER (PARTITION BY c.market, c.symbol, " + HOUR_START + " ORDER BY c.bucket_start DESC) AS rn_last "
+                + "FROM minute_candle c WHERE c.bucket_start >= ? AND c.bucket_start < ?) r "
+                + "GROUP BY r.market, r.symbol, r.hour_start"
+                + ON_DUPLICATE_REPLACE;
+        return jdbcTemplate.update(sql, RollupInterval.HOUR.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * 집계 행을 multi-row INSERT로 저장합니다. (같은 구간은 덮어씀)
+     *
+     * @return 영향받은 행 수
+     */
+    public int upsertRollups(List<PriceRollup> rows) {
+        int affected = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<PriceRollup> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO price_rollup (market, symbol, resolution, bucket_start, open_price, high_price, low_price, close_price, volume, tick_count) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 10);
+            for (int i = 0; i < chunk.size(); i++) {
+                PriceRollup row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                args.add(row.getMarket().name());
+                args.add(row.getSymbol());
+                args.add(row.getResolution().name());
+                args.add(Timestamp.valueOf(row.getBucketStart()));
+                args.add(row.getOpenPrice());
+                args.add(row.getHighPrice());
+                args.add(row.getLowPrice());
+                args.add(row.getClosePrice());
+                args.add(row.getVolume());
+                args.add(row.getTickCount());
+            }
+            sql.append(ON_DUPLICATE_REPLACE);
+            affected += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.data_collector_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.entity.PriceRollup;
+import com.example.data_collector_service.rollup.RollupInterval;
+
+public interface PriceRollupRepository extends JpaRepository<PriceRollup, Long> {
+
+    // 특정 종목/간격의 기간 내 집계를 시간순으로 조회 (start 포함, end 제외)
+    List<PriceRollup> findByMarketAndSymbolAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            CandleMarket market, String symbol, RollupInterval resolution, LocalDateTime start, LocalDateTime end);
+
+    // 간격별 가장 최근 집계 (재기동 후 이어서 집계할 시작점)
+    Optional<PriceRollup> findFirstByResolutionOrderByBucketStartDesc(RollupInterval resolution);
+
+    // 시장별 집계가 한 번이라도 만들어졌는지 (처음이면 전체 기간 집계)
+    boolean existsByMarketAndResolution(CandleMarket market, RollupInterval resolution);
+}
@@ -0,0 +1,80 @@
+package com.example.data_collector_service.rollup;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 범위 조회 캔들 간격 (price_rollup.resolution)
+ *
+ * MINUTE은 minute_candle을 그대로 읽고, 나머지는 미리 집계해 둔 price_rollup을 읽습니다.
+ * (HOUR: 분봉에서 집계, DAY/WEEK/MONTH: 일별 History(DB + 아카이브)에서 집계)
+ */
+public enum RollupInterval {
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    // 월요일 시작
+    WEEK(Duration.ofDays(7)),
+    // 1일 시작, 포인트 수 추정에는 30일로 계산
+    MONTH(Duration.ofDays(30));
+
+    private final Duration approximateLength;
+
+    RollupInterval(Duration approximateLength) {
+        this.approximateLength = approximateLength;
+    }
+
+    /**
+     * 시각이 속한 구간의 시작 시각
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        switch (this) {
+            case MINUTE:
+                return time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.toLocalDate().atStartOfDay();
+            case WEEK:
+                return time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            default:
+                return time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        }
+    }
+
+    /**
+     * from ~ to 범위를 이 간격으로 나눴을 때의 대략적인 포인트 수
+     */
+    public long estimatePoints(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMillis() / approximateLength.toMillis() + 1;
+    }
+
+    /**
+     * 요청한 포인트 수 이상을 채우는 가장 굵은 간격을 고릅니다. (어느 간격도 못 채우면 MINUTE)
+     * 고른 간격이 maxPoints를 넘으면 넘지 않을 때까지 한 단계씩 굵게 올립니다.
+     *
+     * @param requested 지정한 간격 (null이면 포인트 수로 선택)
+     */
+    public static RollupInterval select(LocalDateTime from, LocalDateTime to, RollupInterval requested,
+                                        int points, int maxPoints) {
+        RollupInterval[] intervals = values();
+        int index = 0;
+        if (requested != null) {
+            index = requested.ordinal();
+        } else {
+            for (int i = intervals.length - 1; i >= 0; i--) {
+                if (intervals[i].estimatePoints(from, to) >= points) {
+                    index = i;
+                    break;
+                }
+            }
+        }
+        while (index < intervals.length - 1 && intervals[index].estimatePoints(from, to) > maxPoints) {
+            index++;
+        }
+        return intervals[index];
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.data_collector_service.scheduler;
 
 import com.example.data_collector_service.buffer.RealTimeDataBuffer;
+import com.example.data_collector_service.candle.MinuteCandleAggregator;
 import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.journal.TickJournal;
 import com.example.data_collector_service.service.DailyStockService;
 import com.example.data_collector_service.service.StockCollectorService;
 import com.example.data_collector_service.util.MarketTimeChecker;
@@ -10,15 +13,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Iterator;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DataFlushScheduler
  * 
  * 1. 매 20초마다 버퍼에 있는 데이터를 확인하여 DB에 저장하는 역할을 합니다.
  * 2. 정규장 시간에만 데이터를 저장하도록 `MarketTimeChecker`를 통해 시장 개장 여부를 확인합니다.
- * 3. 저장된 후에는 버퍼에서 제거하여 중복 저장을 방지합니다.
+ *    (해외 종목은 OverseasPollingPlanner가 종목별 변동성에 따라 조회 주기를 정함)
+ * 3. 마지막 저장 이후 시세가 바뀐 종목만 가져와 중복 저장을 방지합니다. (저장에 실패하면 확정하지 않아 다음 주기에 다시 저장)
+ * 4. 저장에 성공하면 TickJournal에 저장 지점을 알려 이미 반영된 저널 세그먼트를 정리합니다.
+ *    (압축기가 아직 저장하지 않은 보류 시세가 있으면 그 시세를 다시 받을 수 있는 위치까지만 옮김)
+ * 5. 시간 경계가 지난 1분봉을 마감하고, 마감된 분봉을 모아 일괄 저장합니다.
+ * 6. 시세가 끊긴 종목의 압축 보류 시세(마지막 가격)를 저장합니다.
  */
 @Slf4j  // 로깅을 위한 Lombok 어노테이션
 @Component  // Spring이 자동으로 관리하는 컴포넌트 지정
@@ -28,6 +36,11 @@ public class DataFlushScheduler {
     private final RealTimeDataBuffer dataBuffer;  // 실시간 데이터를 저장하는 버퍼
     private final DailyStockService dailyStockService;  // DB 저장을 담당하는 서비스
     private final StockCollectorService stockCollectorService;
+    private final TickJournal tickJournal;  // 장애 복구용 tick 저널
+    private final MinuteCandleAggregator candleAggregator;  // 1분봉 집계기
+
+    // 마지막으로 저장이 확정된 국내 버퍼 추출 시점의 저널 위치 (이후 추출한 시세는 모두 이 위치 뒤에 기록됨, -1이면 아직 없음)
+    private volatile long lastDrainMark = -1;
 
     //🇰🇷 국내 주식 WebSocket 데이터 저장 스케줄러
     @Scheduled(cron = "*/20 * * * * *", zone = "Asia/Seoul")  // 매 20초마다 실행
@@ -37,38 +50,82 @@ public class DataFlushScheduler {
             return;
         }
 
-        // 버퍼에 저장된 국내 주식 데이터를 반복문을 통해 조회
-        Iterator<Map.Entry<String, KoreanDailyStock>> iter = dataBuffer.getKoreanBuffer().entrySet().iterator();
-        while (iter.hasNext()) {
-            Map.Entry<String, KoreanDailyStock> entry = iter.next();
-            log.info("국내 정규장이므로 데이터를 저장합니다");
-            dailyStockService.saveKoreanDailyStock(entry.getValue());  // 데이터 저장
+        // 버퍼를 비우기 전에 저널 위치를 기록 (이 지점까지의 tick은 이번 저장에 포함됨)
+        long journalMark = tickJournal.flushableSequence();
+        // 이번에 가져올 시세는 모두 직전 확정 위치 뒤에 기록됨 (재기동 후 처음이면 체크포인트 뒤)
+        long replayPosition = lastDrainMark >= 0 ? lastDrainMark : tickJournal.flushedSequence();
+        // 마지막 저장 이후 시세가 바뀐 국내 종목만 버퍼에서 가져옴
+        RealTimeDataBuffer.KoreanDrain drain = dataBuffer.drainKoreanUpdates();
+        List<KoreanDailyStock> updates = drain.updates();
+        if (updates.isEmpty()) {
+            lastDrainMark = journalMark;
+            markJournalFlushed(journalMark);
+            return;
+        }
+        log.info("국내 정규장이므로 데이터를 저장합니다 - 변경 종목 {}건", updates.size());
+        try {
+            // 한 트랜잭션에서 multi-row INSERT로 일괄 저장
+            dailyStockService.saveKoreanDailyStocks(updates, replayPosition);
+            // 저장에 성공한 경우에만 버퍼/저널 위치를 확정
+            dataBuffer.commitKoreanDrain(drain);
+            lastDrainMark = journalMark;
+            markJournalFlushed(journalMark);
             log.info("데이터가 저장되었습니다 -DataFlushScheduler");
-            iter.remove();  // 저장된 데이터는 버퍼에서 제거
+        } catch (Exception e) {
+            // drain을 확정하지 않았으므로 다음 주기에 같은 종목(또는 그 이후 시세)을 다시 저장
+            log.error("국내 주식 일괄 저장 실패, 다음 주기에 다시 시도 - {}건", updates.size(), e);
+        }
+    }
+
+    // 해외 시장(미국/홍콩) REST API 데이터 저장 스케줄러
+    // 20초마다 전 종목을 조회하는 대신, 매 틱마다 OverseasPollingPlanner가 고른 종목만 조회 (변동이 큰 종목일수록 자주)
+    @Scheduled(fixedDelayString = "${collector.overseas.poll-tick-ms:1000}")
+    public void pollOverseasMarketData() {
+        try {
+            stockCollectorService.pollDueOverseasStocks();
+        } catch (Exception e) {
+            log.error("[OverseasStockScheduler] 해외 시세 조회 실패", e);
         }
     }
 
-    // 해외 글로벌 시장(미국 등) REST API 데이터 저장 스케줄러
-    @Scheduled(cron = "*/20 * * * * *", zone = "Asia/Seoul")
-    public void fetchGlobalMarketData() {
-        if (MarketTimeChecker.isUSMarketOpen()) {
-            log.info("[OverseasStockScheduler] 미국 시장 정규장, REST API 호출 시작");
-            stockCollectorService.fetchAllOverseasStocksForGlobal();
-            log.info("[OverseasStockScheduler] 미국 시장 REST API 호출 완료");
-        } else {
-            log.info("[OverseasStockScheduler] 미국 시장 정규장이 아니므로 글로벌 데이터 호출 생략");
+    // 압축 보류 시세 저장 스케줄러 (장 마감 후에도 마지막 가격이 저장되도록 시장 시간과 무관하게 실행)
+    @Scheduled(fixedDelayString = "${collector.compression.stale-check-interval-ms:60000}")
+    public void flushStaleHeldStocks() {
+        try {
+            dailyStockService.saveStaleHeldStocks(LocalDateTime.now());
+            // 보류 시세가 저장되었으므로 장 마감 뒤에도 저널 체크포인트를 마지막 확정 위치까지 옮김
+            long mark = lastDrainMark;
+            if (mark >= 0) {
+                markJournalFlushed(mark);
+            }
+        } catch (Exception e) {
+            log.error("압축 보류 시세 저장 실패", e);
         }
     }
 
-    // 해외 홍콩 시장 REST API 데이터 저장 스케줄러
-    @Scheduled(cron = "*/20 * * * * *", zone = "Asia/Seoul")
-    public void fetchHongKongMarketData() {
-        if (MarketTimeChecker.isHongKongMarketOpen()) {
-            log.info("[OverseasStockScheduler] 홍콩 시장 정규장, REST API 호출 시작");
-            stockCollectorService.fetchAllOverseasStocksForHongKong();
-            log.info("[OverseasStockScheduler] 홍콩 시장 REST API 호출 완료");
-        } else {
-            log.info("[OverseasStockScheduler] 홍콩 시장 정규장이 아니므로 홍콩 데이터 호출 생략");
+    // 저널 체크포인트를 mark까지 옮기되, 아직 저장하지 않은 압축 보류 시세를 다시 받을 수 있는 위치는 넘지 않음
+    private void markJournalFlushed(long mark) {
+        tickJournal.markFlushed(Math.min(mark, dailyStockService.oldestKoreanHeldPosition()));
+    }
+
+    // 1분봉 마감/저장 스케줄러 (시세가 끊긴 종목도 시간 경계에서 마감)
+    @Scheduled(fixedDelayString = "${collector.candles.flush-interval-ms:5000}")
+    public void flushMinuteCandles() {
+        if (!candleAggregator.isEnabled()) {
+            return;
+        }
+        candleAggregator.closeDue(System.currentTimeMillis());
+        List<MinuteCandle> closed = candleAggregator.drainClosed();
+        if (closed.isEmpty()) {
+            return;
+        }
+        try {
+            dailyStockService.saveMinuteCandles(closed);
+            log.debug("1분봉 {}건 저장", closed.size());
+        } catch (Exception e) {
+            // 다음 주기에 다시 시도
+            candleAggregator.requeue(closed);
+            log.error("1분봉 일괄 저장 실패 - {}건", closed.size(), e);
         }
     }
 }
@@ -0,0 +1,147 @@
+package com.example.data_collector_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * CredentialStore
+ *
+ * 발급받은 KIS 자격 증명(접근 토큰, 접속키)을 로컬 파일에 암호화해 저장하고, 재시작 시 다시 읽어 옵니다.
+ * KIS는 토큰 발급을 1분당 1회로 제한하므로, 재시작할 때마다 새로 발급받지 않고 만료 전까지 기존 값을 재사용합니다.
+ *
+ * - 파일: {cache-dir}/{이름}.cred, 형식: IV(12바이트) + AES-256-GCM 암호문
+ * - 키: 앱키/앱시크릿의 SHA-256 (앱키가 바뀌면 복호화에 실패해 자동으로 무효화)
+ * - 연관 데이터: 자격 증명 이름 + REST URL (시뮬레이터/실서버 토큰이 섞이지 않음)
+ * - 읽기 실패(없음, 손상, 키 불일치)는 캐시 미스로 취급하고 새로 발급
+ */
+@Slf4j
+@Component
+public class CredentialStore {
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final String restUrl;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public CredentialStore(@Value("${collector.credentials.cache-enabled:true}") boolean enabled,
+                           @Value("${collector.credentials.cache-dir:./data/credentials}") String dir,
+                           @Value("${kis.rest-url}") String restUrl,
+                           @Value("${kis.app-key}") String appKey,
+                           @Value("${kis.app-secret}") String appSecret) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.restUrl = restUrl;
+        this.key = new SecretKeySpec(sha256(appKey + ":" + appSecret), "AES");
+    }
+
+    /**
+     * 저장된 자격 증명 중 아직 유효한 값을 읽어 옵니다.
+     */
+    Optional<RefreshingCredential.Issued> load(String name) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path file = dir.resolve(name + ".cred");
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_BYTES));
+            cipher.updateAAD(associatedData(name));
+            ByteBuffer plain = ByteBuffer.wrap(cipher.doFinal(bytes, IV_BYTES, bytes.length - IV_BYTES));
+
+            Instant issuedAt = Instant.ofEpochMilli(plain.getLong());
+            Instant expiresAt = Instant.ofEpochMilli(plain.getLong());
+            byte[] value = new byte[plain.remaining()];
+            plain.get(value);
+            RefreshingCredential.Issued issued =
+                    new RefreshingCredential.Issued(new String(value, StandardCharsets.UTF_8), issuedAt, expiresAt);
+            if (!issued.usableAt(Instant.now())) {
+                log.info("[CredentialStore] {} 캐시 만료 ({}) - 새로 발급합니다.", name, expiresAt);
+                return Optional.empty();
+            }
+            log.info("[CredentialStore] {} 캐시 재사용 - 발급 {}, 만료 {}", name, issuedAt, expiresAt);
+            return Optional.of(issued);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("[CredentialStore] {} 캐시를 읽을 수 없습니다 - 새로 발급합니다. ({})", name, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 새로 발급된 자격 증명을 저장합니다. (임시 파일에 쓴 뒤 원자적으로 교체, 실패해도 발급 흐름은 계속)
+     */
+    void save(String name, RefreshingCredential.Issued issued) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            byte[] value = issued.value().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer plain = ByteBuffer.allocate(Long.BYTES * 2 + value.length)
+                    .putLong(issued.issuedAt().toEpochMilli())
+                    .putLong(issued.expiresAt().toEpochMilli())
+                    .put(value);
+
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(associatedData(name));
+            byte[] sealed = cipher.doFinal(plain.array());
+
+            Path tmp = dir.resolve(name + ".cred.tmp");
+            Files.write(tmp, ByteBuffer.allocate(IV_BYTES + sealed.length).put(iv).put(sealed).array());
+            restrictToOwner(tmp);
+            Files.move(tmp, dir.resolve(name + ".cred"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("[CredentialStore] {} 캐시 저장 실패 - 다음 재시작 시 새로 발급합니다. ({})", name, e.toString());
+        }
+    }
+
+    private byte[] associatedData(String name) {
+        return (name + "|" + restUrl).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // POSIX 파일 시스템이면 소유자만 읽고 쓸 수 있게 제한
+    private static void restrictToOwner(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ignored) {
+            // Windows 등은 기본 권한 사용
+        }
+    }
+
+    private static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+}
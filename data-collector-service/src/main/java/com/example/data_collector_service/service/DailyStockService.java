@@ -1,121 +1,209 @@
 package com.example.data_collector_service.service;
 
+import com.example.data_collector_service.candle.CandleMarket;
 import com.example.data_collector_service.entity.GlobalDailyStock;
 import com.example.data_collector_service.entity.KoreanDailyStock;
-import com.example.data_collector_service.entity.KreanStockMaster;
-import com.example.data_collector_service.repository.GlobalDailyStockRepository;
-import com.example.data_collector_service.repository.KoreanDailyStockRepository;
-import com.example.data_collector_service.repository.KreanStockMasterRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.repository.DailyStockBatchRepository;
+import com.example.data_collector_service.tsdb.TickSeriesStore;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalDate;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * DailyStockService
  * 
  * 실시간으로 수신된 국내/해외 주식 데이터를 Daily 테이블에 저장합니다.
- * 저장 전에, 국내 주식의 경우 KreanStockMasterRepository를 통해 종목명을 조회하여 newData에 설정합니다.
- * 동일 종목의 당일 최신 데이터와 비교하여 가격 변동이 있을 때만 저장하도록 합니다.
+ * 국내 주식의 종목명은 버퍼에서 엔티티를 만들 때 StockMasterDictionary로 채우므로, 저장 경로에서 마스터 테이블을 조회하지 않습니다.
+ * 동일 종목의 마지막 저장 가격(LastPersistedPriceCache)과 비교하여 가격 변동이 있을 때만 저장하도록 합니다.
+ * 모든 저장은 일괄 저장 경로로만 하며, SwingingDoorCompressor로 종목별 허용 오차(collector.compression) 안의 시세를 솎아 내고 저장합니다.
+ * (압축기 상태는 트랜잭션이 커밋된 뒤에만 반영되고, 롤백되면 버려짐)
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DailyStockService {
 
-    private final KoreanDailyStockRepository koreanRepo;
-    private final GlobalDailyStockRepository globalRepo;
-    private final KreanStockMasterRepository kreanStockMasterRepo; 
-    // SectorMasterRepository -> KreanStockMasterRepository 로 변경
+    private final DailyStockBatchRepository batchRepo;
+    // 종목별 마지막 저장 가격 캐시 (가격 변동 판단용)
+    private final LastPersistedPriceCache priceCache;
+    // 종목별 swinging-door 압축 (허용 오차를 벗어나거나 max-gap이 지난 시세만 저장)
+    private final SwingingDoorCompressor<KoreanDailyStock> koreanCompressor;
+    private final SwingingDoorCompressor<GlobalDailyStock> globalCompressor;
+    // 저장된 시세를 차트 조회용 압축 시계열로도 기록 (커밋 후)
+    private final TickSeriesStore seriesStore;
+
+    public DailyStockService(DailyStockBatchRepository batchRepo,
+                             LastPersistedPriceCache priceCache,
+                             TickSeriesStore seriesStore,
+                             @Value("${collector.compression.enabled:true}") boolean compressionEnabled,
+                             @Value("${collector.compression.korean-deviation-percent:0.1}") double koreanDeviationPercent,
+                             @Value("${collector.compression.global-deviation-percent:0.05}") double globalDeviationPercent,
+                             @Value("${collector.compression.max-gap-seconds:600}") long maxGapSeconds) {
+        this.batchRepo = batchRepo;
+        this.priceCache = priceCache;
+        this.seriesStore = seriesStore;
+        this.koreanCompressor = new SwingingDoorCompressor<>(compressionEnabled, koreanDeviationPercent, maxGapSeconds);
+        this.globalCompressor = new SwingingDoorCompressor<>(compressionEnabled, globalDeviationPercent, maxGapSeconds);
+    }
 
     /**
-     * 국내 주식 데이터 저장
-     * newData 수신된 국내 주식 데이터
+     * 국내 주식 데이터 일괄 저장 (DataFlushScheduler 전용)
+     * - 종목명은 버퍼에서 엔티티를 만들 때 이미 채워짐
+     * - 압축기가 허용 오차를 벗어났다고 판단한 시세(직전 held 포함)만 골라 한 트랜잭션에서 multi-row INSERT로 저장 (커밋 후 캐시 갱신)
+     *
+     * @param replayPosition 이번 시세들을 다시 받으려면 재처리를 시작해야 하는 저널 위치 (압축기 held로 남는 시세에 기록)
+     * @return 저장된 행 수
      */
-    public void saveKoreanDailyStock(KoreanDailyStock newData) {
-        try {
-            // 1. 종목 코드로 KreanStockMaster에서 종목명을 조회
-            // (예: "005930" -> "삼성전자")
-            Optional<KreanStockMaster> masterOpt = kreanStockMasterRepo.findById(newData.getStockCode());
-            if (masterOpt.isPresent()) {
-                KreanStockMaster master = masterOpt.get();
-                // newData 엔티티의 stockName 필드를 마스터에서 가져온 이름으로 설정
-                newData.setStockName(master.getStockName());
-                log.info("종목 마스터 조회 성공: {} - {}", newData.getStockCode(), master.getStockName());
-            } else {
-                log.warn("종목 마스터 조회 실패 - 종목코드: {}. 기본값 유지합니다.", newData.getStockCode());
-            }
-        } catch (Exception e) {
-            log.error("종목 마스터 조회 도중 예외 발생 - 종목코드: {}. 기본값 유지합니다.", newData.getStockCode(), e);
+    @Transactional
+    public int saveKoreanDailyStocks(List<KoreanDailyStock> newDataList, long replayPosition) {
+        if (newDataList.isEmpty()) {
+            return 0;
         }
-    
-        // 2. 현재 시간 기준 오늘 날짜 추출
-        LocalDate today = newData.getTimestamp().toLocalDate();
-        log.info("오늘 날짜: {}", today);
-    
-        // 3. 동일 종목의 당일 최신 데이터 조회
-        KoreanDailyStock lastRecord = koreanRepo.findTopByStockCodeOrderByTimestampDesc(newData.getStockCode());
-    
-        if (lastRecord == null) {
-            log.info("해당 종목의 오늘 기록이 없습니다. (종목코드: {})", newData.getStockCode());
-        } else {
-            log.info("마지막 기록 - 시각: {}, 현재 가격: {} (종목코드: {})",
-                    lastRecord.getTimestamp(), lastRecord.getCurrentPrice(), newData.getStockCode());
+        long startNanos = System.nanoTime();
+
+        // 1. 압축기를 통과한 시세만 저장 대상 (재기동 후 첫 시세는 마지막 저장 가격과 다를 때만)
+        List<KoreanDailyStock> changed = new ArrayList<>();
+        SwingingDoorCompressor.Batch<KoreanDailyStock> batch = beginCompression(koreanCompressor);
+        for (KoreanDailyStock newData : newDataList) {
+            koreanCompressor.offer(batch, newData.getStockCode(), newData.getTimestamp(), newData.getCurrentPrice(), newData,
+                    replayPosition,
+                    () -> priceCache.isKoreanUnchanged(newData.getStockCode(), newData.getCurrentPrice(),
+                            newData.getTimestamp().toLocalDate()),
+                    changed::add);
         }
-    
-        // 4. 기록이 없거나 오늘 데이터가 없거나, 가격이 변동된 경우에만 저장
-        if (lastRecord == null
-            || !lastRecord.getTimestamp().toLocalDate().equals(today)
-            || lastRecord.getCurrentPrice().compareTo(newData.getCurrentPrice()) != 0) {
-            try {
-                koreanRepo.save(newData);
-                log.info("새 데이터 저장 완료 - 종목코드: {}, 시각: {}", newData.getStockCode(), newData.getTimestamp());
-            } catch (Exception e) {
-                log.error("데이터 저장 실패 - 종목코드: {}", newData.getStockCode(), e);
-            }
-        } else {
-            log.info("가격 변동 없음 - 저장하지 않음 (종목코드: {})", newData.getStockCode());
+
+        // 2. multi-row INSERT, 커밋이 성공한 뒤에 캐시 반영
+        int inserted = batchRepo.insertKoreanDailyStocks(changed);
+        afterCommit(() -> changed.forEach(this::recordKorean));
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        log.info("국내 주식 일괄 저장 완료 - 수신 {}종목, 저장 {}건, 소요 {}ms, {} rows/sec",
+                newDataList.size(), inserted, Math.round(elapsedSeconds * 1000),
+                elapsedSeconds > 0 ? Math.round(inserted / elapsedSeconds) : inserted);
+        return inserted;
+    }
+
+    /**
+     * 해외 주식 데이터 일괄 저장 (GlobalStockApiService 조회 주기 전용)
+     * - 한 주기에 조회한 시세 중 압축기를 통과한 시세만 골라 한 트랜잭션에서 multi-row INSERT로 저장 (커밋 후 캐시 갱신)
+     *
+     * @return 저장된 행 수
+     */
+    @Transactional
+    public int saveGlobalDailyStocks(List<GlobalDailyStock> newDataList) {
+        List<GlobalDailyStock> changed = new ArrayList<>();
+        SwingingDoorCompressor.Batch<GlobalDailyStock> batch = beginCompression(globalCompressor);
+        for (GlobalDailyStock newData : newDataList) {
+            // 해외 시세는 저널이 없으므로 재처리 위치 없음
+            globalCompressor.offer(batch, newData.getStockCode(), newData.getTimestamp(), newData.getCurrentPrice(), newData,
+                    Long.MAX_VALUE,
+                    () -> priceCache.isGlobalUnchanged(newData.getStockCode(), newData.getCurrentPrice(),
+                            newData.getTimestamp().toLocalDate()),
+                    changed::add);
+        }
+        if (changed.isEmpty()) {
+            log.info("해외 주식 저장 대상 없음(허용 오차 이내) - 수신 {}종목, 저장하지 않음", newDataList.size());
+            return 0;
+        }
+
+        int inserted = batchRepo.insertGlobalDailyStocks(changed);
+        afterCommit(() -> changed.forEach(this::recordGlobal));
+        log.info("해외 주식 일괄 저장 완료 - 수신 {}종목, 저장 {}건", newDataList.size(), inserted);
+        return inserted;
+    }
+
+    /**
+     * 시세가 끊긴 지 max-gap이 지난 종목의 마지막 시세(압축기 held) 저장 (DataFlushScheduler 전용)
+     * - 장 마감 등으로 다음 시세가 오지 않아도 마지막 가격이 차트에 남도록 함
+     *
+     * @return 저장된 행 수
+     */
+    @Transactional
+    public int saveStaleHeldStocks(LocalDateTime now) {
+        List<KoreanDailyStock> korean = koreanCompressor.drainStale(beginCompression(koreanCompressor), now);
+        List<GlobalDailyStock> global = globalCompressor.drainStale(beginCompression(globalCompressor), now);
+        if (korean.isEmpty() && global.isEmpty()) {
+            return 0;
+        }
+        int inserted = batchRepo.insertKoreanDailyStocks(korean) + batchRepo.insertGlobalDailyStocks(global);
+        afterCommit(() -> {
+            korean.forEach(this::recordKorean);
+            global.forEach(this::recordGlobal);
+        });
+        log.info("압축 보류 시세 저장 - 국내 {}건, 해외 {}건", korean.size(), global.size());
+        return inserted;
+    }
+
+    /**
+     * 아직 저장하지 않은 국내 압축 보류 시세 중 가장 앞선 재처리 위치 (없으면 Long.MAX_VALUE)
+     * DataFlushScheduler는 저널 체크포인트를 이 위치보다 앞으로 옮기지 않습니다.
+     */
+    public long oldestKoreanHeldPosition() {
+        return koreanCompressor.oldestHeldPosition();
+    }
+
+    /**
+     * 마감된 1분봉 일괄 저장 (DataFlushScheduler 전용, 같은 분봉이 이미 있으면 합침)
+     *
+     * @return 영향받은 행 수
+     */
+    @Transactional
+    public int saveMinuteCandles(List<MinuteCandle> candles) {
+        if (candles.isEmpty()) {
+            return 0;
         }
-    }    
+        return batchRepo.upsertMinuteCandles(candles);
+    }
+
+    // 커밋된 국내 시세를 마지막 저장 가격 캐시와 시계열 저장소에 반영
+    private void recordKorean(KoreanDailyStock data) {
+        priceCache.recordKorean(data.getStockCode(), data.getCurrentPrice(), data.getTimestamp().toLocalDate());
+        seriesStore.append(CandleMarket.KOREAN, data.getStockCode(), data.getTimestamp(), data.getCurrentPrice());
+    }
+
+    private void recordGlobal(GlobalDailyStock data) {
+        priceCache.recordGlobal(data.getStockCode(), data.getCurrentPrice(), data.getTimestamp().toLocalDate());
+        seriesStore.append(CandleMarket.GLOBAL, data.getStockCode(), data.getTimestamp(), data.getCurrentPrice());
+    }
 
     /**
-     * 해외 주식 데이터 저장
-     * newData 수신된 해외 주식 데이터
+     * 압축기 Batch를 열고, 현재 트랜잭션이 끝날 때 커밋되었으면 반영/롤백되었으면 버리도록 등록합니다.
+     * 트랜잭션이 끝날 때까지 같은 압축기를 쓰는 다른 저장은 기다립니다.
      */
-    public void saveGlobalDailyStock(GlobalDailyStock newData) {
-        // 해외 주식은 현재 별도 마스터가 없으므로, stockName은 WebSocket에서 "미매핑" 등으로 설정 가능
-        // 또는 종목명을 저장하지 않고, stockName 필드 자체를 없앨 수도 있음. -> 없앰
-    
-        try {
-            LocalDate today = newData.getTimestamp().toLocalDate();
-            log.info("saveGlobalDailyStock 시작 - 종목코드: {} / 오늘 날짜: {}", newData.getStockCode(), today);
-    
-            GlobalDailyStock lastRecord = globalRepo.findTopByStockCodeOrderByTimestampDesc(newData.getStockCode());
-            if (lastRecord == null) {
-                log.info("해당 해외 종목의 오늘 기록이 없습니다. (종목코드: {})", newData.getStockCode());
-            } else {
-                log.info("마지막 해외 기록 - 시각: {}, 현재 가격: {} (종목코드: {})",
-                    lastRecord.getTimestamp(), lastRecord.getCurrentPrice(), newData.getStockCode());
+    private <T> SwingingDoorCompressor.Batch<T> beginCompression(SwingingDoorCompressor<T> compressor) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("압축 일괄 저장은 트랜잭션 안에서만 호출할 수 있습니다.");
+        }
+        SwingingDoorCompressor.Batch<T> batch = compressor.begin();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                compressor.end(batch, status == STATUS_COMMITTED);
             }
-    
-            if (lastRecord == null
-                || !lastRecord.getTimestamp().toLocalDate().equals(today)
-                || lastRecord.getCurrentPrice().compareTo(newData.getCurrentPrice()) != 0) {
-                try {
-                    globalRepo.save(newData);
-                    log.info("새 해외 데이터 저장 완료 - 종목코드: {}, 시각: {}", newData.getStockCode(), newData.getTimestamp());
-                } catch (Exception e) {
-                    log.error("해외 데이터 저장 실패 - 종목코드: {}", newData.getStockCode(), e);
+        });
+        return batch;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 실행합니다. (트랜잭션 밖이면 즉시 실행)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
                 }
-            } else {
-                log.info("해외 종목 가격 변동 없음 - 저장하지 않음 (종목코드: {})", newData.getStockCode());
-            }
-        } catch (Exception e) {
-            log.error("saveGlobalDailyStock 처리 도중 예외 발생 - 종목코드: {}", newData.getStockCode(), e);
+            });
+        } else {
+            action.run();
         }
     }
-    
 }
@@ -0,0 +1,158 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.repository.DayPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DayPartitionService
+ *
+ * 장중 데이터 테이블(korean_daily_stock, global_daily_stock, daily_forex)을 MariaDB 일 단위 RANGE 파티션으로 관리합니다.
+ * (collector.partitioning.enabled=true 일 때만 동작, 기본은 기존처럼 일반 테이블 + 행 단위 DELETE)
+ *
+ * - 기동 시: 파티션되지 않은 테이블을 변환 (보관 기간 이전 데이터는 첫 파티션에 모음)
+ * - 매일 maintenance-cron: 오늘부터 ahead-days일 뒤까지 파티션을 미리 만들고, 보관 기간이 지난 파티션을 삭제
+ * - HistoryStockService 이관 후 하루치 삭제도 DELETE 대신 해당 날짜 파티션 삭제로 처리 (dropDay)
+ *
+ * 보관 기간 삭제가 메타데이터 작업이 되어 undo 로그가 쌓이지 않고, 날짜 범위 조회는 해당 파티션만 읽습니다.
+ */
+@Slf4j
+@Service
+public class DayPartitionService {
+
+    public static final String KOREAN_DAILY_STOCK = "korean_daily_stock";
+    public static final String GLOBAL_DAILY_STOCK = "global_daily_stock";
+    public static final String DAILY_FOREX = "daily_forex";
+
+    private final DayPartitionRepository partitionRepository;
+    private final boolean enabled;
+    private final int aheadDays;
+    // 테이블 -> 보관 일수 (오늘 - 보관 일수보다 이전 날짜의 파티션 삭제)
+    private final Map<String, Integer> retentionDays = new LinkedHashMap<>();
+
+    // 파티션 관리가 확인된 테이블 (변환 실패 시 기존 DELETE 경로 유지)
+    private final Set<String> managedTables = ConcurrentHashMap.newKeySet();
+
+    public DayPartitionService(DayPartitionRepository partitionRepository,
+                               @Value("${collector.partitioning.enabled:false}") boolean enabled,
+                               @Value("${collector.partitioning.ahead-days:3}") int aheadDays,
+                               @Value("${collector.partitioning.stock-retention-days:7}") int stockRetentionDays,
+                               @Value("${collector.partitioning.forex-retention-days:92}") int forexRetentionDays) {
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.aheadDays = aheadDays;
+        retentionDays.put(KOREAN_DAILY_STOCK, stockRetentionDays);
+        retentionDays.put(GLOBAL_DAILY_STOCK, stockRetentionDays);
+        retentionDays.put(DAILY_FOREX, forexRetentionDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) {
+            log.info("[DayPartitionService] 비활성화 상태 (collector.partitioning.enabled=false)");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<String, Integer> entry : retentionDays.entrySet()) {
+            String table = entry.getKey();
+            try {
+                if (partitionRepository.findPartitionNames(table).isEmpty()) {
+                    LocalDate firstDay = today.minusDays(entry.getValue());
+                    log.info("[DayPartitionService] {} 일 단위 파티션으로 변환 시작 ({} ~ {})",
+                            table, firstDay, today.plusDays(aheadDays));
+                    partitionRepository.convertToDayPartitions(table, firstDay, today.plusDays(aheadDays));
+                }
+                managedTables.add(table);
+            } catch (Exception e) {
+                log.error("[DayPartitionService] {} 파티션 변환 실패 - 행 단위 삭제를 유지합니다.", table, e);
+            }
+        }
+        maintainPartitions();
+    }
+
+    /**
+     * 매일 파티션을 미리 만들고 보관 기간이 지난 파티션을 삭제합니다.
+     */
+    @Scheduled(cron = "${collector.partitioning.maintenance-cron:0 30 0 * * *}", zone = "Asia/Seoul")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String table : managedTables) {
+            try {
+                maintain(table, today);
+            } catch (Exception e) {
+                log.error("[DayPartitionService] {} 파티션 관리 실패", table, e);
+            }
+        }
+    }
+
+    /**
+     * 하루치 데이터를 담은 파티션을 삭제합니다. (Daily -> History 이관 후 정리용)
+     *
+     * @return 파티션을 삭제했으면 true, 파티션 관리 대상이 아니거나 해당 날짜 파티션이 없으면 false (호출자가 DELETE로 처리)
+     */
+    public boolean dropDay(String table, LocalDate day) {
+        if (!enabled || !managedTables.contains(table)) {
+            return false;
+        }
+        String name = DayPartitionRepository.partitionName(day);
+        if (!partitionRepository.findPartitionNames(table).contains(name)) {
+            return false;
+        }
+        partitionRepository.dropPartitions(table, List.of(name));
+        log.info("[DayPartitionService] {} 파티션 {} 삭제", table, name);
+        return true;
+    }
+
+    private void maintain(String table, LocalDate today) {
+        List<String> names = partitionRepository.findPartitionNames(table);
+        LocalDate lastDay = null;
+        List<String> expired = new ArrayList<>();
+        LocalDate cutoff = today.minusDays(retentionDays.get(table));
+        for (String name : names) {
+            LocalDate day = DayPartitionRepository.dayOf(name);
+            if (day == null) {
+                continue;
+            }
+            if (day.isBefore(cutoff)) {
+                expired.add(name);
+            }
+            if (lastDay == null || day.isAfter(lastDay)) {
+                lastDay = day;
+            }
+        }
+
+        // 내일 이후 파티션이 미리 있어야 자정 직후 데이터가 pmax로 들어가지 않음
+        List<LocalDate> missing = new ArrayList<>();
+        LocalDate from = lastDay == null ? today : lastDay.plusDays(1);
+        for (LocalDate day = from; !day.isAfter(today.plusDays(aheadDays)); day = day.plusDays(1)) {
+            missing.add(day);
+        }
+        if (!missing.isEmpty() && names.contains(DayPartitionRepository.MAX_PARTITION)) {
+            partitionRepository.addDayPartitions(table, missing);
+            log.info("[DayPartitionService] {} 파티션 {}개 생성 ({} ~ {})",
+                    table, missing.size(), missing.get(0), missing.get(missing.size() - 1));
+        }
+
+        // 마지막 날짜 파티션은 남겨 둠 (pmax만 남으면 이후 날짜 파티션을 만들 기준이 없어짐)
+        expired.remove(DayPartitionRepository.partitionName(lastDay == null ? today : lastDay));
+        if (!expired.isEmpty()) {
+            partitionRepository.dropPartitions(table, expired);
+            log.info("[DayPartitionService] {} 보관 기간({}일) 지난 파티션 {}개 삭제", table, retentionDays.get(table), expired.size());
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.data_collector_service.service;
 
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.candle.MinuteCandleAggregator;
 import com.example.data_collector_service.entity.DailyForex;
 import com.example.data_collector_service.repository.DailyForexRepository;
+import com.example.data_collector_service.tsdb.TickSeriesStore;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +15,8 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -25,16 +30,32 @@ public class ForexApiService {
 
     private final RestTemplate restTemplate;
     private final DailyForexRepository dailyForexRepository;
+    // 조회한 시세를 1분봉으로 집계
+    private final MinuteCandleAggregator candleAggregator;
+    // 통화별 swinging-door 압축 (허용 오차를 벗어나거나 max-gap이 지난 시세만 저장)
+    private final SwingingDoorCompressor<DailyForex> compressor;
+    // 저장한 환율을 차트 조회용 압축 시계열로도 기록
+    private final TickSeriesStore seriesStore;
 
     public ForexApiService(RestTemplateBuilder builder,
-                           DailyForexRepository dailyForexRepository) {
+                           DailyForexRepository dailyForexRepository,
+                           MinuteCandleAggregator candleAggregator,
+                           TickSeriesStore seriesStore,
+                           @Value("${collector.compression.enabled:true}") boolean compressionEnabled,
+                           @Value("${collector.compression.forex-deviation-percent:0.01}") double deviationPercent,
+                           @Value("${collector.compression.max-gap-seconds:600}") long maxGapSeconds) {
         this.restTemplate = builder.build();
         this.dailyForexRepository = dailyForexRepository;
+        this.candleAggregator = candleAggregator;
+        this.seriesStore = seriesStore;
+        this.compressor = new SwingingDoorCompressor<>(compressionEnabled, deviationPercent, maxGapSeconds);
     }
 
     @Scheduled(cron = "0 0/4 * * * *")
     public void fetchApiData() {
         log.info("📌 [ForexApiService] 4분 간격으로 환율 데이터 조회 시작...");
+        // 조회가 끊긴 통화(주말 등)의 압축 보류 시세 저장
+        compressor.drainStale(LocalDateTime.now()).forEach(this::saveForexData);
         fetchAndSave("USD/KRW", "US Dollar / Korean Won");
         fetchAndSave("JPY/KRW", "Japanese Yen / Korean Won");
         log.info("✅ [ForexApiService] 환율 데이터 조회 완료.");
@@ -58,14 +79,25 @@ public class ForexApiService {
                         log.info("[ForexApiService] 주말에는 데이터 저장을 생략합니다.");
                         return;
                     }
-
-                    DailyForex lastRecord = dailyForexRepository.findTopByCurrencyCodeOrderByTimestampDesc(currencyCode);
-
-                    if (lastRecord == null || currentPrice.compareTo(lastRecord.getExchangeRate()) != 0) {
-                        saveForexData(currencyCode, currencyName, currentPrice, LocalDateTime.now());
-                    } else {
-                        log.info("⏭ [{}] 환율 변동 없음. 저장 생략.", currencyCode);
+                    LocalDateTime now = LocalDateTime.now();
+                    candleAggregator.onQuote(CandleMarket.FOREX, currencyCode, now, currentPrice, 0);
+
+                    DailyForex quote = DailyForex.builder()
+                            .currencyCode(currencyCode)
+                            .currencyName(currencyName)
+                            .exchangeRate(currentPrice)
+                            .timestamp(now)
+                            .build();
+                    List<DailyForex> toSave = new ArrayList<>(2);
+                    compressor.offer(currencyCode, now, currentPrice, quote, () -> {
+                        DailyForex lastRecord = dailyForexRepository.findTopByCurrencyCodeOrderByTimestampDesc(currencyCode);
+                        return lastRecord != null && currentPrice.compareTo(lastRecord.getExchangeRate()) == 0;
+                    }, toSave::add);
+
+                    if (toSave.isEmpty()) {
+                        log.info("⏭ [{}] 환율 변동이 허용 오차 이내. 저장 생략.", currencyCode);
                     }
+                    toSave.forEach(this::saveForexData);
                 } else {
                     log.warn("⚠ [{}] API 응답에서 'price' 필드 없음. 응답: {}", currencyCode, response);
                 }
@@ -77,7 +109,11 @@ public class ForexApiService {
         }
     }
 
-    private void saveForexData(String currencyCode, String currencyName, BigDecimal price, LocalDateTime timestamp) {
+    // 변동률은 저장 시점의 직전 저장 행 기준 (압축으로 보류됐던 시세도 동일)
+    private void saveForexData(DailyForex dailyForex) {
+        String currencyCode = dailyForex.getCurrencyCode();
+        BigDecimal price = dailyForex.getExchangeRate();
+        LocalDateTime timestamp = dailyForex.getTimestamp();
         DailyForex lastRecord = dailyForexRepository.findTopByCurrencyCodeOrderByTimestampDesc(currencyCode);
 
         BigDecimal changeRate = null;
@@ -88,16 +124,10 @@ public class ForexApiService {
                     .divide(oldRate, 2, BigDecimal.ROUND_HALF_UP);
             changeRate = diffPercent;
         }
-
-        DailyForex dailyForex = DailyForex.builder()
-                .currencyCode(currencyCode)
-                .currencyName(currencyName)
-                .exchangeRate(price)
-                .changeRate(changeRate)
-                .timestamp(timestamp)
-                .build();
+        dailyForex.setChangeRate(changeRate);
 
         dailyForexRepository.save(dailyForex);
+        seriesStore.append(CandleMarket.FOREX, currencyCode, timestamp, price);
         log.info(" [{}] 환율 저장 완료: {} ({}원) - 변동률: {}%", timestamp, currencyCode, price, changeRate);
     }
 
@@ -1,7 +1,11 @@
 package com.example.data_collector_service.service;
 
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.candle.MinuteCandleAggregator;
 import com.example.data_collector_service.entity.DailyForex;
+import com.example.data_collector_service.replay.FrameRecorder;
 import com.example.data_collector_service.repository.DailyForexRepository;
+import com.example.data_collector_service.tsdb.TickSeriesStore;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
@@ -11,12 +15,15 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * ForexWebSocketService
  * ---------------------
  * - "subscribe" 액션(JSON) 방식을 사용하여 EUR/USD 심볼만 실시간 구독
  * - 4분마다 DB에 최신 환율을 저장 (변동이 있을 때만 저장)
+ * - 연결이 끊기거나 응답이 없으면 ReconnectSupervisor가 백오프 후 재연결하고, onOpen에서 다시 구독
  */
 @Slf4j
 @Service
@@ -24,6 +31,14 @@ public class ForexWebSocketService {
 
     private final OkHttpClient okHttpClient;
     private final DailyForexRepository dailyForexRepository;
+    private final ReconnectSupervisor reconnectSupervisor;
+    private final FrameRecorder frameRecorder;
+    // 수신 시세를 1분봉으로 집계
+    private final MinuteCandleAggregator candleAggregator;
+    // 4분 저장 시세의 swinging-door 압축 (허용 오차를 벗어나거나 max-gap이 지난 시세만 저장)
+    private final SwingingDoorCompressor<DailyForex> compressor;
+    // 저장한 환율을 차트 조회용 압축 시계열로도 기록
+    private final TickSeriesStore seriesStore;
     
     @Value("${twelvedata.websocket-url}")
     private String websocketUrl;  // 예) wss://ws.twelvedata.com/v1/price
@@ -31,18 +46,42 @@ public class ForexWebSocketService {
     @Value("${twelvedata.api-key}")
     private String apiKey;
 
-    private WebSocket webSocket;
+    private volatile WebSocket webSocket;
+    // 재연결/생존 확인 감시 핸들
+    private ReconnectSupervisor.Connection supervision;
     private BigDecimal latestPrice;
     private LocalDateTime latestTimestamp;
 
     public ForexWebSocketService(OkHttpClient okHttpClient,
-                                 DailyForexRepository dailyForexRepository) {
+                                 DailyForexRepository dailyForexRepository,
+                                 ReconnectSupervisor reconnectSupervisor,
+                                 FrameRecorder frameRecorder,
+                                 MinuteCandleAggregator candleAggregator,
+                                 TickSeriesStore seriesStore,
+                                 @Value("${collector.compression.enabled:true}") boolean compressionEnabled,
+                                 @Value("${collector.compression.forex-deviation-percent:0.01}") double deviationPercent,
+                                 @Value("${collector.compression.max-gap-seconds:600}") long maxGapSeconds) {
         this.okHttpClient = okHttpClient;
         this.dailyForexRepository = dailyForexRepository;
+        this.reconnectSupervisor = reconnectSupervisor;
+        this.frameRecorder = frameRecorder;
+        this.candleAggregator = candleAggregator;
+        this.seriesStore = seriesStore;
+        this.compressor = new SwingingDoorCompressor<>(compressionEnabled, deviationPercent, maxGapSeconds);
     }
 
     @PostConstruct
-    public void connect() {
+    public void init() {
+        // TwelveData는 클라이언트가 주기적으로 heartbeat를 보내야 연결을 유지함
+        supervision = reconnectSupervisor.register("twelvedata", this::connect, this::closeStale,
+                this::sendHeartbeat, () -> true);
+        connect();
+    }
+
+    public synchronized void connect() {
+        if (webSocket != null) {
+            return;
+        }
         String fullUrl = websocketUrl + "?apikey=" + apiKey;
         Request request = new Request.Builder().url(fullUrl).build();
 
@@ -50,6 +89,7 @@ public class ForexWebSocketService {
             @Override
             public void onOpen(WebSocket webSocket, Response response) {
                 log.info("[WebSocket] 연결 성공: {}", fullUrl);
+                supervision.opened();
                 JSONObject subscribeMsg = new JSONObject();
                 subscribeMsg.put("action", "subscribe");
                 JSONObject paramsObj = new JSONObject();
@@ -61,54 +101,118 @@ public class ForexWebSocketService {
 
             @Override
             public void onMessage(WebSocket webSocket, String text) {
-                try {
-                    JSONObject json = new JSONObject(text);
-                    String eventType = json.optString("event", "");
-                    switch (eventType) {
-                        case "subscribe-status":
-                            String status = json.optString("status", "");
-                            log.info("[WebSocket] subscribe-status 수신: status={}, raw={}", status, text);
-                            break;
-                        case "price":
-                            String symbol = json.optString("symbol", "");
-                            if (!"EUR/USD".equals(symbol)) return;
-                            BigDecimal price = json.has("price")
-                                    ? BigDecimal.valueOf(json.getDouble("price"))
-                                    : null;
-                            if (price == null) {
-                                log.warn("[WebSocket] price 이벤트이지만 price 필드 누락: {}", text);
-                                return;
-                            }
-
-                            // 주말에는 데이터 수집하지 않기
-                            if (isWeekend()) {
-                                log.info("[WebSocket] 주말에는 데이터 수집을 생략합니다.");
-                                return;
-                            }
-
-                            latestPrice = price;
-                            latestTimestamp = LocalDateTime.now();
-                            log.debug("[WebSocket] 실시간 환율 수신 - {}: {}", symbol, price);
-                            break;
-                        default:
-                            log.debug("[WebSocket] 기타 메시지 수신: {}", text);
-                    }
-                } catch (Exception e) {
-                    log.error("[WebSocket] 메시지 파싱 오류: {}", text, e);
-                }
+                frameRecorder.record(FrameRecorder.FEED_FOREX, text);
+                supervision.received(handleMessage(text) ? 1 : 0);
             }
 
             @Override
             public void onFailure(WebSocket webSocket, Throwable t, Response response) {
                 log.error("[WebSocket] 연결 실패: {}", t.getMessage(), t);
+                onDisconnected(webSocket);
+            }
+
+            @Override
+            public void onClosing(WebSocket webSocket, int code, String reason) {
+                webSocket.close(1000, null);
+            }
+
+            @Override
+            public void onClosed(WebSocket webSocket, int code, String reason) {
+                log.info("[WebSocket] 연결 종료: code={}, reason={}", code, reason);
+                onDisconnected(webSocket);
             }
         });
 
         log.info("[WebSocket] ForexWebSocketService 연결 시도 중...");
     }
 
+    /**
+     * TwelveData 메시지 한 건을 처리해 최신 환율에 반영합니다.
+     *
+     * @return EUR/USD 시세가 반영되었으면 true
+     */
+    public boolean handleMessage(String text) {
+        BigDecimal price = parseEurUsdPrice(text);
+        if (price == null) {
+            return false;
+        }
+
+        // 주말에는 데이터 수집하지 않기
+        if (isWeekend()) {
+            log.info("[WebSocket] 주말에는 데이터 수집을 생략합니다.");
+            return false;
+        }
+
+        latestPrice = price;
+        latestTimestamp = LocalDateTime.now();
+        candleAggregator.onQuote(CandleMarket.FOREX, "EUR/USD", latestTimestamp, price, 0);
+        log.debug("[WebSocket] 실시간 환율 수신 - EUR/USD: {}", price);
+        return true;
+    }
+
+    /**
+     * TwelveData 메시지 한 건을 파싱만 합니다. (최신 환율/분봉에는 반영하지 않음, FeedReplayService 재생도 사용)
+     *
+     * @return EUR/USD price 이벤트의 가격, 그 외 메시지면 null
+     */
+    public BigDecimal parseEurUsdPrice(String text) {
+        try {
+            JSONObject json = new JSONObject(text);
+            String eventType = json.optString("event", "");
+            switch (eventType) {
+                case "subscribe-status":
+                    String status = json.optString("status", "");
+                    log.info("[WebSocket] subscribe-status 수신: status={}, raw={}", status, text);
+                    return null;
+                case "price":
+                    String symbol = json.optString("symbol", "");
+                    if (!"EUR/USD".equals(symbol)) return null;
+                    if (!json.has("price")) {
+                        log.warn("[WebSocket] price 이벤트이지만 price 필드 누락: {}", text);
+                        return null;
+                    }
+                    return BigDecimal.valueOf(json.getDouble("price"));
+                default:
+                    log.debug("[WebSocket] 기타 메시지 수신: {}", text);
+                    return null;
+            }
+        } catch (Exception e) {
+            log.error("[WebSocket] 메시지 파싱 오류: {}", text, e);
+            return null;
+        }
+    }
+
+    private void sendHeartbeat() {
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.send("{\"action\":\"heartbeat\"}");
+        }
+    }
+
+    // 응답이 없는 연결을 강제로 끊음 (ReconnectSupervisor가 호출)
+    private void closeStale() {
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.cancel();
+            onDisconnected(socket);
+        }
+    }
+
+    private synchronized void onDisconnected(WebSocket socket) {
+        if (webSocket != socket) {
+            return;
+        }
+        webSocket = null;
+        supervision.disconnected();
+    }
+
     public void saveLatestPriceIfChanged() {
-        if (latestPrice == null || latestTimestamp == null) {
+        // 수신이 끊긴 동안(주말 등) 보류된 마지막 시세 저장
+        compressor.drainStale(LocalDateTime.now()).forEach(this::saveWithChangeRate);
+
+        BigDecimal price = latestPrice;
+        LocalDateTime timestamp = latestTimestamp;
+        if (price == null || timestamp == null) {
             log.warn("[WebSocket] 저장할 EUR/USD 환율 데이터 없음 (아직 수신되지 않음)");
             return;
         }
@@ -119,30 +223,32 @@ public class ForexWebSocketService {
             return;
         }
 
-        DailyForex lastRecord = dailyForexRepository.findTopByCurrencyCodeOrderByTimestampDesc("EUR/USD");
-
-        if (shouldSave(lastRecord, latestPrice)) {
-            BigDecimal changeRate = calculateChangeRate(lastRecord, latestPrice);
-            DailyForex entity = DailyForex.builder()
-                    .currencyCode("EUR/USD")
-                    .currencyName("Euro / US Dollar")
-                    .exchangeRate(latestPrice)
-                    .changeRate(changeRate)
-                    .timestamp(latestTimestamp)
-                    .build();
-
-            dailyForexRepository.save(entity);
-            log.info("[WebSocket] 4분 저장 - EUR/USD: {}원, 변동률: {}%", latestPrice, changeRate);
-        } else {
-            log.debug("[WebSocket] EUR/USD 환율 변동 없음 - 저장 생략");
+        DailyForex quote = DailyForex.builder()
+                .currencyCode("EUR/USD")
+                .currencyName("Euro / US Dollar")
+                .exchangeRate(price)
+                .timestamp(timestamp)
+                .build();
+        List<DailyForex> toSave = new ArrayList<>(2);
+        compressor.offer("EUR/USD", timestamp, price, quote, () -> {
+            DailyForex lastRecord = dailyForexRepository.findTopByCurrencyCodeOrderByTimestampDesc("EUR/USD");
+            return lastRecord != null && price.compareTo(lastRecord.getExchangeRate()) == 0;
+        }, toSave::add);
+
+        if (toSave.isEmpty()) {
+            log.debug("[WebSocket] EUR/USD 환율 변동이 허용 오차 이내 - 저장 생략");
         }
+        toSave.forEach(this::saveWithChangeRate);
     }
 
-    private boolean shouldSave(DailyForex lastRecord, BigDecimal currentPrice) {
-        if (lastRecord == null) {
-            return true; // 첫 저장
-        }
-        return currentPrice.compareTo(lastRecord.getExchangeRate()) != 0;
+    // 변동률은 저장 시점의 직전 저장 행 기준 (압축으로 보류됐던 시세도 동일)
+    private void saveWithChangeRate(DailyForex entity) {
+        DailyForex lastRecord = dailyForexRepository.findTopByCurrencyCodeOrderByTimestampDesc(entity.getCurrencyCode());
+        BigDecimal changeRate = calculateChangeRate(lastRecord, entity.getExchangeRate());
+        entity.setChangeRate(changeRate);
+        dailyForexRepository.save(entity);
+        seriesStore.append(CandleMarket.FOREX, entity.getCurrencyCode(), entity.getTimestamp(), entity.getExchangeRate());
+        log.info("[WebSocket] 저장 - EUR/USD: {} ({}), 변동률: {}%", entity.getExchangeRate(), entity.getTimestamp(), changeRate);
     }
 
     // 주말 확인
@@ -1,11 +1,14 @@
 package com.example.data_collector_service.service;
 
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.candle.MinuteCandleAggregator;
 import com.example.data_collector_service.entity.GlobalDailyStock;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -13,8 +16,15 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
@@ -24,6 +34,10 @@ public class GlobalStockApiService {
     private final RestTemplate restTemplate;
     private final DailyStockService dailyStockService;
     private final OAuthTokenService oAuthTokenService;
+    // KIS REST 초당 호출 한도 (앱키 단위로 공유)
+    private final KisRestRateLimiter rateLimiter;
+    // 조회한 시세를 1분봉으로 집계 (저장 여부와 무관하게 모든 수신 시세 반영)
+    private final MinuteCandleAggregator candleAggregator;
 
     @Value("${kis.app-key}")
     private String appKey;
@@ -34,6 +48,16 @@ public class GlobalStockApiService {
     @Value("${kis.overseas-api-url}")
     private String overseasApiUrl;
 
+    // 해외 시세 동시 조회 작업 스레드 수 (실제 호출 간격은 KisRestRateLimiter가 결정)
+    @Value("${collector.overseas.fetch-threads:4}")
+    private int fetchThreads;
+
+    // 한 주기(시장 1회 조회)의 최대 소요 시간, DataFlushScheduler 주기(20초)보다 짧게
+    @Value("${collector.overseas.fetch-timeout-ms:15000}")
+    private long fetchTimeoutMillis;
+
+    private ExecutorService fetchExecutor;
+
     // 기존 accessToken 멤버 변수는 제거하고, 매 API 호출 시 최신 토큰을 가져옵니다.
     // private String accessToken; 
 
@@ -41,7 +65,18 @@ public class GlobalStockApiService {
     public void init() {
         // 기존에는 여기서 토큰을 한번 받아 저장했으나, 5시간마다 새로 발급받기 위해 매 호출 시 oAuthTokenService.getAccessToken()을 사용합니다.
         // 그래서 초기화 시 단순 로그만 남깁니다.
-        log.info("GlobalStockApiService: 초기화 완료 (토큰은 매 API 호출 시 갱신)");
+        AtomicInteger threadIndex = new AtomicInteger();
+        fetchExecutor = Executors.newFixedThreadPool(fetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "overseas-quote-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("GlobalStockApiService: 초기화 완료 (토큰은 매 API 호출 시 갱신, 조회 스레드 {}개)", fetchThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
     }
 
     /**
@@ -72,106 +107,142 @@ public class GlobalStockApiService {
     );
 
     /**
-     * 해외 종목 전체 조회 메소드 (시장 타입별)
-     * marketType: "GLOBAL"이면 HKS 제외, "HKS"이면 홍콩 종목만 조회
+     * 하드코딩된 해외 종목 전체 목록 (OverseasPollingPlanner가 종목별 조회 주기를 정할 때 사용)
      */
-    public void fetchForeignStocksByMarket(String marketType) {
-        List<ForeignStockInfo> stocksToFetch;
-        if ("HKS".equalsIgnoreCase(marketType)) {
-            stocksToFetch = FOREIGN_STOCKS.stream()
-                    .filter(stock -> "HKS".equalsIgnoreCase(stock.getExchangeCode()))
-                    .collect(Collectors.toList());
-        } else if ("GLOBAL".equalsIgnoreCase(marketType)) {
-            stocksToFetch = FOREIGN_STOCKS.stream()
-                    .filter(stock -> !"HKS".equalsIgnoreCase(stock.getExchangeCode()))
-                    .collect(Collectors.toList());
-        } else {
-            stocksToFetch = FOREIGN_STOCKS;
-        }
+    public List<ForeignStockInfo> foreignStocks() {
+        return FOREIGN_STOCKS;
+    }
 
+    /**
+     * 주어진 종목들을 동시에 조회하고 가격이 바뀐 시세를 일괄 저장합니다.
+     *
+     * - 종목별 조회를 작업 스레드 풀에 나눠 동시에 실행하고, KisRestRateLimiter로 초당 호출 수를 맞춤
+     *   (한 주기의 소요 시간은 종목 수 / 초당 한도 + 응답 지연 정도로 제한됨)
+     * - fetch-timeout-ms 안에 끝나지 않은 조회는 취소하고 이번 주기에서 제외
+     * - 조회된 시세는 DailyStockService.saveGlobalDailyStocks로 한 트랜잭션에 일괄 저장
+     *
+     * @param label 로그용 이름 (시장 타입 등)
+     * @return 이번 호출에서 정상 수신한 시세 (저장 여부와 무관)
+     */
+    public List<GlobalDailyStock> fetchAndSave(String label, List<ForeignStockInfo> stocksToFetch) {
+        long startNanos = System.nanoTime();
+        List<Future<GlobalDailyStock>> futures = new ArrayList<>(stocksToFetch.size());
         for (ForeignStockInfo stock : stocksToFetch) {
-            try {
-                // 호출 제한 대응: 0.5초 대기 (모의투자의 경우 1초당 2건 제한)
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
+            futures.add(fetchExecutor.submit(() -> {
+                // 호출 제한 대응: 작업 스레드 전체가 공유하는 토큰 버킷에서 허가를 받은 뒤 호출
+                rateLimiter.acquire();
+                return fetchQuote(stock);
+            }));
+        }
 
-                // API 문서에 따르면: 
-                // QueryParam: AUTH="", EXCD=거래소코드, SYMB=종목코드
-                // ex) ?AUTH=&EXCD=NAS&SYMB=TSLA
-                String url = overseasApiUrl + "?AUTH=&EXCD={excd}&SYMB={symb}";
-
-                HttpHeaders headers = new HttpHeaders();  // HTTP Header 설정
-                headers.setContentType(MediaType.APPLICATION_JSON);  // 인증: "Bearer xxxxx" 형태로 지정
-
-                // 수정된 부분: 매 API 호출 시 최신 토큰을 사용하도록 oAuthTokenService.getAccessToken() 호출
-                String accessToken = oAuthTokenService.getAccessToken();
-                headers.set("authorization", "Bearer " + accessToken);
-
-                headers.set("appkey", appKey);  // 필수 헤더
-                headers.set("appsecret", appSecret);
-                headers.set("tr_id", "HHDFS00000300"); // "tr_id" = HHDFS00000300 (실전/모의투자 공통?)
-                headers.set("custtype", "P");  //  문서에서 "custtype"=P(개인)
-
-                // 요청 엔티티 생성
-                HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-
-                // REST API 호출
-                log.info("[OverseasStockApiService] 해외주식 API 호출 - EXCD={}, SYMB={}", stock.getExchangeCode(), stock.getStockCode());
-                ResponseEntity<ForeignPriceResponse> responseEntity = restTemplate.exchange(
-                        url,
-                        HttpMethod.GET,
-                        requestEntity,
-                        ForeignPriceResponse.class,
-                        stock.getExchangeCode(),
-                        stock.getStockCode()
-                );
-
-                // 응답 처리
-                if (responseEntity.getStatusCode() == HttpStatus.OK) {
-                    ForeignPriceResponse body = responseEntity.getBody();
-
-                    if (body != null && "0".equals(body.getRt_cd())) {  // 정상 처리
-                        ForeignPriceOutput output = body.getOutput();
-
-                        // 방어 코드: last와 rate 값이 null 또는 빈 문자열인지 확인
-                        String lastStr = output.getLast();
-                        String rateStr = output.getRate();
-                        if (lastStr == null || lastStr.trim().isEmpty()) {
-                            log.warn("해외주식 API 응답에서 last 값이 null 또는 빈 문자열입니다. 종목코드: {}", stock.getStockCode());
-                            continue;
-                        }
-                        if (rateStr == null || rateStr.trim().isEmpty()) {
-                            log.warn("해외주식 API 응답에서 rate 값이 null 또는 빈 문자열입니다. 종목코드: {}", stock.getStockCode());
-                            continue;
-                        }
-
-                        GlobalDailyStock newData = new GlobalDailyStock();
-                        newData.setStockCode(stock.getStockCode());
-                        newData.setStockName(stock.getStockName());
-                        newData.setExchangeCode(stock.getExchangeCode());
-                        // 앞뒤 공백 제거 후 BigDecimal 생성
-                        newData.setCurrentPrice(new BigDecimal(lastStr.trim()));
-                        newData.setChangeRate(new BigDecimal(rateStr.trim()));
-                        newData.setTimestamp(LocalDateTime.now());
-
-                        dailyStockService.saveGlobalDailyStock(newData);  // DB 저장 (DailyStockService 활용)
-                        log.info("해외주식 저장 완료: {} ({}), 현재가={}", 
-                                 stock.getStockCode(), stock.getStockName(), lastStr);
-                    } else {
-                        String msg = (body != null) ? body.getMsg1() : "응답 body=null";
-                        log.warn("해외주식 API 오류 - 종목코드: {}, msg: {}", stock.getStockCode(), msg);
-                    }
-                } else {
-                    log.error("해외주식 API 호출 실패 - 종목코드: {}, HTTP Status: {}",
-                            stock.getStockCode(), responseEntity.getStatusCode());
+        // 주기 마감 시각까지 결과를 모으고, 늦은 조회는 취소
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(fetchTimeoutMillis);
+        List<GlobalDailyStock> quotes = new ArrayList<>(futures.size());
+        int timedOut = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Future<GlobalDailyStock> future = futures.get(i);
+            try {
+                GlobalDailyStock quote = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (quote != null) {
+                    quotes.add(quote);
                 }
-            } catch (Exception e) {
-                log.error("해외주식 조회 예외 발생 - 종목코드: {}, err: {}", stock.getStockCode(), e.getMessage(), e);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut++;
+                log.warn("해외주식 조회 시간 초과 - 종목코드: {}", stocksToFetch.get(i).getStockCode());
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                return quotes;
+            } catch (ExecutionException e) {
+                log.error("해외주식 조회 예외 발생 - 종목코드: {}, err: {}",
+                        stocksToFetch.get(i).getStockCode(), e.getCause().getMessage(), e.getCause());
             }
         }
+
+        for (GlobalDailyStock quote : quotes) {
+            // 해외 현재가 조회는 누적 거래량만 주므로 분봉 거래량은 0
+            candleAggregator.onQuote(CandleMarket.GLOBAL, quote.getStockCode(), quote.getTimestamp(), quote.getCurrentPrice(), 0);
+        }
+        int saved = quotes.isEmpty() ? 0 : dailyStockService.saveGlobalDailyStocks(quotes);
+        log.info("[OverseasStockApiService] {} 조회 완료 - 대상 {}종목, 수신 {}건, 시간 초과 {}건, 저장 {}건, 소요 {}ms",
+                label, stocksToFetch.size(), quotes.size(), timedOut, saved,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return quotes;
+    }
+
+    /**
+     * 해외주식 현재체결가(HHDFS00000300) 1건을 조회합니다.
+     *
+     * @return 조회된 시세, 응답이 비정상이면 null
+     */
+    private GlobalDailyStock fetchQuote(ForeignStockInfo stock) {
+        // API 문서에 따르면: 
+        // QueryParam: AUTH="", EXCD=거래소코드, SYMB=종목코드
+        // ex) ?AUTH=&EXCD=NAS&SYMB=TSLA
+        String url = overseasApiUrl + "?AUTH=&EXCD={excd}&SYMB={symb}";
+
+        HttpHeaders headers = new HttpHeaders();  // HTTP Header 설정
+        headers.setContentType(MediaType.APPLICATION_JSON);  // 인증: "Bearer xxxxx" 형태로 지정
+
+        // 매 API 호출 시 최신 토큰을 사용하도록 oAuthTokenService.getAccessToken() 호출
+        String accessToken = oAuthTokenService.getAccessToken();
+        headers.set("authorization", "Bearer " + accessToken);
+
+        headers.set("appkey", appKey);  // 필수 헤더
+        headers.set("appsecret", appSecret);
+        headers.set("tr_id", "HHDFS00000300"); // "tr_id" = HHDFS00000300 (실전/모의투자 공통?)
+        headers.set("custtype", "P");  //  문서에서 "custtype"=P(개인)
+
+        // 요청 엔티티 생성
+        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
+
+        // REST API 호출
+        log.debug("[OverseasStockApiService] 해외주식 API 호출 - EXCD={}, SYMB={}", stock.getExchangeCode(), stock.getStockCode());
+        ResponseEntity<ForeignPriceResponse> responseEntity = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                requestEntity,
+                ForeignPriceResponse.class,
+                stock.getExchangeCode(),
+                stock.getStockCode()
+        );
+
+        // 응답 처리
+        if (responseEntity.getStatusCode() != HttpStatus.OK) {
+            log.error("해외주식 API 호출 실패 - 종목코드: {}, HTTP Status: {}",
+                    stock.getStockCode(), responseEntity.getStatusCode());
+            return null;
+        }
+        ForeignPriceResponse body = responseEntity.getBody();
+        if (body == null || !"0".equals(body.getRt_cd())) {  // 정상 처리가 아님
+            String msg = (body != null) ? body.getMsg1() : "응답 body=null";
+            log.warn("해외주식 API 오류 - 종목코드: {}, msg: {}", stock.getStockCode(), msg);
+            return null;
+        }
+        ForeignPriceOutput output = body.getOutput();
+
+        // 방어 코드: last와 rate 값이 null 또는 빈 문자열인지 확인
+        String lastStr = output.getLast();
+        String rateStr = output.getRate();
+        if (lastStr == null || lastStr.trim().isEmpty()) {
+            log.warn("해외주식 API 응답에서 last 값이 null 또는 빈 문자열입니다. 종목코드: {}", stock.getStockCode());
+            return null;
+        }
+        if (rateStr == null || rateStr.trim().isEmpty()) {
+            log.warn("해외주식 API 응답에서 rate 값이 null 또는 빈 문자열입니다. 종목코드: {}", stock.getStockCode());
+            return null;
+        }
+
+        GlobalDailyStock newData = new GlobalDailyStock();
+        newData.setStockCode(stock.getStockCode());
+        newData.setStockName(stock.getStockName());
+        newData.setExchangeCode(stock.getExchangeCode());
+        // 앞뒤 공백 제거 후 BigDecimal 생성
+        newData.setCurrentPrice(new BigDecimal(lastStr.trim()));
+        newData.setChangeRate(new BigDecimal(rateStr.trim()));
+        newData.setTimestamp(LocalDateTime.now());
+        return newData;
     }
 
     /**
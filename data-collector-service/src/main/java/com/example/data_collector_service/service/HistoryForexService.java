@@ -1,16 +1,14 @@
 package com.example.data_collector_service.service;
 
-import com.example.data_collector_service.entity.DailyForex;
 import com.example.data_collector_service.entity.HistoryForex;
 import com.example.data_collector_service.repository.DailyForexRepository;
 import com.example.data_collector_service.repository.HistoryForexRepository;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -19,17 +17,38 @@ import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class HistoryForexService {
 
+    private static final List<String> CURRENCIES = List.of("EUR/USD", "USD/KRW", "JPY/KRW");
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    // inquire-daily-chartprice 1회 응답(output2)의 최대 행 수
+    private static final int MAX_DAYS_PER_CALL = 100;
+    // 구간 첫날이 휴장일이어도 직전 영업일 종가로 채울 수 있도록 구간 시작보다 앞당겨 조회하는 일수 (설/추석 연휴 포함)
+    private static final int HOLIDAY_LOOKBACK_DAYS = 10;
+
     private final DailyForexRepository dailyForexRepository;
     private final HistoryForexRepository historyForexRepository;
     private final RestTemplate restTemplate;
     private final OAuthTokenService oAuthTokenService; // 엑세스토큰 발급용 서비스
+    // KIS REST 초당 호출 한도 (해외 시세 조회와 공유)
+    private final KisRestRateLimiter rateLimiter;
+    // warm 보관 기간이 지난 HistoryForex를 아카이브로 이관
+    private final HistoryTieringService historyTieringService;
 
     // KIS API 관련 설정 (application.yml에서 주입)
     @Value("${kis.rest-url}")
@@ -41,74 +60,126 @@ public class HistoryForexService {
     @Value("${kis.app-secret}")
     private String appSecret;
 
-    // accessToken은 동적으로 발급받으므로 @Value 없이 선언
-    private String accessToken;
-
-    @PostConstruct
-    public void init() {
-        // OAuthApprovalService를 통해 동적으로 accessToken 발급
-        this.accessToken = oAuthTokenService.getAccessToken();
-        log.info("HistoryForexService: accessToken 초기화 완료, accessToken={}", accessToken);
+    /**
+     * 조회 구간: 연속된 누락 날짜 묶음 (API 1회 호출 단위)
+     */
+    record DateRange(LocalDate start, LocalDate end, List<LocalDate> missingDates) {
     }
 
     /**
      * 매일 오전 6시에 실행되는 스케줄러
      * [전체 처리 단계]
-     * 1. (오늘 - 3개월)부터 (어제)까지의 날짜에 대해, 각 통화별 HistoryForex 기록이 누락되었으면 처리:
-     *    - 해당 날짜의 DailyForex 데이터를 모두 삭제
-     *    - KIS API를 호출하여 해당 날짜의 종가 데이터를 조회 후 HistoryForex에 저장(각 통화별 하루에 한 건)
-     * 2. 3개월보다 오래된 HistoryForex 데이터는 삭제한다.
+     * 1. (오늘 - 3개월)부터 (어제)까지 통화별로 HistoryForex 기록이 있는 날짜를 한 번에 조회해 누락 날짜를 구한다.
+     * 2. 누락 날짜를 연속 구간으로 묶어(일요일은 구간을 끊지 않음) 구간마다 KIS API를 한 번만 호출한다.
+     *    - 구간 내 누락 날짜의 DailyForex 데이터를 삭제
+     *    - 응답(output2)의 날짜별 종가를 HistoryForex에 저장(각 통화별 하루에 한 건)
+     * 3. 통화별 처리는 동시에 실행하고, 호출 간격은 KisRestRateLimiter가 맞춘다.
+     * 4. 3개월(collector.archive.warm-months)보다 오래된 HistoryForex 데이터는 아카이브 파일로 옮기고 DB에서 삭제한다.
      */
     @Scheduled(cron = "0 0 6 * * *")
     public void processHistoryData() {
         LocalDate today = LocalDate.now();
-        LocalDate startDate = today.minusMonths(3);
+        // 그보다 오래된 날짜는 아카이브로 이관되므로 다시 채우지 않음
+        LocalDate startDate = historyTieringService.cutoffDate(today);
         LocalDate endDate = today.minusDays(1); // 어제까지
 
         log.info("===== {}: History 데이터 채움 시작 ({} ~ {}) =====", LocalDateTime.now(), startDate, endDate);
 
-        String[] currencyList = {"EUR/USD", "USD/KRW", "JPY/KRW"};
-        for (String currency : currencyList) {
-            LocalDate cursor = startDate;
-            while (!cursor.isAfter(endDate)) {
-                // 이틀 전 데이터 삭제: 한국 시간 기준으로 일요일이면 삭제 건너뛰기
-                if (shouldSkipDeletion(cursor)) {
-                    log.info("[{}] {}: 일요일 데이터이므로 삭제하지 않음", cursor, currency);
-                    cursor = cursor.plusDays(1);
+        AtomicInteger apiCalls = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CURRENCIES.size(), runnable -> {
+            Thread thread = new Thread(runnable, "history-forex-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<?>[] futures = CURRENCIES.stream()
+                    .map(currency -> CompletableFuture.runAsync(
+                            () -> backfillCurrency(currency, startDate, endDate, apiCalls), executor))
+                    .toArray(CompletableFuture[]::new);
+            // 통화별 실패는 backfillCurrency 안에서 로그로 처리하므로 모두 끝날 때까지만 기다림
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        // 3개월보다 오래된 HistoryForex 데이터를 아카이브로 이관
+        cleanupOldHistoryData(historyTieringService.cutoffDate(today));
+
+        log.info("===== {}: History 데이터 채움 완료 (API 호출 {}회) =====", LocalDateTime.now(), apiCalls.get());
+    }
+
+    /**
+     * 한 통화의 누락 날짜를 구간 단위로 채운다.
+     */
+    private void backfillCurrency(String currency, LocalDate startDate, LocalDate endDate, AtomicInteger apiCalls) {
+        try {
+            Set<LocalDate> existing = new HashSet<>(
+                    historyForexRepository.findDatesByCurrencyCodeAndDateBetween(currency, startDate, endDate));
+            List<DateRange> ranges = missingRanges(startDate, endDate, existing);
+            log.info("[{}] 누락 구간 {}개 (이미 존재 {}일)", currency, ranges.size(), existing.size());
+
+            for (DateRange range : ranges) {
+                // 해당 구간 누락 날짜의 DailyForex 데이터를 모두 삭제
+                deleteDailyForexForDates(currency, range);
+
+                rateLimiter.acquire();
+                apiCalls.incrementAndGet();
+                NavigableMap<LocalDate, BigDecimal> closes = callKisApiForRange(
+                        currency, range.start().minusDays(HOLIDAY_LOOKBACK_DAYS), range.end());
+                if (closes == null) {
+                    log.warn("[{} ~ {}] {}: KIS API 호출 실패", range.start(), range.end(), currency);
                     continue;
                 }
+                saveHistoryData(currency, range, closes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("{}: History 데이터 채움 중단", currency);
+        } catch (Exception e) {
+            log.error("{}: History 데이터 채움 실패", currency, e);
+        }
+    }
 
-                // History 기록이 이미 존재하면 넘어감
-                if (!historyExists(currency, cursor)) {
-                    // 해당 날짜의 DailyForex 데이터를 모두 삭제
-                    deleteDailyForexForDate(currency, cursor);
-
-                    // KIS API로 해당 날짜의 종가 데이터 조회
-                    BigDecimal dailyRate = callKisApiForOneDay(currency, cursor);
-                    if (dailyRate != null) {
-                        // HistoryForex 레코드 생성 및 저장 (DailyForex와 연관 없이 독립적으로 저장)
-                        saveHistoryData(currency, getCurrencyName(currency), dailyRate, cursor);
-                        log.info("[{}] {}: HistoryForex 기록 생성 (종가: {})", cursor, currency, dailyRate);
-                    } else {
-                        log.warn("[{}] {}: KIS API 호출 실패", cursor, currency);
-                    }
-                } else {
-                    log.info("[{}] {}: 이미 History 데이터 존재", cursor, currency);
+    /**
+     * 기록이 없는 날짜를 연속 구간으로 묶는다.
+     * 일요일은 원래부터 채우지 않으므로 구간을 끊지 않고 건너뛰며, 한 구간은 앞당겨 조회하는 일수를 포함해 최대 MAX_DAYS_PER_CALL일이다.
+     */
+    static List<DateRange> missingRanges(LocalDate startDate, LocalDate endDate, Set<LocalDate> existing) {
+        List<DateRange> ranges = new ArrayList<>();
+        LocalDate rangeStart = null;
+        LocalDate rangeEnd = null;
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate cursor = startDate; !cursor.isAfter(endDate); cursor = cursor.plusDays(1)) {
+            // 한국 시간 기준으로 일요일이면 건너뛰기
+            if (shouldSkipDeletion(cursor)) {
+                continue;
+            }
+            boolean isMissing = !existing.contains(cursor);
+            boolean full = rangeStart != null && cursor.toEpochDay() - rangeStart.toEpochDay() >= MAX_DAYS_PER_CALL - HOLIDAY_LOOKBACK_DAYS;
+            if (rangeStart != null && (!isMissing || full)) {
+                ranges.add(new DateRange(rangeStart, rangeEnd, missing));
+                rangeStart = null;
+                missing = new ArrayList<>();
+            }
+            if (isMissing) {
+                if (rangeStart == null) {
+                    rangeStart = cursor;
                 }
-                cursor = cursor.plusDays(1);
+                rangeEnd = cursor;
+                missing.add(cursor);
             }
         }
-
-        // 3. 3개월보다 오래된 HistoryForex 데이터 삭제
-        cleanupOldHistoryData(today.minusMonths(3));
-
-        log.info("===== {}: History 데이터 채움 완료 =====", LocalDateTime.now());
+        if (rangeStart != null) {
+            ranges.add(new DateRange(rangeStart, rangeEnd, missing));
+        }
+        return ranges;
     }
 
     /**
      * 한국 시간 기준으로 2일 전이 일요일이면 삭제를 건너뛰는 메소드
      */
-    private boolean shouldSkipDeletion(LocalDate date) {
+    private static boolean shouldSkipDeletion(LocalDate date) {
         // 2일 전이 한국 시간 기준으로 일요일인지 확인
         LocalDateTime dateTime = date.atStartOfDay();
         ZonedDateTime koreaTime = dateTime.atZone(ZoneId.of("Asia/Seoul"));
@@ -117,45 +188,39 @@ public class HistoryForexService {
     }
 
     /**
-     * HistoryForex에 해당 통화, 해당 날짜의 기록이 존재하는지 확인한다.
+     * 구간 내 누락 날짜의 DailyForex 데이터를 모두 삭제한다.
+     * 엔티티를 읽지 않고 날짜마다 범위 DELETE 한 문장으로 처리한다. (일요일 데이터는 남김)
      */
-    private boolean historyExists(String currencyCode, LocalDate date) {
-        List<HistoryForex> list = historyForexRepository.findByCurrencyCodeAndDate(currencyCode, date);
-        return !list.isEmpty();
-    }
-
-    /**
-     * 해당 통화와 날짜에 대해 DailyForex 데이터를 모두 삭제한다.
-     */
-    private void deleteDailyForexForDate(String currencyCode, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<DailyForex> dailyList = dailyForexRepository.findAllForDateAndCurrency(currencyCode, startOfDay, endOfDay);
-        if (!dailyList.isEmpty()) {
-            dailyForexRepository.deleteAll(dailyList);
-            log.info("[{}] {}: 기존 DailyForex {}건 삭제", date, currencyCode, dailyList.size());
+    private void deleteDailyForexForDates(String currencyCode, DateRange range) {
+        int deleted = 0;
+        for (LocalDate date : range.missingDates()) {
+            deleted += dailyForexRepository.deleteByCurrencyCodeAndTimestampRange(currencyCode,
+                    date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        }
+        if (deleted > 0) {
+            log.info("[{} ~ {}] {}: 기존 DailyForex {}건 삭제", range.start(), range.end(), currencyCode, deleted);
         }
     }
 
     /**
-     * KIS API를 호출하여 하루치 환율 데이터를 조회하고, 종가(ovrs_nmix_prpr)를 반환한다.
+     * KIS API를 호출하여 기간 환율 데이터를 조회하고, 날짜별 종가(ovrs_nmix_prpr)를 반환한다.
      * API 문서에 따른 헤더 및 쿼리 파라미터를 설정한다.
+     *
+     * @return 영업일 -> 종가 (호출 실패 시 null)
      */
-    private BigDecimal callKisApiForOneDay(String currencyCode, LocalDate date) {
+    private NavigableMap<LocalDate, BigDecimal> callKisApiForRange(String currencyCode, LocalDate from, LocalDate to) {
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
-            String dateStr = date.format(formatter);
-
             String url = kisRestUrl + "/uapi/overseas-price/v1/quotations/inquire-daily-chartprice"
                     + "?FID_COND_MRKT_DIV_CODE=X"
                     + "&FID_INPUT_ISCD=" + currencyCode
-                    + "&FID_INPUT_DATE_1=" + dateStr
-                    + "&FID_INPUT_DATE_2=" + dateStr
+                    + "&FID_INPUT_DATE_1=" + from.format(BASIC_DATE)
+                    + "&FID_INPUT_DATE_2=" + to.format(BASIC_DATE)
                     + "&FID_PERIOD_DIV_CODE=D";
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Content-Type", "application/json; charset=utf-8");
-            headers.set("authorization", "Bearer " + accessToken);
+            // 호출마다 OAuthTokenService에서 현재 토큰을 가져옴 (재발급 중에도 기존 토큰으로 바로 반환)
+            headers.set("authorization", "Bearer " + oAuthTokenService.getAccessToken());
             headers.set("appkey", appKey);
             headers.set("appsecret", appSecret);
             headers.set("tr_id", "FHKST03030100");
@@ -165,41 +230,58 @@ public class HistoryForexService {
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 JSONObject json = new JSONObject(response.getBody());
+                NavigableMap<LocalDate, BigDecimal> closes = new TreeMap<>();
                 if (json.has("output2")) {
-                    var outputArray = json.getJSONArray("output2");
-                    if (outputArray.length() > 0) {
-                        JSONObject dayRecord = outputArray.getJSONObject(0);
-                        String closingRateStr = dayRecord.getString("ovrs_nmix_prpr");
-                        return new BigDecimal(closingRateStr);
+                    JSONArray outputArray = json.getJSONArray("output2");
+                    for (int i = 0; i < outputArray.length(); i++) {
+                        JSONObject dayRecord = outputArray.getJSONObject(i);
+                        String dateStr = dayRecord.optString("stck_bsop_date", "");
+                        String closingRateStr = dayRecord.optString("ovrs_nmix_prpr", "");
+                        if (dateStr.isEmpty() || closingRateStr.isEmpty()) {
+                            continue;
+                        }
+                        closes.put(LocalDate.parse(dateStr, BASIC_DATE), new BigDecimal(closingRateStr));
                     }
                 }
+                return closes;
             }
             return null;
         } catch (Exception e) {
-            log.error("KIS API 호출 실패: {} - {} | Exception: ", currencyCode, date, e);
+            log.error("KIS API 호출 실패: {} - {} ~ {} | Exception: ", currencyCode, from, to, e);
             return null;
         }
     }
 
     /**
      * API로 조회한 종가 데이터를 HistoryForex 테이블에 저장한다.
+     * 응답에 없는 날짜(휴장일)는 하루씩 조회하던 때와 같이 그 이전 영업일 종가로 채운다.
      */
-    private void saveHistoryData(String currencyCode, String currencyName, BigDecimal price, LocalDate date) {
-        HistoryForex history = HistoryForex.builder()
-                .currencyCode(currencyCode)
-                .currencyName(currencyName)
-                .closingRate(price)
-                .date(date)
-                .build();
-        historyForexRepository.save(history);
+    private void saveHistoryData(String currencyCode, DateRange range, NavigableMap<LocalDate, BigDecimal> closes) {
+        String currencyName = getCurrencyName(currencyCode);
+        List<HistoryForex> histories = new ArrayList<>(range.missingDates().size());
+        for (LocalDate date : range.missingDates()) {
+            Map.Entry<LocalDate, BigDecimal> close = closes.floorEntry(date);
+            if (close == null) {
+                log.warn("[{}] {}: 종가 데이터 없음", date, currencyCode);
+                continue;
+            }
+            histories.add(HistoryForex.builder()
+                    .currencyCode(currencyCode)
+                    .currencyName(currencyName)
+                    .closingRate(close.getValue())
+                    .date(date)
+                    .build());
+        }
+        historyForexRepository.saveAll(histories);
+        log.info("[{} ~ {}] {}: HistoryForex {}건 생성", range.start(), range.end(), currencyCode, histories.size());
     }
 
     /**
-     * 3개월보다 오래된 HistoryForex 데이터(등록일자가 cutoffDate 이전)를 삭제한다.
+     * 3개월보다 오래된 HistoryForex 데이터(등록일자가 cutoffDate 이전)를 아카이브로 옮기고 삭제한다.
      */
     private void cleanupOldHistoryData(LocalDate cutoffDate) {
-        int deletedCount = historyForexRepository.deleteByDateBefore(cutoffDate);
-        log.info("Cleanup: {} HistoryForex 레코드 삭제 (등록일자 {} 이전)", deletedCount, cutoffDate);
+        int archivedCount = historyTieringService.tierOutForexHistory(cutoffDate);
+        log.info("Cleanup: {} HistoryForex 레코드 아카이브 이관 (등록일자 {} 이전)", archivedCount, cutoffDate);
     }
 
     /**
@@ -218,4 +300,3 @@ public class HistoryForexService {
         }
     }
 }
-
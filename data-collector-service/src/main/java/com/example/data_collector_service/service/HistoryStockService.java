@@ -1,13 +1,6 @@
 package com.example.data_collector_service.service;
 
-import com.example.data_collector_service.entity.GlobalDailyStock;
-import com.example.data_collector_service.entity.GlobalHistoryStock;
-import com.example.data_collector_service.entity.KoreanDailyStock;
-import com.example.data_collector_service.entity.KoreanHistoryStock;
-import com.example.data_collector_service.repository.GlobalDailyStockRepository;
-import com.example.data_collector_service.repository.GlobalHistoryStockRepository;
-import com.example.data_collector_service.repository.KoreanDailyStockRepository;
-import com.example.data_collector_service.repository.KoreanHistoryStockRepository;
+import com.example.data_collector_service.repository.HistoryRolloverRepository;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 import java.util.List;
@@ -25,20 +19,21 @@ import java.util.List;
  * 매일 지정된 시각(여기서는 한국시간 오전 7시)에 Daily 테이블의 데이터 중,
  * **2일 전**(예: 오늘이 5일이면 3일 전)의 데이터를 History 테이블로 이관하고,
  * 해당 데이터를 Daily 테이블에서 삭제(truncate)합니다.
- * 또한, 매일 오전 7시 10분에 3달 이상된 History 데이터를 삭제하여 DB 용량을 관리합니다.
+ * 또한, 매일 오전 7시 10분에 3달 이상된 History 데이터를 아카이브 파일로 옮겨 DB 용량을 관리합니다.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class HistoryStockService {
 
-    // 국내 주식 Daily/History 레포지토리
-    private final KoreanDailyStockRepository koreanDailyRepo;
-    private final KoreanHistoryStockRepository koreanHistoryRepo;
+    // Daily -> History 일괄 이관 (집계 INSERT ... SELECT, 일괄 DELETE)
+    private final HistoryRolloverRepository rolloverRepo;
 
-    // 해외 주식 Daily/History 레포지토리
-    private final GlobalDailyStockRepository globalDailyRepo;
-    private final GlobalHistoryStockRepository globalHistoryRepo;
+    // 일 단위 파티션 관리 (활성화 시 하루치 삭제를 파티션 삭제로 처리)
+    private final DayPartitionService dayPartitionService;
+
+    // warm 보관 기간이 지난 History를 아카이브로 이관
+    private final HistoryTieringService historyTieringService;
 
     // 해외 주식 종목 목록
     private static final List<ForeignStockInfo> FOREIGN_STOCKS = List.of(
@@ -66,64 +61,52 @@ public class HistoryStockService {
 
     /**
      * 매일 오전 7시 00분에 실행 (예시)
-     * - 2일 전(D-2)의 Daily 데이터 중 마지막(종가)만 History에 저장
+     * - 2일 전(D-2)의 Daily 데이터를 종목별 시가/고가/저가/종가/틱 수로 집계해 History에 저장
      * - 저장 후, 해당 날짜의 Daily 데이터를 삭제 (TRUNCATE 효과)
+     *
+     * 종목별로 조회/저장/삭제하지 않고 시장마다 INSERT ... SELECT 한 문장과 DELETE 한 문장으로 처리하므로
+     * 종목 수가 늘어도 문장 수는 그대로입니다. (HistoryRolloverRepository)
+     * 일 단위 파티션을 쓰는 경우 DELETE 대신 해당 날짜 파티션을 삭제합니다. (DDL이라 INSERT가 먼저 커밋됨,
+     * 삭제가 실패해도 다음 실행에서 이미 저장된 History는 건너뜀)
      */
+    @Transactional
     @Scheduled(cron = "0 0 7 * * *", zone = "Asia/Seoul")
     public void transferDailyToHistoryAndCleanDaily() {
         // 2일 전 날짜 계산 (예: 오늘이 5일이면, 3일 전의 데이터를 이관)
         LocalDate cutoffDate = LocalDate.now().minusDays(2);
-        // cutoffDate의 시작과 끝 시간
-        LocalDateTime start = cutoffDate.atStartOfDay();
-        LocalDateTime end = cutoffDate.plusDays(1).atStartOfDay();
 
         // --- 국내 주식 처리 ---
         if (isWeekendForKoreanStocks(cutoffDate)) {
             log.info("오늘은 월요일/화요일이며, 2일 전 데이터가 주말(토요일/일요일)일 수 있어 삭제 작업을 건너뜁니다.");
         } else {
-            List<String> koreanStockCodes = koreanDailyRepo.findDistinctStockCodesByTimestampBetween(start, end);
-            for (String stockCode : koreanStockCodes) {
-                boolean exists = koreanHistoryRepo.existsByStockCodeAndTimestamp(stockCode, cutoffDate);
-                if (!exists) {
-                    KoreanDailyStock lastRecord = koreanDailyRepo.findTopByStockCodeOrderByTimestampDesc(stockCode);
-                    if (lastRecord != null && lastRecord.getTimestamp().toLocalDate().equals(cutoffDate)) {
-                        KoreanHistoryStock history = KoreanHistoryStock.builder()
-                                .stockCode(lastRecord.getStockCode())
-                                .stockName(lastRecord.getStockName())
-                                .closingPrice(lastRecord.getCurrentPrice())
-                                .timestamp(cutoffDate)  // 날짜만 저장
-                                .build();
-
-                        koreanHistoryRepo.save(history);
-                    }
-                }
-                koreanDailyRepo.deleteByStockCodeAndTimestampBetween(stockCode, start, end);
+            int inserted = rolloverRepo.insertKoreanHistoryFromDaily(cutoffDate);
+            if (dayPartitionService.dropDay(DayPartitionService.KOREAN_DAILY_STOCK, cutoffDate)) {
+                log.info("[{}] 국내 주식: History {}건 저장, Daily 파티션 삭제", cutoffDate, inserted);
+            } else {
+                int deleted = rolloverRepo.deleteKoreanDaily(cutoffDate);
+                log.info("[{}] 국내 주식: History {}건 저장, Daily {}건 삭제", cutoffDate, inserted, deleted);
             }
         }
 
         // --- 해외 주식 처리 ---
-        List<String> globalStockCodes = globalDailyRepo.findDistinctStockCodesByTimestampBetween(start, end);
-        for (String stockCode : globalStockCodes) {
-            if (isWeekendForForeignStocks(cutoffDate, stockCode)) {
-                log.info("오늘은 주말이며, 2일 전 데이터가 주말(토요일/일요일)일 수 있어 삭제 작업을 건너뜁니다.");
-                continue;
-            }
-
-            boolean exists = globalHistoryRepo.existsByStockCodeAndTimestamp(stockCode, cutoffDate);
-            if (!exists) {
-                GlobalDailyStock lastRecord = globalDailyRepo.findTopByStockCodeOrderByTimestampDesc(stockCode);
-                if (lastRecord != null && lastRecord.getTimestamp().toLocalDate().equals(cutoffDate)) {
-                    GlobalHistoryStock history = GlobalHistoryStock.builder()
-                            .stockCode(lastRecord.getStockCode())
-                            .exchangeCode(lastRecord.getExchangeCode())
-                            .closingPrice(lastRecord.getCurrentPrice())
-                            .timestamp(cutoffDate)
-                            .build();
-
-                    globalHistoryRepo.save(history);
-                }
+        // 현지 기준 주말인 종목은 이관/삭제하지 않음
+        List<String> skippedStockCodes = FOREIGN_STOCKS.stream()
+                .map(ForeignStockInfo::getStockCode)
+                .filter(stockCode -> isWeekendForForeignStocks(cutoffDate, stockCode))
+                .toList();
+        if (skippedStockCodes.size() == FOREIGN_STOCKS.size()) {
+            log.info("오늘은 주말이며, 2일 전 데이터가 주말(토요일/일요일)일 수 있어 삭제 작업을 건너뜁니다.");
+        } else {
+            int inserted = rolloverRepo.insertGlobalHistoryFromDaily(cutoffDate, skippedStockCodes);
+            // 제외 종목이 있으면 파티션을 통째로 지울 수 없으므로 DELETE
+            if (skippedStockCodes.isEmpty()
+                    && dayPartitionService.dropDay(DayPartitionService.GLOBAL_DAILY_STOCK, cutoffDate)) {
+                log.info("[{}] 해외 주식: History {}건 저장, Daily 파티션 삭제", cutoffDate, inserted);
+            } else {
+                int deleted = rolloverRepo.deleteGlobalDaily(cutoffDate, skippedStockCodes);
+                log.info("[{}] 해외 주식: History {}건 저장, Daily {}건 삭제 (제외 {}종목)",
+                        cutoffDate, inserted, deleted, skippedStockCodes.size());
             }
-            globalDailyRepo.deleteByStockCodeAndTimestampBetween(stockCode, start, end);
         }
 
         log.info("{}의 Daily 데이터가 History로 이관되고, Daily 테이블이 정리되었습니다.", cutoffDate);
@@ -131,19 +114,20 @@ public class HistoryStockService {
 
     /**
      * 매일 오전 7시 10분에 실행 (예시)
-     * - 3달 이상된 History 데이터를 삭제하여 DB 용량을 관리합니다.
+     * - 3달(collector.archive.warm-months) 이상된 History 데이터를 아카이브 파일로 옮기고 DB에서 삭제합니다.
+     *   (아카이브 비활성화 시 삭제만, 옮긴 데이터는 히스토리 조회에 계속 포함됨)
      */
     @Scheduled(cron = "0 10 7 * * *", zone = "Asia/Seoul")
     public void cleanupOldHistoryData() {
-        LocalDate cutoffDate = LocalDate.now().minusMonths(3);
+        LocalDate cutoffDate = historyTieringService.cutoffDate(LocalDate.now());
 
-        // 국내 주식 History 데이터 삭제
-        koreanHistoryRepo.deleteByTimestampBefore(cutoffDate);
+        // 국내 주식 History 이관
+        int korean = historyTieringService.tierOutKoreanHistory(cutoffDate);
 
-        // 해외 주식 History 데이터 삭제
-        globalHistoryRepo.deleteByTimestampBefore(cutoffDate);
+        // 해외 주식 History 이관
+        int global = historyTieringService.tierOutGlobalHistory(cutoffDate);
 
-        log.info("3달 이상된 History 데이터가 삭제되었습니다. (cutoff: {})", cutoffDate);
+        log.info("{} 이전 History 데이터가 정리되었습니다. (아카이브 이관 국내 {}건, 해외 {}건)", cutoffDate, korean, global);
     }
 
     /**
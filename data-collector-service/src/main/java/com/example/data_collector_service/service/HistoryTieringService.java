@@ -0,0 +1,124 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.archive.ArchivedHistory;
+import com.example.data_collector_service.archive.HistoryArchive;
+import com.example.data_collector_service.entity.GlobalHistoryStock;
+import com.example.data_collector_service.entity.HistoryForex;
+import com.example.data_collector_service.entity.KoreanHistoryStock;
+import com.example.data_collector_service.repository.GlobalHistoryStockRepository;
+import com.example.data_collector_service.repository.HistoryForexRepository;
+import com.example.data_collector_service.repository.KoreanHistoryStockRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * HistoryTieringService
+ *
+ * History 데이터를 보관 구간별로 나눠 관리합니다.
+ * - hot: 오늘 시세 (메모리 버퍼, 분봉, 시계열 저장소)
+ * - warm: 최근 warm-months 개월 History (MariaDB)
+ * - cold: 그보다 오래된 History (HistoryArchive 월별 열 압축 파일)
+ *
+ * 매일 History 정리 시점에 cutoff(오늘 - warm-months) 이전 행을 월별로 아카이브 파일에 합쳐 쓴 뒤 DB에서 삭제합니다.
+ * 아카이브 기록이 실패하면 DB 행을 지우지 않고 다음 실행에서 다시 옮깁니다.
+ * 아카이브가 비활성화 상태면 기존처럼 cutoff 이전 행을 삭제만 합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HistoryTieringService {
+
+    private final KoreanHistoryStockRepository koreanHistoryRepo;
+    private final GlobalHistoryStockRepository globalHistoryRepo;
+    private final HistoryForexRepository historyForexRepository;
+    private final HistoryArchive historyArchive;
+
+    @Value("${collector.archive.warm-months:3}")
+    private int warmMonths;
+
+    /**
+     * DB에 남길 가장 오래된 날짜 (이 날짜 이전은 cold)
+     */
+    public LocalDate cutoffDate(LocalDate today) {
+        return today.minusMonths(warmMonths);
+    }
+
+    /**
+     * cutoff 이전 국내 주식 History를 아카이브로 옮깁니다.
+     *
+     * @return 옮긴 행 수 (아카이브 비활성화 상태면 0)
+     */
+    @Transactional
+    public int tierOutKoreanHistory(LocalDate cutoffDate) {
+        return tierOut(HistoryArchive.Table.KOREAN_HISTORY_STOCK, cutoffDate,
+                koreanHistoryRepo.findFirstByOrderByTimestampAsc().map(KoreanHistoryStock::getTimestamp),
+                (start, end) -> koreanHistoryRepo.findByTimestampBetween(start, end).stream().map(ArchivedHistory::of).toList(),
+                () -> koreanHistoryRepo.deleteByTimestampBefore(cutoffDate));
+    }
+
+    /**
+     * cutoff 이전 해외 주식 History를 아카이브로 옮깁니다.
+     */
+    @Transactional
+    public int tierOutGlobalHistory(LocalDate cutoffDate) {
+        return tierOut(HistoryArchive.Table.GLOBAL_HISTORY_STOCK, cutoffDate,
+                globalHistoryRepo.findFirstByOrderByTimestampAsc().map(GlobalHistoryStock::getTimestamp),
+                (start, end) -> globalHistoryRepo.findByTimestampBetween(start, end).stream().map(ArchivedHistory::of).toList(),
+                () -> globalHistoryRepo.deleteByTimestampBefore(cutoffDate));
+    }
+
+    /**
+     * cutoff 이전 HistoryForex를 아카이브로 옮깁니다.
+     */
+    @Transactional
+    public int tierOutForexHistory(LocalDate cutoffDate) {
+        return tierOut(HistoryArchive.Table.HISTORY_FOREX, cutoffDate,
+                historyForexRepository.findFirstByOrderByDateAsc().map(HistoryForex::getDate),
+                (start, end) -> historyForexRepository.findByDateBetween(start, end).stream().map(ArchivedHistory::of).toList(),
+                () -> historyForexRepository.deleteByDateBefore(cutoffDate));
+    }
+
+    /**
+     * 가장 오래된 행의 월부터 cutoff 전날까지 월 단위로 조회해 아카이브에 합치고, 모두 성공하면 cutoff 이전 행을 삭제
+     */
+    private int tierOut(HistoryArchive.Table table, LocalDate cutoffDate, Optional<LocalDate> oldest,
+                        BiFunction<LocalDate, LocalDate, List<ArchivedHistory>> finder, Runnable deleteBeforeCutoff) {
+        if (!historyArchive.isEnabled()) {
+            deleteBeforeCutoff.run();
+            log.info("[{}] 아카이브 비활성화, {} 이전 History 삭제", table, cutoffDate);
+            return 0;
+        }
+        if (oldest.isEmpty() || !oldest.get().isBefore(cutoffDate)) {
+            return 0;
+        }
+
+        LocalDate lastDay = cutoffDate.minusDays(1);
+        int archived = 0;
+        for (YearMonth month = YearMonth.from(oldest.get()); !month.isAfter(YearMonth.from(lastDay)); month = month.plusMonths(1)) {
+            LocalDate start = month.atDay(1);
+            LocalDate end = month.atEndOfMonth().isBefore(lastDay) ? month.atEndOfMonth() : lastDay;
+            List<ArchivedHistory> rows = finder.apply(start, end);
+            try {
+                historyArchive.merge(table, month, rows);
+            } catch (IOException e) {
+                log.error("[{}] {} 아카이브 기록 실패, History를 삭제하지 않습니다.", table, month, e);
+                return archived;
+            }
+            archived += rows.size();
+        }
+        deleteBeforeCutoff.run();
+        log.info("[{}] {} 이전 History {}건을 아카이브로 이관", table, cutoffDate, archived);
+        return archived;
+    }
+}
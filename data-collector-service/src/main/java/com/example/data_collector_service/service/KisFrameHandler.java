@@ -0,0 +1,45 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.buffer.TickRingBuffer;
+import com.example.data_collector_service.decoder.KisFrameDecoder;
+import com.example.data_collector_service.decoder.KoreanTickBatch;
+
+/**
+ * KisFrameHandler
+ *
+ * KIS 국내 주식 원본 프레임 하나를 파싱해 체결 데이터면 링 버퍼에 발행합니다.
+ * 실시간 세션(KisWebSocketSession)과 재생(FeedReplayService)이 같은 수신 코드를 쓰도록 분리한 클래스입니다.
+ *
+ * 한 인스턴스는 하나의 스레드에서만 사용해야 합니다. (재사용 배치, 단일 생산자 링)
+ */
+public final class KisFrameHandler {
+
+    private final TickRingBuffer ringBuffer;
+    // 수신 스레드 전용 재사용 배치
+    private final KoreanTickBatch batch = new KoreanTickBatch();
+
+    public KisFrameHandler(TickRingBuffer ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    /**
+     * 프레임을 파싱하고, 체결 데이터면 한 프레임의 레코드를 링 버퍼에 한 번에 발행합니다.
+     * PINGPONG/제어 메시지 응답은 호출한 쪽에서 처리합니다.
+     *
+     * @param receivedAt 수신 시각 (epoch millis)
+     */
+    public KisFrameDecoder.Result onFrame(String text, long receivedAt) {
+        KisFrameDecoder.Result result = KisFrameDecoder.decode(text, batch);
+        if (result == KisFrameDecoder.Result.TICK) {
+            ringBuffer.publish(batch, receivedAt);
+        }
+        return result;
+    }
+
+    /**
+     * 마지막으로 처리한 프레임에 담긴 체결 건수
+     */
+    public int lastTickCount() {
+        return batch.size();
+    }
+}
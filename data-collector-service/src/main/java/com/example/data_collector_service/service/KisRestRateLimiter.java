@@ -0,0 +1,59 @@
+package com.example.data_collector_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KisRestRateLimiter
+ *
+ * KIS REST API 초당 호출 한도(앱키 단위)를 지키기 위한 토큰 버킷입니다.
+ * 해외 시세를 동시에 조회하는 작업 스레드들이 하나의 버킷을 함께 사용하므로,
+ * 스레드 수와 관계없이 초당 호출 수가 collector.kis.rest-per-second를 넘지 않습니다.
+ *
+ * - 토큰은 초당 rest-per-second개씩 채워지고 최대 rest-burst개까지 쌓임
+ * - acquire()는 토큰을 먼저 예약하고 락 밖에서 필요한 만큼만 대기 (요청 순서대로 간격이 벌어짐)
+ */
+@Component
+public class KisRestRateLimiter {
+
+    private final double permitsPerNano;
+    private final double burst;
+
+    // 현재 남은 토큰 수 (음수면 이미 예약된 대기분)
+    private double tokens;
+    private long lastRefillNanos;
+
+    public KisRestRateLimiter(@Value("${collector.kis.rest-per-second:2}") double permitsPerSecond,
+                              @Value("${collector.kis.rest-burst:1}") double burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("collector.kis.rest-per-second는 0보다 커야 합니다: " + permitsPerSecond);
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 토큰 1개를 얻을 때까지 대기합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트된 경우 (예약한 토큰은 돌려주지 않음)
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // 토큰 1개를 예약하고, 그 토큰이 채워질 때까지 기다려야 하는 시간을 반환
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
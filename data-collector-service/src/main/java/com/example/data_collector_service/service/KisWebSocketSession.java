@@ -0,0 +1,280 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.buffer.TickRingBuffer;
+import com.example.data_collector_service.decoder.KisFrameDecoder;
+import com.example.data_collector_service.replay.FrameRecorder;
+import com.example.data_collector_service.util.MarketTimeChecker;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * KisWebSocketSession
+ *
+ * KIS 국내 주식 WebSocket 세션 하나와, 그 세션에 배정된 종목들의 구독 상태를 관리합니다.
+ * KIS는 세션당 등록 가능한 종목 수가 제한되어 있으므로 KoreanStockWebSocketService가 여러 세션에 종목을 나눠 배정합니다.
+ *
+ * - 세션마다 전용 수신 스레드(OkHttp)와 전용 링 버퍼를 사용 (프레임 처리는 KisFrameHandler)
+ * - 연결 전에 배정된 종목은 연결 성공(onOpen) 시 한꺼번에 구독 요청
+ * - 연결이 끊기면 ReconnectSupervisor가 백오프 후 다시 연결하고, onOpen에서 배정된 종목 전체를 재구독
+ */
+@Slf4j
+class KisWebSocketSession {
+
+    // 종목별 구독 상태
+    enum SubscriptionState {
+        PENDING,    // 배정됨, 아직 구독 메시지 전송 전 (연결 대기)
+        REQUESTED,  // 구독 메시지 전송, 응답 대기
+        ACTIVE,     // SUBSCRIBE SUCCESS 수신
+        REJECTED    // 세션 등록 한도 초과 등으로 거절됨
+    }
+
+    private static final Gson GSON = new Gson();
+
+    private final int index;
+    private final OkHttpClient okHttpClient;
+    private final OAuthApprovalKeyService oauthService;
+    private final String url;
+    // 프레임 파싱 + 링 버퍼 발행 (세션 전용 링, 수신 스레드에서만 사용)
+    private final KisFrameHandler frameHandler;
+    // 원본 프레임 캡처 (재생용, 기본 비활성)
+    private final FrameRecorder frameRecorder;
+    // 등록 한도 초과로 거절된 종목을 다른 세션에 다시 배정하기 위한 콜백
+    private final Consumer<String> rejectedHandler;
+    // 재연결/생존 확인 감시 핸들
+    private final ReconnectSupervisor.Connection supervision;
+
+    // 세션에 배정 가능한 최대 종목 수 (한도 초과 응답을 받으면 실제 등록된 수로 줄어듦)
+    private volatile int capacity;
+    // 종목 코드 -> 구독 상태 (배정 순서 유지)
+    private final Map<String, SubscriptionState> subscriptions = new LinkedHashMap<>();
+
+    private volatile WebSocket webSocket;
+
+    KisWebSocketSession(int index, OkHttpClient okHttpClient, OAuthApprovalKeyService oauthService,
+                        String url, TickRingBuffer ringBuffer, int capacity, Consumer<String> rejectedHandler,
+                        ReconnectSupervisor supervisor, FrameRecorder frameRecorder) {
+        this.index = index;
+        this.okHttpClient = okHttpClient;
+        this.oauthService = oauthService;
+        this.url = url;
+        this.frameHandler = new KisFrameHandler(ringBuffer);
+        this.frameRecorder = frameRecorder;
+        this.capacity = capacity;
+        this.rejectedHandler = rejectedHandler;
+        // 장 중에만 재연결 (PINGPONG도 끊기는 장 마감 후에는 감시하지 않음)
+        this.supervision = supervisor.register("kis-" + index, this::reconnect, this::closeStale, null,
+                MarketTimeChecker::isKoreanMarketOpen);
+    }
+
+    int index() {
+        return index;
+    }
+
+    boolean isConnected() {
+        return webSocket != null;
+    }
+
+    synchronized boolean hasRoom() {
+        return assignedCount() < capacity;
+    }
+
+    synchronized boolean contains(String stockCode) {
+        SubscriptionState state = subscriptions.get(stockCode);
+        return state != null && state != SubscriptionState.REJECTED;
+    }
+
+    synchronized int assignedCount() {
+        return (int) subscriptions.values().stream().filter(s -> s != SubscriptionState.REJECTED).count();
+    }
+
+    synchronized Map<SubscriptionState, Integer> stateCounts() {
+        Map<SubscriptionState, Integer> counts = new LinkedHashMap<>();
+        subscriptions.values().forEach(s -> counts.merge(s, 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * 종목을 이 세션에 배정합니다. 연결되어 있으면 바로 구독 요청을 보내고, 아니면 연결을 시작합니다.
+     */
+    synchronized void assign(String stockCode) {
+        subscriptions.put(stockCode, SubscriptionState.PENDING);
+        if (webSocket != null) {
+            sendSubscription(webSocket, stockCode);
+        } else {
+            connect();
+        }
+    }
+
+    /**
+     * ReconnectSupervisor가 호출: 배정된 종목이 있으면 새 연결을 엽니다. (재구독은 onOpen에서 처리)
+     */
+    private synchronized void reconnect() {
+        if (webSocket == null && !subscriptions.isEmpty()) {
+            log.info("국내 주식 WebSocket#{} 재연결 시도 - 배정 종목 {}건", index, assignedCount());
+            connect();
+        }
+    }
+
+    /**
+     * ReconnectSupervisor가 호출: 응답이 없는 연결을 강제로 끊습니다.
+     */
+    private void closeStale() {
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.cancel();
+            onDisconnected(socket);
+        }
+    }
+
+    private void connect() {
+        // OAuth 서비스로부터 approvalKey 발급 받음
+        String approvalKey = oauthService.getApprovalKey();
+        Request request = new Request.Builder()
+                // url에 "/H0STCNT0" 경로를 추가 (실제 트랜잭션 ID에 맞춤)
+                .url(url + "/H0STCNT0")
+                // 웹소켓 연결에 필요한 헤더 설정 (공식 문서에 명시된 값)
+                .addHeader("approval_key", approvalKey)
+                .addHeader("custtype", "P")
+                .addHeader("tr_type", "1")
+                .addHeader("content-type", "utf-8")
+                .build();
+        webSocket = okHttpClient.newWebSocket(request, new Listener());
+    }
+
+    /**
+     * 주어진 WebSocket 세션을 통해 지정된 종목코드에 대한 구독 메시지를 전송합니다.
+     */
+    private void sendSubscription(WebSocket socket, String stockCode) {
+        String approvalKey = oauthService.getApprovalKey();
+        Map<String, Object> header = Map.of(
+                "approval_key", approvalKey,
+                "custtype", "P",
+                "tr_type", "1",
+                "content-type", "utf-8"
+        );
+        Map<String, Object> input = Map.of(
+                "tr_id", "H0STCNT0",
+                "tr_key", stockCode
+        );
+        Map<String, Object> message = Map.of(
+                "header", header,
+                "body", Map.of("input", input)
+        );
+        String json = GSON.toJson(message);
+        log.info("📨 [WebSocket#{}] 구독 메시지 전송 - 종목코드: {}", index, stockCode);
+        if (socket.send(json)) {
+            subscriptions.put(stockCode, SubscriptionState.REQUESTED);
+        }
+    }
+
+    /**
+     * 구독 응답(제어 메시지)을 반영합니다.
+     */
+    private void onControl(String text) {
+        String stockCode;
+        String msg;
+        try {
+            JsonObject root = GSON.fromJson(text, JsonObject.class);
+            stockCode = root.getAsJsonObject("header").get("tr_key").getAsString();
+            msg = root.getAsJsonObject("body").get("msg1").getAsString();
+        } catch (Exception e) {
+            log.info("[WebSocket#{}] 제어 메시지 수신: {}", index, text);
+            return;
+        }
+        if (msg.contains("SUBSCRIBE SUCCESS")) {
+            synchronized (this) {
+                subscriptions.put(stockCode, SubscriptionState.ACTIVE);
+            }
+            log.info("[WebSocket#{}] 구독 성공 - 종목코드: {}", index, stockCode);
+        } else if (msg.contains("MAX SUBSCRIBE OVER")) {
+            synchronized (this) {
+                subscriptions.put(stockCode, SubscriptionState.REJECTED);
+                // 실제로 등록된 수를 이 세션의 한도로 삼아 이후 배정은 다른 세션으로 보냄
+                capacity = assignedCount();
+            }
+            log.warn("[WebSocket#{}] 세션 등록 한도 초과 - 종목코드: {}, 한도를 {}로 조정하고 다른 세션에 재배정합니다.",
+                    index, stockCode, capacity);
+            rejectedHandler.accept(stockCode);
+        } else {
+            log.info("[WebSocket#{}] 제어 메시지 수신 - 종목코드: {}, 메시지: {}", index, stockCode, msg);
+        }
+    }
+
+    private class Listener extends WebSocketListener {
+
+        @Override
+        public void onOpen(WebSocket socket, Response response) {
+            List<String> pending;
+            synchronized (KisWebSocketSession.this) {
+                pending = subscriptions.entrySet().stream()
+                        .filter(e -> e.getValue() == SubscriptionState.PENDING)
+                        .map(Map.Entry::getKey)
+                        .toList();
+            }
+            log.info("국내 주식 WebSocket#{} 연결 성공, 구독 대기 종목 {}건", index, pending.size());
+            supervision.opened();
+            synchronized (KisWebSocketSession.this) {
+                pending.forEach(code -> sendSubscription(socket, code));
+            }
+        }
+
+        @Override
+        public void onMessage(WebSocket socket, String text) {
+            try {
+                frameRecorder.record(FrameRecorder.FEED_KIS, text);
+                // 체결 데이터는 링 버퍼에 발행 (버퍼 반영은 파이프라인 소비자 스레드에서 처리)
+                KisFrameDecoder.Result result = frameHandler.onFrame(text, System.currentTimeMillis());
+                supervision.received(result == KisFrameDecoder.Result.TICK ? frameHandler.lastTickCount() : 0);
+                switch (result) {
+                    case PINGPONG -> {
+                        // PING 메시지 감지: "PINGPONG" 메시지 수신 시 PONG 응답 전송
+                        log.info("🔄 [WebSocket#{}] PING 메시지 수신: {}", index, text);
+                        String pongMessage = "{\"header\":{\"tr_id\":\"PONG\"}}";
+                        socket.send(pongMessage);
+                        log.info("✅ [WebSocket#{}] PONG 응답 전송: {}", index, pongMessage);
+                    }
+                    case CONTROL -> onControl(text);
+                    case MALFORMED -> log.warn("국내 주식 응답 형식 오류: {}", text);
+                    default -> {
+                        // TICK: onFrame에서 이미 발행됨
+                    }
+                }
+            } catch (Exception e) {
+                log.error("국내 주식 데이터 파싱 오류: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void onFailure(WebSocket socket, Throwable t, Response response) {
+            String errorMsg = (t != null) ? t.getMessage() : "Unknown error";
+            log.error("국내 주식 WebSocket#{} 오류: {}", index, errorMsg);
+            onDisconnected(socket);
+        }
+
+        @Override
+        public void onClosed(WebSocket socket, int code, String reason) {
+            log.info("국내 주식 WebSocket#{} 연결 종료: code={}, reason={}", index, code, reason);
+            onDisconnected(socket);
+        }
+    }
+
+    /**
+     * 연결이 끊기면 배정된 종목을 다시 구독 대기 상태로 돌립니다. (다음 연결 시 재구독)
+     */
+    private synchronized void onDisconnected(WebSocket socket) {
+        if (webSocket != socket) {
+            return;
+        }
+        webSocket = null;
+        supervision.disconnected();
+        subscriptions.replaceAll((code, state) ->
+                state == SubscriptionState.REJECTED ? state : SubscriptionState.PENDING);
+    }
+}
@@ -1,24 +1,28 @@
 package com.example.data_collector_service.service;
 
-import com.example.data_collector_service.buffer.RealTimeDataBuffer;
-import com.example.data_collector_service.entity.KoreanDailyStock;
+import com.example.data_collector_service.buffer.SymbolTable;
+import com.example.data_collector_service.buffer.TickIngestPipeline;
+import com.example.data_collector_service.replay.FrameRecorder;
 import com.example.data_collector_service.util.MarketTimeChecker;
-import com.google.gson.Gson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
  * KoreanStockWebSocketService
  * 
  * 국내 주식 실시간체결가 데이터를 WebSocket을 통해 수집합니다.
- * 정규장(09:00 ~ 15:30) 시간 동안에만 동작하며, 응답 데이터를 파싱해 버퍼에 저장합니다.
+ * 정규장(09:00 ~ 15:30) 시간 동안에만 동작하며, 응답 데이터를 파싱해 수집 파이프라인(링 버퍼)에 발행합니다.
+ *
+ * KIS는 세션당 등록 가능한 종목 수가 제한되어 있으므로, 여러 WebSocket 세션(KisWebSocketSession)을 두고
+ * 종목을 세션당 한도(collector.kis.max-subscriptions-per-session) 안에서 나눠 배정합니다.
+ * 기존 세션이 모두 가득 차면 새 세션을 자동으로 엽니다. (최대 collector.kis.max-sessions개)
  */
 @Slf4j
 @Service
@@ -27,19 +31,31 @@ public class KoreanStockWebSocketService {
 
     // OkHttpClient: WebSocket 연결에 사용
     private final OkHttpClient okHttpClient;
-    // 실시간 데이터를 저장할 버퍼
-    private final RealTimeDataBuffer dataBuffer;
-    // JSON 직렬화/역직렬화에 사용 (Gson)
-    private final Gson gson = new Gson();
+    // 수신 데이터를 버퍼/저장 단계로 넘기는 수집 파이프라인
+    private final TickIngestPipeline ingestPipeline;
+    // 종목 코드 -> 정수 id 변환 테이블 (구독 시점에 등록)
+    private final SymbolTable symbolTable;
     // OAuth 키(approvalKey) 발급 서비스
     private final OAuthApprovalKeyService oauthService;
+    // 세션 재연결/생존 확인 감시
+    private final ReconnectSupervisor reconnectSupervisor;
+    // 원본 프레임 캡처 (재생용)
+    private final FrameRecorder frameRecorder;
 
     // application.yml에 정의된 국내 주식 웹소켓 URL (예: ws://ops.koreainvestment.com:31000)
     @Value("${kis.ws-url-domestic}")
     private String wsUrlDomestic;
 
-    // 현재 활성화된 WebSocket 세션을 저장하는 변수 (동시성 이슈를 방지하기 위해 volatile 사용)
-    private volatile WebSocket currentWebSocket;
+    // 세션 하나에 등록할 최대 종목 수
+    @Value("${collector.kis.max-subscriptions-per-session:41}")
+    private int maxSubscriptionsPerSession;
+
+    // 동시에 열 수 있는 최대 세션 수
+    @Value("${collector.kis.max-sessions:5}")
+    private int maxSessions;
+
+    // 열려 있는(또는 연결 중인) 세션 목록, 세션마다 전용 링 버퍼를 가짐
+    private final List<KisWebSocketSession> sessions = new ArrayList<>();
 
     /**
      * 국내 주식 종목 구독을 시작하는 메서드
@@ -56,132 +72,49 @@ public class KoreanStockWebSocketService {
             log.warn("tr_key 값은 6자리 숫자여야 합니다. 현재 값: {}", stockCode);
             return;
         }
-        
-        // 만약 이미 활성화된 WebSocket 세션이 있으면, 새 연결을 시도하지 않고 해당 세션에 구독 메시지를 전송
-        if (currentWebSocket != null) {
-            log.warn("이미 활성화된 WebSocket 세션이 있습니다. 기존 세션으로 구독 메시지를 전송합니다.");
-            sendSubscriptionMessage(currentWebSocket, stockCode);
-            return;
-        }
-        
-        // OAuth 서비스로부터 approvalKey 발급 받음
-        String approvalKey = oauthService.getApprovalKey();
-        // WebSocket 연결을 위한 요청(Request) 생성
-        Request request = new Request.Builder()
-                // wsUrlDomestic에 "/H0STCNT0" 경로를 추가 (실제 트랜잭션 ID에 맞춤)
-                .url(wsUrlDomestic + "/H0STCNT0")
-                // 웹소켓 연결에 필요한 헤더 설정 (공식 문서에 명시된 값)
-                .addHeader("approval_key", approvalKey)
-                .addHeader("custtype", "P")
-                .addHeader("tr_type", "1")
-                .addHeader("content-type", "utf-8")
-                .build();
-
-        // OkHttpClient를 사용하여 WebSocket 연결 시작
-        currentWebSocket = okHttpClient.newWebSocket(request, new WebSocketListener() {
-            @Override
-            public void onOpen(WebSocket webSocket, Response response) {
-                // 연결 성공 시 로그 출력
-                log.info("국내 주식 WebSocket 연결 성공, 종목: {}", stockCode);
-                // 최초 연결 시, 구독 메시지를 전송합니다.
-                sendSubscriptionMessage(webSocket, stockCode);
-            }
-
-            @Override
-            public void onMessage(WebSocket webSocket, String text) {
-                try {
-                    // PING 메시지 감지: "PINGPONG" 메시지 수신 시 PONG 응답 전송
-                    if (text.contains("\"tr_id\":\"PINGPONG\"")) {
-                        log.info("🔄 [WebSocket] PING 메시지 수신: {}", text);
-                        String pongMessage = "{\"header\":{\"tr_id\":\"PONG\"}}";
-                        webSocket.send(pongMessage);
-                        log.info("✅ [WebSocket] PONG 응답 전송: {}", pongMessage);
-                        return;
-                    }
-                    // 서버로부터 수신한 메시지를 '|' 구분자로 분리하여 처리
-                    String[] parts = text.split("\\|");
-                    if (parts.length < 4) {
-                        log.warn("국내 주식 응답 데이터 길이 부족: {}", text);
-                        return;
-                    }
-
-                    // 데이터 파싱 후 로그 출력
-                    log.info("🔍 [WebSocket] 분리된 데이터: {}", (Object) parts);
-                    
-                    // 네 번째 파트(실제 데이터 부분)를 '^' 구분자로 분리
-                    String dataPart = parts[3];
-                    String[] tokens = dataPart.split("\\^");
-                    if (tokens.length < 6) {
-                        log.warn("국내 주식 응답 토큰 수 부족: {}", text);
-                        return;
-                    }
-
-                    // 최종 데이터 매핑 후 로그 출력
-                    log.info("📌 [WebSocket] 매핑된 종목: {}, 현재가: {}, 전일 대비율: {}", 
-                            tokens[0], tokens[2], tokens[5]);
-                    
-                    // 수신한 데이터를 KoreanDailyStock 엔티티로 매핑
-                    KoreanDailyStock data = new KoreanDailyStock();
-                    data.setStockCode(tokens[0]);               // 종목 코드
-                    data.setStockName("미매핑");                  // 종목명 (추후 매핑 필요)
-                    data.setCurrentPrice(new BigDecimal(tokens[2])); // 현재가
-                    data.setChangeRate(new BigDecimal(tokens[5]));     // 전일 대비율
-                    data.setTimestamp(LocalDateTime.now());          // 현재 시간 (한국 시간 기준)
-                    
-                    log.info("💾 [WebSocket] 저장할 종목 데이터 - 종목코드: {}, 현재가: {}, 변동률: {}, 시간: {}",
-                            data.getStockCode(), data.getCurrentPrice(), data.getChangeRate(), data.getTimestamp());
-
-                    // 데이터를 실시간 데이터 버퍼에 저장
-                    dataBuffer.putKoreanData(data.getStockCode(), data);
-                } catch (Exception e) {
-                    log.error("국내 주식 데이터 파싱 오류: {}", e.getMessage());
-                }
-            }
-
-            @Override
-            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-                // 연결 실패 시 오류 메시지 출력 및 현재 세션 상태 초기화
-                String errorMsg = (t != null) ? t.getMessage() : "Unknown error";
-                log.error("국내 주식 WebSocket 오류: {}", errorMsg);
-                currentWebSocket = null;
-            }
+        // 수신 경로에서 문자열 없이 조회할 수 있도록 종목 코드를 미리 등록
+        symbolTable.register(stockCode);
+        assign(stockCode);
+    }
 
-            @Override
-            public void onClosed(WebSocket webSocket, int code, String reason) {
-                // 연결 종료 시 로그 출력 및 현재 세션 상태 초기화
-                log.info("국내 주식 WebSocket 연결 종료: code={}, reason={}", code, reason);
-                currentWebSocket = null;
-            }
-        });
+    /**
+     * 세션별 배정 종목 수와 구독 상태 요약 (모니터링용)
+     */
+    public synchronized List<Map<String, Object>> sessionStatus() {
+        return sessions.stream()
+                .map(session -> Map.<String, Object>of(
+                        "session", session.index(),
+                        "connected", session.isConnected(),
+                        "assigned", session.assignedCount(),
+                        "states", session.stateCounts()))
+                .toList();
     }
 
     /**
-     * 주어진 WebSocket 세션을 통해 지정된 종목코드에 대한 구독 메시지를 전송하는 메서드
+     * 여유가 있는 세션에 종목을 배정합니다. 모든 세션이 가득 찼으면 새 세션을 엽니다.
      */
-    private void sendSubscriptionMessage(WebSocket webSocket, String stockCode) {
-        // 요청 메시지의 header 부분 생성 (승인 키, 고객 유형 등)
-        String approvalKey = oauthService.getApprovalKey(); // 구독 요청 시마다 새 approvalKey를 사용할 수도 있습니다.
-        Map<String, Object> header = Map.of(
-                "approval_key", approvalKey,
-                "custtype", "P",
-                "tr_type", "1",
-                "content-type", "utf-8"
-        );
-        // 요청 메시지의 body 부분 생성 (종목 코드 정보)
-        Map<String, Object> input = Map.of(
-                "tr_id", "H0STCNT0",
-                "tr_key", stockCode
-        );
-        Map<String, Object> body = Map.of("input", input);
-        // 전체 메시지: header와 body를 합쳐 JSON 형식으로 변환
-        Map<String, Object> message = Map.of(
-                "header", header,
-                "body", body
-        );
-        String json = gson.toJson(message);
-        log.info("📨 [WebSocket] 구독 메시지 전송 - 종목코드: {}, 메시지: {}", stockCode, json);
-        webSocket.send(json);
+    private synchronized void assign(String stockCode) {
+        for (KisWebSocketSession session : sessions) {
+            if (session.contains(stockCode)) {
+                log.debug("이미 구독 중인 종목입니다. 종목코드: {}, 세션: {}", stockCode, session.index());
+                return;
+            }
+        }
+        for (KisWebSocketSession session : sessions) {
+            if (session.hasRoom()) {
+                session.assign(stockCode);
+                return;
+            }
+        }
+        if (sessions.size() >= maxSessions) {
+            log.error("모든 WebSocket 세션의 등록 한도가 찼습니다. 구독하지 못한 종목코드: {} (세션 {}개 x {}종목)",
+                    stockCode, sessions.size(), maxSubscriptionsPerSession);
+            return;
+        }
+        KisWebSocketSession session = new KisWebSocketSession(sessions.size(), okHttpClient, oauthService,
+                wsUrlDomestic, ingestPipeline.newProducer(), maxSubscriptionsPerSession, this::assign, reconnectSupervisor, frameRecorder);
+        sessions.add(session);
+        log.info("국내 주식 WebSocket 세션 추가 - 세션 #{} (총 {}개)", session.index(), sessions.size());
+        session.assign(stockCode);
     }
 }
-
-
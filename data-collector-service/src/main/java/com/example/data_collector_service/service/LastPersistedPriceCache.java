@@ -0,0 +1,72 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.repository.DailyStockBatchRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LastPersistedPriceCache
+ *
+ * 종목별로 Daily 테이블에 마지막으로 저장된 가격과 날짜를 메모리에 보관합니다.
+ * 저장 전 "가격 변동 여부" 판단을 DB 조회(findTopBy...OrderByTimestampDesc) 없이 처리하기 위한 캐시입니다.
+ *
+ * - 애플리케이션 시작 시 DB에서 종목별 최신 레코드로 초기화
+ * - 저장이 성공(커밋)할 때마다 갱신
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastPersistedPriceCache {
+
+    private final DailyStockBatchRepository batchRepo;
+
+    // 종목 코드 -> 마지막 저장 가격/날짜
+    private final ConcurrentHashMap<String, PersistedPrice> koreanPrices = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PersistedPrice> globalPrices = new ConcurrentHashMap<>();
+
+    public record PersistedPrice(BigDecimal price, LocalDate date) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            batchRepo.findLatestKoreanPerStock().forEach(row ->
+                    recordKorean(row.getStockCode(), row.getCurrentPrice(), row.getTimestamp().toLocalDate()));
+            batchRepo.findLatestGlobalPerStock().forEach(row ->
+                    recordGlobal(row.getStockCode(), row.getCurrentPrice(), row.getTimestamp().toLocalDate()));
+            log.info("[LastPersistedPriceCache] 초기화 완료 - 국내 {}종목, 해외 {}종목", koreanPrices.size(), globalPrices.size());
+        } catch (Exception e) {
+            // 초기화에 실패해도 빈 캐시로 동작 (첫 수신 데이터는 모두 저장됨)
+            log.error("[LastPersistedPriceCache] 초기화 실패, 빈 캐시로 시작합니다.", e);
+        }
+    }
+
+    /**
+     * 같은 날짜에 같은 가격이 이미 저장되어 있으면 true (저장 생략 대상)
+     */
+    public boolean isKoreanUnchanged(String stockCode, BigDecimal price, LocalDate date) {
+        return isUnchanged(koreanPrices.get(stockCode), price, date);
+    }
+
+    public boolean isGlobalUnchanged(String stockCode, BigDecimal price, LocalDate date) {
+        return isUnchanged(globalPrices.get(stockCode), price, date);
+    }
+
+    public void recordKorean(String stockCode, BigDecimal price, LocalDate date) {
+        koreanPrices.put(stockCode, new PersistedPrice(price, date));
+    }
+
+    public void recordGlobal(String stockCode, BigDecimal price, LocalDate date) {
+        globalPrices.put(stockCode, new PersistedPrice(price, date));
+    }
+
+    private boolean isUnchanged(PersistedPrice last, BigDecimal price, LocalDate date) {
+        return last != null && last.date().equals(date) && last.price().compareTo(price) == 0;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.data_collector_service.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
@@ -7,14 +11,29 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * OAuthApprovalKeyService
+ *
+ * KIS WebSocket 접속키(/oauth2/Approval)를 발급하고 보관합니다.
+ * 접속키는 24시간 유효하며, approval-refresh-after-minutes(기본 20시간)가 지나면 백그라운드에서 미리 재발급합니다.
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class OAuthApprovalKeyService {
 
+    // Approval Key의 기본 유효기간: 24시간 (86400초)
+    private static final long APPROVAL_KEY_EXPIRES_IN_SECONDS = 86400;
+
+    // 자격 증명 이름 (메트릭 태그, 캐시 파일 이름)
+    private static final String CREDENTIAL_NAME = "kis-approval-key";
+
+    private final MeterRegistry meterRegistry;
+    private final CredentialStore credentialStore;
+
     @Value("${kis.rest-url}")
     private String restUrl;
 
@@ -24,62 +43,53 @@ public class OAuthApprovalKeyService {
     @Value("${kis.app-secret}")
     private String appSecret;
 
+    // 만료 전 여유 시간 4시간, 즉 20시간 경과 시 재발급
+    @Value("${collector.credentials.approval-refresh-after-minutes:1200}")
+    private long refreshAfterMinutes;
+
+    @Value("${collector.credentials.initial-wait-ms:90000}")
+    private long initialWaitMillis;
+
     private final RestTemplate restTemplate = new RestTemplate();
 
-    // 캐싱된 Approval Key와 발급 시각
-    private volatile String cachedApprovalKey;
-    private volatile LocalDateTime approvalKeyAcquiredTime;
+    private RefreshingCredential approvalKey;
 
-    // Approval Key의 기본 유효기간: 24시간 (86400초)
-    private final long approvalKeyExpiresIn = 86400;
-    // 만료 전 여유 시간 (예: 4시간), 즉 20시간 이상 경과 시 재발급
-    private final long renewalMarginSeconds = 14400;
+    @PostConstruct
+    public void init() {
+        approvalKey = new RefreshingCredential(CREDENTIAL_NAME, this::issueAndStore,
+                Duration.ofMinutes(refreshAfterMinutes), Duration.ofMillis(initialWaitMillis), meterRegistry);
+        // 재시작 시 저장된 값이 아직 유효하면 발급 없이 재사용 (발급 제한 회피)
+        approvalKey.start(credentialStore.load(CREDENTIAL_NAME).orElse(null));
+    }
 
-    // 동시 접근 제어용 Lock
-    private final ReentrantLock lock = new ReentrantLock();
+    @PreDestroy
+    public void shutdown() {
+        approvalKey.stop();
+    }
 
     /**
      * WebSocket 접속용 Approval Key를 반환합니다.
-     * 토큰이 없거나 만료 임박 시 새로 발급받고, 그렇지 않으면 캐시된 값을 반환합니다.
+     * 유효한 키가 있으면 바로 반환하고, 없을 때(최초 기동 등)만 발급을 기다립니다.
      *
      * @return Approval Key (문자열)
      */
     public String getApprovalKey() {
-        if (cachedApprovalKey == null || isApprovalKeyExpired()) {
-            lock.lock();
-            try {
-                // Double-check
-                if (cachedApprovalKey == null || isApprovalKeyExpired()) {
-                    cachedApprovalKey = requestNewApprovalKey();
-                    approvalKeyAcquiredTime = LocalDateTime.now();
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-        return cachedApprovalKey;
+        return approvalKey.get();
     }
 
-    /**
-     * Approval Key가 만료되었거나 갱신해야 하는지 판단합니다.
-     * 기본적으로 24시간 유효하지만, 4시간 여유를 두어 20시간 경과 시 재발급합니다.
-     *
-     * @return 만료되었으면 true, 아니면 false
-     */
-    private boolean isApprovalKeyExpired() {
-        if (approvalKeyAcquiredTime == null) {
-            return true;
-        }
-        Duration elapsed = Duration.between(approvalKeyAcquiredTime, LocalDateTime.now());
-        return elapsed.getSeconds() >= (approvalKeyExpiresIn - renewalMarginSeconds);
+    // 새로 발급받은 값은 재시작 후에도 쓸 수 있도록 암호화해 저장
+    private RefreshingCredential.Issued issueAndStore() {
+        RefreshingCredential.Issued issued = requestNewApprovalKey();
+        credentialStore.save(CREDENTIAL_NAME, issued);
+        return issued;
     }
 
     /**
      * REST API /oauth2/Approval 엔드포인트를 호출하여 새 Approval Key를 발급받습니다.
      *
-     * @return 새로 발급된 Approval Key
+     * @return 새로 발급된 Approval Key와 발급/만료 시각
      */
-    private String requestNewApprovalKey() {
+    private RefreshingCredential.Issued requestNewApprovalKey() {
         String url = restUrl + "/oauth2/Approval";
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -93,16 +103,18 @@ public class OAuthApprovalKeyService {
 
         HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
         log.info("[OAuthApprovalKeyService] Approval Key 발급 요청: URL={}", url);
+        Instant issuedAt = Instant.now();
         ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
 
         if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
             Object approvalKey = response.getBody().get("approval_key");
             if (approvalKey != null) {
                 log.info("[OAuthApprovalKeyService] Approval Key 발급 성공");
-                return approvalKey.toString();
+                return new RefreshingCredential.Issued(approvalKey.toString(), issuedAt,
+                        issuedAt.plusSeconds(APPROVAL_KEY_EXPIRES_IN_SECONDS));
             }
         }
         log.error("[OAuthApprovalKeyService] Approval Key 발급 실패");
-        throw new RuntimeException("Approval Key 발급 실패");
+        throw new IllegalStateException("Approval Key 발급 실패: 응답에 approval_key 없음");
     }
 }
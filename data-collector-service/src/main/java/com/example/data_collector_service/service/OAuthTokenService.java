@@ -1,5 +1,9 @@
 package com.example.data_collector_service.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
@@ -7,14 +11,33 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * OAuthTokenService
+ *
+ * KIS REST API 접근 토큰(/oauth2/tokenP)을 발급하고 보관합니다.
+ * 발급 후 token-refresh-after-minutes가 지나면 백그라운드에서 미리 재발급하며,
+ * 재발급이 진행되는 동안에도 호출자는 기존 토큰을 기다림 없이 사용합니다. (RefreshingCredential)
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class OAuthTokenService {
 
+    // 응답에 expires_in이 없을 때의 기본 유효기간: 24시간
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 86400;
+    // 토큰 발급 제한(1분당 1회)에 걸렸을 때 재시도 간격
+    private static final Duration RATE_LIMIT_RETRY = Duration.ofSeconds(61);
+
+    // 자격 증명 이름 (메트릭 태그, 캐시 파일 이름)
+    private static final String CREDENTIAL_NAME = "kis-access-token";
+
+    private final MeterRegistry meterRegistry;
+    private final CredentialStore credentialStore;
+
     // API 요청을 위한 기본 URL, 앱키, 앱시크릿 설정
     @Value("${kis.rest-url}")
     private String restUrl;
@@ -25,63 +48,56 @@ public class OAuthTokenService {
     @Value("${kis.app-secret}")
     private String appSecret;
 
+    // 토큰 재발급 주기: 기본 5시간
+    @Value("${collector.credentials.token-refresh-after-minutes:300}")
+    private long refreshAfterMinutes;
+
+    // 유효한 토큰이 없을 때 호출자가 발급을 기다리는 최대 시간
+    @Value("${collector.credentials.initial-wait-ms:90000}")
+    private long initialWaitMillis;
+
     // 토큰 요청에 사용할 RestTemplate
     private final RestTemplate restTemplate = new RestTemplate();
 
-    // 캐싱된 토큰과 토큰 발급 시각
-    private volatile String cachedAccessToken;
-    private volatile LocalDateTime tokenAcquiredTime;
+    private RefreshingCredential accessToken;
 
-    // 토큰 재발급 주기: 5시간 (5시간 = 5 * 60 * 60 초)
-    private static final long REFRESH_INTERVAL_SECONDS = 5 * 60 * 60;
+    @PostConstruct
+    public void init() {
+        accessToken = new RefreshingCredential(CREDENTIAL_NAME, this::issueAndStore,
+                Duration.ofMinutes(refreshAfterMinutes), Duration.ofMillis(initialWaitMillis), meterRegistry);
+        // 재시작 시 저장된 값이 아직 유효하면 발급 없이 재사용 (발급 제한 회피)
+        accessToken.start(credentialStore.load(CREDENTIAL_NAME).orElse(null));
+    }
 
-    // 동시 접근 방지를 위한 Lock
-    private final ReentrantLock lock = new ReentrantLock();
+    @PreDestroy
+    public void shutdown() {
+        accessToken.stop();
+    }
 
     /**
-     * 최신 접근 토큰을 반환합니다.
-     * 만약 캐시된 토큰이 없거나, 토큰 발급 후 5시간이 경과했다면 새 토큰을 발급받습니다.
+     * 현재 유효한 접근 토큰을 반환합니다.
+     * 유효한 토큰이 있으면 재발급 여부와 관계없이 바로 반환하고, 없을 때(최초 기동 등)만 발급을 기다립니다.
      *
-     * @return 최신 접근 토큰 (문자열)
+     * @return 접근 토큰 (문자열)
      */
     public String getAccessToken() {
-        if (cachedAccessToken == null || isTokenRefreshNeeded()) {
-            lock.lock();
-            try {
-                // double-check: 락을 걸고 다시 한번 확인
-                if (cachedAccessToken == null || isTokenRefreshNeeded()) {
-                    cachedAccessToken = requestNewAccessToken();
-                    tokenAcquiredTime = LocalDateTime.now(); // 발급 시각 업데이트
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-        return cachedAccessToken;
+        return accessToken.get();
     }
 
-    /**
-     * 토큰이 새로 발급되어야 하는지 확인합니다.
-     * 현재 토큰이 없거나, 마지막 발급 시각으로부터 5시간 이상 경과했다면 true를 반환합니다.
-     *
-     * @return 새 토큰 발급 필요 여부 (true: 발급 필요, false: 캐시 사용)
-     */
-    private boolean isTokenRefreshNeeded() {
-        if (tokenAcquiredTime == null) {
-            return true;
-        }
-        // 현재 시각과 마지막 발급 시각의 차이를 초 단위로 계산
-        long secondsSinceIssued = java.time.Duration.between(tokenAcquiredTime, LocalDateTime.now()).getSeconds();
-        return secondsSinceIssued >= REFRESH_INTERVAL_SECONDS;
+    // 새로 발급받은 값은 재시작 후에도 쓸 수 있도록 암호화해 저장
+    private RefreshingCredential.Issued issueAndStore() {
+        RefreshingCredential.Issued issued = requestNewAccessToken();
+        credentialStore.save(CREDENTIAL_NAME, issued);
+        return issued;
     }
 
     /**
      * /oauth2/tokenP 엔드포인트를 호출하여 새 접근 토큰을 발급받습니다.
-     * 만약 403 Forbidden 에러(요청 제한)가 발생하면 60초 대기 후 재시도합니다.
+     * 403 발급 제한 응답이면 RateLimitedException을 던져 RefreshingCredential이 60초 뒤 다시 시도하게 합니다.
      *
-     * @return 새로 발급받은 접근 토큰 (문자열)
+     * @return 새로 발급받은 접근 토큰과 발급/만료 시각
      */
-    private String requestNewAccessToken() {
+    private RefreshingCredential.Issued requestNewAccessToken() {
         String url = restUrl + "/oauth2/tokenP";
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -96,31 +112,38 @@ public class OAuthTokenService {
         HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
         log.info("[OAuthTokenService] Access Token 발급 요청: URL={}", url);
         try {
+            Instant issuedAt = Instant.now();
             ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Object tokenObj = response.getBody().get("access_token");
                 if (tokenObj != null) {
-                    log.info("[OAuthTokenService] Access Token 발급 성공");
-                    return tokenObj.toString();
+                    long expiresIn = parseExpiresIn(response.getBody().get("expires_in"));
+                    log.info("[OAuthTokenService] Access Token 발급 성공 (유효 {}초)", expiresIn);
+                    return new RefreshingCredential.Issued(tokenObj.toString(), issuedAt, issuedAt.plusSeconds(expiresIn));
                 }
             }
         } catch (HttpClientErrorException.Forbidden e) {
-            // API 요청 제한 메시지 포함 시 60초 후 재시도
+            // API 요청 제한 메시지 포함 시 60초 후 재시도 (대기는 RefreshingCredential 스레드에서, 락 없이)
             if (e.getResponseBodyAsString().contains("접근토큰 발급 잠시 후 다시 시도하세요")) {
-                log.warn("[OAuthTokenService] 토큰 발급 제한에 걸림: {}. 60초 후 재시도합니다.", e.getMessage());
-                try {
-                    Thread.sleep(60000); // 60초 대기
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
-                return requestNewAccessToken();
+                throw new RefreshingCredential.RateLimitedException("토큰 발급 제한 (1분당 1회)", RATE_LIMIT_RETRY);
             }
             throw e;
-        } catch (Exception e) {
-            log.error("[OAuthTokenService] Access Token 발급 실패: {}", e.getMessage());
-            throw new RuntimeException("Access Token 발급 실패", e);
         }
         log.error("[OAuthTokenService] Access Token 발급 실패");
-        throw new RuntimeException("Access Token 발급 실패");
+        throw new IllegalStateException("Access Token 발급 실패: 응답에 access_token 없음");
+    }
+
+    private static long parseExpiresIn(Object expiresIn) {
+        if (expiresIn instanceof Number number) {
+            return number.longValue();
+        }
+        if (expiresIn != null) {
+            try {
+                return Long.parseLong(expiresIn.toString().trim());
+            } catch (NumberFormatException ignored) {
+                // 기본값 사용
+            }
+        }
+        return DEFAULT_EXPIRES_IN_SECONDS;
     }
 }
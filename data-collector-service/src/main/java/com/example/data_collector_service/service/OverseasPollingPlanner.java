@@ -0,0 +1,241 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.entity.GlobalDailyStock;
+import com.example.data_collector_service.service.GlobalStockApiService.ForeignStockInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * OverseasPollingPlanner
+ *
+ * REST로 조회하는 해외 종목의 조회 주기를 종목마다 다르게 정하는 플래너입니다.
+ * 고정된 초당 조회 예산(poll-budget-per-second)을 종목별 가중치에 비례해 나눠,
+ * 많이 움직이는 종목은 몇 초마다, 변동이 없는 종목은 드물게 조회합니다.
+ *
+ * 가중치 = floor-weight + 상대 변동성 × 최근 변경 계수 + interest-weight × 관심도
+ * - 상대 변동성: 조회 간 수익률의 EWMA 분산율(r² / 경과 초)의 제곱근을 전체 평균으로 나눈 값
+ * - 최근 변경 계수: 마지막 가격 변경 이후 경과 시간이 change-age-half-life만큼 지나면 절반
+ * - 관심도: 시세 조회 API 호출 수 (interest-half-life마다 절반으로 감쇠), 0 ~ 1로 정규화
+ *
+ * 종목 i의 조회 간격 = Σ가중치 / (예산 × 가중치 i), [min-interval, max-interval]로 제한
+ * 실제 호출 수는 예산 토큰으로 한 번 더 제한하고, KIS 초당 한도는 KisRestRateLimiter가 지킵니다.
+ */
+@Component
+public class OverseasPollingPlanner {
+
+    // EWMA 분산율 평활 계수
+    private static final double VARIANCE_ALPHA = 0.2;
+
+    private final double budgetPerSecond;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final long changeAgeHalfLifeMillis;
+    private final long interestHalfLifeMillis;
+    private final double interestWeight;
+    private final double floorWeight;
+
+    // 종목 코드 -> 조회 상태 (GlobalStockApiService의 종목 목록 순서)
+    private final Map<String, SymbolState> states = new LinkedHashMap<>();
+
+    // 예산 토큰 (초당 budgetPerSecond개씩 채워짐)
+    private double budgetTokens;
+    private long lastRefillMillis;
+
+    public OverseasPollingPlanner(GlobalStockApiService globalStockApiService,
+                                  @Value("${collector.overseas.poll-budget-per-second:1.5}") double budgetPerSecond,
+                                  @Value("${collector.overseas.poll-min-interval-ms:3000}") long minIntervalMillis,
+                                  @Value("${collector.overseas.poll-max-interval-ms:120000}") long maxIntervalMillis,
+                                  @Value("${collector.overseas.poll-change-age-half-life-ms:300000}") long changeAgeHalfLifeMillis,
+                                  @Value("${collector.overseas.poll-interest-half-life-ms:600000}") long interestHalfLifeMillis,
+                                  @Value("${collector.overseas.poll-interest-weight:1.0}") double interestWeight,
+                                  @Value("${collector.overseas.poll-floor-weight:0.2}") double floorWeight) {
+        this.budgetPerSecond = budgetPerSecond;
+        this.minIntervalMillis = minIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+        this.changeAgeHalfLifeMillis = changeAgeHalfLifeMillis;
+        this.interestHalfLifeMillis = interestHalfLifeMillis;
+        this.interestWeight = interestWeight;
+        this.floorWeight = floorWeight;
+        for (ForeignStockInfo stock : globalStockApiService.foreignStocks()) {
+            states.put(stock.getStockCode(), new SymbolState(stock));
+        }
+    }
+
+    /**
+     * 종목별 현재 조회 계획 (상태 조회용)
+     */
+    public record PollingPlan(String stockCode, String exchangeCode, long intervalMillis, long nextDueInMillis,
+                              double volatility, long lastChangeAgeMillis, double interest) {
+    }
+
+    private static final class SymbolState {
+        final ForeignStockInfo stock;
+        double lastPrice = Double.NaN;
+        long lastObservedAt;
+        long lastChangedAt;
+        // 초당 수익률 분산의 EWMA (음수면 아직 모름)
+        double varianceRate = -1;
+        double interest;
+        long interestUpdatedAt;
+        long lastPolledAt;
+        long intervalMillis;
+
+        SymbolState(ForeignStockInfo stock) {
+            this.stock = stock;
+        }
+    }
+
+    /**
+     * 지금 조회해야 할 종목을 고릅니다. 고른 종목은 조회를 보낸 것으로 간주해 다음 주기를 새로 잡습니다.
+     *
+     * @param marketOpen 현재 장이 열려 있는 종목만 통과시키는 조건
+     * @return 조회 대상 (가장 오래 밀린 종목부터, 예산 토큰 수 이하)
+     */
+    public synchronized List<ForeignStockInfo> dueSymbols(Predicate<ForeignStockInfo> marketOpen, long nowMillis) {
+        List<SymbolState> active = states.values().stream()
+                .filter(state -> marketOpen.test(state.stock))
+                .toList();
+        refillBudget(nowMillis, active.isEmpty());
+        if (active.isEmpty()) {
+            return List.of();
+        }
+
+        replan(active, nowMillis);
+        List<SymbolState> due = new ArrayList<>();
+        for (SymbolState state : active) {
+            if (state.lastPolledAt == 0 || nowMillis - state.lastPolledAt >= state.intervalMillis) {
+                due.add(state);
+            }
+        }
+        // 주기 대비 가장 많이 밀린 종목부터
+        due.sort(Comparator.comparingDouble(state -> -overdueRatio(state, nowMillis)));
+
+        List<ForeignStockInfo> selected = new ArrayList<>();
+        for (SymbolState state : due) {
+            if (budgetTokens < 1) {
+                break;
+            }
+            budgetTokens -= 1;
+            state.lastPolledAt = nowMillis;
+            selected.add(state.stock);
+        }
+        return selected;
+    }
+
+    /**
+     * 수신한 시세로 종목별 변동성과 마지막 변경 시각을 갱신합니다.
+     */
+    public synchronized void onQuotes(List<GlobalDailyStock> quotes, long nowMillis) {
+        for (GlobalDailyStock quote : quotes) {
+            SymbolState state = states.get(quote.getStockCode());
+            if (state == null || quote.getCurrentPrice() == null) {
+                continue;
+            }
+            double price = quote.getCurrentPrice().doubleValue();
+            if (!Double.isNaN(state.lastPrice) && state.lastPrice > 0) {
+                double seconds = Math.max(1.0, (nowMillis - state.lastObservedAt) / 1000.0);
+                double r = (price - state.lastPrice) / state.lastPrice;
+                double sample = r * r / seconds;
+                state.varianceRate = state.varianceRate < 0
+                        ? sample
+                        : VARIANCE_ALPHA * sample + (1 - VARIANCE_ALPHA) * state.varianceRate;
+                if (price != state.lastPrice) {
+                    state.lastChangedAt = nowMillis;
+                }
+            } else {
+                state.lastChangedAt = nowMillis;
+            }
+            state.lastPrice = price;
+            state.lastObservedAt = nowMillis;
+        }
+    }
+
+    /**
+     * 사용자가 종목 시세를 조회했음을 기록합니다. (관심 종목일수록 자주 조회)
+     */
+    public synchronized void recordInterest(String stockCode, long nowMillis) {
+        SymbolState state = states.get(stockCode);
+        if (state == null) {
+            return;
+        }
+        state.interest = decayedInterest(state, nowMillis) + 1;
+        state.interestUpdatedAt = nowMillis;
+    }
+
+    public synchronized List<PollingPlan> snapshot(long nowMillis) {
+        List<PollingPlan> plans = new ArrayList<>(states.size());
+        for (SymbolState state : states.values()) {
+            long nextDueIn = state.lastPolledAt == 0 ? 0 : Math.max(0, state.lastPolledAt + state.intervalMillis - nowMillis);
+            plans.add(new PollingPlan(state.stock.getStockCode(), state.stock.getExchangeCode(), state.intervalMillis,
+                    nextDueIn, state.varianceRate < 0 ? 0 : Math.sqrt(state.varianceRate),
+                    state.lastChangedAt == 0 ? -1 : nowMillis - state.lastChangedAt,
+                    decayedInterest(state, nowMillis)));
+        }
+        return plans;
+    }
+
+    // 장이 열린 종목들의 가중치로 종목별 조회 간격을 다시 계산
+    private void replan(List<SymbolState> active, long nowMillis) {
+        double meanSigma = active.stream()
+                .filter(state -> state.varianceRate > 0)
+                .mapToDouble(state -> Math.sqrt(state.varianceRate))
+                .average()
+                .orElse(0);
+
+        double[] weights = new double[active.size()];
+        double totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weight(active.get(i), meanSigma, nowMillis);
+            totalWeight += weights[i];
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double interval = totalWeight / (budgetPerSecond * weights[i]) * 1000.0;
+            active.get(i).intervalMillis = Math.max(minIntervalMillis, Math.min(maxIntervalMillis, Math.round(interval)));
+        }
+    }
+
+    private double weight(SymbolState state, double meanSigma, long nowMillis) {
+        // 변동성을 아직 모르는 종목은 평균으로 취급
+        double relativeSigma = state.varianceRate < 0 || meanSigma <= 0
+                ? 1.0
+                : Math.sqrt(state.varianceRate) / meanSigma;
+        double recency = state.lastChangedAt == 0
+                ? 1.0
+                : Math.pow(0.5, (double) (nowMillis - state.lastChangedAt) / changeAgeHalfLifeMillis);
+        double interest = decayedInterest(state, nowMillis);
+        return floorWeight + relativeSigma * recency + interestWeight * interest / (1 + interest);
+    }
+
+    private double decayedInterest(SymbolState state, long nowMillis) {
+        if (state.interest == 0) {
+            return 0;
+        }
+        return state.interest * Math.pow(0.5, (double) (nowMillis - state.interestUpdatedAt) / interestHalfLifeMillis);
+    }
+
+    private double overdueRatio(SymbolState state, long nowMillis) {
+        if (state.lastPolledAt == 0) {
+            return Double.MAX_VALUE;
+        }
+        return (double) (nowMillis - state.lastPolledAt) / Math.max(1, state.intervalMillis);
+    }
+
+    // 장이 모두 닫혀 있으면 토큰을 쌓지 않음 (개장 직후 한꺼번에 몰리는 것을 방지)
+    private void refillBudget(long nowMillis, boolean idle) {
+        if (lastRefillMillis != 0 && !idle) {
+            // 소수점 예산(예: 1.5/초)이 틱 사이에 누적될 수 있도록 1초치 + 1개까지 허용
+            double burst = budgetPerSecond + 1;
+            budgetTokens = Math.min(burst, budgetTokens + (nowMillis - lastRefillMillis) / 1000.0 * budgetPerSecond);
+        } else if (lastRefillMillis == 0) {
+            budgetTokens = 1;
+        }
+        lastRefillMillis = nowMillis;
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.archive.ArchivedHistory;
+import com.example.data_collector_service.archive.HistoryArchive;
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.entity.GlobalHistoryStock;
+import com.example.data_collector_service.entity.HistoryForex;
+import com.example.data_collector_service.entity.KoreanHistoryStock;
+import com.example.data_collector_service.entity.PriceRollup;
+import com.example.data_collector_service.repository.GlobalHistoryStockRepository;
+import com.example.data_collector_service.repository.HistoryForexRepository;
+import com.example.data_collector_service.repository.KoreanHistoryStockRepository;
+import com.example.data_collector_service.repository.MinuteCandleRepository;
+import com.example.data_collector_service.repository.PriceRollupBatchRepository;
+import com.example.data_collector_service.repository.PriceRollupRepository;
+import com.example.data_collector_service.rollup.RollupInterval;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * PriceRollupService
+ *
+ * 범위 조회용 다중 해상도 집계(price_rollup)를 증분으로 유지합니다.
+ * - HOUR: 몇 분마다 최근 시간대의 분봉(minute_candle)을 다시 집계 (INSERT ... SELECT 한 문장)
+ * - DAY/WEEK/MONTH: 매일 History 이관/정리 뒤 최근 rebuild-days일이 걸친 주/월을 일별 History에서 다시 집계
+ *   (DB의 warm 데이터와 아카이브의 cold 데이터를 합쳐 읽으므로 DB에서 지워진 기간도 집계에 남음)
+ *   일별 History에는 거래량이 없으므로 DAY/WEEK/MONTH의 거래량은 0이 아닌 null(알 수 없음)로 저장합니다.
+ * 시장별로 집계가 하나도 없으면(처음 켠 경우) 가장 오래된 History부터 전체 기간을 한 달씩 집계합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceRollupService {
+
+    private final PriceRollupRepository rollupRepository;
+    private final PriceRollupBatchRepository rollupBatchRepository;
+    private final MinuteCandleRepository minuteCandleRepository;
+    private final KoreanHistoryStockRepository koreanHistoryRepo;
+    private final GlobalHistoryStockRepository globalHistoryRepo;
+    private final HistoryForexRepository historyForexRepository;
+    private final HistoryArchive historyArchive;
+
+    @Value("${collector.rollups.enabled:true}")
+    private boolean enabled;
+
+    @Value("${collector.rollups.hourly-lag-minutes:10}")
+    private int hourlyLagMinutes;
+
+    @Value("${collector.rollups.rebuild-days:14}")
+    private int rebuildDays;
+
+    // 다음 시간 단위 집계 시작 시각 (null이면 저장된 집계/분봉에서 계산)
+    private LocalDateTime hourlyFrom;
+
+    /**
+     * 시장별 일별 History 출처 (DB 조회, 아카이브 테이블, 가장 오래된 DB 날짜)
+     */
+    private record HistorySource(HistoryArchive.Table table,
+                                 BiFunction<LocalDate, LocalDate, List<ArchivedHistory>> finder,
+                                 Supplier<Optional<LocalDate>> oldest) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) {
+            log.info("[PriceRollupService] 비활성화 상태 (collector.rollups.enabled=false)");
+            return;
+        }
+        refreshDaily();
+    }
+
+    /**
+     * 최근 시간대 분봉을 시간 단위로 다시 집계합니다.
+     * 늦게 저장되는 분봉을 반영하도록 (현재 - hourly-lag-minutes)가 속한 시간부터 다시 집계합니다.
+     */
+    @Scheduled(fixedDelayString = "${collector.rollups.hourly-interval-ms:300000}")
+    public synchronized void refreshHourly() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            LocalDateTime from = hourlyFrom != null ? hourlyFrom : initialHourlyFrom();
+            if (from == null) {
+                return;
+            }
+            int affected = rollupBatchRepository.upsertHourlyFromMinuteCandles(from, now);
+            hourlyFrom = RollupInterval.HOUR.bucketStart(now.minusMinutes(hourlyLagMinutes));
+            log.debug("[PriceRollupService] 시간 단위 집계 ({} ~ {}) - {}행", from, now, affected);
+        } catch (Exception e) {
+            // 다음 주기에 같은 시작 시각부터 다시 시도
+            log.error("[PriceRollupService] 시간 단위 집계 실패", e);
+        }
+    }
+
+    /**
+     * 일별 History에서 DAY/WEEK/MONTH 집계를 갱신합니다. (History 이관 07:00, 아카이브 이관 07:10 이후)
+     */
+    @Scheduled(cron = "${collector.rollups.daily-cron:0 30 7 * * *}", zone = "Asia/Seoul")
+    public void refreshDaily() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (CandleMarket market : CandleMarket.values()) {
+            try {
+                HistorySource source = source(market);
+                LocalDate from = rollupRepository.existsByMarketAndResolution(market, RollupInterval.DAY)
+                        ? today.minusDays(rebuildDays)
+                        : oldestHistoryDate(source);
+                if (from == null) {
+                    continue;
+                }
+                int written = rebuild(market, source, from, today);
+                log.info("[PriceRollupService] {} 일/주/월 집계 갱신 ({} ~ {}) - {}행", market, from, today, written);
+            } catch (Exception e) {
+                log.error("[PriceRollupService] {} 일/주/월 집계 실패", market, e);
+            }
+        }
+    }
+
+    // 저장된 가장 최근 시간 집계부터, 없으면 가장 오래된 분봉부터
+    private LocalDateTime initialHourlyFrom() {
+        Optional<LocalDateTime> latest = rollupRepository.findFirstByResolutionOrderByBucketStartDesc(RollupInterval.HOUR)
+                .map(PriceRollup::getBucketStart);
+        if (latest.isPresent()) {
+            return latest.get();
+        }
+        return minuteCandleRepository.findFirstByOrderByBucketStartAsc()
+                .map(candle -> RollupInterval.HOUR.bucketStart(candle.getBucketStart()))
+                .orElse(null);
+    }
+
+    private HistorySource source(CandleMarket market) {
+        switch (market) {
+            case KOREAN:
+                return new HistorySource(HistoryArchive.Table.KOREAN_HISTORY_STOCK,
+                        (start, end) -> koreanHistoryRepo.findByTimestampBetween(start, end).stream().map(ArchivedHistory::of).toList(),
+                        () -> koreanHistoryRepo.findFirstByOrderByTimestampAsc().map(KoreanHistoryStock::getTimestamp));
+            case GLOBAL:
+                return new HistorySource(HistoryArchive.Table.GLOBAL_HISTORY_STOCK,
+                        (start, end) -> globalHistoryRepo.findByTimestampBetween(start, end).stream().map(ArchivedHistory::of).toList(),
+                        () -> globalHistoryRepo.findFirstByOrderByTimestampAsc().map(GlobalHistoryStock::getTimestamp));
+            default:
+                return new HistorySource(HistoryArchive.Table.HISTORY_FOREX,
+                        (start, end) -> historyForexRepository.findByDateBetween(start, end).stream().map(ArchivedHistory::of).toList(),
+                        () -> historyForexRepository.findFirstByOrderByDateAsc().map(HistoryForex::getDate));
+        }
+    }
+
+    // 아카이브와 DB 중 더 오래된 날짜 (둘 다 없으면 null)
+    private LocalDate oldestHistoryDate(HistorySource source) {
+        LocalDate archived = historyArchive.oldestMonth(source.table()).map(month -> month.atDay(1)).orElse(null);
+        LocalDate warm = source.oldest().get().orElse(null);
+        if (archived == null || warm == null) {
+            return archived != null ? archived : warm;
+        }
+        return archived.isBefore(warm) ? archived : warm;
+    }
+
+    /**
+     * from이 속한 달부터 to까지 한 달씩 일별 History를 읽어 DAY/WEEK/MONTH 집계를 다시 씁니다.
+     * 각 달은 1일이 속한 주의 월요일부터 읽으므로 달 경계에 걸친 주도 빠짐없이 집계됩니다.
+     * (달 끝에 걸친 주는 다음 달을 처리할 때 전체 기간으로 다시 씀)
+     *
+     * @return 저장한 집계 행 수
+     */
+    private int rebuild(CandleMarket market, HistorySource source, LocalDate from, LocalDate to) {
+        int written = 0;
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            LocalDate monthStart = month.atDay(1);
+            LocalDate readStart = monthStart.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            LocalDate readEnd = month.atEndOfMonth().isBefore(to) ? month.atEndOfMonth() : to;
+
+            // 같은 (종목, 날짜)는 DB 우선
+            Map<String, ArchivedHistory> rows = new LinkedHashMap<>();
+            for (ArchivedHistory row : historyArchive.readAll(source.table(), readStart, readEnd)) {
+                rows.put(row.symbol() + '|' + row.date(), row);
+            }
+            for (ArchivedHistory row : source.finder().apply(readStart, readEnd)) {
+                rows.put(row.symbol() + '|' + row.date(), row);
+            }
+            List<PriceRollup> rollups = aggregate(market, new ArrayList<>(rows.values()), monthStart);
+            if (!rollups.isEmpty()) {
+                written += rollupBatchRepository.upsertRollups(rollups);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 일별 행을 종목/날짜순으로 DAY, WEEK, MONTH 구간에 접어 넣습니다. (MONTH는 monthStart 이후 행만)
+     */
+    static List<PriceRollup> aggregate(CandleMarket market, List<ArchivedHistory> rows, LocalDate monthStart) {
+        rows.sort(Comparator.comparing(ArchivedHistory::symbol).thenComparing(ArchivedHistory::date));
+        Map<String, PriceRollup> buckets = new LinkedHashMap<>();
+        for (ArchivedHistory row : rows) {
+            if (row.closePrice() == null) {
+                continue;
+            }
+            fold(buckets, market, RollupInterval.DAY, row);
+            fold(buckets, market, RollupInterval.WEEK, row);
+            if (!row.date().isBefore(monthStart)) {
+                fold(buckets, market, RollupInterval.MONTH, row);
+            }
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    // 시가/고가/저가가 없는 행(환율, 집계 컬럼 추가 전 History)은 종가로 채움
+    private static void fold(Map<String, PriceRollup> buckets, CandleMarket market, RollupInterval interval, ArchivedHistory row) {
+        LocalDateTime bucketStart = interval.bucketStart(row.date().atStartOfDay());
+        BigDecimal close = row.closePrice();
+        BigDecimal high = row.highPrice() != null ? row.highPrice() : close;
+        BigDecimal low = row.lowPrice() != null ? row.lowPrice() : close;
+        int ticks = row.tickCount() != null ? row.tickCount() : 0;
+
+        String key = row.symbol() + '|' + interval + '|' + bucketStart;
+        PriceRollup bucket = buckets.get(key);
+        if (bucket == null) {
+            buckets.put(key, PriceRollup.builder()
+                    .market(market)
+                    .symbol(row.symbol())
+                    .resolution(interval)
+                    .bucketStart(bucketStart)
+                    .openPrice(row.openPrice() != null ? row.openPrice() : close)
+                    .highPrice(high)
+                    .lowPrice(low)
+                    .closePrice(close)
+                    .volume(null)
+                    .tickCount(ticks)
+                    .build());
+            return;
+        }
+        bucket.setHighPrice(bucket.getHighPrice().max(high));
+        bucket.setLowPrice(bucket.getLowPrice().min(low));
+        bucket.setClosePrice(close);
+        bucket.setTickCount(bucket.getTickCount() + ticks);
+    }
+}
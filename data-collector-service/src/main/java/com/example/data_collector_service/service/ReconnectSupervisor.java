@@ -0,0 +1,250 @@
+package com.example.data_collector_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ReconnectSupervisor
+ *
+ * WebSocket 피드(KIS 국내 주식 세션, TwelveData 환율)의 연결 상태를 감시하고, 끊기면 다시 연결합니다.
+ *
+ * - 재연결: 지터를 섞은 지수 백오프 (base-delay-ms * 2^시도횟수, 최대 max-delay-ms)
+ * - 생존 확인: heartbeat-timeout-ms 동안 아무 메시지도 받지 못하면 연결을 끊고 재연결
+ * - 재구독: 재연결 액션이 연결을 다시 열면, 각 피드가 onOpen에서 보유한 구독을 모두 다시 요청
+ *
+ * [메트릭]
+ * - collector.feed.recovery      : 연결이 끊긴 시점부터 다시 열릴 때까지 걸린 시간 (Timer)
+ * - collector.feed.missed.ticks  : 끊겨 있던 동안 놓친 것으로 추정되는 메시지 수 (직전 수신 속도 x 끊긴 시간)
+ * - collector.feed.reconnects    : 재연결 시도 횟수
+ * - collector.feed.connected     : 현재 연결 여부 (1/0)
+ */
+@Slf4j
+@Component
+public class ReconnectSupervisor {
+
+    private final MeterRegistry meterRegistry;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long heartbeatTimeoutMillis;
+    private final long checkIntervalMillis;
+
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "feed-reconnect-supervisor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReconnectSupervisor(MeterRegistry meterRegistry,
+                               @Value("${collector.reconnect.base-delay-ms:1000}") long baseDelayMillis,
+                               @Value("${collector.reconnect.max-delay-ms:60000}") long maxDelayMillis,
+                               @Value("${collector.reconnect.heartbeat-timeout-ms:60000}") long heartbeatTimeoutMillis,
+                               @Value("${collector.reconnect.check-interval-ms:5000}") long checkIntervalMillis) {
+        this.meterRegistry = meterRegistry;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+        scheduler.scheduleWithFixedDelay(this::checkAll, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 감시할 연결을 등록합니다.
+     *
+     * @param feed      피드 이름 (메트릭 태그, 예: "kis-0", "twelvedata")
+     * @param reconnect 새 연결을 여는 동작 (성공 여부는 피드가 opened()/disconnected()로 알림)
+     * @param close     응답이 없는 연결을 강제로 끊는 동작 (끊긴 뒤 피드가 disconnected()를 호출해야 함)
+     * @param heartbeat 감시 주기마다 호출할 하트비트 전송 동작 (필요 없으면 null)
+     * @param enabled   false면 재연결/생존 확인을 하지 않음 (예: 장 마감 후)
+     */
+    public Connection register(String feed, Runnable reconnect, Runnable close, Runnable heartbeat, BooleanSupplier enabled) {
+        Connection connection = new Connection(feed, reconnect, close, heartbeat, enabled);
+        connections.add(connection);
+        return connection;
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void checkAll() {
+        for (Connection connection : connections) {
+            try {
+                connection.check();
+            } catch (Exception e) {
+                log.error("[ReconnectSupervisor] {} 상태 확인 중 오류", connection.feed, e);
+            }
+        }
+    }
+
+    /**
+     * 감시 대상 연결 하나의 상태 (피드의 WebSocket 콜백에서 opened/received/disconnected를 호출)
+     */
+    public final class Connection {
+
+        private final String feed;
+        private final Runnable reconnect;
+        private final Runnable close;
+        private final Runnable heartbeat;
+        private final BooleanSupplier enabled;
+
+        private final Timer recoveryTimer;
+        private final Counter missedTicks;
+        private final Counter reconnects;
+
+        private volatile boolean connected;
+        private volatile long lastMessageAt = System.currentTimeMillis();
+        // 끊긴 시각 (0이면 끊긴 적 없음 / 이미 복구됨)
+        private long disconnectedAt;
+        private int attempt;
+        private ScheduledFuture<?> pendingReconnect;
+
+        // 수신 속도(초당 메시지 수) 지수 이동 평균, 놓친 tick 추정에 사용
+        private final AtomicLong receivedSinceSample = new AtomicLong();
+        private volatile double messagesPerSecond;
+
+        private Connection(String feed, Runnable reconnect, Runnable close, Runnable heartbeat, BooleanSupplier enabled) {
+            this.feed = feed;
+            this.reconnect = reconnect;
+            this.close = close;
+            this.heartbeat = heartbeat;
+            this.enabled = enabled;
+            this.recoveryTimer = Timer.builder("collector.feed.recovery").tag("feed", feed)
+                    .description("연결이 끊긴 뒤 다시 열릴 때까지 걸린 시간").register(meterRegistry);
+            this.missedTicks = Counter.builder("collector.feed.missed.ticks").tag("feed", feed)
+                    .description("연결이 끊긴 동안 놓친 것으로 추정되는 메시지 수").register(meterRegistry);
+            this.reconnects = Counter.builder("collector.feed.reconnects").tag("feed", feed)
+                    .description("재연결 시도 횟수").register(meterRegistry);
+            Gauge.builder("collector.feed.connected", this, c -> c.connected ? 1 : 0).tag("feed", feed)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * 연결이 열렸을 때 호출 (끊긴 상태였다면 복구 시간과 놓친 메시지 수를 기록)
+         */
+        public synchronized void opened() {
+            connected = true;
+            lastMessageAt = System.currentTimeMillis();
+            attempt = 0;
+            if (pendingReconnect != null) {
+                pendingReconnect.cancel(false);
+                pendingReconnect = null;
+            }
+            if (disconnectedAt > 0) {
+                long outageMillis = System.currentTimeMillis() - disconnectedAt;
+                long missed = Math.round(messagesPerSecond * outageMillis / 1000.0);
+                recoveryTimer.record(Duration.ofMillis(outageMillis));
+                missedTicks.increment(missed);
+                disconnectedAt = 0;
+                log.info("[ReconnectSupervisor] {} 연결 복구 - 소요 {}ms, 추정 누락 메시지 {}건", feed, outageMillis, missed);
+            }
+        }
+
+        /**
+         * 메시지를 받을 때마다 호출 (ticks: 그 메시지에 담긴 체결 건수, 제어 메시지면 0)
+         */
+        public void received(int ticks) {
+            lastMessageAt = System.currentTimeMillis();
+            if (ticks > 0) {
+                receivedSinceSample.addAndGet(ticks);
+            }
+        }
+
+        /**
+         * 연결이 끊겼을 때 호출 (onFailure/onClosed), 백오프 후 재연결을 예약합니다.
+         */
+        public synchronized void disconnected() {
+            if (connected || disconnectedAt == 0) {
+                disconnectedAt = System.currentTimeMillis();
+            }
+            connected = false;
+            scheduleReconnect();
+        }
+
+        public boolean isConnected() {
+            return connected;
+        }
+
+        private synchronized void scheduleReconnect() {
+            if (pendingReconnect != null && !pendingReconnect.isDone()) {
+                return;
+            }
+            long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 20));
+            // equal jitter: 지연의 절반은 고정, 나머지 절반은 무작위 (여러 세션이 동시에 재연결하지 않도록)
+            long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+            attempt++;
+            log.warn("[ReconnectSupervisor] {} 연결 끊김 - {}ms 후 재연결 시도 ({}회차)", feed, delay, attempt);
+            pendingReconnect = scheduler.schedule(this::attemptReconnect, delay, TimeUnit.MILLISECONDS);
+        }
+
+        private void attemptReconnect() {
+            synchronized (this) {
+                pendingReconnect = null;
+                if (connected) {
+                    return;
+                }
+            }
+            if (!enabled.getAsBoolean()) {
+                // 비활성 시간대에는 재시도하지 않고, 주기 점검(check)에서 다시 활성화되면 재연결
+                log.info("[ReconnectSupervisor] {} 비활성 시간대이므로 재연결을 보류합니다.", feed);
+                return;
+            }
+            reconnects.increment();
+            try {
+                reconnect.run();
+            } catch (Exception e) {
+                log.error("[ReconnectSupervisor] {} 재연결 실패", feed, e);
+                synchronized (this) {
+                    scheduleReconnect();
+                }
+            }
+        }
+
+        /**
+         * 감시 주기마다 호출: 수신 속도 갱신, 하트비트 전송, 응답 없는 연결 정리, 보류된 재연결 재개
+         */
+        private void check() {
+            double sample = receivedSinceSample.getAndSet(0) * 1000.0 / checkIntervalMillis;
+            if (connected) {
+                messagesPerSecond = messagesPerSecond * 0.8 + sample * 0.2;
+            }
+            if (!enabled.getAsBoolean()) {
+                return;
+            }
+            if (!connected) {
+                synchronized (this) {
+                    if (disconnectedAt > 0) {
+                        scheduleReconnect();
+                    }
+                }
+                return;
+            }
+            if (heartbeat != null) {
+                heartbeat.run();
+            }
+            long silentMillis = System.currentTimeMillis() - lastMessageAt;
+            if (silentMillis > heartbeatTimeoutMillis) {
+                log.warn("[ReconnectSupervisor] {} {}ms 동안 수신 없음 - 연결을 끊고 재연결합니다.", feed, silentMillis);
+                close.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.data_collector_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * RefreshingCredential
+ *
+ * 만료 전에 백그라운드에서 미리 재발급(refresh-ahead)하는 KIS 자격 증명(접근 토큰, 접속키) 보관소입니다.
+ *
+ * - 발급 후 refreshAfter가 지나면 전용 스레드에서 재발급하고, 그동안 get()은 아직 유효한 기존 값을 바로 반환
+ * - 유효한 값이 하나도 없을 때(최초 기동, 완전 만료)만 호출자가 발급 완료를 최대 initialWait까지 기다림
+ * - 발급 제한(RateLimitedException)은 지정된 시간 뒤, 그 밖의 실패는 지수 백오프로 재시도 (락을 잡고 대기하지 않음)
+ *
+ * 메트릭 (태그 credential=이름)
+ * - collector.credential.age     : 현재 값이 발급된 뒤 지난 시간(초)
+ * - collector.credential.ttl     : 현재 값의 남은 유효 시간(초)
+ * - collector.credential.refresh : 발급 요청 소요 시간 (태그 outcome=success/failure)
+ */
+@Slf4j
+final class RefreshingCredential {
+
+    private static final Duration MIN_RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+    /**
+     * 발급된 자격 증명과 발급/만료 시각
+     */
+    record Issued(String value, Instant issuedAt, Instant expiresAt) {
+
+        boolean usableAt(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+
+    @FunctionalInterface
+    interface Issuer {
+        Issued issue() throws Exception;
+    }
+
+    /**
+     * 발급 한도에 걸려 retryAfter 뒤에 다시 시도해야 함을 알리는 예외
+     */
+    static final class RateLimitedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final Duration retryAfter;
+
+        RateLimitedException(String message, Duration retryAfter) {
+            super(message);
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    private final String name;
+    private final Issuer issuer;
+    private final Duration refreshAfter;
+    private final Duration initialWait;
+    private final ScheduledExecutorService executor;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    private volatile Issued current;
+    // 진행 중인 발급 (없으면 null), this로 보호
+    private CompletableFuture<Issued> inFlight;
+    private int consecutiveFailures;
+    // 실패 후 다음 발급 시도가 허용되는 시각 (이전에는 get()이 재발급을 당겨도 기다림), this로 보호
+    private long nextAttemptAtMillis;
+
+    RefreshingCredential(String name, Issuer issuer, Duration refreshAfter, Duration initialWait,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.issuer = issuer;
+        this.refreshAfter = refreshAfter;
+        this.initialWait = initialWait;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credential-refresh-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("collector.credential.age", this, credential -> credential.secondsSinceIssued())
+                .tag("credential", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("collector.credential.ttl", this, credential -> credential.secondsUntilExpiry())
+                .tag("credential", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.successTimer = Timer.builder("collector.credential.refresh")
+                .tags("credential", name, "outcome", "success")
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder("collector.credential.refresh")
+                .tags("credential", name, "outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 백그라운드 발급을 시작합니다. (애플리케이션 기동 시 1회, 첫 호출 전에 미리 발급)
+     */
+    void start() {
+        refreshAsync();
+    }
+
+    /**
+     * 이전 실행에서 저장해 둔 값으로 시작합니다.
+     * 아직 유효하면 새로 발급하지 않고 그대로 사용하며, 재발급은 원래 발급 시각 + refreshAfter에 예약합니다.
+     */
+    void start(Issued cached) {
+        Instant now = Instant.now();
+        if (cached == null || !cached.usableAt(now)) {
+            start();
+            return;
+        }
+        current = cached;
+        Duration untilRefresh = Duration.between(now, cached.issuedAt().plus(refreshAfter));
+        executor.schedule(this::refreshAsync, Math.max(0, untilRefresh.toMillis()), TimeUnit.MILLISECONDS);
+        log.info("[RefreshingCredential] {} 저장된 값 사용 - 만료 {}, 다음 재발급까지 {}분",
+                name, cached.expiresAt(), Math.max(0, untilRefresh.toMinutes()));
+    }
+
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 현재 유효한 값을 반환합니다. 유효한 값이 없으면 발급이 끝날 때까지 최대 initialWait만큼 기다립니다.
+     */
+    String get() {
+        Issued issued = current;
+        Instant now = Instant.now();
+        if (issued != null && issued.usableAt(now)) {
+            if (!now.isBefore(issued.issuedAt().plus(refreshAfter))) {
+                // 예약된 재발급이 아직 끝나지 않았으면 기존 값을 그대로 사용
+                refreshAsync();
+            }
+            return issued.value();
+        }
+
+        try {
+            return refreshAsync().get(initialWait.toMillis(), TimeUnit.MILLISECONDS).value();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(name + " 발급 대기 시간 초과 (" + initialWait.toSeconds() + "초)", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(name + " 발급 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " 발급 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * 진행 중인 발급이 없으면 새 발급을 예약하고, 완료 시점을 알려 주는 future를 반환합니다.
+     * (직전 발급이 실패했다면 백오프 시각까지 기다렸다가 시도)
+     */
+    synchronized CompletableFuture<Issued> refreshAsync() {
+        if (inFlight == null) {
+            CompletableFuture<Issued> future = new CompletableFuture<>();
+            inFlight = future;
+            long delayMillis = Math.max(0, nextAttemptAtMillis - System.currentTimeMillis());
+            executor.schedule(() -> attempt(future), delayMillis, TimeUnit.MILLISECONDS);
+        }
+        return inFlight;
+    }
+
+    private void attempt(CompletableFuture<Issued> future) {
+        long startNanos = System.nanoTime();
+        try {
+            Issued issued = issuer.issue();
+            successTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            current = issued;
+            synchronized (this) {
+                consecutiveFailures = 0;
+                inFlight = null;
+            }
+            future.complete(issued);
+            Duration untilRefresh = Duration.between(Instant.now(), issued.issuedAt().plus(refreshAfter));
+            executor.schedule(this::refreshAsync, Math.max(0, untilRefresh.toMillis()), TimeUnit.MILLISECONDS);
+            log.info("[RefreshingCredential] {} 발급 완료 - 만료 {}, 다음 재발급까지 {}분",
+                    name, issued.expiresAt(), untilRefresh.toMinutes());
+        } catch (Exception e) {
+            failureTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            Duration delay;
+            synchronized (this) {
+                consecutiveFailures++;
+                delay = e instanceof RateLimitedException limited
+                        ? limited.retryAfter
+                        : backoff(consecutiveFailures);
+            }
+            if (e instanceof RateLimitedException) {
+                // 발급 한도는 기다리면 풀리므로 대기 중인 호출자도 계속 기다리게 둠
+                log.warn("[RefreshingCredential] {} 발급 제한: {}. {}초 후 재시도", name, e.getMessage(), delay.toSeconds());
+                executor.schedule(() -> attempt(future), delay.toMillis(), TimeUnit.MILLISECONDS);
+                return;
+            }
+            log.error("[RefreshingCredential] {} 발급 실패 ({}회 연속): {}. {}초 후 재시도",
+                    name, consecutiveFailures, e.getMessage(), delay.toSeconds());
+            synchronized (this) {
+                nextAttemptAtMillis = System.currentTimeMillis() + delay.toMillis();
+                inFlight = null;
+            }
+            future.completeExceptionally(e);
+            executor.schedule(this::refreshAsync, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Duration backoff(int failures) {
+        long millis = MIN_RETRY_DELAY.toMillis() << Math.min(failures - 1, 16);
+        return Duration.ofMillis(Math.min(millis, MAX_RETRY_DELAY.toMillis()));
+    }
+
+    private double secondsSinceIssued() {
+        Issued issued = current;
+        return issued == null ? Double.NaN : Duration.between(issued.issuedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+
+    private double secondsUntilExpiry() {
+        Issued issued = current;
+        return issued == null ? Double.NaN : Duration.between(Instant.now(), issued.expiresAt()).toMillis() / 1000.0;
+    }
+}
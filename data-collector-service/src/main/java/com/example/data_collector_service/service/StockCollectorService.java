@@ -1,19 +1,24 @@
 package com.example.data_collector_service.service;
 
-import com.example.data_collector_service.repository.KreanStockMasterRepository;
+import com.example.data_collector_service.entity.GlobalDailyStock;
+import com.example.data_collector_service.service.GlobalStockApiService.ForeignStockInfo;
+import com.example.data_collector_service.util.MarketTimeChecker;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StockCollectorService {
 
     private final KoreanStockWebSocketService koreanStockWebSocketService;
-    private final KreanStockMasterRepository kreanStockMasterRepository;
+    private final StockMasterDictionary stockMaster;
     private final GlobalStockApiService globalStockApiService;
+    private final OverseasPollingPlanner pollingPlanner;
 
     @PostConstruct  // 애플리케이션 시작 후 국내 주식 구독 자동 호출
     public void init() {
@@ -25,30 +30,30 @@ public class StockCollectorService {
      * - 애플리케이션 시작 시 전체 종목에 대해 subscribe
      */
     public void subscribeAllKoreanStocks() {
-        kreanStockMasterRepository.findAll().forEach(master -> {
-            String code = master.getStockCode();
+        stockMaster.stockCodes().forEach(code -> {
             log.info("[StockCollectorService] 국내 종목 WebSocket 구독: {}", code);
             koreanStockWebSocketService.subscribeKoreanStock(code);
         });
     }
 
     /**
-     * 해외 글로벌 시장 REST API 조회
-     * - 글로벌 시장(미국 등)의 데이터를 가져옵니다.
-     */
-    public void fetchAllOverseasStocksForGlobal() {
-        log.info("[StockCollectorService] 글로벌 시장 해외 종목 REST API 호출 시작");
-        globalStockApiService.fetchForeignStocksByMarket("GLOBAL");
-        log.info("[StockCollectorService] 글로벌 시장 해외 종목 REST API 호출 완료");
-    }
-
-    /**
-     * 해외 홍콩 시장 REST API 조회
-     * - 홍콩 시장의 데이터를 가져옵니다.
+     * 해외 종목 적응형 조회
+     * - 장이 열린 시장(미국/홍콩)의 종목 중 OverseasPollingPlanner가 고른 종목만 조회합니다.
+     * - 수신한 시세로 플래너의 종목별 변동성/변경 시각을 갱신합니다.
      */
-    public void fetchAllOverseasStocksForHongKong() {
-        log.info("[StockCollectorService] 홍콩 시장 해외 종목 REST API 호출 시작");
-        globalStockApiService.fetchForeignStocksByMarket("HKS");
-        log.info("[StockCollectorService] 홍콩 시장 해외 종목 REST API 호출 완료");
+    public void pollDueOverseasStocks() {
+        boolean usOpen = MarketTimeChecker.isUSMarketOpen();
+        boolean hongKongOpen = MarketTimeChecker.isHongKongMarketOpen();
+        if (!usOpen && !hongKongOpen) {
+            return;
+        }
+        List<ForeignStockInfo> due = pollingPlanner.dueSymbols(stock -> "HKS".equalsIgnoreCase(stock.getExchangeCode())
+                ? hongKongOpen
+                : usOpen, System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        List<GlobalDailyStock> quotes = globalStockApiService.fetchAndSave("POLL", due);
+        pollingPlanner.onQuotes(quotes, System.currentTimeMillis());
     }
 }
@@ -0,0 +1,96 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.buffer.SymbolTable;
+import com.example.data_collector_service.entity.KreanStockMaster;
+import com.example.data_collector_service.repository.KreanStockMasterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * StockMasterDictionary
+ *
+ * 국내 종목 마스터(KreanStockMaster) 전체를 메모리에 올려 두는 종목코드 -> 종목명 사전입니다.
+ * 종목 코드를 SymbolTable에 미리 등록하고, 종목명을 종목 id 순서의 배열로 보관하므로
+ * 수신/저장 경로에서는 마스터 테이블을 조회하지 않습니다.
+ *
+ * - 애플리케이션 시작 시 전체 로드
+ * - 매일 장 시작 전(collector.master.refresh-cron) 또는 refresh() 호출 시 다시 로드
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockMasterDictionary {
+
+    private final KreanStockMasterRepository kreanStockMasterRepo;
+    private final SymbolTable symbolTable;
+
+    // 종목 id(SymbolTable) -> 종목명 (갱신 시 배열을 통째로 교체)
+    private volatile String[] namesById = new String[0];
+    // 마스터에 등록된 종목 코드 목록 (구독 대상)
+    private volatile List<String> stockCodes = List.of();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // 로드에 실패해도 빈 사전으로 동작 (종목명은 "미매핑"으로 저장됨)
+            log.error("[StockMasterDictionary] 종목 마스터 로드 실패, 빈 사전으로 시작합니다.", e);
+        }
+    }
+
+    /**
+     * 종목 마스터를 다시 읽어 사전을 교체합니다.
+     * 새로 추가된 종목은 SymbolTable에 등록만 되며, WebSocket 구독은 다음 재시작(또는 별도 구독 호출) 시 반영됩니다.
+     *
+     * @return 사전에 적재된 종목 수
+     */
+    public synchronized int refresh() {
+        List<KreanStockMaster> masters = kreanStockMasterRepo.findAll();
+        // 등록을 먼저 끝내야 배열 크기가 모든 id를 덮음
+        masters.forEach(master -> symbolTable.register(master.getStockCode()));
+
+        String[] names = new String[symbolTable.size()];
+        for (KreanStockMaster master : masters) {
+            names[symbolTable.lookup(master.getStockCode())] = master.getStockName();
+        }
+        namesById = names;
+        stockCodes = masters.stream().map(KreanStockMaster::getStockCode).toList();
+        log.info("[StockMasterDictionary] 종목 마스터 로드 완료 - {}종목", masters.size());
+        return masters.size();
+    }
+
+    // 매일 장 시작 전 종목 마스터 재적재
+    @Scheduled(cron = "${collector.master.refresh-cron:0 30 7 * * *}", zone = "Asia/Seoul")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("[StockMasterDictionary] 종목 마스터 갱신 실패, 기존 사전을 유지합니다.", e);
+        }
+    }
+
+    /**
+     * 종목 id에 해당하는 종목명을 반환합니다. 마스터에 없으면 null.
+     */
+    public String nameOf(int id) {
+        String[] names = namesById;
+        return id >= 0 && id < names.length ? names[id] : null;
+    }
+
+    /**
+     * 종목 코드에 해당하는 종목명을 반환합니다. 마스터에 없으면 null.
+     */
+    public String nameOf(String stockCode) {
+        return nameOf(symbolTable.lookup(stockCode));
+    }
+
+    public List<String> stockCodes() {
+        return stockCodes;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.data_collector_service.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * SwingingDoorCompressor
+ *
+ * 장중 시세를 Daily 테이블에 넣기 전에 종목별로 솎아 내는 swinging-door(데드밴드) 압축기입니다.
+ * 마지막 저장 지점에서 이후 시세들을 ±deviation 안에 모두 담는 기울기 구간(door)을 유지하다가,
+ * 새 시세로 긋는 직선이 그 구간을 벗어나면 직전 시세(held)만 저장하고 그 지점에서 다시 door를 엽니다.
+ * (새 시세의 기울기 자체가 door 안에 있어야 held로 받으므로, 실제 시세만 저장하면서도 오차 한도가 그대로 보장됨)
+ *
+ * - 저장된 지점을 직선으로 이은 값과 버려진 시세의 차이는 항상 deviation(마지막 저장 가격의 deviation-percent %) 이하
+ * - 마지막 저장 뒤 max-gap이 지나면 door와 무관하게 저장 (차트 공백 방지)
+ * - 시세가 끊긴 종목의 held는 drainStale로 꺼내 저장 (장 마감 직전 마지막 가격 보존)
+ * - 비활성화(enabled=false)하면 기존처럼 마지막 저장 가격과 다를 때만 통과
+ *
+ * payload는 저장할 엔티티이며, 저장 대상이 되면 sink로 시간순으로 넘깁니다.
+ *
+ * [트랜잭션]
+ * door 상태는 begin()으로 연 Batch 안에서만 바뀌며 end(batch, true)를 호출해야 다른 호출에 보입니다.
+ * 저장이 롤백되면 end(batch, false)로 버려 같은 시세를 다음 저장에서 다시 판단합니다.
+ * begin ~ end 동안 락을 잡으므로 같은 압축기를 쓰는 저장끼리는 순서대로 실행됩니다. (end는 begin한 스레드에서 호출)
+ *
+ * [재처리 위치]
+ * held는 아직 저장되지 않았으므로, 시세마다 넘긴 position(예: 저널 시퀀스) 중 held의 가장 작은 값을
+ * oldestHeldPosition()으로 알려 호출자가 그 이후를 다시 받을 수 있도록 체크포인트를 늦추게 합니다.
+ */
+final class SwingingDoorCompressor<T> {
+
+    /**
+     * 종목 하나의 door 상태
+     */
+    private static final class Door<T> {
+        LocalDateTime archivedAt;   // 마지막 저장 시각
+        double archivedPrice;       // 마지막 저장 가격
+        double deviation;           // 허용 오차 (마지막 저장 가격 기준)
+        double maxLowerSlope;
+        double minUpperSlope;
+        // 아직 저장하지 않은 마지막 시세 (없으면 null)
+        T held;
+        LocalDateTime heldAt;
+        double heldPrice;
+        long heldPosition;
+
+        Door<T> copy() {
+            Door<T> copy = new Door<>();
+            copy.archivedAt = archivedAt;
+            copy.archivedPrice = archivedPrice;
+            copy.deviation = deviation;
+            copy.maxLowerSlope = maxLowerSlope;
+            copy.minUpperSlope = minUpperSlope;
+            copy.held = held;
+            copy.heldAt = heldAt;
+            copy.heldPrice = heldPrice;
+            copy.heldPosition = heldPosition;
+            return copy;
+        }
+    }
+
+    /**
+     * 한 번의 저장 동안 바뀐 door 상태 (end(batch, true) 전에는 압축기에 반영되지 않음)
+     */
+    static final class Batch<T> {
+        private final Map<String, Door<T>> touched = new HashMap<>();
+    }
+
+    private final boolean enabled;
+    private final double deviationRatio;
+    private final long maxGapMillis;
+    // 커밋된 door 상태 (lock 보호)
+    private final Map<String, Door<T>> doors = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    SwingingDoorCompressor(boolean enabled, double deviationPercent, long maxGapSeconds) {
+        this.enabled = enabled;
+        this.deviationRatio = deviationPercent / 100.0;
+        this.maxGapMillis = maxGapSeconds * 1000L;
+    }
+
+    /**
+     * 락을 잡고 새 Batch를 엽니다. 반드시 같은 스레드에서 end로 닫아야 합니다.
+     */
+    Batch<T> begin() {
+        lock.lock();
+        return new Batch<>();
+    }
+
+    /**
+     * Batch를 닫습니다. committed가 true면 그동안 바뀐 door 상태를 반영하고, false면 버립니다.
+     */
+    void end(Batch<T> batch, boolean committed) {
+        try {
+            if (committed) {
+                doors.putAll(batch.touched);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 시세 한 건을 판단하고 door 상태를 바로 반영합니다. (롤백이 없는 단건 저장 경로용, 재처리 위치 없음)
+     */
+    void offer(String key, LocalDateTime timestamp, BigDecimal price, T payload,
+               BooleanSupplier matchesLastStored, Consumer<T> sink) {
+        Batch<T> batch = begin();
+        boolean completed = false;
+        try {
+            offer(batch, key, timestamp, price, payload, Long.MAX_VALUE, matchesLastStored, sink);
+            completed = true;
+        } finally {
+            end(batch, completed);
+        }
+    }
+
+    /**
+     * 시세 한 건을 door에 넣고, 저장해야 할 시세가 생기면 sink로 넘깁니다. (0~2건: held, 새 시세)
+     *
+     * @param position          이 시세를 다시 받으려면 재처리를 시작해야 하는 위치 (held로 남으면 oldestHeldPosition에 반영)
+     * @param matchesLastStored 이 종목의 마지막 저장 가격과 같은 시세인지 (비활성화 상태이거나 재기동 후 첫 시세일 때만 평가)
+     */
+    void offer(Batch<T> batch, String key, LocalDateTime timestamp, BigDecimal price, T payload, long position,
+               BooleanSupplier matchesLastStored, Consumer<T> sink) {
+        checkOpen();
+        if (!enabled) {
+            if (!matchesLastStored.getAsBoolean()) {
+                sink.accept(payload);
+            }
+            return;
+        }
+        double value = price.doubleValue();
+        Door<T> door = touch(batch, key);
+        if (door == null) {
+            // 재기동 후 첫 시세: 이미 저장된 가격과 같으면 저장하지 않고 기준점으로만 사용
+            door = new Door<>();
+            batch.touched.put(key, door);
+            archive(door, timestamp, value);
+            if (!matchesLastStored.getAsBoolean()) {
+                sink.accept(payload);
+            }
+            return;
+        }
+
+        if (door.held != null && elapsedMillis(door.archivedAt, timestamp) >= maxGapMillis) {
+            sink.accept(archiveHeld(door));
+        }
+        long elapsed = elapsedMillis(door.archivedAt, timestamp);
+        if (elapsed >= maxGapMillis) {
+            archive(door, timestamp, value);
+            sink.accept(payload);
+            return;
+        }
+        if (elapsed <= 0) {
+            // 같은 시각(또는 시각 역전) 시세는 기울기를 계산할 수 없으므로 오차 범위만 확인
+            if (Math.abs(value - door.archivedPrice) > door.deviation) {
+                archive(door, timestamp, value);
+                sink.accept(payload);
+            }
+            return;
+        }
+
+        double slope = (value - door.archivedPrice) / elapsed;
+        if (slope >= door.maxLowerSlope && slope <= door.minUpperSlope) {
+            // door 안: 저장 지점에서 이 시세까지 그은 직선이 그동안의 시세를 모두 ±deviation 안에 담음, held만 교체
+            door.minUpperSlope = Math.min(door.minUpperSlope, (value + door.deviation - door.archivedPrice) / elapsed);
+            door.maxLowerSlope = Math.max(door.maxLowerSlope, (value - door.deviation - door.archivedPrice) / elapsed);
+            hold(door, payload, timestamp, value, position);
+            return;
+        }
+
+        // door가 닫힘: held를 저장하고 held 지점에서 새 door 시작
+        if (door.held == null) {
+            archive(door, timestamp, value);
+            sink.accept(payload);
+            return;
+        }
+        sink.accept(archiveHeld(door));
+        long sinceHeld = elapsedMillis(door.archivedAt, timestamp);
+        if (sinceHeld <= 0) {
+            archive(door, timestamp, value);
+            sink.accept(payload);
+            return;
+        }
+        door.minUpperSlope = (value + door.deviation - door.archivedPrice) / sinceHeld;
+        door.maxLowerSlope = (value - door.deviation - door.archivedPrice) / sinceHeld;
+        hold(door, payload, timestamp, value, position);
+    }
+
+    /**
+     * drainStale(batch, now)를 실행하고 door 상태를 바로 반영합니다. (롤백이 없는 단건 저장 경로용)
+     */
+    List<T> drainStale(LocalDateTime now) {
+        Batch<T> batch = begin();
+        boolean completed = false;
+        try {
+            List<T> stale = drainStale(batch, now);
+            completed = true;
+            return stale;
+        } finally {
+            end(batch, completed);
+        }
+    }
+
+    /**
+     * 마지막 시세를 받은 뒤 max-gap이 지난 종목의 held를 저장 대상으로 꺼냅니다. (시간순 아님, 종목별 1건)
+     */
+    List<T> drainStale(Batch<T> batch, LocalDateTime now) {
+        checkOpen();
+        List<T> stale = new ArrayList<>();
+        if (!enabled) {
+            return stale;
+        }
+        for (Map.Entry<String, Door<T>> entry : doors.entrySet()) {
+            Door<T> current = batch.touched.getOrDefault(entry.getKey(), entry.getValue());
+            if (current.held != null && elapsedMillis(current.heldAt, now) >= maxGapMillis) {
+                stale.add(archiveHeld(touch(batch, entry.getKey())));
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * 커밋된 held 중 가장 작은 재처리 위치 (held가 없으면 Long.MAX_VALUE)
+     */
+    long oldestHeldPosition() {
+        lock.lock();
+        try {
+            long oldest = Long.MAX_VALUE;
+            for (Door<T> door : doors.values()) {
+                if (door.held != null) {
+                    oldest = Math.min(oldest, door.heldPosition);
+                }
+            }
+            return oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 이번 Batch에서 바꿀 door (처음 바꿀 때 커밋된 상태를 복사, 없으면 null)
+    private Door<T> touch(Batch<T> batch, String key) {
+        Door<T> door = batch.touched.get(key);
+        if (door == null) {
+            Door<T> committed = doors.get(key);
+            if (committed == null) {
+                return null;
+            }
+            door = committed.copy();
+            batch.touched.put(key, door);
+        }
+        return door;
+    }
+
+    private void checkOpen() {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("begin()으로 연 Batch 안에서만 호출할 수 있습니다.");
+        }
+    }
+
+    private T archiveHeld(Door<T> door) {
+        T held = door.held;
+        archive(door, door.heldAt, door.heldPrice);
+        return held;
+    }
+
+    private void archive(Door<T> door, LocalDateTime timestamp, double value) {
+        door.archivedAt = timestamp;
+        door.archivedPrice = value;
+        door.deviation = Math.abs(value) * deviationRatio;
+        door.maxLowerSlope = Double.NEGATIVE_INFINITY;
+        door.minUpperSlope = Double.POSITIVE_INFINITY;
+        door.held = null;
+        door.heldAt = null;
+    }
+
+    private void hold(Door<T> door, T payload, LocalDateTime timestamp, double value, long position) {
+        door.held = payload;
+        door.heldAt = timestamp;
+        door.heldPrice = value;
+        door.heldPosition = position;
+    }
+
+    private static long elapsedMillis(LocalDateTime from, LocalDateTime to) {
+        return ChronoUnit.MILLIS.between(from, to);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.data_collector_service.tsdb;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * TickSeriesStore
+ *
+ * Daily 테이블에 저장된 장중 시세(시각, 가격)를 종목별/일별 압축 세그먼트(TimeSeriesSegment)로도 보관하는 내장 시계열 저장소입니다.
+ * 행마다 종목 코드/이름/BigDecimal/LocalDateTime을 반복 저장하는 대신 포인트당 수 바이트로 줄이고,
+ * 오늘/어제 차트 조회는 DB 범위 조회(findByStockCodeAndTimestampBetween) 대신 세그먼트 하나를 순차 디코딩합니다.
+ *
+ * - 경로: {dir}/{market}/{yyyyMMdd}/{symbol}.gts (종목 코드의 '/'는 '_'로 바꿈, 예: USD_KRW)
+ * - 기록: DB 저장이 커밋된 뒤 같은 시세를 append (DB와 같은 내용을 유지)
+ * - 조회: served-since 날짜 이후만 이 저장소에서 응답하고, 그 전이거나 비활성화 상태면 호출자가 DB를 조회 (scan이 empty)
+ * - 정리: 매일 지난 날짜 세그먼트를 사용한 크기로 줄이고(seal), retention-days가 지난 날짜 디렉터리 삭제
+ *         (정리와 겹쳐 닫힌 세그먼트에 쓰려던 기록은 파일을 다시 열어 이어 씀)
+ *
+ * Daily 테이블은 History 이관/요약 조회를 위해 그대로 유지합니다.
+ * 가격은 KoreanTick과 같이 소수점 4자리 스케일 long으로 기록합니다.
+ */
+@Slf4j
+@Component
+public class TickSeriesStore {
+
+    private static final int PRICE_SCALE = 4;
+    private static final String SERVED_SINCE_FILE = "served-since";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * 조회 결과 포인트 하나
+     */
+    public record SeriesPoint(LocalDateTime timestamp, BigDecimal price) {
+    }
+
+    @Value("${collector.tsdb.enabled:true}")
+    private boolean enabled;
+
+    @Value("${collector.tsdb.dir:./data/tick-series}")
+    private String directory;
+
+    @Value("${collector.tsdb.retention-days:92}")
+    private int retentionDays;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private Path dir;
+    // 이 날짜부터는 하루 전체가 저장소에 기록되어 있음 (처음 켠 날은 중간부터라 다음날부터 응답)
+    private volatile LocalDate servedSince;
+    // 쓰기 중인 세그먼트 (market/yyyyMMdd/symbol -> 세그먼트), this로 보호
+    private final Map<String, TimeSeriesSegment> writers = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("[TickSeriesStore] 비활성화 상태 (collector.tsdb.enabled=false)");
+            return;
+        }
+        try {
+            dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            servedSince = readServedSince();
+            log.info("[TickSeriesStore] 시작 - 경로: {}, {}부터 차트 조회 응답", dir.toAbsolutePath(), servedSince);
+        } catch (IOException e) {
+            // 저장소를 쓰지 못해도 DB 저장/조회는 그대로 동작
+            log.error("[TickSeriesStore] 초기화 실패, 비활성화합니다.", e);
+            enabled = false;
+        }
+    }
+
+    /**
+     * 시세 한 건을 해당 날짜 세그먼트에 추가합니다. (실패해도 예외를 던지지 않음, DB 저장 경로에 영향 없음)
+     */
+    public void append(CandleMarket market, String symbol, LocalDateTime timestamp, BigDecimal price) {
+        if (!enabled || timestamp == null || price == null) {
+            return;
+        }
+        long epochMillis = timestamp.atZone(zone).toInstant().toEpochMilli();
+        long scaledPrice = price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+        try {
+            // sealBefore가 세그먼트를 닫으면서 writers에서도 빼므로, 닫힌 세그먼트를 받았으면 다시 열어 씀
+            TimeSeriesSegment segment;
+            do {
+                segment = writer(market, symbol, timestamp.toLocalDate());
+            } while (!segment.append(epochMillis, scaledPrice));
+        } catch (Exception e) {
+            log.error("[TickSeriesStore] 기록 실패 - {}/{} {}", market, symbol, timestamp, e);
+        }
+    }
+
+    /**
+     * from ~ to(포함) 범위의 포인트를 시각순으로 조회합니다.
+     *
+     * @return 이 저장소가 범위 전체를 담고 있지 않으면(비활성화, served-since 이전) empty - 호출자가 DB 조회
+     */
+    public Optional<List<SeriesPoint>> scan(CandleMarket market, String symbol, LocalDateTime from, LocalDateTime to) {
+        LocalDate since = servedSince;
+        if (!enabled || since == null || from.toLocalDate().isBefore(since)) {
+            return Optional.empty();
+        }
+        long fromMillis = from.atZone(zone).toInstant().toEpochMilli();
+        long toMillis = to.atZone(zone).toInstant().toEpochMilli();
+        List<SeriesPoint> points = new ArrayList<>();
+        try {
+            for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+                TimeSeriesSegment segment = existingSegment(market, symbol, day);
+                if (segment == null) {
+                    continue;
+                }
+                segment.scan(fromMillis, toMillis, (epochMillis, scaledPrice) -> points.add(new SeriesPoint(
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone),
+                        BigDecimal.valueOf(scaledPrice, PRICE_SCALE))));
+            }
+        } catch (IOException e) {
+            log.error("[TickSeriesStore] 조회 실패, DB에서 조회합니다. - {}/{}", market, symbol, e);
+            return Optional.empty();
+        }
+        points.sort(Comparator.comparing(SeriesPoint::timestamp));
+        return Optional.of(points);
+    }
+
+    /**
+     * 지난 날짜의 쓰기 세그먼트를 정리(seal)하고 보관 기간이 지난 날짜 디렉터리를 삭제합니다.
+     */
+    @Scheduled(cron = "${collector.tsdb.maintenance-cron:0 10 0 * * *}", zone = "Asia/Seoul")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        sealBefore(today);
+
+        LocalDate cutoff = today.minusDays(retentionDays);
+        for (CandleMarket market : CandleMarket.values()) {
+            Path marketDir = dir.resolve(market.name());
+            if (!Files.isDirectory(marketDir)) {
+                continue;
+            }
+            try (Stream<Path> days = Files.list(marketDir)) {
+                for (Path dayDir : days.toList()) {
+                    LocalDate day = parseDay(dayDir.getFileName().toString());
+                    if (day != null && day.isBefore(cutoff)) {
+                        deleteRecursively(dayDir);
+                        log.info("[TickSeriesStore] 보관 기간({}일) 지난 세그먼트 삭제 - {}", retentionDays, dayDir);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("[TickSeriesStore] 보관 기간 정리 실패 - {}", marketDir, e);
+            }
+        }
+    }
+
+    private synchronized TimeSeriesSegment writer(CandleMarket market, String symbol, LocalDate day) throws IOException {
+        Path path = segmentPath(market, symbol, day);
+        String key = path.toString();
+        TimeSeriesSegment segment = writers.get(key);
+        if (segment == null) {
+            segment = TimeSeriesSegment.openForAppend(path);
+            writers.put(key, segment);
+        }
+        return segment;
+    }
+
+    // 쓰기 중이면 그 세그먼트, 아니면 파일을 읽기 전용으로 엶 (없으면 null)
+    private TimeSeriesSegment existingSegment(CandleMarket market, String symbol, LocalDate day) throws IOException {
+        Path path = segmentPath(market, symbol, day);
+        synchronized (this) {
+            TimeSeriesSegment segment = writers.get(path.toString());
+            if (segment != null) {
+                return segment;
+            }
+        }
+        return Files.exists(path) ? TimeSeriesSegment.openReadOnly(path) : null;
+    }
+
+    // seal과 writers 제거를 같은 락 안에서 하므로, 닫힌 세그먼트는 writer()가 다시 돌려주지 않음
+    private synchronized void sealBefore(LocalDate today) {
+        for (Iterator<TimeSeriesSegment> it = writers.values().iterator(); it.hasNext(); ) {
+            TimeSeriesSegment segment = it.next();
+            LocalDate day = parseDay(segment.path().getParent().getFileName().toString());
+            if (day == null || !day.isBefore(today)) {
+                continue;
+            }
+            try {
+                segment.seal();
+                log.debug("[TickSeriesStore] 세그먼트 정리 - {} ({}건, {}바이트)", segment.path(), segment.count(), segment.usedBytes());
+            } catch (IOException e) {
+                log.error("[TickSeriesStore] 세그먼트 정리 실패 - {}", segment.path(), e);
+            }
+            it.remove();
+        }
+    }
+
+    private Path segmentPath(CandleMarket market, String symbol, LocalDate day) {
+        return dir.resolve(market.name()).resolve(day.format(DAY_FORMAT)).resolve(symbol.replace('/', '_') + TimeSeriesSegment.SUFFIX);
+    }
+
+    private LocalDate readServedSince() throws IOException {
+        Path file = dir.resolve(SERVED_SINCE_FILE);
+        if (Files.exists(file)) {
+            return LocalDate.parse(Files.readString(file, StandardCharsets.UTF_8).trim());
+        }
+        LocalDate since = LocalDate.now().plusDays(1);
+        Files.writeString(file, since.toString(), StandardCharsets.UTF_8);
+        return since;
+    }
+
+    private static LocalDate parseDay(String name) {
+        try {
+            return LocalDate.parse(name, DAY_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> walk = Files.walk(path)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
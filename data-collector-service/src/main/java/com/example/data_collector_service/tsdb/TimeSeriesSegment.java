@@ -0,0 +1,326 @@
+package com.example.data_collector_service.tsdb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * TimeSeriesSegment
+ *
+ * 한 종목의 하루치 (시각, 가격) 시계열을 담는 메모리 매핑 세그먼트 파일입니다. (Gorilla 방식 비트 압축)
+ *
+ * [파일 형식]
+ *  0  int   MAGIC
+ *  4  int   포인트 수
+ *  8  long  유효 비트 수 (헤더 뒤 비트 스트림 길이)
+ * 16  ...   비트 스트림 (MSB부터)
+ *
+ * [포인트 인코딩]
+ * - 첫 포인트: 시각(epoch millis) 64비트, 가격(스케일 long) 64비트
+ * - 시각: 직전 간격과의 차이(delta-of-delta)를 zigzag 후 크기별 접두어로 기록
+ *         '0' 같음 / '10'+7비트 / '110'+12비트 / '1110'+20비트 / '1111'+64비트
+ * - 가격: 직전 가격과 XOR, '0' 같음 / '10' 직전과 같은 유효 비트 구간 / '11'+선행 0 개수(5비트)+유효 비트 수(6비트)+유효 비트
+ *
+ * 데이터 비트를 먼저 쓰고 헤더(유효 비트 수, 포인트 수)를 마지막에 갱신하므로,
+ * 중간에 프로세스가 종료되면 마지막 포인트만 무시됩니다. (TickJournal과 같은 방식)
+ * 쓰기 중인 세그먼트는 가득 차면 두 배 크기로 다시 매핑하며, 하루가 끝나면 seal()로 사용한 크기만 남깁니다.
+ * seal()한 세그먼트는 닫힌 상태가 되어 append가 false를 반환하므로, 늦게 온 기록은 파일을 다시 열어 이어 씁니다.
+ */
+final class TimeSeriesSegment {
+
+    static final String SUFFIX = ".gts";
+
+    private static final int MAGIC = 0x47545331; // "GTS1"
+    private static final int HEADER_SIZE = 16;
+    private static final int INITIAL_SIZE = 16 * 1024;
+    // 포인트 하나의 최대 비트 수 (시각 4+64, 가격 2+5+6+64) + 여유
+    private static final int MAX_POINT_BITS = 160;
+
+    private final Path path;
+    private final boolean writable;
+    private MappedByteBuffer buffer;
+    private int count;
+    private long bitLength;
+    // seal() 이후 true (이 인스턴스에는 더 이상 쓰지 않음)
+    private boolean closed;
+
+    // 인코더 상태 (마지막 포인트 기준)
+    private final Cursor last = new Cursor();
+
+    /**
+     * 직전 포인트 상태 (인코딩/디코딩 공용)
+     */
+    private static final class Cursor {
+        long timestamp;
+        long delta;
+        long value;
+        int leading = -1;   // 직전 XOR 유효 비트 구간 (-1이면 아직 없음)
+        int trailing;
+    }
+
+    @FunctionalInterface
+    interface PointVisitor {
+        void visit(long epochMillis, long scaledPrice);
+    }
+
+    private TimeSeriesSegment(Path path, boolean writable, MappedByteBuffer buffer) {
+        this.path = path;
+        this.writable = writable;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 쓰기용으로 엽니다. 파일이 없으면 만들고, 있으면 기존 포인트를 읽어 인코더 상태를 복원합니다. (재기동 후 이어 쓰기)
+     */
+    static TimeSeriesSegment openForAppend(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean fresh = channel.size() < HEADER_SIZE;
+            long size = Math.max(channel.size(), INITIAL_SIZE);
+            TimeSeriesSegment segment = new TimeSeriesSegment(path, true,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            if (fresh) {
+                segment.buffer.putInt(0, MAGIC);
+            } else {
+                segment.readHeader();
+                segment.decode(Long.MIN_VALUE, Long.MAX_VALUE, segment.last, (t, v) -> { });
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * 읽기 전용으로 엽니다. (지난 날짜 조회용)
+     */
+    static TimeSeriesSegment openReadOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("시계열 세그먼트 헤더가 없습니다: " + path);
+            }
+            TimeSeriesSegment segment = new TimeSeriesSegment(path, false,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            segment.readHeader();
+            return segment;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * 저장된 크기 (헤더 + 비트 스트림 바이트 수)
+     */
+    synchronized long usedBytes() {
+        return HEADER_SIZE + (bitLength + 7) / 8;
+    }
+
+    /**
+     * 포인트 하나를 추가합니다.
+     *
+     * @return seal()로 닫힌 세그먼트라 기록하지 않았으면 false (openForAppend로 다시 열어 기록해야 함)
+     */
+    synchronized boolean append(long epochMillis, long scaledPrice) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("읽기 전용 세그먼트입니다: " + path);
+        }
+        if (closed) {
+            return false;
+        }
+        ensureCapacity();
+        if (count == 0) {
+            writeBits(epochMillis, 64);
+            writeBits(scaledPrice, 64);
+            last.delta = 0;
+        } else {
+            long delta = epochMillis - last.timestamp;
+            writeTimestamp(delta - last.delta);
+            writeValue(scaledPrice ^ last.value);
+            last.delta = delta;
+        }
+        last.timestamp = epochMillis;
+        last.value = scaledPrice;
+        count++;
+        // 데이터 비트를 다 쓴 뒤 헤더 갱신
+        buffer.putLong(8, bitLength);
+        buffer.putInt(4, count);
+        return true;
+    }
+
+    /**
+     * from <= 시각 <= to 인 포인트를 기록 순서대로 visitor에 넘깁니다.
+     */
+    synchronized void scan(long from, long to, PointVisitor visitor) {
+        decode(from, to, new Cursor(), visitor);
+    }
+
+    /**
+     * 사용한 크기만 남긴 파일로 교체하고 더 이상 쓰지 않습니다. (하루가 끝난 세그먼트 정리)
+     */
+    synchronized void seal() throws IOException {
+        ByteBuffer used = buffer.duplicate();
+        used.position(0).limit((int) usedBytes());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (used.hasRemaining()) {
+                channel.write(used);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // 이 매핑은 교체 전 파일을 가리키므로 이후 기록은 받지 않음
+        closed = true;
+    }
+
+    private void readHeader() throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("시계열 세그먼트 형식이 아닙니다: " + path);
+        }
+        count = buffer.getInt(4);
+        bitLength = buffer.getLong(8);
+    }
+
+    private void decode(long from, long to, Cursor cursor, PointVisitor visitor) {
+        long[] position = {0};
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                cursor.timestamp = readBits(position, 64);
+                cursor.value = readBits(position, 64);
+                cursor.delta = 0;
+            } else {
+                cursor.delta += readTimestamp(position);
+                cursor.timestamp += cursor.delta;
+                cursor.value ^= readValue(position, cursor);
+            }
+            if (cursor.timestamp >= from && cursor.timestamp <= to) {
+                visitor.visit(cursor.timestamp, cursor.value);
+            }
+        }
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+        if (zigzag == 0) {
+            writeBits(0b0, 1);
+        } else if (zigzag < (1L << 7)) {
+            writeBits(0b10, 2);
+            writeBits(zigzag, 7);
+        } else if (zigzag < (1L << 12)) {
+            writeBits(0b110, 3);
+            writeBits(zigzag, 12);
+        } else if (zigzag < (1L << 20)) {
+            writeBits(0b1110, 4);
+            writeBits(zigzag, 20);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(zigzag, 64);
+        }
+    }
+
+    private long readTimestamp(long[] position) {
+        int bits;
+        if (readBits(position, 1) == 0) {
+            return 0;
+        } else if (readBits(position, 1) == 0) {
+            bits = 7;
+        } else if (readBits(position, 1) == 0) {
+            bits = 12;
+        } else if (readBits(position, 1) == 0) {
+            bits = 20;
+        } else {
+            bits = 64;
+        }
+        long zigzag = readBits(position, bits);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (last.leading >= 0 && leading >= last.leading && trailing >= last.trailing) {
+            writeBits(0b10, 2);
+            writeBits(xor >>> last.trailing, 64 - last.leading - last.trailing);
+            return;
+        }
+        int significant = 64 - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, 5);
+        // 유효 비트 64개는 0으로 기록 (6비트)
+        writeBits(significant == 64 ? 0 : significant, 6);
+        writeBits(xor >>> trailing, significant);
+        last.leading = leading;
+        last.trailing = trailing;
+    }
+
+    private long readValue(long[] position, Cursor cursor) {
+        if (readBits(position, 1) == 0) {
+            return 0;
+        }
+        if (readBits(position, 1) == 1) {
+            cursor.leading = (int) readBits(position, 5);
+            int significant = (int) readBits(position, 6);
+            cursor.trailing = 64 - cursor.leading - (significant == 0 ? 64 : significant);
+        }
+        int significant = 64 - cursor.leading - cursor.trailing;
+        return readBits(position, significant) << cursor.trailing;
+    }
+
+    private void writeBits(long value, int bits) {
+        while (bits > 0) {
+            int index = HEADER_SIZE + (int) (bitLength >>> 3);
+            int offset = (int) (bitLength & 7);
+            int free = 8 - offset;
+            int take = Math.min(free, bits);
+            int chunk = (int) ((value >>> (bits - take)) & ((1 << take) - 1));
+            // 바이트 뒷부분은 중단된 이전 기록의 잔여 비트일 수 있으므로 지우고 씀
+            int kept = offset == 0 ? 0 : buffer.get(index) & (0xFF00 >>> offset);
+            buffer.put(index, (byte) (kept | (chunk << (free - take))));
+            bitLength += take;
+            bits -= take;
+        }
+    }
+
+    private long readBits(long[] position, int bits) {
+        long value = 0;
+        while (bits > 0) {
+            int index = HEADER_SIZE + (int) (position[0] >>> 3);
+            int offset = (int) (position[0] & 7);
+            int free = 8 - offset;
+            int take = Math.min(free, bits);
+            int chunk = ((buffer.get(index) & 0xFF) >>> (free - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            position[0] += take;
+            bits -= take;
+        }
+        return value;
+    }
+
+    private void ensureCapacity() throws IOException {
+        long needed = HEADER_SIZE + (bitLength + MAX_POINT_BITS) / 8 + 1;
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer grown = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) buffer.capacity() * 2);
+            grown.order(ByteOrder.LITTLE_ENDIAN);
+            buffer = grown;
+        }
+    }
+}
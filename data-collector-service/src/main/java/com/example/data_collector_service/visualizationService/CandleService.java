@@ -0,0 +1,50 @@
+package com.example.data_collector_service.visualizationService;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.candle.MinuteCandleAggregator;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.exception.DataNotFoundException;
+import com.example.data_collector_service.repository.MinuteCandleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 1분봉 조회 서비스
+ *
+ * 저장된 분봉(minute_candle)에 아직 마감되지 않은 현재 분봉을 붙여 반환합니다.
+ * 장중 차트는 원시 tick 대신 하루 최대 1,440개(국내 정규장 약 390개)의 분봉만 읽습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CandleService {
+
+    private final MinuteCandleRepository minuteCandleRepository;
+    private final MinuteCandleAggregator candleAggregator;
+
+    /**
+     * 특정 날짜(00:00 ~ 다음날 00:00)의 1분봉 조회
+     *
+     * @param date 조회 날짜 (null이면 오늘)
+     */
+    public List<MinuteCandle> getMinuteCandles(CandleMarket market, String symbol, LocalDate date) {
+        LocalDate day = date == null ? LocalDate.now() : date;
+        List<MinuteCandle> result = new ArrayList<>(minuteCandleRepository
+                .findByMarketAndSymbolAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        market, symbol, day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+
+        // 현재 분봉은 아직 저장 전이므로 메모리에서 붙임 (같은 분이 이미 저장되어 있으면 저장본 유지)
+        MinuteCandle open = candleAggregator.openCandle(market, symbol);
+        if (open != null && open.getBucketStart().toLocalDate().equals(day)
+                && (result.isEmpty() || open.getBucketStart().isAfter(result.get(result.size() - 1).getBucketStart()))) {
+            result.add(open);
+        }
+        if (result.isEmpty()) {
+            throw new DataNotFoundException(day + "의 분봉 데이터를 찾을 수 없습니다. 코드: " + symbol);
+        }
+        return result;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.data_collector_service.visualizationService;
 
+import com.example.data_collector_service.archive.ArchivedHistory;
+import com.example.data_collector_service.archive.HistoryArchive;
+import com.example.data_collector_service.candle.CandleMarket;
 import com.example.data_collector_service.entity.DailyForex;
 import com.example.data_collector_service.entity.HistoryForex;
 import com.example.data_collector_service.exception.DataNotFoundException;
 import com.example.data_collector_service.repository.DailyForexRepository;
 import com.example.data_collector_service.repository.HistoryForexRepository;
+import com.example.data_collector_service.tsdb.TickSeriesStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +17,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +25,8 @@ public class ForexService {
 
     private final DailyForexRepository dailyForexRepository;
     private final HistoryForexRepository historyForexRepository;
+    private final TickSeriesStore seriesStore;
+    private final HistoryArchive historyArchive;
 
     /**
      * 오늘 00:00부터 현재 시각까지의 실시간 환율 데이터를 조회합니다.
@@ -47,13 +54,66 @@ public class ForexService {
         return result;
     }
 
+    /**
+     * 오늘 데이터 차트 (Chart.js 포맷, /today 전용)
+     * 시계열 저장소에 있으면 압축 세그먼트에서 바로 만들고, 없으면 getTodayData(DB) 결과로 만듭니다.
+     */
+    public Map<String, Object> getTodayChartData(String currencyCode) {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        return buildChartDataFromSeries(currencyCode, startOfToday, LocalDateTime.now())
+                .orElseGet(() -> buildChartDataForDaily(getTodayData(currencyCode)));
+    }
+
+    /**
+     * 어제 데이터 차트 (Chart.js 포맷, /yesterday 전용)
+     * 시계열 저장소에 있으면 압축 세그먼트에서 바로 만들고, 없으면 getYesterdayData(DB) 결과로 만듭니다.
+     */
+    public Map<String, Object> getYesterdayChartData(String currencyCode) {
+        LocalDateTime startOfYesterday = LocalDate.now().minusDays(1).atStartOfDay();
+        LocalDateTime endOfYesterday = LocalDate.now().minusDays(1).atTime(LocalTime.MAX);
+        return buildChartDataFromSeries(currencyCode, startOfYesterday, endOfYesterday)
+                .orElseGet(() -> buildChartDataForDaily(getYesterdayData(currencyCode)));
+    }
+
+    /**
+     * 시계열 저장소의 포인트로 차트를 만듭니다. (저장소가 범위를 담고 있지 않거나 포인트가 없으면 empty)
+     * 차트에 필요한 통화코드/환율/시각만 채운 엔티티는 변환에만 쓰고 밖으로 반환하지 않습니다.
+     */
+    private Optional<Map<String, Object>> buildChartDataFromSeries(String currencyCode, LocalDateTime start, LocalDateTime end) {
+        return seriesStore.scan(CandleMarket.FOREX, currencyCode, start, end)
+                .filter(points -> !points.isEmpty())
+                .map(points -> buildChartDataForDaily(points.stream()
+                        .map(point -> DailyForex.builder()
+                                .currencyCode(currencyCode)
+                                .exchangeRate(point.price())
+                                .timestamp(point.timestamp())
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new))));
+    }
+
+    /**
+     * 히스토리 범위 조회 (DB의 최근 데이터에 아카이브로 옮겨진 오래된 데이터를 합침, 같은 날짜는 DB 우선, 날짜순)
+     */
+    private List<HistoryForex> findHistoryData(String currencyCode, LocalDate startDate, LocalDate endDate) {
+        List<HistoryForex> result = new ArrayList<>(historyForexRepository.findByCurrencyCodeAndDateBetween(currencyCode, startDate, endDate));
+        Set<LocalDate> warmDates = result.stream().map(HistoryForex::getDate).collect(Collectors.toSet());
+        for (ArchivedHistory archived : historyArchive.read(HistoryArchive.Table.HISTORY_FOREX, currencyCode, startDate, endDate)) {
+            if (!warmDates.contains(archived.date())) {
+                result.add(archived.toHistoryForex());
+            }
+        }
+        // 아카이브 행(오래된 날짜)이 뒤에 붙으므로 날짜순으로 다시 정렬
+        result.sort(Comparator.comparing(HistoryForex::getDate));
+        return result;
+    }
+
     /**
      * 최근 1주일간의 환율 히스토리 데이터를 조회합니다.
      */
     public List<HistoryForex> getOneWeekData(String currencyCode) {
         LocalDate startDate = LocalDate.now().minusWeeks(1);
         LocalDate endDate = LocalDate.now();
-        List<HistoryForex> result = historyForexRepository.findByCurrencyCodeAndDateBetween(currencyCode, startDate, endDate);
+        List<HistoryForex> result = findHistoryData(currencyCode, startDate, endDate);
         if(result == null || result.isEmpty()){
             throw new DataNotFoundException("최근 1주일간의 환율 히스토리 데이터를 찾을 수 없습니다. 통화 코드: " + currencyCode);
         }
@@ -66,7 +126,7 @@ public class ForexService {
     public List<HistoryForex> getOneMonthData(String currencyCode) {
         LocalDate startDate = LocalDate.now().minusMonths(1);
         LocalDate endDate = LocalDate.now();
-        List<HistoryForex> result = historyForexRepository.findByCurrencyCodeAndDateBetween(currencyCode, startDate, endDate);
+        List<HistoryForex> result = findHistoryData(currencyCode, startDate, endDate);
         if(result == null || result.isEmpty()){
             throw new DataNotFoundException("최근 1개월간의 환율 히스토리 데이터를 찾을 수 없습니다. 통화 코드: " + currencyCode);
         }
@@ -79,7 +139,7 @@ public class ForexService {
     public List<HistoryForex> getThreeMonthData(String currencyCode) {
         LocalDate startDate = LocalDate.now().minusMonths(3);
         LocalDate endDate = LocalDate.now();
-        List<HistoryForex> result = historyForexRepository.findByCurrencyCodeAndDateBetween(currencyCode, startDate, endDate);
+        List<HistoryForex> result = findHistoryData(currencyCode, startDate, endDate);
         if(result == null || result.isEmpty()){
             throw new DataNotFoundException("최근 3개월간의 환율 히스토리 데이터를 찾을 수 없습니다. 통화 코드: " + currencyCode);
         }
@@ -1,10 +1,14 @@
 package com.example.data_collector_service.visualizationService;
 
+import com.example.data_collector_service.archive.ArchivedHistory;
+import com.example.data_collector_service.archive.HistoryArchive;
+import com.example.data_collector_service.candle.CandleMarket;
 import com.example.data_collector_service.entity.GlobalDailyStock;
 import com.example.data_collector_service.entity.GlobalHistoryStock;
 import com.example.data_collector_service.exception.DataNotFoundException;
 import com.example.data_collector_service.repository.GlobalDailyStockRepository;
 import com.example.data_collector_service.repository.GlobalHistoryStockRepository;
+import com.example.data_collector_service.tsdb.TickSeriesStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +25,8 @@ public class GlobalStockService {
 
     private final GlobalDailyStockRepository globalDailyStockRepository;
     private final GlobalHistoryStockRepository globalHistoryStockRepository;
+    private final TickSeriesStore seriesStore;
+    private final HistoryArchive historyArchive;
 
     /**
      * 오늘 00:00부터 현재까지 해외 주식 실시간 데이터 조회
@@ -48,13 +54,66 @@ public class GlobalStockService {
         return result;
     }
 
+    /**
+     * 오늘 데이터 차트 (Chart.js 포맷, /today 전용)
+     * 시계열 저장소에 있으면 압축 세그먼트에서 바로 만들고, 없으면 getTodayData(DB) 결과로 만듭니다.
+     */
+    public Map<String, Object> getTodayChartData(String stockCode) {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        return buildChartDataFromSeries(stockCode, startOfToday, LocalDateTime.now())
+                .orElseGet(() -> buildChartDataForDaily(getTodayData(stockCode)));
+    }
+
+    /**
+     * 어제 데이터 차트 (Chart.js 포맷, /yesterday 전용)
+     * 시계열 저장소에 있으면 압축 세그먼트에서 바로 만들고, 없으면 getYesterdayData(DB) 결과로 만듭니다.
+     */
+    public Map<String, Object> getYesterdayChartData(String stockCode) {
+        LocalDateTime startOfYesterday = LocalDate.now().minusDays(1).atStartOfDay();
+        LocalDateTime endOfYesterday = LocalDate.now().minusDays(1).atTime(LocalTime.MAX);
+        return buildChartDataFromSeries(stockCode, startOfYesterday, endOfYesterday)
+                .orElseGet(() -> buildChartDataForDaily(getYesterdayData(stockCode)));
+    }
+
+    /**
+     * 시계열 저장소의 포인트로 차트를 만듭니다. (저장소가 범위를 담고 있지 않거나 포인트가 없으면 empty)
+     * 차트에 필요한 종목코드/가격/시각만 채운 엔티티는 변환에만 쓰고 밖으로 반환하지 않습니다.
+     */
+    private Optional<Map<String, Object>> buildChartDataFromSeries(String stockCode, LocalDateTime start, LocalDateTime end) {
+        return seriesStore.scan(CandleMarket.GLOBAL, stockCode, start, end)
+                .filter(points -> !points.isEmpty())
+                .map(points -> buildChartDataForDaily(points.stream()
+                        .map(point -> GlobalDailyStock.builder()
+                                .stockCode(stockCode)
+                                .currentPrice(point.price())
+                                .timestamp(point.timestamp())
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new))));
+    }
+
+    /**
+     * 히스토리 범위 조회 (DB의 최근 데이터에 아카이브로 옮겨진 오래된 데이터를 합침, 같은 날짜는 DB 우선, 날짜순)
+     */
+    private List<GlobalHistoryStock> findHistoryData(String stockCode, LocalDate startDate, LocalDate endDate) {
+        List<GlobalHistoryStock> result = new ArrayList<>(globalHistoryStockRepository.findByStockCodeAndTimestampBetween(stockCode, startDate, endDate));
+        Set<LocalDate> warmDates = result.stream().map(GlobalHistoryStock::getTimestamp).collect(Collectors.toSet());
+        for (ArchivedHistory archived : historyArchive.read(HistoryArchive.Table.GLOBAL_HISTORY_STOCK, stockCode, startDate, endDate)) {
+            if (!warmDates.contains(archived.date())) {
+                result.add(archived.toGlobalHistoryStock());
+            }
+        }
+        // 아카이브 행(오래된 날짜)이 뒤에 붙으므로 날짜순으로 다시 정렬
+        result.sort(Comparator.comparing(GlobalHistoryStock::getTimestamp));
+        return result;
+    }
+
     /**
      * 최근 1주일간 해외 주식 히스토리 데이터
      */
     public List<GlobalHistoryStock> getOneWeekData(String stockCode) {
         LocalDate startDate = LocalDate.now().minusWeeks(1);
         LocalDate endDate = LocalDate.now();
-        List<GlobalHistoryStock> result = globalHistoryStockRepository.findByStockCodeAndTimestampBetween(stockCode, startDate, endDate);
+        List<GlobalHistoryStock> result = findHistoryData(stockCode, startDate, endDate);
         if(result == null || result.isEmpty()){
             throw new DataNotFoundException("최근 1주일간의 해외 주식 히스토리 데이터를 찾을 수 없습니다. 종목 코드: " + stockCode);
         }
@@ -67,7 +126,7 @@ public class GlobalStockService {
     public List<GlobalHistoryStock> getOneMonthData(String stockCode) {
         LocalDate startDate = LocalDate.now().minusMonths(1);
         LocalDate endDate = LocalDate.now();
-        List<GlobalHistoryStock> result = globalHistoryStockRepository.findByStockCodeAndTimestampBetween(stockCode, startDate, endDate);
+        List<GlobalHistoryStock> result = findHistoryData(stockCode, startDate, endDate);
         if(result == null || result.isEmpty()){
             throw new DataNotFoundException("최근 1개월간의 해외 주식 히스토리 데이터를 찾을 수 없습니다. 종목 코드: " + stockCode);
         }
@@ -80,7 +139,7 @@ public class GlobalStockService {
     public List<GlobalHistoryStock> getThreeMonthData(String stockCode) {
         LocalDate startDate = LocalDate.now().minusMonths(3);
         LocalDate endDate = LocalDate.now();
-        List<GlobalHistoryStock> result = globalHistoryStockRepository.findByStockCodeAndTimestampBetween(stockCode, startDate, endDate);
+        List<GlobalHistoryStock> result = findHistoryData(stockCode, startDate, endDate);
         if(result == null || result.isEmpty()){
             throw new DataNotFoundException("최근 3개월간의 해외 주식 히스토리 데이터를 찾을 수 없습니다. 종목 코드: " + stockCode);
         }
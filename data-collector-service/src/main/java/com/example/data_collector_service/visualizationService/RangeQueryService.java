@@ -0,0 +1,110 @@
+package com.example.data_collector_service.visualizationService;
+
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.candle.MinuteCandleAggregator;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.entity.PriceRollup;
+import com.example.data_collector_service.exception.DataNotFoundException;
+import com.example.data_collector_service.repository.MinuteCandleRepository;
+import com.example.data_collector_service.repository.PriceRollupRepository;
+import com.example.data_collector_service.rollup.RollupInterval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기간/간격 범위 조회 서비스
+ *
+ * from ~ to 범위를 요청한 포인트 수 이상으로 채우는 가장 굵은 간격을 골라 한 번의 인덱스 범위 조회로 응답합니다.
+ * (MINUTE은 minute_candle, 나머지는 price_rollup)
+ * 읽는 행 수가 max-points를 넘지 않도록 간격을 올리므로 여러 해 범위도 1주 범위와 같은 비용으로 조회됩니다.
+ * 거래량은 분봉에서 만든 MINUTE/HOUR에만 있고, 일별 History에서 만든 DAY/WEEK/MONTH는 null입니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class RangeQueryService {
+
+    private final PriceRollupRepository rollupRepository;
+    private final MinuteCandleRepository minuteCandleRepository;
+    private final MinuteCandleAggregator candleAggregator;
+
+    // interval, points를 생략했을 때 채울 포인트 수
+    @Value("${collector.rollups.default-points:100}")
+    private int defaultPoints;
+
+    // 한 번에 읽을 최대 포인트 수
+    @Value("${collector.rollups.max-points:2000}")
+    private int maxPoints;
+
+    /**
+     * 범위 캔들 조회
+     *
+     * @param to       조회 끝 시각 (제외, null이면 현재)
+     * @param interval 간격 (null이면 points로 선택, 지정해도 max-points를 넘으면 한 단계씩 굵게 올림)
+     * @param points   원하는 최소 포인트 수 (null이면 default-points)
+     * @return interval(실제 사용한 간격), from, to, candles(구간 시작 시각순)
+     */
+    public Map<String, Object> getRange(CandleMarket market, String symbol, LocalDateTime from, LocalDateTime to,
+                                        RollupInterval interval, Integer points) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("조회 시작 시각은 끝 시각보다 앞서야 합니다. from: " + from + ", to: " + end);
+        }
+        RollupInterval selected = RollupInterval.select(from, end, interval,
+                points == null ? defaultPoints : points, maxPoints);
+        // from이 속한 구간부터 포함
+        LocalDateTime start = selected.bucketStart(from);
+
+        List<PriceRollup> candles = selected == RollupInterval.MINUTE
+                ? findMinuteCandles(market, symbol, start, end)
+                : rollupRepository.findByMarketAndSymbolAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        market, symbol, selected, start, end);
+        if (candles.isEmpty()) {
+            throw new DataNotFoundException(from + " ~ " + end + " 범위의 " + selected + " 데이터를 찾을 수 없습니다. 코드: " + symbol);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("interval", selected);
+        result.put("from", start);
+        result.put("to", end);
+        result.put("candles", candles);
+        return result;
+    }
+
+    /**
+     * 저장된 분봉에 아직 마감되지 않은 현재 분봉을 붙여 같은 형태로 변환 (CandleService와 같은 방식)
+     */
+    private List<PriceRollup> findMinuteCandles(CandleMarket market, String symbol, LocalDateTime start, LocalDateTime end) {
+        List<MinuteCandle> minutes = new ArrayList<>(minuteCandleRepository
+                .findByMarketAndSymbolAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        market, symbol, start, end));
+        MinuteCandle open = candleAggregator.openCandle(market, symbol);
+        if (open != null && !open.getBucketStart().isBefore(start) && open.getBucketStart().isBefore(end)
+                && (minutes.isEmpty() || open.getBucketStart().isAfter(minutes.get(minutes.size() - 1).getBucketStart()))) {
+            minutes.add(open);
+        }
+
+        List<PriceRollup> result = new ArrayList<>(minutes.size());
+        for (MinuteCandle minute : minutes) {
+            result.add(PriceRollup.builder()
+                    .market(minute.getMarket())
+                    .symbol(minute.getSymbol())
+                    .resolution(RollupInterval.MINUTE)
+                    .bucketStart(minute.getBucketStart())
+                    .openPrice(minute.getOpenPrice())
+                    .highPrice(minute.getHighPrice())
+                    .lowPrice(minute.getLowPrice())
+                    .closePrice(minute.getClosePrice())
+                    .volume(minute.getVolume())
+                    .tickCount(minute.getTickCount())
+                    .build());
+        }
+        return result;
+    }
+}
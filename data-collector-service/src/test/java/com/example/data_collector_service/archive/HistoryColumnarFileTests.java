@@ -0,0 +1,83 @@
+package com.example.data_collector_service.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryColumnarFileTests {
+
+	@TempDir
+	Path dir;
+
+	private static ArchivedHistory stock(String code, String name, String exchange, String date,
+										 String open, String high, String low, String close, String rate, Integer ticks) {
+		return new ArchivedHistory(code, name, exchange, LocalDate.parse(date),
+				decimal(open), decimal(high), decimal(low), decimal(close), decimal(rate), ticks);
+	}
+
+	private static BigDecimal decimal(String value) {
+		return value == null ? null : new BigDecimal(value);
+	}
+
+	@Test
+	void roundTripsRowsWithNullColumnsInSymbolDateOrder() throws IOException {
+		Path path = dir.resolve("2024-03" + HistoryColumnarFile.SUFFIX);
+		ArchivedHistory samsungLate = stock("005930", "삼성전자", null, "2024-03-29",
+				"79500.0000", "80200.0000", "79100.0000", "80000.0000", "0.63", 15321);
+		ArchivedHistory samsungEarly = stock("005930", "삼성전자", null, "2024-03-04",
+				"73000.0000", "73400.0000", "72500.0000", "73300.0000", "-0.14", null);
+		ArchivedHistory apple = stock("AAPL", "Apple Inc.", "NAS", "2024-03-01",
+				"171.0000", "180.5300", "170.9300", "179.6600", null, 0);
+		// 환율 행: OHLC, 변동률, 체결 건수, 거래소가 모두 null
+		ArchivedHistory forex = stock("USD/KRW", "미국 달러", null, "2024-03-15",
+				null, null, null, "1331.5000", null, null);
+		ArchivedHistory unnamed = stock("000660", null, null, "2024-03-15",
+				null, "182500.0000", null, "181000.0000", "-1.25", 42);
+
+		HistoryColumnarFile.write(path, List.of(samsungLate, forex, apple, unnamed, samsungEarly));
+
+		assertThat(HistoryColumnarFile.read(path))
+				.containsExactly(unnamed, samsungEarly, samsungLate, apple, forex);
+		assertThat(dir.resolve(path.getFileName() + ".tmp")).doesNotExist();
+	}
+
+	@Test
+	void roundsToStoredScale() throws IOException {
+		Path path = dir.resolve("2024-04" + HistoryColumnarFile.SUFFIX);
+		HistoryColumnarFile.write(path, List.of(stock("EUR/USD", "유로", null, "2024-04-01",
+				null, null, null, "1.079949", "0.125", null)));
+
+		ArchivedHistory row = HistoryColumnarFile.read(path).get(0);
+
+		assertThat(row.closePrice()).isEqualTo(new BigDecimal("1.0799"));
+		assertThat(row.changeRate()).isEqualTo(new BigDecimal("0.13"));
+	}
+
+	@Test
+	void replacesExistingFileAndKeepsEmptyMonth() throws IOException {
+		Path path = dir.resolve("2024-05" + HistoryColumnarFile.SUFFIX);
+		HistoryColumnarFile.write(path, List.of(stock("005930", "삼성전자", null, "2024-05-02",
+				null, null, null, "77600.0000", null, null)));
+
+		HistoryColumnarFile.write(path, List.of());
+
+		assertThat(HistoryColumnarFile.read(path)).isEmpty();
+	}
+
+	@Test
+	void rejectsFileWithoutMagic() throws IOException {
+		Path path = dir.resolve("2024-06" + HistoryColumnarFile.SUFFIX);
+		Files.write(path, new byte[]{0, 0, 0, 0, 0, 0, 0, 0});
+
+		assertThatThrownBy(() -> HistoryColumnarFile.read(path)).isInstanceOf(IOException.class);
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.data_collector_service.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatestQuoteStoreTests {
+
+	// n번째 기록의 모든 필드를 n에서 만들어, 읽은 값이 한 번의 기록에서 나왔는지 확인할 수 있게 함
+	private static void write(LatestQuoteStore store, int id, long n) {
+		store.write(id, n, -n, n * 3, (int) n, n * 7);
+	}
+
+	private static String tornReason(long version, LatestQuoteStore.QuoteView view) {
+		long n = view.price;
+		if ((version & 1) != 0) {
+			return "홀수 버전 " + version;
+		}
+		if (version != n * 2) {
+			return "버전 " + version + " / 현재가 " + n;
+		}
+		if (view.changeRate != -n || view.volume != n * 3 || view.tradeTime != (int) n || view.receivedAt != n * 7) {
+			return "현재가 " + n + "와 다른 기록의 필드가 섞임";
+		}
+		return null;
+	}
+
+	@Test
+	void unwrittenSymbolHasVersionZero() {
+		LatestQuoteStore store = new LatestQuoteStore(4);
+		LatestQuoteStore.QuoteView view = new LatestQuoteStore.QuoteView();
+
+		assertThat(store.version(2)).isZero();
+		assertThat(store.read(2, view)).isZero();
+		assertThat(view.id).isEqualTo(2);
+		assertThat(view.price).isZero();
+	}
+
+	@Test
+	void versionAdvancesByTwoPerWrite() {
+		LatestQuoteStore store = new LatestQuoteStore(4);
+		LatestQuoteStore.QuoteView view = new LatestQuoteStore.QuoteView();
+
+		write(store, 1, 1);
+		write(store, 1, 2);
+
+		assertThat(store.version(1)).isEqualTo(4);
+		assertThat(store.version(0)).isZero();
+		assertThat(store.read(1, view)).isEqualTo(4);
+		assertThat(tornReason(4, view)).isNull();
+		assertThat(view.receivedAt).isEqualTo(14);
+	}
+
+	@Test
+	void concurrentReadersNeverSeeTornQuote() throws InterruptedException {
+		LatestQuoteStore store = new LatestQuoteStore(4);
+		int id = 1;
+		long writes = 2_000_000;
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<String> torn = new AtomicReference<>();
+		AtomicLong reads = new AtomicLong();
+
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 3; r++) {
+			Thread reader = new Thread(() -> {
+				LatestQuoteStore.QuoteView view = new LatestQuoteStore.QuoteView();
+				long last = 0;
+				while (!done.get() && torn.get() == null) {
+					long version = store.read(id, view);
+					if (version == 0) {
+						continue;
+					}
+					String reason = tornReason(version, view);
+					if (reason == null && version < last) {
+						reason = "버전이 " + last + "에서 " + version + "로 감소";
+					}
+					if (reason != null) {
+						torn.compareAndSet(null, reason);
+					}
+					last = version;
+					reads.incrementAndGet();
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+
+		// 단일 writer
+		for (long n = 1; n <= writes && torn.get() == null; n++) {
+			write(store, id, n);
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join(10_000);
+		}
+
+		assertThat(torn.get()).isNull();
+		assertThat(reads.get()).isPositive();
+		assertThat(store.version(id)).isEqualTo(writes * 2);
+	}
+}
@@ -0,0 +1,165 @@
+package com.example.data_collector_service.buffer;
+
+import com.example.data_collector_service.decoder.KisFrameDecoder;
+import com.example.data_collector_service.decoder.KoreanTick;
+import com.example.data_collector_service.decoder.KoreanTickBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TickRingBufferTests {
+
+	// H0STCNT0 레코드의 필드 수 (종목 코드 0, 체결 시각 1, 현재가 2, 거래량 12번째)
+	private static final int FIELDS_PER_RECORD = 46;
+
+	private record Seen(long volume, long receivedAt, boolean endOfBatch) {
+	}
+
+	/**
+	 * 전달받은 tick의 거래량(발행 순번)과 endOfBatch를 기록하는 핸들러
+	 */
+	private static final class Recorder implements KoreanTickHandler {
+		final List<Seen> seen = new ArrayList<>();
+
+		@Override
+		public void onTick(KoreanTick tick, boolean endOfBatch) {
+			seen.add(new Seen(tick.volume(), tick.receivedAt(), endOfBatch));
+		}
+	}
+
+	// 거래량에 from ~ from + count - 1 순번을 담은 한 프레임
+	private static KoreanTickBatch batch(long from, int count) {
+		StringBuilder frame = new StringBuilder("0|H0STCNT0|").append(String.format("%03d", count)).append('|');
+		for (int i = 0; i < count; i++) {
+			String[] fields = new String[FIELDS_PER_RECORD];
+			Arrays.fill(fields, "0");
+			fields[0] = "005930";
+			fields[1] = "090000";
+			fields[2] = "71900";
+			fields[12] = Long.toString(from + i);
+			frame.append(i == 0 ? "" : "^").append(String.join("^", fields));
+		}
+		KoreanTickBatch batch = new KoreanTickBatch(count);
+		KisFrameDecoder.decode(frame, batch);
+		return batch;
+	}
+
+	@Test
+	void rejectsCapacityThatIsNotPowerOfTwo() {
+		assertThatThrownBy(() -> new TickRingBuffer(6, new WaitStrategy.BusySpin()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void deliversTicksInOrderAcrossWraparound() {
+		TickRingBuffer ring = new TickRingBuffer(4, new WaitStrategy.BusySpin());
+		Recorder recorder = new Recorder();
+
+		long next = 0;
+		for (int round = 0; round < 10; round++) {
+			ring.publish(batch(next, 3), 1000 + round);
+			next += 3;
+			assertThat(ring.backlog()).isEqualTo(3);
+			assertThat(ring.drain(List.of(recorder), 16)).isEqualTo(3);
+			assertThat(ring.backlog()).isZero();
+		}
+
+		assertThat(recorder.seen).hasSize(30);
+		for (int i = 0; i < 30; i++) {
+			assertThat(recorder.seen.get(i).volume()).isEqualTo(i);
+			assertThat(recorder.seen.get(i).receivedAt()).isEqualTo(1000 + i / 3);
+		}
+		assertThat(ring.fullWaits()).isZero();
+	}
+
+	@Test
+	void signalsEndOfBatchOnLastTickOfEachDrain() {
+		TickRingBuffer ring = new TickRingBuffer(8, new WaitStrategy.BusySpin());
+		Recorder recorder = new Recorder();
+		ring.publish(batch(0, 5), 1);
+
+		assertThat(ring.drain(List.of(recorder), 2)).isEqualTo(2);
+		assertThat(ring.drain(List.of(recorder), 10)).isEqualTo(3);
+		assertThat(ring.drain(List.of(recorder), 10)).isZero();
+
+		assertThat(recorder.seen).extracting(Seen::endOfBatch).containsExactly(false, true, false, false, true);
+	}
+
+	@Test
+	void failingHandlerDoesNotStopOtherHandlers() {
+		TickRingBuffer ring = new TickRingBuffer(8, new WaitStrategy.BusySpin());
+		Recorder recorder = new Recorder();
+		KoreanTickHandler failing = (tick, endOfBatch) -> {
+			throw new IllegalStateException("테스트");
+		};
+		ring.publish(batch(0, 2), 1);
+
+		assertThat(ring.drain(List.of(failing, recorder), 10)).isEqualTo(2);
+		assertThat(recorder.seen).hasSize(2);
+	}
+
+	@Test
+	void producerWaitsForConsumerWhenFull() throws InterruptedException {
+		TickRingBuffer ring = new TickRingBuffer(8, new WaitStrategy.BusySpin());
+		Recorder recorder = new Recorder();
+		int total = 2_000;
+		AtomicBoolean done = new AtomicBoolean();
+
+		WaitStrategy waitStrategy = new WaitStrategy.Yielding();
+		Thread consumer = new Thread(() -> {
+			int idle = 0;
+			while (!done.get() || ring.backlog() > 0) {
+				if (ring.drain(List.of(recorder), 5) == 0) {
+					waitStrategy.idle(++idle);
+				} else {
+					idle = 0;
+				}
+			}
+		});
+		consumer.start();
+		for (long next = 0; next < total; next += 5) {
+			ring.publish(batch(next, 5), next);
+		}
+		done.set(true);
+		consumer.join(10_000);
+
+		assertThat(consumer.isAlive()).isFalse();
+		assertThat(recorder.seen).hasSize(total);
+		for (int i = 0; i < total; i++) {
+			assertThat(recorder.seen.get(i).volume()).isEqualTo(i);
+		}
+		// 용량(8)보다 큰 묶음이 이어지므로 생산자가 소비자를 기다린 적이 있어야 함
+		assertThat(ring.fullWaits()).isPositive();
+	}
+
+	@Test
+	void createsWaitStrategyByName() {
+		assertThat(WaitStrategy.create("busy-spin")).isInstanceOf(WaitStrategy.BusySpin.class);
+		assertThat(WaitStrategy.create("Yielding")).isInstanceOf(WaitStrategy.Yielding.class);
+		assertThat(WaitStrategy.create("SLEEPING")).isInstanceOf(WaitStrategy.Sleeping.class);
+		assertThat(WaitStrategy.create("blocking")).isInstanceOf(WaitStrategy.Blocking.class);
+		assertThatThrownBy(() -> WaitStrategy.create("parking")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void blockingStrategyReturnsOnSignalOrTimeout() throws InterruptedException {
+		WaitStrategy.Blocking blocking = new WaitStrategy.Blocking();
+		AtomicBoolean woke = new AtomicBoolean();
+		Thread waiter = new Thread(() -> {
+			blocking.idle(1);
+			woke.set(true);
+		});
+		waiter.start();
+		blocking.signal();
+		waiter.join(1_000);
+
+		// 대기 전에 신호가 와서 놓치더라도 최대 대기 시간 뒤에는 깨어남
+		assertThat(woke).isTrue();
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.data_collector_service.candle;
+
+import com.example.data_collector_service.buffer.SymbolTable;
+import com.example.data_collector_service.decoder.KoreanTick;
+import com.example.data_collector_service.entity.MinuteCandle;
+import com.example.data_collector_service.journal.TickJournal;
+import com.example.data_collector_service.repository.DailyStockBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MinuteCandleAggregatorTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 4, 1);
+	private static final String CODE = "005930";
+
+	@TempDir
+	Path dir;
+
+	private final SymbolTable symbolTable = new SymbolTable();
+	// minute_candle 대신 upsertMinuteCandles와 같이 거래량/건수를 더하는 저장소
+	private final Map<LocalDateTime, MinuteCandle> stored = new HashMap<>();
+
+	private MinuteCandleAggregator aggregator(DailyStockBatchRepository batchRepo) {
+		return new MinuteCandleAggregator(symbolTable, batchRepo, new SimpleMeterRegistry(), true, 2000, 1000);
+	}
+
+	private TickJournal journal() {
+		TickJournal journal = new TickJournal();
+		ReflectionTestUtils.setField(journal, "enabled", true);
+		ReflectionTestUtils.setField(journal, "directory", dir.toString());
+		ReflectionTestUtils.setField(journal, "segmentRecords", 4);
+		return journal;
+	}
+
+	private static KoreanTick tick(int tradeTime, long price, long volume) {
+		LocalDateTime tradedAt = DAY.atTime(tradeTime / 10000, tradeTime / 100 % 100, tradeTime % 100);
+		KoreanTick tick = new KoreanTick();
+		tick.set(CODE, tradeTime, price * 10_000, 0, volume,
+				tradedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+		return tick;
+	}
+
+	private void flush(MinuteCandleAggregator aggregator, long nowMillis) {
+		aggregator.closeDue(nowMillis);
+		for (MinuteCandle candle : aggregator.drainClosed()) {
+			stored.merge(candle.getBucketStart(), candle, (saved, added) -> {
+				saved.setVolume(saved.getVolume() + added.getVolume());
+				saved.setTickCount(saved.getTickCount() + added.getTickCount());
+				return saved;
+			});
+		}
+	}
+
+	private static long endOfDay() {
+		return DAY.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	@Test
+	void journalReplayDoesNotAddVolumeToPersistedMinutes() {
+		symbolTable.register(CODE);
+		List<KoreanTick> ticks = List.of(
+				tick(90001, 71900, 10), tick(90015, 72000, 10), tick(90059, 71800, 10),
+				tick(90100, 71900, 7), tick(90130, 72100, 3),
+				tick(90200, 72200, 5));
+
+		// 수신: 저널에 기록하고 분봉에 반영, 09:02 분봉이 열린 상태에서 09:00, 09:01만 저장
+		TickJournal journal = journal();
+		journal.recover(List.of());
+		MinuteCandleAggregator live = aggregator(mock(DailyStockBatchRepository.class));
+		for (KoreanTick tick : ticks) {
+			journal.onTick(tick, false);
+			live.onTick(tick, false);
+		}
+		flush(live, ticks.get(0).receivedAt());
+		assertThat(stored).hasSize(2);
+
+		// 재시작: 체크포인트가 분봉 저장보다 뒤처져 있으므로 처음 tick부터 재생됨
+		DailyStockBatchRepository batchRepo = mock(DailyStockBatchRepository.class);
+		when(batchRepo.findLatestMinuteCandleBuckets(CandleMarket.KOREAN))
+				.thenReturn(Map.of(CODE, DAY.atTime(9, 1)));
+		MinuteCandleAggregator restarted = aggregator(batchRepo);
+		restarted.loadPersistedMinutes();
+		journal().recover(List.of(restarted));
+		flush(restarted, endOfDay());
+
+		assertThat(stored.get(DAY.atTime(9, 0)).getVolume()).isEqualTo(30);
+		assertThat(stored.get(DAY.atTime(9, 0)).getTickCount()).isEqualTo(3);
+		assertThat(stored.get(DAY.atTime(9, 1)).getVolume()).isEqualTo(10);
+		assertThat(stored.get(DAY.atTime(9, 1)).getTickCount()).isEqualTo(2);
+		// 저장되지 않았던 분은 재생으로 복구
+		assertThat(stored.get(DAY.atTime(9, 2)).getVolume()).isEqualTo(5);
+		assertThat(stored.get(DAY.atTime(9, 2)).getTickCount()).isEqualTo(1);
+	}
+
+	@Test
+	void ticksAfterPersistedMinuteAreFoldedNormally() {
+		symbolTable.register(CODE);
+		MinuteCandleAggregator aggregator = aggregator(mock(DailyStockBatchRepository.class));
+		aggregator.skipPersisted(Map.of(CODE, DAY.atTime(9, 0)));
+
+		aggregator.onTick(tick(90030, 71900, 4), false);
+		aggregator.onTick(tick(90110, 72000, 6), false);
+		aggregator.onTick(tick(90140, 72100, 1), false);
+		// 저장된 분 이후의 시세가 온 뒤에는 더 이상 건너뛰지 않음 (늦게 온 이전 분 시세는 late로 처리)
+		aggregator.onTick(tick(90050, 71000, 9), false);
+		flush(aggregator, endOfDay());
+
+		assertThat(stored).containsOnlyKeys(DAY.atTime(9, 1));
+		assertThat(stored.get(DAY.atTime(9, 1)).getVolume()).isEqualTo(7);
+		assertThat(stored.get(DAY.atTime(9, 1)).getTickCount()).isEqualTo(2);
+	}
+}
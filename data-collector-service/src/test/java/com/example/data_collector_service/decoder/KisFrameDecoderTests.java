@@ -0,0 +1,119 @@
+package com.example.data_collector_service.decoder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KisFrameDecoderTests {
+
+	// H0STCNT0 레코드 1건 (46개 필드, 사용하지 않는 필드는 0)
+	private static String record(String code, String time, String price, String rate, String volume) {
+		String[] fields = new String[KisFrameDecoder.FIELDS_PER_RECORD];
+		Arrays.fill(fields, "0");
+		fields[KisFrameDecoder.FIELD_STOCK_CODE] = code;
+		fields[KisFrameDecoder.FIELD_TRADE_TIME] = time;
+		fields[KisFrameDecoder.FIELD_PRICE] = price;
+		fields[KisFrameDecoder.FIELD_CHANGE_RATE] = rate;
+		fields[KisFrameDecoder.FIELD_VOLUME] = volume;
+		return String.join("^", fields);
+	}
+
+	private static String frame(int count, String... records) {
+		return "0|H0STCNT0|" + String.format("%03d", count) + "|" + String.join("^", records);
+	}
+
+	@Test
+	void decodesEveryRecordOfMultiRecordFrame() {
+		// 초기 용량보다 많은 레코드로 슬롯 확장까지 확인
+		KoreanTickBatch batch = new KoreanTickBatch(2);
+		String frame = frame(3,
+				record("005930", "090001", "71900", "-0.14", "10"),
+				record("000660", "090002", "182500", "1.25", "3"),
+				record("035720", "090003", "45050.5", "0", "120"));
+
+		assertThat(KisFrameDecoder.decode(frame, batch)).isEqualTo(KisFrameDecoder.Result.TICK);
+		assertThat(batch.size()).isEqualTo(3);
+
+		assertThat(batch.get(0).stockCode()).isEqualTo("005930");
+		assertThat(batch.get(0).tradeTime()).isEqualTo(90001);
+		assertThat(batch.get(0).price()).isEqualTo(719_000_000L);
+		assertThat(batch.get(0).changeRate()).isEqualTo(-14L);
+		assertThat(batch.get(0).volume()).isEqualTo(10L);
+
+		assertThat(batch.get(1).stockCode()).isEqualTo("000660");
+		assertThat(batch.get(1).price()).isEqualTo(1_825_000_000L);
+		assertThat(batch.get(1).changeRate()).isEqualTo(125L);
+		assertThat(batch.get(1).volume()).isEqualTo(3L);
+
+		assertThat(batch.get(2).stockCode()).isEqualTo("035720");
+		assertThat(batch.get(2).tradeTime()).isEqualTo(90003);
+		assertThat(batch.get(2).price()).isEqualTo(450_505_000L);
+		assertThat(batch.get(2).volume()).isEqualTo(120L);
+	}
+
+	@Test
+	void reusedBatchIsClearedBetweenFrames() {
+		KoreanTickBatch batch = new KoreanTickBatch();
+		KisFrameDecoder.decode(frame(2,
+				record("005930", "090001", "71900", "0", "1"),
+				record("000660", "090001", "182500", "0", "1")), batch);
+
+		KisFrameDecoder.decode(frame(1, record("035720", "090002", "45000", "0", "7")), batch);
+
+		assertThat(batch.size()).isEqualTo(1);
+		assertThat(batch.get(0).stockCode()).isEqualTo("035720");
+		assertThat(batch.get(0).volume()).isEqualTo(7L);
+	}
+
+	@Test
+	void keepsRecordsBeforeMalformedRecord() {
+		KoreanTickBatch batch = new KoreanTickBatch();
+		String frame = frame(3,
+				record("005930", "090001", "71900", "0", "1"),
+				record("000660", "090001", "18x500", "0", "1"),
+				record("035720", "090001", "45000", "0", "1"));
+
+		assertThat(KisFrameDecoder.decode(frame, batch)).isEqualTo(KisFrameDecoder.Result.TICK);
+		assertThat(batch.size()).isEqualTo(1);
+		assertThat(batch.get(0).stockCode()).isEqualTo("005930");
+	}
+
+	@Test
+	void stopsAtDeclaredRecordCount() {
+		KoreanTickBatch batch = new KoreanTickBatch();
+		String frame = frame(1,
+				record("005930", "090001", "71900", "0", "1"),
+				record("000660", "090001", "182500", "0", "1"));
+
+		KisFrameDecoder.decode(frame, batch);
+
+		assertThat(batch.size()).isEqualTo(1);
+	}
+
+	@Test
+	void lastRecordWithoutVolumeDefaultsToZero() {
+		KoreanTickBatch batch = new KoreanTickBatch();
+		String frame = frame(2,
+				record("005930", "090001", "71900", "0", "5"),
+				"000660^090002^182500^0^0^1.25");
+
+		assertThat(KisFrameDecoder.decode(frame, batch)).isEqualTo(KisFrameDecoder.Result.TICK);
+		assertThat(batch.size()).isEqualTo(2);
+		assertThat(batch.get(1).changeRate()).isEqualTo(125L);
+		assertThat(batch.get(1).volume()).isZero();
+	}
+
+	@Test
+	void classifiesControlMessages() {
+		KoreanTickBatch batch = new KoreanTickBatch();
+
+		assertThat(KisFrameDecoder.decode("{\"header\":{\"tr_id\":\"PINGPONG\"}}", batch))
+				.isEqualTo(KisFrameDecoder.Result.PINGPONG);
+		assertThat(KisFrameDecoder.decode("{\"header\":{\"tr_id\":\"H0STCNT0\"}}", batch))
+				.isEqualTo(KisFrameDecoder.Result.CONTROL);
+		assertThat(KisFrameDecoder.decode("0|H0STCNT0", batch)).isEqualTo(KisFrameDecoder.Result.MALFORMED);
+		assertThat(KisFrameDecoder.decode("", batch)).isEqualTo(KisFrameDecoder.Result.MALFORMED);
+	}
+}
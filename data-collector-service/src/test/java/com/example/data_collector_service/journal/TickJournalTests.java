@@ -0,0 +1,178 @@
+package com.example.data_collector_service.journal;
+
+import com.example.data_collector_service.buffer.KoreanTickHandler;
+import com.example.data_collector_service.decoder.KoreanTick;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TickJournalTests {
+
+	private static final int SEGMENT_RECORDS = 4;
+
+	@TempDir
+	Path dir;
+
+	private record Replayed(String code, int tradeTime, long price, long changeRate, long volume, long receivedAt) {
+	}
+
+	/**
+	 * 재생된 tick을 복사해 모으는 downstream 핸들러
+	 */
+	private static final class Recorder implements KoreanTickHandler {
+		final List<Replayed> ticks = new ArrayList<>();
+
+		@Override
+		public void onTick(KoreanTick tick, boolean endOfBatch) {
+			ticks.add(new Replayed(tick.stockCode(), tick.tradeTime(), tick.price(), tick.changeRate(),
+					tick.volume(), tick.receivedAt()));
+		}
+	}
+
+	private TickJournal journal(boolean enabled) {
+		TickJournal journal = new TickJournal();
+		ReflectionTestUtils.setField(journal, "enabled", enabled);
+		ReflectionTestUtils.setField(journal, "directory", dir.toString());
+		ReflectionTestUtils.setField(journal, "segmentRecords", SEGMENT_RECORDS);
+		return journal;
+	}
+
+	// 재시작: 새 저널 인스턴스로 복구하고 재생된 tick을 반환
+	private List<Replayed> restart() {
+		Recorder recorder = new Recorder();
+		journal(true).recover(List.of(recorder));
+		return recorder.ticks;
+	}
+
+	// n번째 tick (시퀀스 n과 같은 값으로 구분)
+	private static Replayed expected(int n) {
+		return new Replayed(n % 2 == 0 ? "005930" : "000660", 90000 + n, 719_000_000L + n, -n, n * 10L,
+				1_711_929_600_000L + n);
+	}
+
+	private static void write(TickJournal journal, int from, int to) {
+		KoreanTick tick = new KoreanTick();
+		for (int n = from; n <= to; n++) {
+			Replayed r = expected(n);
+			tick.set(r.code(), r.tradeTime(), r.price(), r.changeRate(), r.volume(), r.receivedAt());
+			journal.onTick(tick, false);
+		}
+	}
+
+	private static List<Replayed> expectedRange(int from, int to) {
+		List<Replayed> result = new ArrayList<>();
+		for (int n = from; n <= to; n++) {
+			result.add(expected(n));
+		}
+		return result;
+	}
+
+	private List<String> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.map(p -> p.getFileName().toString()).filter(name -> name.endsWith(JournalSegment.SUFFIX)).sorted().toList();
+		}
+	}
+
+	@Test
+	void replaysEveryRecordAcrossSegmentsWithoutCheckpoint() throws IOException {
+		TickJournal journal = journal(true);
+		journal.recover(List.of());
+		write(journal, 1, 10);
+
+		assertThat(segmentFiles()).containsExactly(
+				JournalSegment.fileName(1), JournalSegment.fileName(5), JournalSegment.fileName(9));
+		assertThat(restart()).containsExactlyElementsOf(expectedRange(1, 10));
+	}
+
+	@Test
+	void replaysOnlyRecordsAfterCheckpointAndDeletesFlushedSegments() throws IOException {
+		TickJournal journal = journal(true);
+		journal.recover(List.of());
+		write(journal, 1, 10);
+
+		journal.markFlushed(6);
+
+		assertThat(Files.readString(dir.resolve("checkpoint"), StandardCharsets.US_ASCII)).isEqualTo("6");
+		// 1~4 세그먼트만 모두 저장됨, 5~8 세그먼트는 7, 8이 남아 있으므로 유지
+		assertThat(segmentFiles()).containsExactly(JournalSegment.fileName(5), JournalSegment.fileName(9));
+		assertThat(restart()).containsExactlyElementsOf(expectedRange(7, 10));
+	}
+
+	@Test
+	void checkpointNeverMovesBackwards() {
+		TickJournal journal = journal(true);
+		journal.recover(List.of());
+		write(journal, 1, 10);
+
+		journal.markFlushed(8);
+		journal.markFlushed(3);
+
+		assertThat(journal.flushedSequence()).isEqualTo(8);
+		TickJournal restarted = journal(true);
+		restarted.recover(List.of());
+		assertThat(restarted.flushedSequence()).isEqualTo(8);
+	}
+
+	@Test
+	void continuesSequenceAfterRestartAndDeletesEmptySegments() throws IOException {
+		TickJournal journal = journal(true);
+		journal.recover(List.of());
+		write(journal, 1, 3);
+
+		// 기록 없이 종료된 재시작: 새로 만든 빈 세그먼트(4)는 다음 복구에서 삭제되고 같은 이름으로 다시 만들어짐
+		assertThat(restart()).containsExactlyElementsOf(expectedRange(1, 3));
+		assertThat(segmentFiles()).containsExactly(JournalSegment.fileName(1), JournalSegment.fileName(4));
+
+		TickJournal restarted = journal(true);
+		restarted.recover(List.of());
+		assertThat(segmentFiles()).containsExactly(JournalSegment.fileName(1), JournalSegment.fileName(4));
+		write(restarted, 4, 6);
+		restarted.markFlushed(4);
+
+		assertThat(restart()).containsExactlyElementsOf(expectedRange(5, 6));
+	}
+
+	@Test
+	void ignoresRecordWhoseMagicWasNotWritten() throws IOException {
+		TickJournal journal = journal(true);
+		journal.recover(List.of());
+		write(journal, 1, 3);
+
+		// 세 번째 레코드를 쓰는 도중 종료된 것처럼 MAGIC을 지움
+		try (FileChannel channel = FileChannel.open(dir.resolve(JournalSegment.fileName(1)), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4), 2L * JournalSegment.RECORD_SIZE);
+		}
+
+		assertThat(restart()).containsExactlyElementsOf(expectedRange(1, 2));
+	}
+
+	@Test
+	void disabledJournalNeitherReplaysNorWrites() throws IOException {
+		TickJournal journal = journal(true);
+		journal.recover(List.of());
+		write(journal, 1, 3);
+
+		Recorder recorder = new Recorder();
+		TickJournal disabled = journal(false);
+		disabled.recover(List.of(recorder));
+		write(disabled, 4, 6);
+		disabled.markFlushed(3);
+
+		assertThat(recorder.ticks).isEmpty();
+		assertThat(dir.resolve("checkpoint")).doesNotExist();
+		assertThat(restart()).containsExactlyElementsOf(expectedRange(1, 3));
+	}
+}
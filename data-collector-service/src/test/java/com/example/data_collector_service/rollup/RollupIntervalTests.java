@@ -0,0 +1,62 @@
+package com.example.data_collector_service.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupIntervalTests {
+
+	private static final LocalDateTime FROM = LocalDateTime.of(2024, 4, 1, 9, 0);
+
+	@Test
+	void selectsCoarsestIntervalThatFillsRequestedPoints() {
+		// 1주: MONTH 1, WEEK 2, DAY 8, HOUR 169
+		assertThat(RollupInterval.select(FROM, FROM.plusDays(7), null, 100, 2000)).isEqualTo(RollupInterval.HOUR);
+		assertThat(RollupInterval.select(FROM, FROM.plusDays(7), null, 8, 2000)).isEqualTo(RollupInterval.DAY);
+		assertThat(RollupInterval.select(FROM, FROM.plusYears(3), null, 30, 2000)).isEqualTo(RollupInterval.MONTH);
+	}
+
+	@Test
+	void fallsBackToMinuteWhenNoIntervalFillsPoints() {
+		assertThat(RollupInterval.select(FROM, FROM.plusMinutes(10), null, 100, 2000)).isEqualTo(RollupInterval.MINUTE);
+	}
+
+	@Test
+	void nonPositivePointsSelectCoarsestInterval() {
+		assertThat(RollupInterval.select(FROM, FROM.plusMinutes(10), null, 0, 2000)).isEqualTo(RollupInterval.MONTH);
+		assertThat(RollupInterval.select(FROM, FROM.plusDays(7), null, -5, 2000)).isEqualTo(RollupInterval.MONTH);
+	}
+
+	@Test
+	void keepsRequestedIntervalWithinMaxPoints() {
+		assertThat(RollupInterval.select(FROM, FROM.plusDays(1), RollupInterval.MINUTE, 100, 2000))
+				.isEqualTo(RollupInterval.MINUTE);
+		assertThat(RollupInterval.select(FROM, FROM.plusMinutes(10), RollupInterval.WEEK, 100, 2000))
+				.isEqualTo(RollupInterval.WEEK);
+	}
+
+	@Test
+	void stepsUpUntilMaxPointsIsRespected() {
+		// 1년: MINUTE 525,601, HOUR 8,761, DAY 366
+		assertThat(RollupInterval.select(FROM, FROM.plusDays(365), RollupInterval.MINUTE, 100, 2000))
+				.isEqualTo(RollupInterval.DAY);
+		// 포인트 수로 고른 간격(HOUR)도 max-points를 넘으면 올림
+		assertThat(RollupInterval.select(FROM, FROM.plusDays(365), null, 5000, 2000))
+				.isEqualTo(RollupInterval.DAY);
+		// MONTH에서는 더 올릴 간격이 없음
+		assertThat(RollupInterval.select(FROM, FROM.plusYears(500), RollupInterval.MINUTE, 100, 10))
+				.isEqualTo(RollupInterval.MONTH);
+	}
+
+	@Test
+	void bucketStartAlignsWeeksToMondayAndMonthsToFirstDay() {
+		LocalDateTime sunday = LocalDateTime.of(2024, 5, 5, 15, 42, 10);
+		assertThat(RollupInterval.MINUTE.bucketStart(sunday)).isEqualTo(LocalDateTime.of(2024, 5, 5, 15, 42));
+		assertThat(RollupInterval.HOUR.bucketStart(sunday)).isEqualTo(LocalDateTime.of(2024, 5, 5, 15, 0));
+		assertThat(RollupInterval.DAY.bucketStart(sunday)).isEqualTo(LocalDateTime.of(2024, 5, 5, 0, 0));
+		assertThat(RollupInterval.WEEK.bucketStart(sunday)).isEqualTo(LocalDateTime.of(2024, 4, 29, 0, 0));
+		assertThat(RollupInterval.MONTH.bucketStart(sunday)).isEqualTo(LocalDateTime.of(2024, 5, 1, 0, 0));
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.entity.GlobalDailyStock;
+import com.example.data_collector_service.service.GlobalStockApiService.ForeignStockInfo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OverseasPollingPlannerTests {
+
+	private static final long START = 1_711_978_200_000L;
+	private static final long TICK_MILLIS = 1000;
+	private static final double BUDGET_PER_SECOND = 1.5;
+	private static final long MIN_INTERVAL_MILLIS = 3000;
+	private static final Set<String> VOLATILE = Set.of("NVDA", "TSLA");
+	private static final Predicate<ForeignStockInfo> US_OPEN = stock -> !"HKS".equals(stock.getExchangeCode());
+
+	private final Random random = new Random(1);
+	private final Map<String, Double> prices = new HashMap<>();
+	// 종목 코드 -> 조회 시각
+	private final Map<String, List<Long>> polls = new HashMap<>();
+	private int maxPerTick;
+
+	// application.yml 기본값과 같은 설정
+	private static OverseasPollingPlanner planner() {
+		GlobalStockApiService api = mock(GlobalStockApiService.class);
+		when(api.foreignStocks()).thenCallRealMethod();
+		return new OverseasPollingPlanner(api, BUDGET_PER_SECOND, MIN_INTERVAL_MILLIS, 120_000, 300_000, 600_000, 1.0, 0.2);
+	}
+
+	/**
+	 * 1초 주기로 조회 대상을 고르고, 변동 종목은 조회마다 약 0.3%씩 움직이고 나머지는 가격이 그대로인 시세를 돌려줍니다.
+	 */
+	private int simulate(OverseasPollingPlanner planner, Predicate<ForeignStockInfo> marketOpen, long from, long to) {
+		int total = 0;
+		for (long now = from; now < to; now += TICK_MILLIS) {
+			List<ForeignStockInfo> due = planner.dueSymbols(marketOpen, now);
+			total += due.size();
+			maxPerTick = Math.max(maxPerTick, due.size());
+			List<GlobalDailyStock> quotes = new ArrayList<>(due.size());
+			for (ForeignStockInfo stock : due) {
+				String code = stock.getStockCode();
+				double price = prices.getOrDefault(code, 100.0);
+				if (VOLATILE.contains(code)) {
+					price *= 1 + random.nextGaussian() * 0.003;
+				}
+				prices.put(code, price);
+				polls.computeIfAbsent(code, k -> new ArrayList<>()).add(now);
+				GlobalDailyStock quote = new GlobalDailyStock();
+				quote.setStockCode(code);
+				quote.setCurrentPrice(BigDecimal.valueOf(price));
+				quotes.add(quote);
+			}
+			planner.onQuotes(quotes, now);
+		}
+		return total;
+	}
+
+	// since 이후 조회 간격의 평균
+	private double averageGapMillis(String code, long since) {
+		List<Long> times = polls.get(code).stream().filter(t -> t >= since).toList();
+		return (double) (times.get(times.size() - 1) - times.get(0)) / (times.size() - 1);
+	}
+
+	@Test
+	void volatileSymbolsArePolledMoreOftenWithinBudget() {
+		OverseasPollingPlanner planner = planner();
+		long end = START + 30 * 60_000L;
+
+		int total = simulate(planner, US_OPEN, START, end);
+
+		// 30분 동안 호출 수는 예산(초당 1.5회) + 버스트(1초치 + 1) 이하
+		assertThat(total).isLessThanOrEqualTo((int) (BUDGET_PER_SECOND * 30 * 60 + BUDGET_PER_SECOND + 1));
+		assertThat(maxPerTick).isLessThanOrEqualTo((int) (BUDGET_PER_SECOND + 1));
+		assertThat(polls).doesNotContainKeys("09988", "09618", "00700");
+
+		// 변동성 추정이 안정된 뒤 10분 이후: 변동 종목은 약 3~4초, 가격이 그대로인 종목은 약 18초마다
+		long settled = START + 10 * 60_000L;
+		for (String code : polls.keySet()) {
+			double gap = averageGapMillis(code, settled);
+			if (VOLATILE.contains(code)) {
+				assertThat(gap).as(code).isLessThanOrEqualTo(5_000);
+			} else {
+				assertThat(gap).as(code).isGreaterThanOrEqualTo(15_000);
+			}
+			List<Long> times = polls.get(code);
+			for (int i = 1; i < times.size(); i++) {
+				assertThat(times.get(i) - times.get(i - 1)).as(code).isGreaterThanOrEqualTo(MIN_INTERVAL_MILLIS);
+			}
+		}
+	}
+
+	@Test
+	void closedMarketsDoNotAccumulateBudget() {
+		OverseasPollingPlanner planner = planner();
+
+		// 장이 닫힌 10분 동안은 조회도 토큰 적립도 없음
+		assertThat(simulate(planner, stock -> false, START, START + 10 * 60_000L)).isZero();
+
+		// 개장 직후에도 닫혀 있던 동안의 토큰이 한꺼번에 쓰이지 않음 (최대 버스트 이하)
+		assertThat(planner.dueSymbols(US_OPEN, START + 10 * 60_000L))
+				.hasSizeLessThanOrEqualTo((int) (BUDGET_PER_SECOND + 1));
+	}
+
+	@Test
+	void interestRaisesPollingRateOfFlatSymbol() {
+		OverseasPollingPlanner planner = planner();
+		long warmUp = START + 10 * 60_000L;
+		simulate(planner, US_OPEN, START, warmUp);
+
+		for (long now = warmUp; now < warmUp + 10 * 60_000L; now += 10_000) {
+			planner.recordInterest("KO", now);
+		}
+		polls.clear();
+		simulate(planner, US_OPEN, warmUp, warmUp + 10 * 60_000L);
+
+		assertThat(averageGapMillis("KO", warmUp)).isLessThan(averageGapMillis("XOM", warmUp) / 2);
+	}
+}
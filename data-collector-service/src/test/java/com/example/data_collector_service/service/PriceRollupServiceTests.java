@@ -0,0 +1,95 @@
+package com.example.data_collector_service.service;
+
+import com.example.data_collector_service.archive.ArchivedHistory;
+import com.example.data_collector_service.candle.CandleMarket;
+import com.example.data_collector_service.entity.PriceRollup;
+import com.example.data_collector_service.rollup.RollupInterval;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceRollupServiceTests {
+
+	private static ArchivedHistory day(String symbol, String date, int open, int high, int low, int close, Integer ticks) {
+		return new ArchivedHistory(symbol, null, null, LocalDate.parse(date),
+				BigDecimal.valueOf(open), BigDecimal.valueOf(high), BigDecimal.valueOf(low), BigDecimal.valueOf(close),
+				null, ticks);
+	}
+
+	private static PriceRollup find(List<PriceRollup> rollups, String symbol, RollupInterval interval, LocalDateTime bucketStart) {
+		return rollups.stream()
+				.filter(r -> r.getSymbol().equals(symbol) && r.getResolution() == interval && r.getBucketStart().equals(bucketStart))
+				.findFirst()
+				.orElse(null);
+	}
+
+	@Test
+	void weekCrossingMonthBoundaryIsFoldedWholeButMonthStartsAtMonthStart() {
+		// 2024-04-29(월) ~ 05-03(금), 5월분 집계
+		List<ArchivedHistory> rows = new ArrayList<>(List.of(
+				day("005930", "2024-05-02", 103, 108, 101, 106, 30),
+				day("005930", "2024-04-29", 100, 104, 99, 102, 10),
+				day("005930", "2024-05-03", 106, 107, 95, 97, 40),
+				day("005930", "2024-04-30", 102, 110, 101, 104, 20),
+				day("005930", "2024-05-01", 104, 105, 100, 103, null)));
+
+		List<PriceRollup> rollups = PriceRollupService.aggregate(CandleMarket.KOREAN, rows, LocalDate.of(2024, 5, 1));
+
+		assertThat(rollups).filteredOn(r -> r.getResolution() == RollupInterval.DAY).hasSize(5);
+		PriceRollup week = find(rollups, "005930", RollupInterval.WEEK, LocalDateTime.of(2024, 4, 29, 0, 0));
+		assertThat(week.getOpenPrice()).isEqualByComparingTo("100");
+		assertThat(week.getHighPrice()).isEqualByComparingTo("110");
+		assertThat(week.getLowPrice()).isEqualByComparingTo("95");
+		assertThat(week.getClosePrice()).isEqualByComparingTo("97");
+		assertThat(week.getTickCount()).isEqualTo(100);
+
+		// MONTH는 monthStart 이후 행만 (4월 MONTH 구간은 만들지 않음)
+		assertThat(rollups).filteredOn(r -> r.getResolution() == RollupInterval.MONTH).hasSize(1);
+		PriceRollup month = find(rollups, "005930", RollupInterval.MONTH, LocalDateTime.of(2024, 5, 1, 0, 0));
+		assertThat(month.getOpenPrice()).isEqualByComparingTo("104");
+		assertThat(month.getHighPrice()).isEqualByComparingTo("108");
+		assertThat(month.getLowPrice()).isEqualByComparingTo("95");
+		assertThat(month.getClosePrice()).isEqualByComparingTo("97");
+		assertThat(month.getTickCount()).isEqualTo(70);
+	}
+
+	@Test
+	void historyDerivedRollupsHaveNoVolume() {
+		List<ArchivedHistory> rows = new ArrayList<>(List.of(day("005930", "2024-05-02", 103, 108, 101, 106, 30)));
+
+		List<PriceRollup> rollups = PriceRollupService.aggregate(CandleMarket.KOREAN, rows, LocalDate.of(2024, 5, 1));
+
+		assertThat(rollups).hasSize(3).allSatisfy(r -> assertThat(r.getVolume()).isNull());
+	}
+
+	@Test
+	void keepsSymbolsSeparateAndFillsMissingOhlcFromClose() {
+		List<ArchivedHistory> rows = new ArrayList<>(List.of(
+				new ArchivedHistory("USD/KRW", null, null, LocalDate.of(2024, 5, 3),
+						null, null, null, new BigDecimal("1362.5"), null, null),
+				day("005930", "2024-05-02", 103, 108, 101, 106, 30),
+				new ArchivedHistory("USD/KRW", null, null, LocalDate.of(2024, 5, 2),
+						null, null, null, new BigDecimal("1370.0"), null, null),
+				// 종가가 없는 행은 집계하지 않음
+				new ArchivedHistory("USD/KRW", null, null, LocalDate.of(2024, 5, 6),
+						null, null, null, null, null, null)));
+
+		List<PriceRollup> rollups = PriceRollupService.aggregate(CandleMarket.FOREX, rows, LocalDate.of(2024, 5, 1));
+
+		PriceRollup week = find(rollups, "USD/KRW", RollupInterval.WEEK, LocalDateTime.of(2024, 4, 29, 0, 0));
+		assertThat(week.getOpenPrice()).isEqualByComparingTo("1370.0");
+		assertThat(week.getHighPrice()).isEqualByComparingTo("1370.0");
+		assertThat(week.getLowPrice()).isEqualByComparingTo("1362.5");
+		assertThat(week.getClosePrice()).isEqualByComparingTo("1362.5");
+		assertThat(week.getTickCount()).isZero();
+		assertThat(find(rollups, "USD/KRW", RollupInterval.WEEK, LocalDateTime.of(2024, 5, 6, 0, 0))).isNull();
+		assertThat(find(rollups, "005930", RollupInterval.WEEK, LocalDateTime.of(2024, 4, 29, 0, 0)).getClosePrice())
+				.isEqualByComparingTo("106");
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.data_collector_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SwingingDoorCompressorTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 4, 1, 9, 0);
+	private static final double DEVIATION_PERCENT = 0.1;
+	private static final long MAX_GAP_SECONDS = 60;
+
+	private record Sample(int index, LocalDateTime at, double price) {
+	}
+
+	private static List<Sample> randomWalk(long seed, int count) {
+		Random random = new Random(seed);
+		List<Sample> samples = new ArrayList<>(count);
+		double price = 70000;
+		LocalDateTime at = START;
+		for (int i = 0; i < count; i++) {
+			// 0.2 ~ 3초 간격, 가끔 큰 폭으로 움직임
+			at = at.plus(200 + random.nextInt(2800), ChronoUnit.MILLIS);
+			price += random.nextGaussian() * (random.nextInt(20) == 0 ? 200 : 20);
+			samples.add(new Sample(i, at, price));
+		}
+		return samples;
+	}
+
+	private static List<Sample> compress(SwingingDoorCompressor<Sample> compressor, List<Sample> samples) {
+		List<Sample> stored = new ArrayList<>();
+		for (Sample sample : samples) {
+			compressor.offer("005930", sample.at(), BigDecimal.valueOf(sample.price()), sample, () -> false, stored::add);
+		}
+		// 시세가 끊긴 뒤 남은 held까지 저장
+		stored.addAll(compressor.drainStale(samples.get(samples.size() - 1).at().plusSeconds(MAX_GAP_SECONDS)));
+		return stored;
+	}
+
+	@Test
+	void discardedSamplesStayWithinDeviationOfStoredLine() {
+		SwingingDoorCompressor<Sample> compressor = new SwingingDoorCompressor<>(true, DEVIATION_PERCENT, MAX_GAP_SECONDS);
+		List<Sample> samples = randomWalk(42, 5000);
+
+		List<Sample> stored = compress(compressor, samples);
+
+		assertThat(stored.get(0)).isEqualTo(samples.get(0));
+		assertThat(stored.get(stored.size() - 1)).isEqualTo(samples.get(samples.size() - 1));
+		assertThat(stored.size()).isLessThan(samples.size());
+		for (int k = 0; k + 1 < stored.size(); k++) {
+			Sample from = stored.get(k);
+			Sample to = stored.get(k + 1);
+			assertThat(to.index()).isGreaterThan(from.index());
+			double deviation = Math.abs(from.price()) * DEVIATION_PERCENT / 100.0;
+			double span = ChronoUnit.MILLIS.between(from.at(), to.at());
+			for (int i = from.index() + 1; i < to.index(); i++) {
+				Sample discarded = samples.get(i);
+				double ratio = ChronoUnit.MILLIS.between(from.at(), discarded.at()) / span;
+				double interpolated = from.price() + (to.price() - from.price()) * ratio;
+				assertThat(Math.abs(discarded.price() - interpolated))
+						.as("샘플 %d (%s ~ %s 사이)", i, from.index(), to.index())
+						.isLessThanOrEqualTo(deviation + 1e-6);
+			}
+		}
+	}
+
+	@Test
+	void storesAtLeastOncePerMaxGapOnFlatPrice() {
+		SwingingDoorCompressor<Sample> compressor = new SwingingDoorCompressor<>(true, DEVIATION_PERCENT, MAX_GAP_SECONDS);
+		List<Sample> samples = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			samples.add(new Sample(i, START.plusSeconds(i), 70000));
+		}
+
+		List<Sample> stored = compress(compressor, samples);
+
+		// 가격이 변하지 않아도 max-gap마다 저장되어 차트에 공백이 생기지 않음
+		assertThat(stored.size()).isGreaterThanOrEqualTo(600 / (int) MAX_GAP_SECONDS);
+		for (int k = 0; k + 1 < stored.size(); k++) {
+			assertThat(ChronoUnit.SECONDS.between(stored.get(k).at(), stored.get(k + 1).at()))
+					.isLessThanOrEqualTo(MAX_GAP_SECONDS);
+		}
+	}
+
+	@Test
+	void drainStaleFlushesHeldOnlyAfterMaxGap() {
+		SwingingDoorCompressor<Sample> compressor = new SwingingDoorCompressor<>(true, DEVIATION_PERCENT, MAX_GAP_SECONDS);
+		List<Sample> stored = new ArrayList<>();
+		Sample first = new Sample(0, START, 70000);
+		Sample second = new Sample(1, START.plusSeconds(1), 70001);
+		compressor.offer("005930", first.at(), BigDecimal.valueOf(first.price()), first, () -> false, stored::add);
+		compressor.offer("005930", second.at(), BigDecimal.valueOf(second.price()), second, () -> false, stored::add);
+
+		assertThat(compressor.drainStale(second.at().plusSeconds(MAX_GAP_SECONDS - 1))).isEmpty();
+		assertThat(compressor.drainStale(second.at().plusSeconds(MAX_GAP_SECONDS))).containsExactly(second);
+		assertThat(compressor.drainStale(second.at().plusSeconds(MAX_GAP_SECONDS * 2))).isEmpty();
+		assertThat(stored).containsExactly(first);
+	}
+
+	@Test
+	void rolledBackBatchLeavesCommittedStateUnchanged() {
+		SwingingDoorCompressor<Sample> compressor = new SwingingDoorCompressor<>(true, DEVIATION_PERCENT, MAX_GAP_SECONDS);
+		Sample first = new Sample(0, START, 70000);
+		Sample second = new Sample(1, START.plusSeconds(1), 70001);
+
+		SwingingDoorCompressor.Batch<Sample> batch = compressor.begin();
+		compressor.offer(batch, "005930", first.at(), BigDecimal.valueOf(first.price()), first, 10, () -> false, s -> { });
+		compressor.offer(batch, "005930", second.at(), BigDecimal.valueOf(second.price()), second, 11, () -> false, s -> { });
+		compressor.end(batch, false);
+		assertThat(compressor.oldestHeldPosition()).isEqualTo(Long.MAX_VALUE);
+
+		// 롤백 뒤 같은 시세를 다시 받으면 처음 받은 시세로 다시 판단
+		List<Sample> stored = new ArrayList<>();
+		batch = compressor.begin();
+		compressor.offer(batch, "005930", first.at(), BigDecimal.valueOf(first.price()), first, 10, () -> false, stored::add);
+		compressor.offer(batch, "005930", second.at(), BigDecimal.valueOf(second.price()), second, 11, () -> false, stored::add);
+		compressor.end(batch, true);
+
+		assertThat(stored).containsExactly(first);
+		assertThat(compressor.oldestHeldPosition()).isEqualTo(11);
+	}
+
+	@Test
+	void offerOutsideBatchIsRejected() {
+		SwingingDoorCompressor<Sample> compressor = new SwingingDoorCompressor<>(true, DEVIATION_PERCENT, MAX_GAP_SECONDS);
+		SwingingDoorCompressor.Batch<Sample> batch = compressor.begin();
+		compressor.end(batch, true);
+
+		Sample sample = new Sample(0, START, 70000);
+		assertThatThrownBy(() -> compressor.offer(batch, "005930", START, BigDecimal.valueOf(70000), sample, 0,
+				() -> false, s -> { }))
+				.isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,161 @@
+package com.example.data_collector_service.tsdb;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSeriesSegmentTests {
+
+	private static final long BASE = 1_711_929_600_000L;
+
+	@TempDir
+	Path dir;
+
+	private record Point(long epochMillis, long scaledPrice) {
+	}
+
+	/**
+	 * 시각은 delta-of-delta 0 / 7비트 / 12비트 / 20비트 / 64비트 구간을 모두 (양수, 음수로) 지나고,
+	 * 가격은 XOR 0 / 직전 유효 비트 구간 재사용 / 새 구간 / 선행 0 31개 초과 / 유효 비트 64개를 모두 지나는 포인트
+	 */
+	private static List<Point> everyBucket() {
+		long[] deltas = {
+				1000, 1000,                      // 0
+				1050, 1000,                      // ±50 (7비트)
+				3000, 1000,                      // ±2000 (12비트)
+				301000, 1000,                    // ±300000 (20비트)
+				10_000_001_000L, 1000,           // ±10^10 (64비트)
+				999, 1000, 1000};
+		long[] prices = {
+				719_000_000L, 719_000_000L,       // 같음
+				719_010_000L, 719_020_000L,       // 새 구간 후 같은 구간 재사용
+				719_020_001L,                     // 선행 0이 31개를 넘는 작은 XOR
+				-719_020_001L,                    // 부호 반전
+				0L, 0x8000_0000_0000_0001L,       // 유효 비트 64개
+				Long.MAX_VALUE, Long.MIN_VALUE,
+				1L, 1L, 2L, 719_000_000L};
+		List<Point> points = new ArrayList<>();
+		long timestamp = BASE;
+		points.add(new Point(timestamp, prices[0]));
+		for (int i = 0; i < deltas.length; i++) {
+			timestamp += deltas[i];
+			points.add(new Point(timestamp, prices[i + 1]));
+		}
+		return points;
+	}
+
+	private static List<Point> randomPoints(long seed, int count) {
+		Random random = new Random(seed);
+		List<Point> points = new ArrayList<>(count);
+		long timestamp = BASE;
+		long price = 719_000_000L;
+		for (int i = 0; i < count; i++) {
+			timestamp += random.nextInt(10) == 0 ? random.nextInt(600_000) : 1000 + random.nextInt(50);
+			if (random.nextBoolean()) {
+				price += (random.nextInt(200) - 100) * 10_000L;
+			}
+			points.add(new Point(timestamp, price));
+		}
+		return points;
+	}
+
+	private static List<Point> scanAll(TimeSeriesSegment segment) {
+		List<Point> points = new ArrayList<>();
+		segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, (t, v) -> points.add(new Point(t, v)));
+		return points;
+	}
+
+	private static void appendAll(TimeSeriesSegment segment, List<Point> points) throws IOException {
+		for (Point point : points) {
+			assertThat(segment.append(point.epochMillis(), point.scaledPrice())).isTrue();
+		}
+	}
+
+	@Test
+	void roundTripsEveryTimestampAndValueBucket() throws IOException {
+		Path path = dir.resolve("005930" + TimeSeriesSegment.SUFFIX);
+		List<Point> points = everyBucket();
+
+		TimeSeriesSegment segment = TimeSeriesSegment.openForAppend(path);
+		appendAll(segment, points);
+
+		assertThat(segment.count()).isEqualTo(points.size());
+		assertThat(scanAll(segment)).containsExactlyElementsOf(points);
+		assertThat(scanAll(TimeSeriesSegment.openReadOnly(path))).containsExactlyElementsOf(points);
+	}
+
+	@Test
+	void roundTripsAfterGrowingBeyondInitialMapping() throws IOException {
+		Path path = dir.resolve("000660" + TimeSeriesSegment.SUFFIX);
+		List<Point> points = randomPoints(7, 20_000);
+
+		TimeSeriesSegment segment = TimeSeriesSegment.openForAppend(path);
+		appendAll(segment, points);
+
+		assertThat(segment.usedBytes()).isGreaterThan(16 * 1024);
+		assertThat(scanAll(TimeSeriesSegment.openReadOnly(path))).containsExactlyElementsOf(points);
+	}
+
+	@Test
+	void scanReturnsOnlyPointsInRange() throws IOException {
+		Path path = dir.resolve("035720" + TimeSeriesSegment.SUFFIX);
+		List<Point> points = randomPoints(11, 500);
+		TimeSeriesSegment segment = TimeSeriesSegment.openForAppend(path);
+		appendAll(segment, points);
+
+		long from = points.get(100).epochMillis();
+		long to = points.get(199).epochMillis();
+		List<Point> scanned = new ArrayList<>();
+		segment.scan(from, to, (t, v) -> scanned.add(new Point(t, v)));
+
+		assertThat(scanned).containsExactlyElementsOf(points.subList(100, 200));
+	}
+
+	@Test
+	void reopenedSegmentContinuesEncoding() throws IOException {
+		Path path = dir.resolve("005930" + TimeSeriesSegment.SUFFIX);
+		List<Point> points = new ArrayList<>(everyBucket());
+		long timestamp = points.get(points.size() - 1).epochMillis();
+		for (Point point : randomPoints(3, 300)) {
+			points.add(new Point(point.epochMillis() - BASE + timestamp + 1, point.scaledPrice()));
+		}
+		int half = points.size() / 2;
+
+		// 재기동: 같은 파일을 새로 열어 복원한 인코더 상태로 이어 씀
+		appendAll(TimeSeriesSegment.openForAppend(path), points.subList(0, half));
+		TimeSeriesSegment reopened = TimeSeriesSegment.openForAppend(path);
+		assertThat(reopened.count()).isEqualTo(half);
+		appendAll(reopened, points.subList(half, points.size()));
+
+		assertThat(scanAll(TimeSeriesSegment.openReadOnly(path))).containsExactlyElementsOf(points);
+	}
+
+	@Test
+	void sealedSegmentRejectsAppendAndCanBeReopened() throws IOException {
+		Path path = dir.resolve("005930" + TimeSeriesSegment.SUFFIX);
+		List<Point> points = randomPoints(5, 200);
+		int half = points.size() / 2;
+
+		TimeSeriesSegment segment = TimeSeriesSegment.openForAppend(path);
+		appendAll(segment, points.subList(0, half));
+		segment.seal();
+
+		// seal 뒤에는 사용한 크기만 남고, 닫힌 인스턴스는 기록을 받지 않음
+		assertThat(Files.size(path)).isEqualTo(segment.usedBytes());
+		Point late = points.get(half);
+		assertThat(segment.append(late.epochMillis(), late.scaledPrice())).isFalse();
+		assertThat(scanAll(TimeSeriesSegment.openReadOnly(path))).containsExactlyElementsOf(points.subList(0, half));
+
+		// 늦게 온 기록은 다시 열어 이어 씀
+		appendAll(TimeSeriesSegment.openForAppend(path), points.subList(half, points.size()));
+		assertThat(scanAll(TimeSeriesSegment.openReadOnly(path))).containsExactlyElementsOf(points);
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.exchange_simulator_service;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ExchangeSimulatorServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ExchangeSimulatorServiceApplication.class, args);
+    }
+
+}
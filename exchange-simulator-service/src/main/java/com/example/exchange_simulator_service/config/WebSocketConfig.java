@@ -0,0 +1,30 @@
+package com.example.exchange_simulator_service.config;
+
+import com.example.exchange_simulator_service.websocket.KisRealtimeHandler;
+import com.example.exchange_simulator_service.websocket.TwelveDataQuoteHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 실제 거래소와 같은 경로로 WebSocket 핸들러를 등록합니다.
+ *
+ * - KIS:        ws://{host}:{port}/H0STCNT0   (수집기 kis.ws-url-domestic + "/H0STCNT0")
+ * - TwelveData: ws://{host}:{port}/v1/quotes/price?apikey=...
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final KisRealtimeHandler kisRealtimeHandler;
+    private final TwelveDataQuoteHandler twelveDataQuoteHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(kisRealtimeHandler, "/H0STCNT0").setAllowedOrigins("*");
+        registry.addHandler(twelveDataQuoteHandler, "/v1/quotes/price").setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.exchange_simulator_service.controller;
+
+import com.example.exchange_simulator_service.support.FaultInjector;
+import com.example.exchange_simulator_service.support.IssuedCredentials;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * KIS OAuth 엔드포인트 시뮬레이션
+ *
+ * - POST /oauth2/tokenP   : 접근 토큰 발급 (1분당 발급 한도를 넘으면 실제 KIS처럼 403)
+ * - POST /oauth2/Approval : WebSocket 접속키 발급
+ */
+@Slf4j
+@RestController
+@RequestMapping("/oauth2")
+@RequiredArgsConstructor
+public class KisOAuthController {
+
+    private static final DateTimeFormatter EXPIRED_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("Asia/Seoul"));
+
+    private final FaultInjector faultInjector;
+    private final IssuedCredentials credentials;
+
+    // 1분당 접근 토큰 발급 한도 (실제 KIS: 1회)
+    @Value("${simulator.kis.token-limit-per-minute:1}")
+    private int tokenLimitPerMinute;
+
+    @PostMapping("/tokenP")
+    public ResponseEntity<Map<String, Object>> issueToken(@RequestBody Map<String, String> body) {
+        faultInjector.delay();
+        if (!faultInjector.tryAcquire("kis.tokenP", tokenLimitPerMinute, 60_000)) {
+            // 실제 KIS가 보내는 코드/문구 그대로
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "error_code", "EGW00133",
+                    "error_description", "접근토큰 발급 잠시 후 다시 시도하세요(1분당 1회)"));
+        }
+        if (faultInjector.shouldFail("kis.tokenP")) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "error_code", "EGW00002",
+                    "error_description", "서버 에러가 발생하였습니다. (시뮬레이터 오류 주입)"));
+        }
+        IssuedCredentials.Issued token = credentials.issueAccessToken();
+        log.info("[Simulator] 접근 토큰 발급 - appkey={}", body.get("appkey"));
+        return ResponseEntity.ok(Map.of(
+                "access_token", token.value(),
+                "access_token_token_expired", EXPIRED_FORMAT.format(token.expiresAt()),
+                "token_type", "Bearer",
+                "expires_in", token.ttlSeconds()));
+    }
+
+    @PostMapping("/Approval")
+    public ResponseEntity<Map<String, Object>> issueApprovalKey(@RequestBody Map<String, String> body) {
+        faultInjector.delay();
+        if (faultInjector.shouldFail("kis.approval")) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "error_code", "EGW00002",
+                    "error_description", "서버 에러가 발생하였습니다. (시뮬레이터 오류 주입)"));
+        }
+        log.info("[Simulator] WebSocket 접속키 발급 - appkey={}", body.get("appkey"));
+        return ResponseEntity.ok(Map.of("approval_key", credentials.issueApprovalKey()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.exchange_simulator_service.controller;
+
+import com.example.exchange_simulator_service.market.PriceBook;
+import com.example.exchange_simulator_service.support.FaultInjector;
+import com.example.exchange_simulator_service.support.IssuedCredentials;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * KIS 해외시세 REST 엔드포인트 시뮬레이션
+ *
+ * - GET .../quotations/price                    : 해외주식 현재체결가 (HHDFS00000300)
+ * - GET .../quotations/inquire-daily-chartprice  : 해외 지수/환율 기간별 시세 (FHKST03030100)
+ *
+ * 토큰이 없거나 만료되면 rt_cd "1", 초당 호출 한도를 넘으면 실제 KIS처럼 EGW00201 오류를 돌려줍니다.
+ */
+@RestController
+@RequestMapping("/uapi/overseas-price/v1/quotations")
+@RequiredArgsConstructor
+public class KisQuotationController {
+
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final PriceBook priceBook;
+    private final FaultInjector faultInjector;
+    private final IssuedCredentials credentials;
+
+    // 초당 REST 호출 한도 (실전 20회, 모의투자 2회)
+    @Value("${simulator.kis.rest-limit-per-second:20}")
+    private int restLimitPerSecond;
+
+    @GetMapping("/price")
+    public ResponseEntity<Map<String, Object>> price(
+            @RequestHeader(value = "authorization", required = false) String authorization,
+            @RequestParam(value = "EXCD", defaultValue = "NAS") String exchangeCode,
+            @RequestParam("SYMB") String symbol) {
+        ResponseEntity<Map<String, Object>> rejected = guard("kis.price", authorization);
+        if (rejected != null) {
+            return rejected;
+        }
+
+        PriceBook.Quote quote = priceBook.next(exchangeCode + ":" + symbol,
+                ThreadLocalRandom.current().nextLong(1, 500));
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("rsym", "D" + exchangeCode + symbol);
+        output.put("zdiv", "4");
+        output.put("base", PriceBook.scale(quote.base(), 4).toPlainString());
+        output.put("pvol", String.valueOf(quote.volume() / 2));
+        output.put("last", PriceBook.scale(quote.last(), 4).toPlainString());
+        output.put("sign", sign(quote.diff()));
+        output.put("diff", PriceBook.scale(Math.abs(quote.diff()), 4).toPlainString());
+        output.put("rate", PriceBook.scale(quote.changeRate(), 2).toPlainString());
+        output.put("tvol", String.valueOf(quote.volume()));
+        output.put("tamt", PriceBook.scale(quote.volume() * quote.last(), 0).toPlainString());
+        output.put("ordy", "매도불가");
+        return ResponseEntity.ok(success(Map.of("output", output)));
+    }
+
+    @GetMapping("/inquire-daily-chartprice")
+    public ResponseEntity<Map<String, Object>> dailyChartPrice(
+            @RequestHeader(value = "authorization", required = false) String authorization,
+            @RequestParam("FID_INPUT_ISCD") String symbol,
+            @RequestParam("FID_INPUT_DATE_1") String from,
+            @RequestParam("FID_INPUT_DATE_2") String to) {
+        ResponseEntity<Map<String, Object>> rejected = guard("kis.daily-chartprice", authorization);
+        if (rejected != null) {
+            return rejected;
+        }
+
+        LocalDate start = LocalDate.parse(from, BASIC_DATE);
+        LocalDate end = LocalDate.parse(to, BASIC_DATE);
+        // KIS와 같이 최근 날짜부터 내림차순
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (LocalDate date = end; !date.isBefore(start); date = date.minusDays(1)) {
+            String close = priceBook.historicalClose(symbol, date.toEpochDay()).toPlainString();
+            Map<String, String> row = new LinkedHashMap<>();
+            row.put("stck_bsop_date", date.format(BASIC_DATE));
+            row.put("ovrs_nmix_prpr", close);
+            row.put("ovrs_nmix_oprc", close);
+            row.put("ovrs_nmix_hgpr", close);
+            row.put("ovrs_nmix_lwpr", close);
+            row.put("acml_vol", "0");
+            row.put("mod_yn", "N");
+            rows.add(row);
+        }
+
+        PriceBook.Quote quote = priceBook.current(symbol);
+        Map<String, Object> output1 = new LinkedHashMap<>();
+        output1.put("ovrs_nmix_prdy_vrss", PriceBook.scale(quote.diff(), 4).toPlainString());
+        output1.put("prdy_vrss_sign", sign(quote.diff()));
+        output1.put("prdy_ctrt", PriceBook.scale(quote.changeRate(), 2).toPlainString());
+        output1.put("ovrs_nmix_prpr", PriceBook.scale(quote.last(), 4).toPlainString());
+        output1.put("stck_shrn_iscd", symbol);
+        return ResponseEntity.ok(success(Map.of("output1", output1, "output2", rows)));
+    }
+
+    /**
+     * 지연 주입 → 호출 한도 → 토큰 검사 → 오류 주입 순으로 확인하고, 거절해야 하면 응답을 반환합니다.
+     */
+    private ResponseEntity<Map<String, Object>> guard(String endpoint, String authorization) {
+        faultInjector.delay();
+        if (!faultInjector.tryAcquire("kis.rest", restLimitPerSecond, 1_000)) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(failure("EGW00201", "초당 거래건수를 초과하였습니다."));
+        }
+        if (!credentials.isValidAuthorization(authorization)) {
+            faultInjector.count(endpoint + ".unauthorized");
+            return ResponseEntity.ok(failure("EGW00123", "기간이 만료된 token 입니다."));
+        }
+        if (faultInjector.shouldFail(endpoint)) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(failure("EGW00002", "서버 에러가 발생하였습니다. (시뮬레이터 오류 주입)"));
+        }
+        return null;
+    }
+
+    private static Map<String, Object> success(Map<String, Object> outputs) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rt_cd", "0");
+        body.put("msg_cd", "MCA00000");
+        body.put("msg1", "정상처리 되었습니다.");
+        body.putAll(outputs);
+        return body;
+    }
+
+    private static Map<String, Object> failure(String msgCode, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rt_cd", "1");
+        body.put("msg_cd", msgCode);
+        body.put("msg1", message);
+        return body;
+    }
+
+    // KIS 대비부호: 2 상승, 3 보합, 5 하락
+    private static String sign(double diff) {
+        return diff > 0 ? "2" : diff < 0 ? "5" : "3";
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.exchange_simulator_service.controller;
+
+import com.example.exchange_simulator_service.market.PriceBook;
+import com.example.exchange_simulator_service.support.FaultInjector;
+import com.example.exchange_simulator_service.websocket.KisRealtimeHandler;
+import com.example.exchange_simulator_service.websocket.TwelveDataQuoteHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 시뮬레이터 상태 조회용 엔드포인트
+ *
+ * - GET /sim/symbols : 시뮬레이터가 제공하는 국내 종목 코드 (수집기 종목 마스터 시드용)
+ * - GET /sim/stats   : 세션/구독/전송 건수와 엔드포인트별 호출·거절·오류 주입 횟수
+ */
+@RestController
+@RequestMapping("/sim")
+@RequiredArgsConstructor
+public class SimulatorController {
+
+    private final PriceBook priceBook;
+    private final FaultInjector faultInjector;
+    private final KisRealtimeHandler kisRealtimeHandler;
+    private final TwelveDataQuoteHandler twelveDataQuoteHandler;
+
+    @GetMapping("/symbols")
+    public List<String> symbols() {
+        return priceBook.koreanSymbols();
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("kisWebSocket", kisRealtimeHandler.stats());
+        stats.put("twelveDataWebSocket", twelveDataQuoteHandler.stats());
+        stats.put("rest", faultInjector.counters());
+        return stats;
+    }
+}
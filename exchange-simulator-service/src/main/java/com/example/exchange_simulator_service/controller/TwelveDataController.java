@@ -0,0 +1,56 @@
+package com.example.exchange_simulator_service.controller;
+
+import com.example.exchange_simulator_service.market.PriceBook;
+import com.example.exchange_simulator_service.support.FaultInjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * TwelveData REST 엔드포인트 시뮬레이션
+ *
+ * - GET /price?symbol=EUR/USD&apikey=... : {"price":"1.0845"}
+ *
+ * 분당 호출 한도(무료 플랜 8회)를 넘으면 TwelveData와 같은 형식의 429 오류 본문을 돌려줍니다.
+ * (TwelveData는 HTTP 200에 code 429를 담아 보냄)
+ */
+@RestController
+@RequiredArgsConstructor
+public class TwelveDataController {
+
+    private final PriceBook priceBook;
+    private final FaultInjector faultInjector;
+
+    // 분당 호출 한도 (0 이하면 제한 없음)
+    @Value("${simulator.twelvedata.rest-limit-per-minute:0}")
+    private int restLimitPerMinute;
+
+    @GetMapping("/price")
+    public ResponseEntity<Map<String, Object>> price(@RequestParam("symbol") String symbol,
+                                                     @RequestParam(value = "apikey", required = false) String apiKey) {
+        faultInjector.delay();
+        if (apiKey == null || apiKey.isBlank()) {
+            return ResponseEntity.ok(error(401, "**apikey** parameter is incorrect or not specified."));
+        }
+        if (!faultInjector.tryAcquire("twelvedata.rest", restLimitPerMinute, 60_000)) {
+            return ResponseEntity.ok(error(429,
+                    "You have run out of API credits for the current minute. (simulator)"));
+        }
+        if (faultInjector.shouldFail("twelvedata.price")) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(error(500, "Internal server error (simulator fault injection)"));
+        }
+        PriceBook.Quote quote = priceBook.next(symbol, 0);
+        return ResponseEntity.ok(Map.of("price", PriceBook.scale(quote.last(), 5).toPlainString()));
+    }
+
+    private static Map<String, Object> error(int code, String message) {
+        return Map.of("code", code, "message", message, "status", "error");
+    }
+}
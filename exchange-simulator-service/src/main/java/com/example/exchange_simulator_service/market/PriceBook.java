@@ -0,0 +1,102 @@
+package com.example.exchange_simulator_service.market;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * PriceBook
+ *
+ * 종목/통화별 가상 시세를 랜덤 워크로 만들어 내는 저장소입니다.
+ * 처음 조회되는 심볼은 심볼 문자열로 시드를 정해 기준가를 만들고, 이후 호출마다 조금씩 움직입니다.
+ *
+ * - 국내 주식: 호가 단위 없이 원 단위 정수 가격
+ * - 해외 주식/환율: 소수점 4자리
+ */
+@Component
+public class PriceBook {
+
+    // 한 번 움직일 때의 최대 변동률 (기본 0.2%)
+    @Value("${simulator.market.max-step-percent:0.2}")
+    private double maxStepPercent;
+
+    // 미리 만들어 두는 국내 종목 수 (GET /sim/symbols로 조회, 수집기 종목 마스터 시드용)
+    @Value("${simulator.market.korean-symbols:200}")
+    private int koreanSymbolCount;
+
+    private final ConcurrentHashMap<String, Quote> quotes = new ConcurrentHashMap<>();
+
+    /**
+     * 한 종목의 현재 시세 (불변, 움직일 때마다 교체)
+     */
+    public record Quote(String symbol, double base, double last, long volume) {
+
+        public double changeRate() {
+            return (last - base) / base * 100.0;
+        }
+
+        public double diff() {
+            return last - base;
+        }
+    }
+
+    /**
+     * 시뮬레이터가 기본으로 제공하는 국내 종목 코드 목록 (6자리, 000010부터 10 간격)
+     */
+    public List<String> koreanSymbols() {
+        return IntStream.rangeClosed(1, koreanSymbolCount)
+                .mapToObj(i -> String.format("%06d", i * 10))
+                .toList();
+    }
+
+    public Quote current(String symbol) {
+        return quotes.computeIfAbsent(symbol, PriceBook::seed);
+    }
+
+    /**
+     * 시세를 한 번 움직이고 새 시세를 반환합니다.
+     */
+    public Quote next(String symbol, long tradeVolume) {
+        return quotes.compute(symbol, (key, quote) -> {
+            Quote current = quote != null ? quote : seed(key);
+            double step = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * maxStepPercent / 100.0;
+            double last = Math.max(current.last() * (1 + step), 0.0001);
+            return new Quote(key, current.base(), last, current.volume() + tradeVolume);
+        });
+    }
+
+    /**
+     * 과거 날짜의 종가 (같은 심볼/날짜면 항상 같은 값)
+     */
+    public BigDecimal historicalClose(String symbol, long epochDay) {
+        Quote quote = current(symbol);
+        long seed = symbol.hashCode() * 31L + epochDay;
+        double drift = (new Random(seed).nextDouble() * 2 - 1) * 0.05;
+        return BigDecimal.valueOf(quote.base() * (1 + drift)).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal scale(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    private static Quote seed(String symbol) {
+        // 심볼 문자열로 기준가를 정함: 국내 종목(숫자 코드)은 1,000 ~ 300,000원, 통화쌍은 0.5 ~ 1,500, 그 외는 10 ~ 1,000
+        Random random = new Random(symbol.hashCode());
+        double base;
+        if (symbol.chars().allMatch(Character::isDigit)) {
+            base = Math.round(1_000 + random.nextDouble() * 299_000);
+        } else if (symbol.contains("/")) {
+            base = 0.5 + random.nextDouble() * 1_499.5;
+        } else {
+            base = 10 + random.nextDouble() * 990;
+        }
+        return new Quote(symbol, base, base, 0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.exchange_simulator_service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FaultInjector
+ *
+ * REST 응답에 인위적인 지연과 오류를 섞고, 엔드포인트별 호출 한도를 흉내 냅니다.
+ *
+ * - 지연: latency-min-ms ~ latency-max-ms 사이 무작위
+ * - 오류: error-rate 확률로 서버 오류 응답
+ * - 호출 한도: 엔드포인트별로 1초(또는 지정 구간) 안의 호출 수를 세어 한도를 넘으면 거절
+ */
+@Slf4j
+@Component
+public class FaultInjector {
+
+    @Value("${simulator.fault.latency-min-ms:0}")
+    private long latencyMinMillis;
+
+    @Value("${simulator.fault.latency-max-ms:0}")
+    private long latencyMaxMillis;
+
+    // 0.0 ~ 1.0
+    @Value("${simulator.fault.error-rate:0.0}")
+    private double errorRate;
+
+    // 엔드포인트 -> 고정 구간 카운터
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    // 엔드포인트 -> 누적 호출/거절/오류 수
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 설정된 범위 안에서 무작위로 대기합니다.
+     */
+    public void delay() {
+        if (latencyMaxMillis <= 0) {
+            return;
+        }
+        long millis = latencyMinMillis >= latencyMaxMillis
+                ? latencyMaxMillis
+                : ThreadLocalRandom.current().nextLong(latencyMinMillis, latencyMaxMillis + 1);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * error-rate 확률로 true (오류 응답을 보낼 차례)
+     */
+    public boolean shouldFail(String endpoint) {
+        count(endpoint + ".requests");
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            count(endpoint + ".injected-errors");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 엔드포인트 호출이 한도 안이면 true. (limit <= 0이면 제한 없음)
+     *
+     * @param limit        구간당 허용 호출 수
+     * @param windowMillis 구간 길이
+     */
+    public boolean tryAcquire(String endpoint, int limit, long windowMillis) {
+        if (limit <= 0) {
+            return true;
+        }
+        Window window = windows.computeIfAbsent(endpoint, key -> new Window());
+        boolean allowed = window.tryAcquire(limit, windowMillis);
+        if (!allowed) {
+            count(endpoint + ".rate-limited");
+            log.debug("[FaultInjector] 호출 한도 초과 - {}", endpoint);
+        }
+        return allowed;
+    }
+
+    public Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, value) -> snapshot.put(key, value.get()));
+        return snapshot;
+    }
+
+    public void count(String key) {
+        counters.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    // 고정 구간(fixed window) 카운터
+    private static final class Window {
+        private long start;
+        private int count;
+
+        synchronized boolean tryAcquire(int limit, long windowMillis) {
+            long now = System.currentTimeMillis();
+            if (now - start >= windowMillis) {
+                start = now;
+                count = 0;
+            }
+            if (count >= limit) {
+                return false;
+            }
+            count++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.exchange_simulator_service.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IssuedCredentials
+ *
+ * 시뮬레이터가 발급한 KIS 접근 토큰(tokenP)과 WebSocket 접속키(Approval)를 보관하고 유효성을 확인합니다.
+ */
+@Component
+public class IssuedCredentials {
+
+    // 접근 토큰 유효기간 (KIS 기본 24시간)
+    @Value("${simulator.kis.token-ttl-seconds:86400}")
+    private long tokenTtlSeconds;
+
+    // false면 토큰/접속키를 검사하지 않음
+    @Value("${simulator.kis.validate-credentials:true}")
+    private boolean validate;
+
+    private final Map<String, Instant> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, Instant> approvalKeys = new ConcurrentHashMap<>();
+
+    public record Issued(String value, Instant expiresAt, long ttlSeconds) {
+    }
+
+    public Issued issueAccessToken() {
+        String token = "sim-" + UUID.randomUUID().toString().replace("-", "");
+        Instant expiresAt = Instant.now().plusSeconds(tokenTtlSeconds);
+        accessTokens.put(token, expiresAt);
+        return new Issued(token, expiresAt, tokenTtlSeconds);
+    }
+
+    public String issueApprovalKey() {
+        String key = UUID.randomUUID().toString();
+        approvalKeys.put(key, Instant.now().plusSeconds(86400));
+        return key;
+    }
+
+    /**
+     * "Bearer xxx" 형식의 authorization 헤더가 유효한 토큰인지 확인합니다.
+     */
+    public boolean isValidAuthorization(String authorization) {
+        if (!validate) {
+            return true;
+        }
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        Instant expiresAt = accessTokens.get(authorization.substring("Bearer ".length()).trim());
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    public boolean isValidApprovalKey(String approvalKey) {
+        if (!validate) {
+            return true;
+        }
+        Instant expiresAt = approvalKey != null ? approvalKeys.get(approvalKey) : null;
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+}
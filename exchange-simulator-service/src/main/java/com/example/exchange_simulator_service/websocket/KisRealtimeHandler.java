@@ -0,0 +1,300 @@
+package com.example.exchange_simulator_service.websocket;
+
+import com.example.exchange_simulator_service.market.PriceBook;
+import com.example.exchange_simulator_service.support.IssuedCredentials;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * KisRealtimeHandler
+ *
+ * KIS 국내주식 실시간 체결가(H0STCNT0) WebSocket을 흉내 냅니다.
+ *
+ * - 구독(tr_type 1)/해지(tr_type 2) 요청에 SUBSCRIBE SUCCESS / UNSUBSCRIBE SUCCESS로 응답
+ * - 세션당 구독 한도(기본 41)를 넘으면 MAX SUBSCRIBE OVER
+ * - 주기적으로 PINGPONG 전송
+ * - tick-interval-ms마다 구독 종목별로 ticks-per-second에 맞춰 체결 레코드를 만들어
+ *   "0|H0STCNT0|건수|레코드^레코드..." 형식(레코드당 46필드)으로 전송
+ * - disconnect-interval-seconds마다 임의의 세션 하나를 끊어 재연결 경로를 시험
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KisRealtimeHandler extends TextWebSocketHandler {
+
+    private static final String TR_ID = "H0STCNT0";
+    private static final int FIELDS_PER_RECORD = 46;
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter TRADE_TIME = DateTimeFormatter.ofPattern("HHmmss");
+    private static final DateTimeFormatter PING_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final PriceBook priceBook;
+    private final IssuedCredentials credentials;
+    private final ObjectMapper objectMapper;
+
+    // 세션당 최대 구독 수 (실제 KIS: 41)
+    @Value("${simulator.kis.ws.max-subscriptions-per-session:41}")
+    private int maxSubscriptionsPerSession;
+
+    // 종목당 초당 체결 수 (평균)
+    @Value("${simulator.kis.ws.ticks-per-second:2.0}")
+    private double ticksPerSecond;
+
+    // 체결 생성 주기
+    @Value("${simulator.kis.ws.tick-interval-ms:100}")
+    private long tickIntervalMillis;
+
+    // 한 프레임에 묶을 최대 레코드 수 (1이면 체결 1건당 프레임 1개)
+    @Value("${simulator.kis.ws.records-per-frame:1}")
+    private int recordsPerFrame;
+
+    @Value("${simulator.kis.ws.pingpong-interval-seconds:10}")
+    private long pingPongIntervalSeconds;
+
+    // 0이면 끊지 않음
+    @Value("${simulator.kis.ws.disconnect-interval-seconds:0}")
+    private long disconnectIntervalSeconds;
+
+    // 느린 수신자 보호: 전송 대기 한도를 넘으면 세션을 닫음
+    @Value("${simulator.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${simulator.ws.buffer-size-limit:1048576}")
+    private int bufferSizeLimit;
+
+    private final Map<String, SimSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong ticksSent = new AtomicLong();
+    private final AtomicLong rejectedSubscriptions = new AtomicLong();
+    private final AtomicLong injectedDisconnects = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    // 세션별 구독 종목과 (종목별) 소수점 이하 체결 수 이월분
+    private static final class SimSession {
+        final WebSocketSession socket;
+        final Set<String> codes = ConcurrentHashMap.newKeySet();
+        final Map<String, double[]> carry = new ConcurrentHashMap<>();
+
+        SimSession(WebSocketSession socket) {
+            this.socket = socket;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "kis-tick-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::emitTicks, tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::sendPingPong, pingPongIntervalSeconds, pingPongIntervalSeconds, TimeUnit.SECONDS);
+        if (disconnectIntervalSeconds > 0) {
+            scheduler.scheduleAtFixedRate(this::injectDisconnect,
+                    disconnectIntervalSeconds, disconnectIntervalSeconds, TimeUnit.SECONDS);
+        }
+        log.info("[KIS-Sim] 체결 생성 시작 - 종목당 초당 {}건, 주기 {}ms, 세션당 구독 한도 {}",
+                ticksPerSecond, tickIntervalMillis, maxSubscriptionsPerSession);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimit);
+        sessions.put(session.getId(), new SimSession(decorated));
+        log.info("[KIS-Sim] 세션 연결 - id={}, 현재 세션 수={}", session.getId(), sessions.size());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        log.info("[KIS-Sim] 세션 종료 - id={}, status={}, 현재 세션 수={}", session.getId(), status, sessions.size());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        SimSession sim = sessions.get(session.getId());
+        if (sim == null) {
+            return;
+        }
+        JsonNode root = objectMapper.readTree(message.getPayload());
+        JsonNode header = root.path("header");
+        if ("PONG".equals(header.path("tr_id").asText())) {
+            return;
+        }
+
+        String code = root.path("body").path("input").path("tr_key").asText("");
+        String trType = header.path("tr_type").asText("1");
+        if (!credentials.isValidApprovalKey(header.path("approval_key").asText(null))) {
+            send(sim, control(code, "1", "OPSP0011", "invalid approval : NOT FOUND"));
+            return;
+        }
+
+        if ("2".equals(trType)) {
+            sim.codes.remove(code);
+            sim.carry.remove(code);
+            send(sim, control(code, "0", "OPSP0001", "UNSUBSCRIBE SUCCESS"));
+            return;
+        }
+        if (sim.codes.contains(code)) {
+            send(sim, control(code, "1", "OPSP0002", "ALREADY IN SUBSCRIBE"));
+            return;
+        }
+        if (sim.codes.size() >= maxSubscriptionsPerSession) {
+            rejectedSubscriptions.incrementAndGet();
+            send(sim, control(code, "1", "OPSP0008", "MAX SUBSCRIBE OVER"));
+            return;
+        }
+        sim.codes.add(code);
+        send(sim, control(code, "0", "OPSP0000", "SUBSCRIBE SUCCESS"));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("subscriptions", sessions.values().stream().mapToInt(s -> s.codes.size()).sum());
+        stats.put("framesSent", framesSent.get());
+        stats.put("ticksSent", ticksSent.get());
+        stats.put("rejectedSubscriptions", rejectedSubscriptions.get());
+        stats.put("injectedDisconnects", injectedDisconnects.get());
+        return stats;
+    }
+
+    private void emitTicks() {
+        try {
+            double expected = ticksPerSecond * tickIntervalMillis / 1000.0;
+            String tradeTime = LocalTime.now(SEOUL).format(TRADE_TIME);
+            for (SimSession sim : sessions.values()) {
+                List<String> records = new ArrayList<>();
+                for (String code : sim.codes) {
+                    double[] carry = sim.carry.computeIfAbsent(code, key -> new double[1]);
+                    // 기대 체결 수에 무작위성을 더하고 소수점 이하는 다음 주기로 이월
+                    carry[0] += expected * (0.5 + ThreadLocalRandom.current().nextDouble());
+                    int ticks = (int) carry[0];
+                    carry[0] -= ticks;
+                    for (int i = 0; i < ticks; i++) {
+                        records.add(record(code, tradeTime));
+                    }
+                }
+                sendRecords(sim, records);
+            }
+        } catch (RuntimeException e) {
+            // 스케줄러 작업은 예외로 끝나면 다시 실행되지 않으므로 여기서 삼킴
+            log.error("[KIS-Sim] 체결 생성 오류: {}", e.getMessage(), e);
+        }
+    }
+
+    private void sendRecords(SimSession sim, List<String> records) {
+        int batch = Math.max(1, recordsPerFrame);
+        for (int from = 0; from < records.size(); from += batch) {
+            List<String> chunk = records.subList(from, Math.min(records.size(), from + batch));
+            String frame = "0|" + TR_ID + "|" + String.format("%03d", chunk.size()) + "|" + String.join("^", chunk);
+            if (!send(sim, frame)) {
+                return;
+            }
+            framesSent.incrementAndGet();
+            ticksSent.addAndGet(chunk.size());
+        }
+    }
+
+    private String record(String code, String tradeTime) {
+        long volume = ThreadLocalRandom.current().nextLong(1, 1_000);
+        PriceBook.Quote quote = priceBook.next(code, volume);
+        long price = Math.round(quote.last());
+        long diff = price - Math.round(quote.base());
+
+        String[] fields = new String[FIELDS_PER_RECORD];
+        Arrays.fill(fields, "0");
+        fields[0] = code;                                               // MKSC_SHRN_ISCD
+        fields[1] = tradeTime;                                          // STCK_CNTG_HOUR
+        fields[2] = String.valueOf(price);                              // STCK_PRPR
+        fields[3] = diff > 0 ? "2" : diff < 0 ? "5" : "3";              // PRDY_VRSS_SIGN
+        fields[4] = String.valueOf(diff);                               // PRDY_VRSS
+        fields[5] = PriceBook.scale(quote.changeRate(), 2).toPlainString(); // PRDY_CTRT
+        fields[7] = String.valueOf(Math.round(quote.base()));           // STCK_OPRC
+        fields[12] = String.valueOf(volume);                            // CNTG_VOL
+        fields[13] = String.valueOf(quote.volume());                    // ACML_VOL
+        return String.join("^", fields);
+    }
+
+    private void sendPingPong() {
+        String ping = "{\"header\":{\"tr_id\":\"PINGPONG\",\"datetime\":\""
+                + LocalDateTime.now(SEOUL).format(PING_TIME) + "\"}}";
+        sessions.values().forEach(sim -> send(sim, ping));
+    }
+
+    private void injectDisconnect() {
+        List<SimSession> open = new ArrayList<>(sessions.values());
+        if (open.isEmpty()) {
+            return;
+        }
+        SimSession victim = open.get(ThreadLocalRandom.current().nextInt(open.size()));
+        injectedDisconnects.incrementAndGet();
+        log.info("[KIS-Sim] 연결 끊김 주입 - id={}", victim.socket.getId());
+        try {
+            victim.socket.close(CloseStatus.SERVICE_RESTARTED);
+        } catch (IOException e) {
+            log.debug("[KIS-Sim] 세션 종료 중 오류: {}", e.getMessage());
+        }
+    }
+
+    private String control(String code, String rtCode, String msgCode, String message) {
+        Map<String, Object> header = Map.of("tr_id", TR_ID, "tr_key", code, "encrypt", "N");
+        Map<String, Object> body = Map.of("rt_cd", rtCode, "msg_cd", msgCode, "msg1", message);
+        try {
+            return objectMapper.writeValueAsString(Map.of("header", header, "body", body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean send(SimSession sim, String text) {
+        if (!sim.socket.isOpen()) {
+            return false;
+        }
+        try {
+            sim.socket.sendMessage(new TextMessage(text));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // 버퍼 초과(SessionLimitExceededException) 시 데코레이터가 세션을 닫음
+            log.warn("[KIS-Sim] 전송 실패 - id={}, {}", sim.socket.getId(), e.getMessage());
+            return false;
+        }
+    }
+}
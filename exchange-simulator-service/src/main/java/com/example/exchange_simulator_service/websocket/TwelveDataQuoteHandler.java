@@ -0,0 +1,178 @@
+package com.example.exchange_simulator_service.websocket;
+
+import com.example.exchange_simulator_service.market.PriceBook;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TwelveDataQuoteHandler
+ *
+ * TwelveData 실시간 시세 WebSocket(/v1/quotes/price)을 흉내 냅니다.
+ *
+ * - subscribe / unsubscribe 요청에 subscribe-status로 응답
+ * - heartbeat 요청에 heartbeat 응답
+ * - tick-interval-ms마다 구독 심볼별 price 이벤트 전송
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TwelveDataQuoteHandler extends TextWebSocketHandler {
+
+    private final PriceBook priceBook;
+    private final ObjectMapper objectMapper;
+
+    // 심볼별 price 이벤트 간격
+    @Value("${simulator.twelvedata.ws.tick-interval-ms:1000}")
+    private long tickIntervalMillis;
+
+    @Value("${simulator.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${simulator.ws.buffer-size-limit:1048576}")
+    private int bufferSizeLimit;
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> symbolsBySession = new ConcurrentHashMap<>();
+    private final AtomicLong eventsSent = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "twelvedata-price-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::emitPrices, tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String query = session.getUri() != null ? session.getUri().getQuery() : null;
+        if (query == null || !query.contains("apikey=")) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("apikey is required"));
+            return;
+        }
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimit));
+        symbolsBySession.put(session.getId(), ConcurrentHashMap.newKeySet());
+        log.info("[TwelveData-Sim] 세션 연결 - id={}", session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        symbolsBySession.remove(session.getId());
+        log.info("[TwelveData-Sim] 세션 종료 - id={}, status={}", session.getId(), status);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        WebSocketSession socket = sessions.get(session.getId());
+        Set<String> symbols = symbolsBySession.get(session.getId());
+        if (socket == null || symbols == null) {
+            return;
+        }
+        JsonNode root = objectMapper.readTree(message.getPayload());
+        String action = root.path("action").asText("");
+        switch (action) {
+            case "subscribe", "unsubscribe" -> {
+                List<Map<String, Object>> success = new ArrayList<>();
+                for (String symbol : root.path("params").path("symbols").asText("").split(",")) {
+                    String trimmed = symbol.trim();
+                    if (trimmed.isEmpty()) {
+                        continue;
+                    }
+                    if ("subscribe".equals(action)) {
+                        symbols.add(trimmed);
+                    } else {
+                        symbols.remove(trimmed);
+                    }
+                    success.add(Map.of("symbol", trimmed, "exchange", "PHYSICAL CURRENCY", "type", "Physical Currency"));
+                }
+                send(socket, Map.of("event", action.equals("subscribe") ? "subscribe-status" : "unsubscribe-status",
+                        "status", "ok", "success", success, "fails", List.of()));
+            }
+            case "heartbeat" -> send(socket, Map.of("event", "heartbeat", "status", "ok"));
+            case "reset" -> {
+                symbols.clear();
+                send(socket, Map.of("event", "reset-status", "status", "ok"));
+            }
+            default -> log.debug("[TwelveData-Sim] 알 수 없는 action: {}", action);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("subscriptions", symbolsBySession.values().stream().mapToInt(Set::size).sum());
+        stats.put("eventsSent", eventsSent.get());
+        return stats;
+    }
+
+    private void emitPrices() {
+        try {
+            long timestamp = System.currentTimeMillis() / 1000;
+            sessions.forEach((id, socket) -> {
+                for (String symbol : symbolsBySession.getOrDefault(id, Set.of())) {
+                    PriceBook.Quote quote = priceBook.next(symbol, 0);
+                    Map<String, Object> event = new LinkedHashMap<>();
+                    event.put("event", "price");
+                    event.put("symbol", symbol);
+                    event.put("exchange", "PHYSICAL CURRENCY");
+                    event.put("type", "Physical Currency");
+                    event.put("timestamp", timestamp);
+                    event.put("price", PriceBook.scale(quote.last(), 5));
+                    if (send(socket, event)) {
+                        eventsSent.incrementAndGet();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("[TwelveData-Sim] 시세 생성 오류: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean send(WebSocketSession socket, Map<String, Object> payload) {
+        if (!socket.isOpen()) {
+            return false;
+        }
+        try {
+            socket.sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("[TwelveData-Sim] 전송 실패 - id={}, {}", socket.getId(), e.getMessage());
+            return false;
+        }
+    }
+}
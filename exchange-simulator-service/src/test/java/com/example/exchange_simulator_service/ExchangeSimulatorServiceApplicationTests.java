@@ -0,0 +1,13 @@
+package com.example.exchange_simulator_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ExchangeSimulatorServiceApplicationTests {
+
+    @Test
+    void contextLoads() {
+    }
+
+}